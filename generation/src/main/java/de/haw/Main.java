@@ -42,10 +42,11 @@ public class Main {
         final PipeContext ctx = PipeContext.empty();
         ctx.set( PipeContext.CPG_MIN_DEPTH_KEY, 7 );
         ctx.set( PipeContext.ARGS_KEY, args );
+        ctx.set( PipeContext.HEAP_RETENTION_REPORT, args.isTrue( "heap-report" ) );
         ConvertAndExportCpgDatasets.of( clearRepo ).process( translationRequests, ctx );
     }
 
-    private static List<TranslationRequest> getPatternRequests() {
+    public static List<TranslationRequest> getPatternRequests() {
         final List<DatasetType> datasetTypes = Arrays.asList( DatasetType.CPP_PATTERNS, DatasetType.JAVA_PATTERNS );
         final List<String> patterns = Arrays.asList(
                 "abstract-factory", "factory-method", "adapter", "observer", "builder", "decorator" );
@@ -59,7 +60,7 @@ public class Main {
         return requests;
     }
 
-    private static List<TranslationRequest> getPmartRequests() {
+    public static List<TranslationRequest> getPmartRequests() {
         // @formatter:off
         return Arrays.asList(
                 TranslationRequest.of( DatasetFactory.J_HOT_DRAW, 10 ),
@@ -79,8 +80,8 @@ public class Main {
                         .map( d -> TranslationRequest.of( d, 9 ) )
                         .toList() );
 
-        final String datasetSizeFile = "datasets/java/dpdf/size_summary.csv";
-        final Map<String, Long> datasetSizes = DirectorySizeSummary.getDirectorySizes( datasetSizeFile );
+        final Map<String, Long> datasetSizes = DirectorySizeSummary.getDirectorySizes(
+                DirectorySizeSummary.DPDF_SIZE_SUMMARY );
         translationRequests.sort( Comparator.comparing(
                 dto -> datasetSizes.getOrDefault( dto.getDataset().getProjectName(), Long.MAX_VALUE ) ) );
         return translationRequests;
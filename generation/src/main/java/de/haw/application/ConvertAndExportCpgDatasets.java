@@ -8,16 +8,31 @@ import de.haw.misc.Args;
 import de.haw.misc.pipe.PipeBenchmark;
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
+import de.haw.misc.Timer;
 import de.haw.misc.utils.CsvUtils;
+import de.haw.misc.utils.FileUtils;
+import de.haw.misc.utils.FormatUtils;
+import de.haw.misc.utils.HeapSampler;
+import de.haw.misc.utils.MemoryUtils;
 import de.haw.repository.GraphRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor( staticName = "of" )
@@ -27,6 +42,32 @@ public class ConvertAndExportCpgDatasets<Target> extends PipeModule<List<Transla
 
     private final static String CSV_FILE_NAME = "benchmark.csv";
 
+    private final static String WORKERS_ARG = "workers";
+
+    private final static String DEFAULT_WORKERS = "1";
+
+    private final static String HEAP_BUDGET_ARG = "heap-budget";
+
+    private final static double DEFAULT_HEAP_BUDGET_RATIO = 0.9;
+
+    /**
+     * Benchmark row with the peak heap sampled while converting a dataset
+     */
+    final static String HEAP_PEAK_PROCESS = "HeapPeak";
+
+    /**
+     * Whether the dataset was converted alone, only then the peak heap belongs to the dataset
+     */
+    final static String HEAP_PEAK_ALONE_DETAIL = "alone";
+
+    private final static long HEAP_SAMPLE_INTERVAL_MS = 100;
+
+    private final Object csvLock = new Object();
+
+    private final AtomicInteger runningDatasets = new AtomicInteger();
+
+    private final AtomicInteger startedDatasets = new AtomicInteger();
+
     @Override
     protected Void processImpl( final List<TranslationRequest> translationRequests, final PipeContext ctx ) {
 
@@ -40,43 +81,154 @@ public class ConvertAndExportCpgDatasets<Target> extends PipeModule<List<Transla
         }
 
         ctx.set( PipeContext.CPG_REPOSITORY_PURGE_KEY, false );
-        log.info( "Converting {} CPG datasets ...", requests.size() );
-        for ( final TranslationRequest translationRequest : requests ) {
-            final Dataset dataset = translationRequest.getDataset();
-            log.info( "Start processing dataset: {}", dataset.getProjectName() );
-            ctx.set( PipeContext.CPG_DEPTH_KEY, translationRequest.getDepth() );
+
+        final int workers = Math.max( 1, Integer.parseInt( args.getOrElse( WORKERS_ARG, DEFAULT_WORKERS ) ) );
+        final long heapBudgetMb = Long.parseLong(
+                args.getOrElse( HEAP_BUDGET_ARG, String.valueOf( getDefaultHeapBudgetMb() ) ) );
+        log.info( "Converting {} CPG datasets with {} worker(s) and a heap budget of {} MB ...", requests.size(),
+                workers, heapBudgetMb );
+
+        final DatasetHeapEstimator estimator = DatasetHeapEstimator.of( requests );
+        ctx.set( PipeContext.CPG_DEPTH_CALIBRATION, estimator.getDepthCalibration() );
+        final HeapAwareScheduler scheduler = HeapAwareScheduler.of( requests, estimator::estimateMb, heapBudgetMb );
+
+        final List<PipeBenchmark> benchmarks = Collections.synchronizedList( new ArrayList<>() );
+        final ExecutorService executor = Executors.newFixedThreadPool( workers );
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < workers; i++ ) {
+                futures.add( executor.submit( () -> this.runWorker( scheduler, ctx, benchmarks ) ) );
+            }
+            for ( final Future<?> future : futures ) {
+                this.await( future );
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return null;
+    }
+
+    private void runWorker(
+            final HeapAwareScheduler scheduler, final PipeContext ctx, final List<PipeBenchmark> benchmarks ) {
+        try {
+            Optional<TranslationRequest> translationRequest = scheduler.next();
+            while ( translationRequest.isPresent() ) {
+                try {
+                    this.processRequest( translationRequest.get(), ctx.copy(), benchmarks );
+                } finally {
+                    scheduler.release( translationRequest.get() );
+                }
+                translationRequest = scheduler.next();
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            log.error( "Worker interrupted while waiting for heap budget ..." );
+        }
+    }
+
+    private void processRequest(
+            final TranslationRequest translationRequest, final PipeContext ctx, final List<PipeBenchmark> benchmarks ) {
+        final Dataset dataset = translationRequest.getDataset();
+        log.info( "Start processing dataset: {}", dataset.getProjectName() );
+        ctx.set( PipeContext.CPG_DEPTH_KEY, translationRequest.getDepth() );
+        ctx.set( PipeContext.PIPE_BENCHMARKS, new ArrayList<PipeBenchmark>() );
+
+        final Timer timer = new Timer();
+        final boolean aloneAtStart = this.runningDatasets.incrementAndGet() == 1;
+        final int startedBefore = this.startedDatasets.incrementAndGet();
+        try ( HeapSampler sampler = HeapSampler.start( HEAP_SAMPLE_INTERVAL_MS ) ) {
             try {
                 ConvertAndExportCpgModule.instance().process( dataset, ctx );
             } catch ( Exception e ) {
                 log.error( "Couldn't convert dataset {} ...", e.getMessage(), e );
             }
-            writeBenchmarks( ctx );
+            // the peak only belongs to the dataset, if no other dataset was converted meanwhile
+            final boolean alone = aloneAtStart && this.startedDatasets.get() == startedBefore;
+            this.addHeapPeak( dataset, sampler.getPeakMb(), alone, timer.getTimeSinceSec(), ctx );
+        } finally {
+            this.runningDatasets.decrementAndGet();
         }
-
-        return null;
+        this.writeBenchmarks( dataset, ctx, benchmarks );
     }
 
     @SuppressWarnings( "unchecked" )
-    private void writeBenchmarks( final PipeContext ctx ) {
+    private void addHeapPeak(
+            final Dataset dataset, final long peakMb, final boolean alone, final double timeSec,
+            final PipeContext ctx ) {
         final List<PipeBenchmark> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
-        final Optional<Dataset> dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class );
-        if ( benchmarks.isEmpty() || dataset.isEmpty() ) {
-            return;
+        benchmarks.add( PipeBenchmark.builder()
+                .name( dataset.getName() )
+                .processName( HEAP_PEAK_PROCESS )
+                .processCount( ctx.get( PipeContext.PROCESS_COUNT, 0, Integer.class ) )
+                .processTimeSec( FormatUtils.format( timeSec, 4 ) )
+                .totalTimeSec( FormatUtils.format( ctx.get( PipeContext.TOTAL_PROCESSING_TIME, 0d, Double.class ), 4 ) )
+                .heapUsedMb( peakMb )
+                .heapRetainedMb( -1 )
+                .details( HEAP_PEAK_ALONE_DETAIL + "=" + alone )
+                .build() );
+        ctx.set( PipeContext.PIPE_BENCHMARKS, benchmarks );
+    }
+
+    private void await( final Future<?> future ) {
+        try {
+            future.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            log.error( "Interrupted while waiting for dataset conversion ..." );
+        } catch ( ExecutionException e ) {
+            log.error( "Dataset conversion failed: {}", e.getCause().getMessage(), e.getCause() );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void writeBenchmarks( final Dataset dataset, final PipeContext ctx, final List<PipeBenchmark> benchmarks ) {
+        final List<PipeBenchmark> datasetBenchmarks = ctx.get(
+                PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
+        synchronized ( this.csvLock ) {
+            benchmarks.addAll( datasetBenchmarks );
+            if ( benchmarks.isEmpty() ) {
+                return;
+            }
+            final String filePath = getCsvPath( dataset.getType() );
+            saveToCsv( new ArrayList<>( benchmarks ), filePath );
         }
-        final String filePath = getCsvPath( dataset.get().getType() );
-        saveToCsv( benchmarks, filePath );
     }
 
+    /**
+     * The rows of the converted datasets replace their rows of previous runs, the rows of other datasets are kept, so
+     * the history of datasets outside the run isn't lost.
+     */
     private static void saveToCsv( final List<PipeBenchmark> csvStats, final String csvPath ) {
-        final byte[] csv = CsvUtils.write( csvStats, PipeBenchmark.class );
+        final List<String[]> rows = CsvUtils.readRows( CsvUtils.write( csvStats, PipeBenchmark.class ) );
+        final Set<String> names = csvStats.stream().map( PipeBenchmark::getName ).collect( Collectors.toSet() );
+        final List<String[]> merged = new ArrayList<>();
+        merged.add( rows.get( 0 ) );
+        try {
+            final File csvFile = FileUtils.get( csvPath );
+            final List<String[]> history = csvFile.exists() ? CsvUtils.readRows(
+                    org.apache.commons.io.FileUtils.readFileToByteArray( csvFile ) ) : List.of();
+            // rows of another format are dropped
+            if ( !history.isEmpty() && Arrays.equals( history.get( 0 ), rows.get( 0 ) ) ) {
+                history.stream().skip( 1 ).filter( row -> !names.contains( row[0] ) ).forEach( merged::add );
+            }
+        } catch ( IOException | RuntimeException e ) {
+            log.warn( "Couldn't read benchmark history {}: {}", csvPath, e.getMessage() );
+        }
+        merged.addAll( rows.subList( 1, rows.size() ) );
+
         try ( FileOutputStream fileOutputStream = new FileOutputStream( csvPath ) ) {
-            fileOutputStream.write( csv );
+            fileOutputStream.write( CsvUtils.writeRows( merged ) );
         } catch ( IOException e ) {
             log.info( "Failed to write csv: {}", e.getMessage() );
         }
     }
 
-    private static String getCsvPath( final DatasetType datasetType ) {
+    private static long getDefaultHeapBudgetMb() {
+        return ( long ) ( MemoryUtils.getMaxHeapMb() * DEFAULT_HEAP_BUDGET_RATIO );
+    }
+
+    static String getCsvPath( final DatasetType datasetType ) {
         return switch ( datasetType ) {
             case P_MART -> DesignPatternLoader.BASE_PATH_P_MART + CSV_FILE_NAME;
             case DPDf -> DesignPatternLoader.BASE_PATH_DPDf_EXAMPLE + CSV_FILE_NAME;
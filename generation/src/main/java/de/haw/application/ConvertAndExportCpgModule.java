@@ -3,14 +3,17 @@ package de.haw.application;
 import de.haw.dataset.model.Dataset;
 import de.haw.dataset.module.AttachPatternsToContext;
 import de.haw.dataset.module.LoadDatasetFileModule;
+import de.haw.misc.Args;
 import de.haw.misc.pipe.PipeBuilder;
 import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeExecutor;
 import de.haw.misc.pipe.PipeModule;
 import de.haw.processing.module.*;
 import de.haw.repository.model.CpgEdgeType;
 import de.haw.repository.module.PersistCpgModule;
-import de.haw.translation.module.GenerateCpgModule;
-import de.haw.translation.module.TranslationToGraphModule;
+import de.haw.translation.AttributeProjection;
+import de.haw.translation.CpgPassProfile;
+import de.haw.translation.module.CachedTranslationModule;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.graphstream.graph.Graph;
@@ -26,35 +29,59 @@ public class ConvertAndExportCpgModule<Target> extends PipeModule<Dataset, Graph
         ctx.set( PipeContext.CPG_DATASET_KEY, dataset );
         ctx.set( PipeContext.PROCESS_COUNT, 0 );
         ctx.set( PipeContext.TOTAL_PROCESSING_TIME, 0d );
+        ctx.set( PipeContext.CACHE_HITS, 0 );
+        ctx.set( PipeContext.CACHE_MISSES, 0 );
 
-        final PipeModule<Dataset, ?, Graph> pipe = PipeBuilder.<Dataset, Graph>builder()
+        final Args args = ctx.get( PipeContext.ARGS_KEY, Args.empty(), Args.class );
+        ctx.set( PipeContext.CPG_PASS_PROFILE, CpgPassProfile.of( args ) );
+        ctx.set( PipeContext.CPG_ATTRIBUTE_PROJECTION, AttributeProjection.of( args ) );
+        ctx.set( PipeContext.RECORD_PATHS_WORKERS,
+                Integer.parseInt( args.getOrElse( ComputeRecordPathsModule.WORKERS_ARG, "1" ) ) );
+        ctx.set( PipeContext.RECORD_SCOPE_WORKERS,
+                Integer.parseInt( args.getOrElse( PropagateRecordScopeModule.WORKERS_ARG, "1" ) ) );
+
+        final PipeBuilder<Dataset, Graph> builder = PipeBuilder.<Dataset, Graph>builder()
 
                 // load data
                 .add( AttachPatternsToContext.instance() )
                 .add( LoadDatasetFileModule.instance() )
 
                 // generate cpg
-                .add( GenerateCpgModule.instance() )
-                .add( TranslationToGraphModule.instance() )
+                .add( CachedTranslationModule.instance() );
 
-                // prepare cpg
-                .add( RemoveBlacklistElementsModule.instance() )
-                .add( FilterInternalScopeModule.instance() )
-                .add( PropagateRecordScopeModule.instance() )
+        // prepare and simplify cpg
+        addInteractionModules( builder );
+        if ( CpgPassProfile.isValidationEnabled( args ) ) {
+            builder.add( ValidatePassProfileModule.instance() );
+        }
 
-                // simplify cpg
-                .add( ComputeRecordPathsModule.instance() )
-                .add( ComputeRecordInteractionsModule.instance() )
-                .add( CpgFilterEdgesModule.byTypes( CpgEdgeType.OWN, false ) )
+        final PipeExecutor<Dataset, Graph> pipe = builder
 
                 // patterns
                 .add( MarkPatternsModule.instance() )
 
                 // persist
                 .add( PersistCpgModule.instance() )
-                .build();
+                .buildExecutor();
+
+        return pipe.execute( dataset, ctx );
+    }
 
-        return pipe.process( dataset, ctx );
+    /**
+     * Adds the modules reducing a translated graph to records and their interactions.
+     */
+    public static <Input> PipeBuilder<Input, Graph> addInteractionModules( final PipeBuilder<Input, Graph> builder ) {
+        return builder
+
+                // prepare cpg
+                .add( RemoveBlacklistElementsModule.instance() )
+                .add( FilterInternalScopeModule.instance() )
+                .add( PropagateRecordScopeModule.instance() )
+
+                // simplify cpg
+                .add( ComputeRecordPathsModule.instance() )
+                .add( ComputeRecordInteractionsModule.instance() )
+                .add( CpgFilterEdgesModule.byTypes( CpgEdgeType.OWN, false ) );
     }
 
 }
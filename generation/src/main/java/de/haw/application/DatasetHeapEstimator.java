@@ -0,0 +1,212 @@
+package de.haw.application;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.DatasetLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.dataset.model.DatasetType;
+import de.haw.dataset.scripts.DirectorySizeSummary;
+import de.haw.misc.utils.CsvUtils;
+import de.haw.misc.utils.FileUtils;
+import de.haw.misc.utils.HeapSampler;
+import de.haw.translation.DepthEstimator;
+import de.haw.translation.module.TranslationToGraphModule;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Estimates the peak heap usage of a dataset conversion. Known datasets are estimated by the median peak heap of
+ * previous runs (benchmark csv), unknown datasets by their source size scaled with the median heap per source MB of the
+ * known ones. The median isn't thrown off by single runs, so datasets aren't held back by their worst run.
+ * <p>
+ * The peak of a dataset is sampled after collections while it's converted (see {@link HeapSampler}), it only belongs
+ * to the dataset if no other dataset was converted meanwhile (e.g. with one worker). Otherwise, the highest heap after
+ * a stage of the dataset is taken. The heap is shared by all workers, so this is only an upper bound and isn't used to
+ * fit the heap per source MB.
+ */
+@Slf4j
+public class DatasetHeapEstimator {
+
+    @Data
+    public static class BenchmarkCsv {
+
+        @CsvBindByPosition( position = 0 )
+        @CsvBindByName( column = "name" )
+        private String name;
+
+        @CsvBindByPosition( position = 1 )
+        @CsvBindByName( column = "process_name" )
+        private String processName;
+
+        @CsvBindByPosition( position = 5 )
+        @CsvBindByName( column = "heap_used_mb" )
+        private long heapUsedMb;
+
+        @CsvBindByPosition( position = 9 )
+        @CsvBindByName( column = "details" )
+        private String details;
+
+    }
+
+    private static final long MB = 1024 * 1024;
+
+    private static final long MIN_ESTIMATE_MB = 256;
+
+    private static final double DEFAULT_HEAP_PER_SOURCE_MB = 64d;
+
+    private static final String CONVERSION_PROCESS = TranslationToGraphModule.class.getSimpleName();
+
+    /**
+     * Peak heaps sampled while a dataset was converted alone, one per run
+     */
+    private final Map<String, List<Long>> peakHeapByDataset = new HashMap<>();
+
+    /**
+     * Highest heaps after a stage of a dataset, including the heap of datasets converted meanwhile, one per run
+     */
+    private final Map<String, List<Long>> upperBoundHeapByDataset = new HashMap<>();
+
+    private final Map<String, Long> sourceBytesByDataset = new HashMap<>();
+
+    /**
+     * Details of previous graph conversions, to fit the depth estimate from
+     */
+    private final List<String> conversionDetails = new ArrayList<>();
+
+    private Map<String, Long> dpdfSizes;
+
+    private double heapPerSourceMb = DEFAULT_HEAP_PER_SOURCE_MB;
+
+    private DatasetHeapEstimator( final List<TranslationRequest> requests ) {
+        final List<Dataset> datasets = requests.stream().map( TranslationRequest::getDataset ).toList();
+        datasets.stream()
+                .map( Dataset::getType )
+                .distinct()
+                .map( ConvertAndExportCpgDatasets::getCsvPath )
+                .distinct()
+                .forEach( this::readHistory );
+        datasets.forEach(
+                dataset -> this.sourceBytesByDataset.put( dataset.getName(), this.getSourceBytes( dataset ) ) );
+        this.fitHeapPerSourceMb();
+    }
+
+    public static DatasetHeapEstimator of( final List<TranslationRequest> requests ) {
+        return new DatasetHeapEstimator( requests );
+    }
+
+    public long estimateMb( final Dataset dataset ) {
+        if ( this.peakHeapByDataset.containsKey( dataset.getName() ) ) {
+            return Math.max( MIN_ESTIMATE_MB, ( long ) median( this.peakHeapByDataset.get( dataset.getName() ) ) );
+        }
+        if ( this.upperBoundHeapByDataset.containsKey( dataset.getName() ) ) {
+            return Math.max( MIN_ESTIMATE_MB,
+                    ( long ) median( this.upperBoundHeapByDataset.get( dataset.getName() ) ) );
+        }
+        final double sourceMb = this.sourceBytesByDataset.getOrDefault( dataset.getName(), 0L ) / ( double ) MB;
+        return Math.max( MIN_ESTIMATE_MB, ( long ) Math.ceil( sourceMb * this.heapPerSourceMb ) );
+    }
+
+    /**
+     * @return the depth estimate fitted from the conversions of previous runs (see {@link DepthEstimator.Calibration})
+     */
+    public DepthEstimator.Calibration getDepthCalibration() {
+        final DepthEstimator.Calibration calibration = DepthEstimator.Calibration.fit( this.conversionDetails );
+        log.info( "Estimating depth with {} bytes per node and edge ({} conversions with history)",
+                ( long ) calibration.getBytesPerElement(), calibration.getSamples() );
+        return calibration;
+    }
+
+    private void readHistory( final String csvPath ) {
+        final File csvFile = FileUtils.get( csvPath );
+        if ( !csvFile.exists() ) {
+            return;
+        }
+        try {
+            final byte[] csv = org.apache.commons.io.FileUtils.readFileToByteArray( csvFile );
+            final List<BenchmarkCsv> rows = CsvUtils.read( csv, BenchmarkCsv.class, ',', true );
+            // the stages of a run are followed by its peak row, which closes the run
+            final Map<String, Long> upperBounds = new HashMap<>();
+            rows.stream().filter( row -> row.getName() != null ).forEach( row -> {
+                if ( !ConvertAndExportCpgDatasets.HEAP_PEAK_PROCESS.equals( row.getProcessName() ) ) {
+                    upperBounds.merge( row.getName(), row.getHeapUsedMb(), Math::max );
+                    return;
+                }
+                final Long upperBound = upperBounds.remove( row.getName() );
+                if ( upperBound != null && upperBound > 0 ) {
+                    this.upperBoundHeapByDataset.computeIfAbsent( row.getName(), k -> new ArrayList<>() )
+                            .add( upperBound );
+                }
+                if ( this.isAlone( row ) && row.getHeapUsedMb() > 0 ) {
+                    this.peakHeapByDataset.computeIfAbsent( row.getName(), k -> new ArrayList<>() )
+                            .add( row.getHeapUsedMb() );
+                }
+            } );
+            upperBounds.forEach( ( name, upperBound ) -> {
+                if ( upperBound > 0 ) {
+                    this.upperBoundHeapByDataset.computeIfAbsent( name, k -> new ArrayList<>() ).add( upperBound );
+                }
+            } );
+            rows.stream()
+                    .filter( row -> CONVERSION_PROCESS.equals( row.getProcessName() ) && row.getDetails() != null )
+                    .forEach( row -> this.conversionDetails.add( row.getDetails() ) );
+        } catch ( IOException | RuntimeException e ) {
+            log.warn( "Couldn't read benchmark history {}: {}", csvPath, e.getMessage() );
+        }
+    }
+
+    private boolean isAlone( final BenchmarkCsv row ) {
+        return row.getDetails() != null && row.getDetails()
+                .contains( ConvertAndExportCpgDatasets.HEAP_PEAK_ALONE_DETAIL + "=true" );
+    }
+
+    private void fitHeapPerSourceMb() {
+        final List<Double> ratios = new ArrayList<>();
+        this.sourceBytesByDataset.forEach( ( name, bytes ) -> {
+            final double sourceMb = bytes / ( double ) MB;
+            if ( sourceMb < 1d || !this.peakHeapByDataset.containsKey( name ) ) {
+                return;
+            }
+            ratios.add( median( this.peakHeapByDataset.get( name ) ) / sourceMb );
+        } );
+        if ( !ratios.isEmpty() ) {
+            this.heapPerSourceMb = median( ratios );
+        }
+        log.info( "Estimating heap with {} MB heap per MB source ({} datasets with peak, {} with upper bound)",
+                this.heapPerSourceMb, this.peakHeapByDataset.size(), this.upperBoundHeapByDataset.size() );
+    }
+
+    private static double median( final List<? extends Number> values ) {
+        final double[] sorted = values.stream().mapToDouble( Number::doubleValue ).sorted().toArray();
+        final int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : ( sorted[middle - 1] + sorted[middle] ) / 2;
+    }
+
+    private long getSourceBytes( final Dataset dataset ) {
+        if ( DatasetType.DPDf.equals( dataset.getType() ) ) {
+            final Long bytes = this.getDpdfSizes().get( dataset.getProjectName() );
+            if ( bytes != null ) {
+                return bytes;
+            }
+        }
+        final File source = DatasetLoader.load( dataset );
+        if ( !source.exists() ) {
+            return 0L;
+        }
+        return DirectorySizeSummary.calculateDirectorySize( source.toPath() );
+    }
+
+    private Map<String, Long> getDpdfSizes() {
+        if ( this.dpdfSizes == null ) {
+            this.dpdfSizes = FileUtils.get( DirectorySizeSummary.DPDF_SIZE_SUMMARY )
+                    .exists() ? DirectorySizeSummary.getDirectorySizes(
+                    DirectorySizeSummary.DPDF_SIZE_SUMMARY ) : Collections.emptyMap();
+        }
+        return this.dpdfSizes;
+    }
+
+}
@@ -0,0 +1,80 @@
+package de.haw.application;
+
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.model.Dataset;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hands out translation requests to workers as long as the estimated heap of all running requests fits into the heap
+ * budget. Requests are admitted in the given order, but a request that doesn't fit is skipped in favour of the next
+ * one that does. A request estimated above the budget is only admitted when nothing else is running.
+ */
+@Slf4j
+public class HeapAwareScheduler {
+
+    private final long heapBudgetMb;
+
+    private final List<TranslationRequest> pending;
+
+    private final Map<TranslationRequest, Long> estimates = new IdentityHashMap<>();
+
+    private final Map<TranslationRequest, Long> running = new IdentityHashMap<>();
+
+    private long admittedMb = 0;
+
+    private HeapAwareScheduler(
+            final List<TranslationRequest> requests, final ToLongFunction<Dataset> estimator,
+            final long heapBudgetMb ) {
+        this.heapBudgetMb = heapBudgetMb;
+        this.pending = new LinkedList<>( requests );
+        requests.forEach( request -> this.estimates.put( request,
+                Math.min( estimator.applyAsLong( request.getDataset() ), heapBudgetMb ) ) );
+    }
+
+    public static HeapAwareScheduler of(
+            final List<TranslationRequest> requests, final ToLongFunction<Dataset> estimator,
+            final long heapBudgetMb ) {
+        return new HeapAwareScheduler( requests, estimator, heapBudgetMb );
+    }
+
+    /**
+     * Blocks until the next request fits into the heap budget.
+     *
+     * @return the admitted request or empty, if all requests have been handed out
+     */
+    public synchronized Optional<TranslationRequest> next() throws InterruptedException {
+        while ( !this.pending.isEmpty() ) {
+            final Iterator<TranslationRequest> iterator = this.pending.iterator();
+            while ( iterator.hasNext() ) {
+                final TranslationRequest request = iterator.next();
+                final long estimate = this.estimates.get( request );
+                if ( this.running.isEmpty() || this.admittedMb + estimate <= this.heapBudgetMb ) {
+                    iterator.remove();
+                    this.running.put( request, estimate );
+                    this.admittedMb += estimate;
+                    log.info( "Admitted dataset {} with estimated heap of {} MB ({}/{} MB admitted)",
+                            request.getDataset().getProjectName(), estimate, this.admittedMb, this.heapBudgetMb );
+                    return Optional.of( request );
+                }
+            }
+            this.wait();
+        }
+        return Optional.empty();
+    }
+
+    public synchronized void release( final TranslationRequest request ) {
+        final Long estimate = this.running.remove( request );
+        if ( estimate != null ) {
+            this.admittedMb -= estimate;
+        }
+        this.notifyAll();
+    }
+
+    public synchronized long getAdmittedMb() {
+        return this.admittedMb;
+    }
+
+}
@@ -0,0 +1,128 @@
+package de.haw.application;
+
+import de.haw.dataset.DatasetLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.pipe.PipeBenchmark;
+import de.haw.misc.pipe.PipeBuilder;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.processing.GraphService;
+import de.haw.processing.model.RecordInteractionType;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import de.haw.translation.CpgPassProfile;
+import de.haw.translation.module.CachedTranslationModule;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Validates that the pass profile of the pipe yields the same interactions as the full profile, by computing the
+ * interactions of the dataset again with all passes. Fails if they differ.
+ */
+@Slf4j
+@NoArgsConstructor( staticName = "instance" )
+public class ValidatePassProfileModule<Target> extends PipeModule<Graph, Graph, Target> {
+
+    private static final int MAX_LOGGED_DIFFERENCES = 20;
+
+    private final GraphService GS = GraphService.instance();
+
+    @Override
+    protected Graph processImpl( final Graph graph, final PipeContext ctx ) {
+
+        final CpgPassProfile profile = CpgPassProfile.of( ctx );
+        if ( profile == CpgPassProfile.FULL ) {
+            log.info( "Pass profile {} is the reference, nothing to validate", profile.getArgName() );
+            return graph;
+        }
+
+        final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
+                .orElseThrow( IllegalStateException::new );
+        final PipeContext referenceCtx = ctx.copy();
+        referenceCtx.set( PipeContext.CPG_PASS_PROFILE, CpgPassProfile.FULL );
+        referenceCtx.set( PipeContext.PIPE_BENCHMARKS, new ArrayList<PipeBenchmark>() );
+
+        log.info( "Computing reference interactions of {} with pass profile {} ...", dataset.getName(),
+                CpgPassProfile.FULL.getArgName() );
+        final Graph reference = ConvertAndExportCpgModule.addInteractionModules(
+                        PipeBuilder.<File, Graph>builder().add( CachedTranslationModule.instance() ) )
+                .buildExecutor()
+                .execute( DatasetLoader.load( dataset ), referenceCtx );
+
+        this.validate( profile, dataset.getName(), graph, reference );
+        return graph;
+    }
+
+    /**
+     * @throws IllegalStateException if the graph has other interactions than the reference graph
+     */
+    void validate( final CpgPassProfile profile, final String name, final Graph graph, final Graph reference ) {
+        final Set<String> interactions = this.getInteractions( graph );
+        final Set<String> referenceInteractions = this.getInteractions( reference );
+        if ( interactions.equals( referenceInteractions ) ) {
+            log.info( "Pass profile {} yields the same {} interactions as {}", profile.getArgName(),
+                    interactions.size(), CpgPassProfile.FULL.getArgName() );
+            return;
+        }
+
+        this.logDifference( "Missing", referenceInteractions, interactions );
+        this.logDifference( "Additional", interactions, referenceInteractions );
+        throw new IllegalStateException(
+                "Pass profile " + profile.getArgName() + " yields different interactions for " + name );
+    }
+
+    /**
+     * The interaction edges lead from the source record to its interaction node and from there to the target records,
+     * so each interaction is taken as the triple of its source record, interaction type and target record.
+     *
+     * @return the interactions by the scoped record names of their records and their interaction type
+     */
+    private Set<String> getInteractions( final Graph graph ) {
+        final Set<String> interactions = new TreeSet<>();
+        graph.edges()
+                .filter( edge -> this.GS.isType( edge, CpgEdgeType.INTERACTS ) && this.isInteractionNode(
+                        edge.getTargetNode() ) )
+                .forEach( sourceEdge -> sourceEdge.getTargetNode()
+                        .leavingEdges()
+                        .filter( edge -> this.GS.isType( edge, CpgEdgeType.INTERACTS ) )
+                        .forEach( targetEdge -> interactions.add(
+                                this.getInteraction( sourceEdge.getSourceNode(), targetEdge ) ) ) );
+        return interactions;
+    }
+
+    private String getInteraction( final Node source, final Edge targetEdge ) {
+        return this.getRecordName( source ) + " -" + this.GS.getAttr( targetEdge,
+                CpgConst.EDGE_ATTR_INTERACTION_TYPE ) + "-> " + this.getRecordName( targetEdge.getTargetNode() );
+    }
+
+    private boolean isInteractionNode( final Node node ) {
+        return Arrays.stream( RecordInteractionType.values() ).anyMatch( type -> this.GS.hasLabel( node,
+                type.name() ) );
+    }
+
+    private String getRecordName( final Node node ) {
+        final String scopedName = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD );
+        return StringUtils.isNotBlank( scopedName ) ? scopedName : this.GS.getAttr( node,
+                CpgConst.NODE_ATTR_NAME_FULL );
+    }
+
+    private void logDifference( final String kind, final Set<String> expected, final Set<String> actual ) {
+        final Set<String> difference = new TreeSet<>( expected );
+        difference.removeAll( actual );
+        log.error( "{} interactions: {}", kind, difference.size() );
+        difference.stream()
+                .limit( MAX_LOGGED_DIFFERENCES )
+                .forEach( interaction -> log.error( "{}: {}", kind, interaction ) );
+    }
+
+}
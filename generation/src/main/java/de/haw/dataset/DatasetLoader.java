@@ -1,10 +1,18 @@
 package de.haw.dataset;
 
 import de.haw.dataset.model.Dataset;
+import de.haw.dataset.model.DatasetLanguage;
 import de.haw.dataset.model.DatasetType;
 import de.haw.misc.utils.FileUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 public class DatasetLoader {
 
@@ -51,4 +59,30 @@ public class DatasetLoader {
         };
     }
 
+    /**
+     * @return the source files of the language below the root by their path relative to the root, sorted by path
+     */
+    public static Map<String, File> loadSources( final File root, final DatasetLanguage language ) {
+        final List<String> extensions = getSourceExtensions( language );
+        final Path rootPath = root.toPath();
+        final Map<String, File> sources = new TreeMap<>();
+        try ( Stream<Path> files = Files.walk( rootPath ) ) {
+            files.filter( Files::isRegularFile )
+                    .filter( file -> extensions.stream().anyMatch( file.toString()::endsWith ) )
+                    .forEach( file -> sources.put( Files.isDirectory( rootPath ) ? rootPath.relativize( file )
+                            .toString() : file.getFileName().toString(), file.toFile() ) );
+        } catch ( IOException e ) {
+            throw new IllegalStateException( "Couldn't list sources of " + root + ": " + e.getMessage(), e );
+        }
+        return sources;
+    }
+
+    public static List<String> getSourceExtensions( final DatasetLanguage language ) {
+        return switch ( language ) {
+            case JAVA -> List.of( ".java" );
+            case CPP -> List.of( ".c", ".cc", ".cpp", ".cxx", ".h", ".hpp" );
+            case PYTHON -> List.of( ".py" );
+        };
+    }
+
 }
@@ -0,0 +1,82 @@
+package de.haw.dataset.model;
+
+import de.haw.misc.utils.NameUtils;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Index of the design patterns of a dataset by class name, so the patterns of a record are found with one lookup. The
+ * patterns are kept in the order of {@link DatasetDesignPatterns#getPatterns()}. The index doesn't follow later
+ * changes of the patterns, it has to be built again for updated ground truth.
+ */
+public class DesignPatternIndex {
+
+    private static final String DELIMITER = ".";
+
+    /**
+     * Patterns by the simple name of their class, a pattern with a qualified class name is also kept by its simple name
+     */
+    private final Map<String, List<DesignPattern>> patternsByClassName = new HashMap<>();
+
+    private final int size;
+
+    private DesignPatternIndex( final DatasetDesignPatterns datasetDps, final Predicate<DesignPattern> roleFilter ) {
+        int size = 0;
+        for ( List<DesignPattern> dps : datasetDps.getPatterns().values() ) {
+            for ( DesignPattern dp : dps ) {
+                if ( dp.getClassName() == null || !roleFilter.test( dp ) ) {
+                    continue;
+                }
+                this.patternsByClassName.computeIfAbsent( NameUtils.extractClassName( dp.getClassName() ),
+                        key -> new ArrayList<>() ).add( dp );
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    public static DesignPatternIndex of( final DatasetDesignPatterns datasetDps ) {
+        return of( datasetDps, false );
+    }
+
+    /**
+     * @param onlyMajorRoles whether to index only the patterns of major roles
+     */
+    public static DesignPatternIndex of( final DatasetDesignPatterns datasetDps, final boolean onlyMajorRoles ) {
+        return new DesignPatternIndex( datasetDps, dp -> !onlyMajorRoles || dp.isMajorRole() );
+    }
+
+    /**
+     * A pattern with a simple class name matches all classes of that name, a pattern with a qualified class name only
+     * matches classes with the same qualified name or a qualified name ending with it.
+     *
+     * @param scopedClassName qualified name of a class
+     * @return the patterns of the class
+     */
+    public List<DesignPattern> getPatterns( final String scopedClassName ) {
+        if ( scopedClassName == null ) {
+            return Collections.emptyList();
+        }
+        final List<DesignPattern> dps = this.patternsByClassName.get( NameUtils.extractClassName( scopedClassName ) );
+        if ( dps == null ) {
+            return Collections.emptyList();
+        }
+        return dps.stream().filter( dp -> this.matches( dp.getClassName(), scopedClassName ) ).toList();
+    }
+
+    /**
+     * @return the number of indexed patterns
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private boolean matches( final String className, final String scopedClassName ) {
+        if ( !NameUtils.isScopedClassName( className, DELIMITER ) ) {
+            return true;
+        }
+        return scopedClassName.equals( className ) || scopedClassName.endsWith( DELIMITER + className );
+    }
+
+}
@@ -34,9 +34,11 @@ public class DirectorySizeSummary {
 
     }
 
+    public static final String DPDF_SIZE_SUMMARY = "datasets/java/dpdf/size_summary.csv";
+
     public static void main( String[] args ) {
         final String sourceDir = "datasets/java/dpdf/java_projects";
-        final String summaryDir = "datasets/java/dpdf/size_summary.csv";
+        final String summaryDir = DPDF_SIZE_SUMMARY;
         generateDirectorySizes( sourceDir, summaryDir );
         log.info( "Directory sizes: {}", getDirectorySizes( summaryDir ) );
     }
@@ -76,7 +78,7 @@ public class DirectorySizeSummary {
         }
     }
 
-    private static long calculateDirectorySize( final Path path ) {
+    public static long calculateDirectorySize( final Path path ) {
         log.info( "Calculate dir size of {} ...", path.getFileName() );
         final AtomicLong size = new AtomicLong();
         try {
@@ -0,0 +1,14 @@
+package de.haw.misc.pipe;
+
+/**
+ * A module which can be fused with the module following it into one stage, e.g. to share a pass over their input. The
+ * {@link PipeBuilder} fuses the modules as they are added.
+ */
+public interface FusibleModule<Target> {
+
+    /**
+     * @return a module doing the work of this module followed by the next module, null if they can't be fused
+     */
+    PipeModule<?, ?, Target> fuse( final PipeModule<?, ?, Target> next );
+
+}
@@ -29,4 +29,24 @@ public class PipeBenchmark {
     @CsvBindByName( column = "total_time_sec" )
     private final String totalTimeSec;
 
+    @CsvBindByPosition( position = 5 )
+    @CsvBindByName( column = "heap_used_mb" )
+    private final long heapUsedMb;
+
+    @CsvBindByPosition( position = 6 )
+    @CsvBindByName( column = "heap_retained_mb" )
+    private final long heapRetainedMb;
+
+    @CsvBindByPosition( position = 7 )
+    @CsvBindByName( column = "cache_hits" )
+    private final int cacheHits;
+
+    @CsvBindByPosition( position = 8 )
+    @CsvBindByName( column = "cache_misses" )
+    private final int cacheMisses;
+
+    @CsvBindByPosition( position = 9 )
+    @CsvBindByName( column = "details" )
+    private final String details;
+
 }
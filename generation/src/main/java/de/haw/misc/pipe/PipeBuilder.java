@@ -2,30 +2,53 @@ package de.haw.misc.pipe;
 
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @NoArgsConstructor( staticName = "builder" )
 public class PipeBuilder<Input, Output> {
 
-    private PipeModule<?, ?, Output> head;
-    private PipeModule<?, ?, Output> tail;
+    private final List<PipeModule<?, ?, Output>> modules = new ArrayList<>();
+
+    private boolean fusion = true;
+
+    /**
+     * Whether to fuse {@link FusibleModule}s with the modules added after them, enabled by default.
+     */
+    public PipeBuilder<Input, Output> fusion( final boolean fusion ) {
+        this.fusion = fusion;
+        return this;
+    }
 
     @SuppressWarnings( "unchecked" )
     public <Module_Input, Module_Output> PipeBuilder<Input, Output> add(
             final PipeModule<Module_Input, Module_Output, Output> module ) {
-        if ( this.head == null ) {
-            this.head = module;
-        } else {
-            ( ( PipeModule<?, Module_Input, Output> ) this.tail ).setNext( module );
+        final int tail = this.modules.size() - 1;
+        if ( this.fusion && tail >= 0 && this.modules.get( tail ) instanceof FusibleModule<?> fusible ) {
+            final PipeModule<?, ?, Output> fused = ( ( FusibleModule<Output> ) fusible ).fuse( module );
+            if ( fused != null ) {
+                this.modules.set( tail, fused );
+                return this;
+            }
         }
-        this.tail = module;
+        this.modules.add( module );
         return this;
     }
 
     @SuppressWarnings( "unchecked" )
     public PipeModule<Input, ?, Output> build() {
-        if ( this.head == null ) {
+        if ( this.modules.isEmpty() ) {
             throw new IllegalStateException( "Pipe must have at least 1 module." );
         }
-        return ( PipeModule<Input, ?, Output> ) this.head;
+        for ( int i = 1; i < this.modules.size(); i++ ) {
+            ( ( PipeModule<?, Object, Output> ) this.modules.get( i - 1 ) ).setNext(
+                    ( PipeModule<Object, ?, Output> ) this.modules.get( i ) );
+        }
+        return ( PipeModule<Input, ?, Output> ) this.modules.get( 0 );
+    }
+
+    public PipeExecutor<Input, Output> buildExecutor() {
+        return PipeExecutor.of( this.build() );
     }
 
 }
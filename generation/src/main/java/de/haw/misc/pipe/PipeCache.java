@@ -0,0 +1,245 @@
+package de.haw.misc.pipe;
+
+import de.haw.misc.Args;
+import de.haw.misc.utils.FileUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Content addressed on disk cache for pipe module outputs. Entries are stored as serialized objects named by their
+ * key and are evicted by age and, oldest access first, by total size.
+ */
+@Slf4j
+public class PipeCache {
+
+    public final static String CACHE_ARG = "cache";
+
+    public final static String CACHE_DIR_ARG = "cache-dir";
+
+    public final static String CACHE_MAX_MB_ARG = "cache-max-mb";
+
+    public final static String CACHE_MAX_AGE_DAYS_ARG = "cache-max-age-days";
+
+    private final static String DEFAULT_CACHE_DIR = "cache";
+
+    private final static String DEFAULT_CACHE_MAX_MB = "10240";
+
+    private final static String DEFAULT_CACHE_MAX_AGE_DAYS = "30";
+
+    private final static String ENTRY_SUFFIX = ".bin";
+
+    private final static String LOCK_FILE = ".lock";
+
+    private final static long MB = 1024 * 1024;
+
+    private final static Object EVICTION_LOCK = new Object();
+
+    private final Path dir;
+
+    private final long maxBytes;
+
+    private final Duration maxAge;
+
+    private PipeCache( final Path dir, final long maxBytes, final Duration maxAge ) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+    }
+
+    public static PipeCache of( final Path dir, final long maxBytes, final Duration maxAge ) {
+        return new PipeCache( dir, maxBytes, maxAge );
+    }
+
+    public static PipeCache of( final Args args ) {
+        final Path dir = FileUtils.get( args.getOrElse( CACHE_DIR_ARG, DEFAULT_CACHE_DIR ) ).toPath();
+        final long maxMb = Long.parseLong( args.getOrElse( CACHE_MAX_MB_ARG, DEFAULT_CACHE_MAX_MB ) );
+        final long maxAgeDays = Long.parseLong( args.getOrElse( CACHE_MAX_AGE_DAYS_ARG, DEFAULT_CACHE_MAX_AGE_DAYS ) );
+        return of( dir, maxMb * MB, Duration.ofDays( maxAgeDays ) );
+    }
+
+    public static boolean isEnabled( final Args args ) {
+        return args.isTrue( CACHE_ARG );
+    }
+
+    public boolean contains( final String key ) {
+        return Files.exists( this.getEntry( key ) );
+    }
+
+    public <T> Optional<T> get( final String key, final Class<T> clazz ) {
+        final Path entry = this.getEntry( key );
+        if ( !Files.exists( entry ) ) {
+            return Optional.empty();
+        }
+        try ( ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream( Files.newInputStream( entry ) ) ) ) {
+            final Object value = in.readObject();
+            Files.setLastModifiedTime( entry, FileTime.from( Instant.now() ) );
+            return clazz.isInstance( value ) ? Optional.of( clazz.cast( value ) ) : Optional.empty();
+        } catch ( IOException | ClassNotFoundException | RuntimeException e ) {
+            log.warn( "Couldn't read cache entry {}: {}", key, e.getMessage() );
+            return Optional.empty();
+        }
+    }
+
+    public void put( final String key, final Serializable value ) {
+        final Path entry = this.getEntry( key );
+        Path tmp = null;
+        try {
+            Files.createDirectories( this.dir );
+            tmp = Files.createTempFile( this.dir, key, ".tmp" );
+            try ( ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream( Files.newOutputStream( tmp ) ) ) ) {
+                out.writeObject( value );
+            }
+            Files.move( tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            log.info( "Cached {} ({} MB)", key, Files.size( entry ) / MB );
+        } catch ( IOException | RuntimeException e ) {
+            log.warn( "Couldn't write cache entry {}: {}", key, e.getMessage() );
+            this.delete( tmp );
+        }
+        this.evict();
+    }
+
+    /**
+     * Workers may use their own cache instances on the same directory, so eviction is serialized by a lock shared by
+     * all instances of this process and by a file lock in the directory against other processes.
+     */
+    public void evict() {
+        if ( !Files.isDirectory( this.dir ) ) {
+            return;
+        }
+        synchronized ( EVICTION_LOCK ) {
+            try ( FileChannel channel = FileChannel.open( this.dir.resolve( LOCK_FILE ), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE ); FileLock ignored = channel.lock() ) {
+                this.evictLocked();
+            } catch ( IOException e ) {
+                log.warn( "Couldn't lock cache {} for eviction: {}", this.dir, e.getMessage() );
+            }
+        }
+    }
+
+    private void evictLocked() {
+        final List<Path> entries;
+        try ( Stream<Path> files = Files.list( this.dir ) ) {
+            entries = new ArrayList<>( files.filter( file -> file.toString().endsWith( ENTRY_SUFFIX ) ).toList() );
+        } catch ( IOException e ) {
+            log.warn( "Couldn't list cache {}: {}", this.dir, e.getMessage() );
+            return;
+        }
+
+        final Instant expiry = Instant.now().minus( this.maxAge );
+        entries.removeIf( entry -> {
+            if ( this.getLastModified( entry ).isBefore( expiry ) ) {
+                log.info( "Evicting expired cache entry {}", entry.getFileName() );
+                this.delete( entry );
+                return true;
+            }
+            return false;
+        } );
+
+        entries.sort( Comparator.comparing( this::getLastModified ) );
+        long totalBytes = entries.stream().mapToLong( this::getSize ).sum();
+        for ( final Path entry : entries ) {
+            if ( totalBytes <= this.maxBytes ) {
+                break;
+            }
+            log.info( "Evicting cache entry {} to fit into {} MB", entry.getFileName(), this.maxBytes / MB );
+            totalBytes -= this.getSize( entry );
+            this.delete( entry );
+        }
+    }
+
+    /**
+     * @return a hex encoded sha-256 of the given parts
+     */
+    public static String hash( final String... parts ) {
+        final MessageDigest digest = newDigest();
+        for ( final String part : parts ) {
+            digest.update( String.valueOf( part ).getBytes() );
+            digest.update( ( byte ) 0 );
+        }
+        return HexFormat.of().formatHex( digest.digest() );
+    }
+
+    /**
+     * @return a hex encoded sha-256 over the relative paths and contents of all files below the given file
+     */
+    public static String hashFiles( final File root ) throws IOException {
+        final MessageDigest digest = newDigest();
+        final Path rootPath = root.toPath();
+        final List<Path> files;
+        try ( Stream<Path> walk = Files.walk( rootPath ) ) {
+            files = walk.filter( Files::isRegularFile ).sorted().toList();
+        }
+        final byte[] buffer = new byte[8192];
+        for ( final Path file : files ) {
+            digest.update( rootPath.relativize( file ).toString().getBytes() );
+            digest.update( ( byte ) 0 );
+            try ( InputStream in = Files.newInputStream( file ) ) {
+                int read;
+                while ( ( read = in.read( buffer ) ) != -1 ) {
+                    digest.update( buffer, 0, read );
+                }
+            }
+        }
+        return HexFormat.of().formatHex( digest.digest() );
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance( "SHA-256" );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private Path getEntry( final String key ) {
+        return this.dir.resolve( key + ENTRY_SUFFIX );
+    }
+
+    private Instant getLastModified( final Path entry ) {
+        try {
+            return Files.getLastModifiedTime( entry ).toInstant();
+        } catch ( IOException e ) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private long getSize( final Path entry ) {
+        try {
+            return Files.size( entry );
+        } catch ( IOException e ) {
+            return 0L;
+        }
+    }
+
+    private void delete( final Path file ) {
+        if ( file == null ) {
+            return;
+        }
+        try {
+            Files.deleteIfExists( file );
+        } catch ( IOException e ) {
+            log.warn( "Couldn't delete {}: {}", file, e.getMessage() );
+        }
+    }
+
+}
@@ -15,12 +15,32 @@ public class PipeContext {
 
     public static String PIPE_BENCHMARKS = "pipe_benchmarks";
 
+    /**
+     * If <code>true</code>, the retained heap is measured (after a full gc) at the end of each pipe stage
+     */
+    public static String HEAP_RETENTION_REPORT = "heap_retention_report";
+
     public static String CPG_DATASET_KEY = "dataset";
 
     public static String CPG_DEPTH_KEY = "depth";
 
     public static String CPG_MIN_DEPTH_KEY = "minDepth";
 
+    /**
+     * {@link de.haw.translation.DepthEstimator.Calibration} fitted from previous conversions
+     */
+    public static String CPG_DEPTH_CALIBRATION = "cpg_depth_calibration";
+
+    /**
+     * If <code>true</code>, the translated nodes are marked with the source file they belong to, so the graph can be
+     * sliced by file (see {@link de.haw.translation.GraphSlicer})
+     */
+    public static String CPG_UNITS = "cpg_units";
+
+    public static String CPG_PASS_PROFILE = "cpg_pass_profile";
+
+    public static String CPG_ATTRIBUTE_PROJECTION = "cpg_attribute_projection";
+
     public static String CPG_REPOSITORY_PURGE_KEY = "purge_repo";
 
     public static String CPG_DESIGN_PATTERNS_EXISTS = "cpg_dp_exists";
@@ -39,12 +59,52 @@ public class PipeContext {
 
     public static String RECORD_PATHS = "ssspRecords";
 
+    /**
+     * {@link de.haw.processing.model.RecordInteractionPathCounts} of the interaction paths, set with the interaction
+     * edges
+     */
+    public static String RECORD_PATH_COUNTS = "recordPathCounts";
+
+    /**
+     * Number of threads computing the record paths, 1 by default
+     */
+    public static String RECORD_PATHS_WORKERS = "ssspRecordsWorkers";
+
+    /**
+     * Number of threads propagating the record scopes, 1 by default
+     */
+    public static String RECORD_SCOPE_WORKERS = "recordScopeWorkers";
+
+    /**
+     * Free text a module can set while processing, it's added to the benchmark of the module
+     */
+    public static String PROCESS_DETAILS = "processDetails";
+
     public static String TOTAL_PROCESSING_TIME = "totalTime";
 
     public static String PROCESS_COUNT = "processCount";
 
+    /**
+     * Cache hits of the current stage, reset after its benchmark
+     */
+    public static String CACHE_HITS = "cacheHits";
+
+    /**
+     * Cache misses of the current stage, reset after its benchmark
+     */
+    public static String CACHE_MISSES = "cacheMisses";
+
     private final Map<String, Object> ctx = new HashMap<>();
 
+    /**
+     * @return a shallow copy of this context, so that parallel pipes can share the initial values without sharing state.
+     */
+    public PipeContext copy() {
+        final PipeContext copy = PipeContext.empty();
+        copy.ctx.putAll( this.ctx );
+        return copy;
+    }
+
     public void set( final String key, final Object value ) {
         this.ctx.put( key, value );
     }
@@ -0,0 +1,29 @@
+package de.haw.misc.pipe;
+
+import de.haw.misc.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs a pipe stage by stage instead of recursing through the modules. Only the current value is referenced
+ * between stages, so the input of a stage becomes unreachable as soon as the stage has produced its output (the input
+ * of the first stage is still owned by the caller).
+ */
+@RequiredArgsConstructor( staticName = "of" )
+public class PipeExecutor<Input, Target> {
+
+    private final PipeModule<Input, ?, Target> head;
+
+    @SuppressWarnings( "unchecked" )
+    public Target execute( final Input input, final PipeContext ctx ) {
+        Object current = input;
+        PipeModule<?, ?, Target> module = this.head;
+        while ( module != null ) {
+            final Timer timer = new Timer();
+            current = module.processStage( current, ctx );
+            module.addBenchmark( timer.getTimeSinceSec(), ctx );
+            module = module.getNext();
+        }
+        return ( Target ) current;
+    }
+
+}
@@ -1,7 +1,7 @@
 package de.haw.misc.pipe;
 
-import de.haw.misc.Timer;
 import de.haw.misc.utils.FormatUtils;
+import de.haw.misc.utils.MemoryUtils;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -17,27 +17,45 @@ public abstract class PipeModule<Input, Output, Target> {
 
     private PipeModule<Output, ?, Target> next;
 
-    @SuppressWarnings( "unchecked" )
     public Target process( final Input input, final PipeContext ctx ) {
+        return PipeExecutor.of( this ).execute( input, ctx );
+    }
 
+    @SuppressWarnings( "unchecked" )
+    Output processStage( final Object input, final PipeContext ctx ) {
         log.info( "---- STARTING [{}] ----", this.getModuleName() );
-        final Timer timer = new Timer();
-        final Output output = this.processImpl( input, ctx );
+        return this.processImpl( ( Input ) input, ctx );
+    }
+
+    /**
+     * Called by the executor after the stage input has been dropped, so the retained heap only covers the output.
+     */
+    @SuppressWarnings( "unchecked" )
+    void addBenchmark( final double processTime, final PipeContext ctx ) {
 
         final int processCount = ctx.get( PipeContext.PROCESS_COUNT, 0, Integer.class );
         ctx.set( PipeContext.PROCESS_COUNT, processCount + 1 );
 
-        final double processTime = timer.getTimeSinceSec();
         final double processTimeTotal = ctx.get( PipeContext.TOTAL_PROCESSING_TIME, 0d, Double.class ) + processTime;
         ctx.set( PipeContext.TOTAL_PROCESSING_TIME, processTimeTotal );
 
+        final boolean heapRetentionReport = ctx.get( PipeContext.HEAP_RETENTION_REPORT, false, Boolean.class );
+
         final PipeBenchmark benchmark = PipeBenchmark.builder()
                 .name( ctx.get( PipeContext.PROCESS_NAME ) )
                 .processCount( processCount )
                 .processName( this.getModuleName() )
                 .processTimeSec( FormatUtils.format( processTime, 4 ) )
                 .totalTimeSec( FormatUtils.format( processTimeTotal, 4 ) )
+                .heapUsedMb( MemoryUtils.getUsedHeapMb() )
+                .heapRetainedMb( heapRetentionReport ? MemoryUtils.getRetainedHeapMb() : -1 )
+                .cacheHits( ctx.get( PipeContext.CACHE_HITS, 0, Integer.class ) )
+                .cacheMisses( ctx.get( PipeContext.CACHE_MISSES, 0, Integer.class ) )
+                .details( ctx.get( PipeContext.PROCESS_DETAILS ) )
                 .build();
+        ctx.set( PipeContext.PROCESS_DETAILS, null );
+        ctx.set( PipeContext.CACHE_HITS, 0 );
+        ctx.set( PipeContext.CACHE_MISSES, 0 );
 
         final List<PipeBenchmark> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
         benchmarks.add( benchmark );
@@ -45,11 +63,10 @@ public abstract class PipeModule<Input, Output, Target> {
 
         log.info( "---- PROCESSED [{}] in {}s (total: {}s) ----", benchmark.getProcessName(),
                 benchmark.getProcessTimeSec(), benchmark.getTotalTimeSec() );
-
-        if ( this.next == null ) {
-            return ( Target ) output;
+        if ( heapRetentionReport ) {
+            log.info( "---- RETAINED [{}] {} MB (used: {} MB) ----", benchmark.getProcessName(),
+                    benchmark.getHeapRetainedMb(), benchmark.getHeapUsedMb() );
         }
-        return this.next.process( output, ctx );
     }
 
     protected abstract Output processImpl( Input input, final PipeContext ctx );
@@ -1,7 +1,10 @@
 package de.haw.misc.utils;
 
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
 import com.opencsv.bean.*;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
+import com.opencsv.exceptions.CsvException;
 import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
 import org.apache.commons.lang3.StringUtils;
 
@@ -131,4 +134,33 @@ public class CsvUtils {
         return csvToBean.parse();
     }
 
+    /**
+     * Read the rows of a csv as they are, including the header.
+     *
+     * @param csv as byte array (UTF-8)
+     * @return the columns of each row
+     */
+    public static List<String[]> readRows( final byte[] csv ) {
+        try ( CSVReader reader = new CSVReader( new StringReader( new String( csv, StandardCharsets.UTF_8 ) ) ) ) {
+            return reader.readAll();
+        } catch ( IOException | CsvException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * Write rows as read by {@link #readRows(byte[])}.
+     *
+     * @return csv as byte array (UTF-8)
+     */
+    public static byte[] writeRows( final List<String[]> rows ) {
+        final StringWriter writer = new StringWriter();
+        try ( CSVWriter csvWriter = new CSVWriter( writer ) ) {
+            csvWriter.writeAll( rows );
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+        return writer.toString().getBytes( StandardCharsets.UTF_8 );
+    }
+
 }
@@ -0,0 +1,48 @@
+package de.haw.misc.utils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the heap left after collections in the background until it's closed, to get the peak heap of a run instead
+ * of the heap at its end (see {@link MemoryUtils#getCollectedHeapMb()}). Garbage not collected yet isn't counted, so
+ * the peak is the heap the run retained. The heap is shared by the whole JVM, so the peak only belongs to the run, if
+ * nothing else ran meanwhile.
+ */
+public class HeapSampler implements AutoCloseable {
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong peakMb = new AtomicLong();
+
+    private HeapSampler( final long intervalMs ) {
+        this.executor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+            final Thread thread = new Thread( runnable, "heap-sampler" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        this.sample();
+        this.executor.scheduleAtFixedRate( this::sample, intervalMs, intervalMs, TimeUnit.MILLISECONDS );
+    }
+
+    public static HeapSampler start( final long intervalMs ) {
+        return new HeapSampler( intervalMs );
+    }
+
+    public long getPeakMb() {
+        return this.peakMb.get();
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        this.sample();
+    }
+
+    private void sample() {
+        this.peakMb.accumulateAndGet( MemoryUtils.getCollectedHeapMb(), Math::max );
+    }
+
+}
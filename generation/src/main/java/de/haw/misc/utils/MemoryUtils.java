@@ -4,12 +4,48 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
 import java.lang.management.ThreadMXBean;
 
 @Slf4j
 public class MemoryUtils {
 
+    private static final long MB = 1024 * 1024;
+
+    public static long getUsedHeapMb() {
+        final Runtime runtime = Runtime.getRuntime();
+        return ( runtime.totalMemory() - runtime.freeMemory() ) / MB;
+    }
+
+    /**
+     * Triggers a full gc before measuring, so only the heap still reachable is reported. This is expensive.
+     */
+    public static long getRetainedHeapMb() {
+        System.gc();
+        return getUsedHeapMb();
+    }
+
+    /**
+     * @return the heap used right after the last collection of each heap pool, which leaves out the garbage without
+     * triggering a gc, 0 before the first collection
+     */
+    public static long getCollectedHeapMb() {
+        long used = 0;
+        for ( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ) {
+            final MemoryUsage usage = pool.getCollectionUsage();
+            if ( pool.getType() == MemoryType.HEAP && usage != null ) {
+                used += usage.getUsed();
+            }
+        }
+        return used / MB;
+    }
+
+    public static long getMaxHeapMb() {
+        return Runtime.getRuntime().maxMemory() / MB;
+    }
+
     public static void logMemoryStats() {
         Runtime runtime = Runtime.getRuntime();
 
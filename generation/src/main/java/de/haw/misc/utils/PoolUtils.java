@@ -0,0 +1,34 @@
+package de.haw.misc.utils;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class PoolUtils {
+
+    /**
+     * Runs the task on a pool of the given number of workers. Parallel streams started by the task run on this pool
+     * instead of the common pool, so they use no more than these workers. With one worker the task runs on the calling
+     * thread.
+     *
+     * @param name what the task computes, used in the messages of its errors
+     */
+    public static <T> T onPool( final int workers, final String name, final Supplier<T> task ) {
+        if ( workers <= 1 ) {
+            return task.get();
+        }
+        final ForkJoinPool pool = new ForkJoinPool( workers );
+        try {
+            return pool.submit( task::get ).get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while computing " + name + ".", e );
+        } catch ( ExecutionException e ) {
+            throw new IllegalStateException( "Couldn't compute " + name + ": " + e.getCause().getMessage(),
+                    e.getCause() );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ public class GraphService {
 
     public Graph getEmptyGraph( final boolean strict, final boolean autoCreate, final String dataset ) {
         final Graph graph = new MultiGraph( genId( GRAPH_ID_PREFIX ), strict, autoCreate );
+        graph.setEdgeFactory( TypedEdge::new );
         graph.setAttribute( CpgConst.GRAPH_ATTR_DATASET, dataset );
         return graph;
     }
@@ -119,6 +120,15 @@ public class GraphService {
         return this.getLabels( node ).contains( label );
     }
 
+    /**
+     * Looks the nodes up in a label index of the graph, which is built on the first call and kept up to date.
+     *
+     * @return the nodes with any of the labels in the order of the graph
+     */
+    public List<Node> getNodesByLabel( final Graph graph, final String... labels ) {
+        return LabelIndex.of( graph ).getNodes( graph, labels );
+    }
+
     public boolean hasAnyLabel( final Node node, final List<String> searchLabels ) {
         return this.getLabels( node ).stream().anyMatch( searchLabels::contains );
     }
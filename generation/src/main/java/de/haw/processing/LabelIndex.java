@@ -0,0 +1,118 @@
+package de.haw.processing;
+
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.stream.SinkAdapter;
+
+import java.util.*;
+
+/**
+ * Index of the node ids by label of a graph. The index listens to the graph, so it stays correct as nodes are added,
+ * removed or relabelled by setting the labels attribute (e.g. via {@link GraphService#addLabel}).
+ */
+class LabelIndex extends SinkAdapter {
+
+    /**
+     * The indices don't reference their graph, so the graph and its index are collected together
+     */
+    private static final Map<Graph, LabelIndex> INDICES = Collections.synchronizedMap( new WeakHashMap<>() );
+
+    private final Map<String, Set<String>> nodesByLabel = new HashMap<>();
+
+    private final Map<String, Set<String>> labelsByNode = new HashMap<>();
+
+    private LabelIndex( final Graph graph ) {
+        graph.nodes().forEach( node -> this.index( node.getId(), node.getAttribute( CpgConst.NODE_ATTR_LABELS ) ) );
+    }
+
+    static LabelIndex of( final Graph graph ) {
+        return INDICES.computeIfAbsent( graph, key -> {
+            final LabelIndex index = new LabelIndex( key );
+            key.addSink( index );
+            return index;
+        } );
+    }
+
+    /**
+     * @return the nodes with any of the labels in the order of the graph
+     */
+    synchronized List<Node> getNodes( final Graph graph, final String... labels ) {
+        final Set<String> nodeIds = new HashSet<>();
+        for ( String label : labels ) {
+            nodeIds.addAll( this.nodesByLabel.getOrDefault( label, Collections.emptySet() ) );
+        }
+        final List<Node> nodes = new ArrayList<>( nodeIds.size() );
+        for ( String nodeId : nodeIds ) {
+            final Node node = graph.getNode( nodeId );
+            if ( node != null ) {
+                nodes.add( node );
+            }
+        }
+        nodes.sort( Comparator.comparingInt( Node::getIndex ) );
+        return nodes;
+    }
+
+    private synchronized void index( final String nodeId, final Object labels ) {
+        this.remove( nodeId );
+        if ( !( labels instanceof Collection<?> collection ) || collection.isEmpty() ) {
+            return;
+        }
+        final Set<String> nodeLabels = new HashSet<>();
+        collection.forEach( label -> nodeLabels.add( String.valueOf( label ) ) );
+        nodeLabels.forEach( label -> this.nodesByLabel.computeIfAbsent( label, key -> new HashSet<>() ).add( nodeId ) );
+        this.labelsByNode.put( nodeId, nodeLabels );
+    }
+
+    private synchronized void remove( final String nodeId ) {
+        final Set<String> nodeLabels = this.labelsByNode.remove( nodeId );
+        if ( nodeLabels == null ) {
+            return;
+        }
+        nodeLabels.forEach( label -> {
+            final Set<String> nodeIds = this.nodesByLabel.get( label );
+            nodeIds.remove( nodeId );
+            if ( nodeIds.isEmpty() ) {
+                this.nodesByLabel.remove( label );
+            }
+        } );
+    }
+
+    @Override
+    public void nodeAttributeAdded(
+            final String sourceId, final long timeId, final String nodeId, final String attribute,
+            final Object value ) {
+        if ( CpgConst.NODE_ATTR_LABELS.equals( attribute ) ) {
+            this.index( nodeId, value );
+        }
+    }
+
+    @Override
+    public void nodeAttributeChanged(
+            final String sourceId, final long timeId, final String nodeId, final String attribute,
+            final Object oldValue, final Object newValue ) {
+        if ( CpgConst.NODE_ATTR_LABELS.equals( attribute ) ) {
+            this.index( nodeId, newValue );
+        }
+    }
+
+    @Override
+    public void nodeAttributeRemoved(
+            final String sourceId, final long timeId, final String nodeId, final String attribute ) {
+        if ( CpgConst.NODE_ATTR_LABELS.equals( attribute ) ) {
+            this.remove( nodeId );
+        }
+    }
+
+    @Override
+    public void nodeRemoved( final String sourceId, final long timeId, final String nodeId ) {
+        this.remove( nodeId );
+    }
+
+    @Override
+    public synchronized void graphCleared( final String sourceId, final long timeId ) {
+        this.nodesByLabel.clear();
+        this.labelsByNode.clear();
+    }
+
+}
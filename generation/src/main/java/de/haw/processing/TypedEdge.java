@@ -0,0 +1,56 @@
+package de.haw.processing;
+
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.AbstractEdge;
+import org.graphstream.graph.implementations.AbstractNode;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Edge caching the ordinal of its {@link CpgEdgeType}, so checking the type of an edge doesn't look up and resolve the
+ * type attribute each time. The ordinal follows changes of the type attribute. The graphs of {@link GraphService} are
+ * created with these edges.
+ */
+public class TypedEdge extends AbstractEdge {
+
+    public static final byte NO_TYPE = -1;
+
+    private static final Map<String, CpgEdgeType> EDGE_TYPES = Arrays.stream( CpgEdgeType.values() )
+            .collect( Collectors.toMap( CpgEdgeType::name, Function.identity() ) );
+
+    private byte typeOrdinal = NO_TYPE;
+
+    TypedEdge( final String id, final Node source, final Node target, final boolean directed ) {
+        super( id, ( AbstractNode ) source, ( AbstractNode ) target, directed );
+    }
+
+    /**
+     * @return the ordinal of the {@link CpgEdgeType} of the edge or {@link #NO_TYPE}, if it has no or an unknown type
+     */
+    public byte getTypeOrdinal() {
+        return this.typeOrdinal;
+    }
+
+    /**
+     * @return the type of the edge or null, if it has no or an unknown type
+     */
+    public static CpgEdgeType resolveType( final Object type ) {
+        return type instanceof String name ? EDGE_TYPES.get( name ) : null;
+    }
+
+    @Override
+    protected void attributeChanged(
+            final AttributeChangeEvent event, final String attribute, final Object oldValue, final Object newValue ) {
+        super.attributeChanged( event, attribute, oldValue, newValue );
+        if ( CpgConst.EDGE_ATTR_TYPE.equals( attribute ) ) {
+            final CpgEdgeType type = resolveType( newValue );
+            this.typeOrdinal = type == null ? NO_TYPE : ( byte ) type.ordinal();
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package de.haw.processing.csr;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Breadth first search along leaving edges for the shortest paths (unit edge weights) from a source to the nodes with a
+ * target label, up to a max distance. The search doesn't continue beyond target nodes and ends as soon as all target
+ * nodes of the graph are settled. The buffers are reused between searches, so an instance must not be shared between
+ * threads.
+ */
+public class BoundedPathSearch {
+
+    private final CsrGraph csr;
+
+    private final int targetLabel;
+
+    private final int maxDistance;
+
+    private final int targetCount;
+
+    /**
+     * A node is visited by the current search, if its stamp equals the stamp of the search
+     */
+    private final int[] stamps;
+
+    private final int[] distances;
+
+    private final int[] parentEdges;
+
+    private final int[] queue;
+
+    private int stamp = 0;
+
+    private BoundedPathSearch( final CsrGraph csr, final String targetLabel, final int maxDistance ) {
+        this.csr = csr;
+        this.targetLabel = csr.getLabelIndex( targetLabel );
+        this.maxDistance = maxDistance;
+        this.targetCount = csr.getNodesWithLabel( targetLabel ).length;
+        this.stamps = new int[csr.getNodeCount()];
+        this.distances = new int[csr.getNodeCount()];
+        this.parentEdges = new int[csr.getNodeCount()];
+        this.queue = new int[csr.getNodeCount()];
+    }
+
+    public static BoundedPathSearch of( final CsrGraph csr, final String targetLabel, final int maxDistance ) {
+        return new BoundedPathSearch( csr, targetLabel, maxDistance );
+    }
+
+    /**
+     * @param excludedEdges indices of the edges to ignore, may be null
+     * @return the reached target nodes (without the source) in ascending order, their paths can be retrieved with
+     * {@link #getEdgePath(int)} until the next search
+     */
+    public int[] search( final int source, final BitSet excludedEdges ) {
+        this.nextStamp();
+        final boolean sourceIsTarget = this.csr.hasLabel( source, this.targetLabel );
+        final int remainingTargets = sourceIsTarget ? this.targetCount - 1 : this.targetCount;
+        final int[] targets = new int[Math.max( 0, remainingTargets )];
+        int targetsFound = 0;
+
+        this.visit( source, -1, 0 );
+        int head = 0;
+        int tail = 0;
+        this.queue[tail++] = source;
+        while ( head < tail && targetsFound < remainingTargets ) {
+            final int node = this.queue[head++];
+            final int distance = this.distances[node];
+            if ( distance >= this.maxDistance ) {
+                // nodes are dequeued by distance, so all further nodes are at the max distance as well
+                break;
+            }
+            for ( int i = 0; i < this.csr.getOutDegree( node ); i++ ) {
+                final int edge = this.csr.getOutEdge( node, i );
+                final int next = this.csr.getEdgeTarget( edge );
+                if ( this.isVisited( next ) || ( excludedEdges != null && excludedEdges.get( edge ) ) ) {
+                    continue;
+                }
+                this.visit( next, edge, distance + 1 );
+                if ( this.csr.hasLabel( next, this.targetLabel ) ) {
+                    // the search stops at targets
+                    targets[targetsFound++] = next;
+                } else {
+                    this.queue[tail++] = next;
+                }
+            }
+        }
+
+        final int[] reached = Arrays.copyOf( targets, targetsFound );
+        Arrays.sort( reached );
+        return reached;
+    }
+
+    public CsrGraph getGraph() {
+        return this.csr;
+    }
+
+    public boolean isVisited( final int node ) {
+        return this.stamps[node] == this.stamp;
+    }
+
+    /**
+     * @return the distance of a node visited by the last search
+     */
+    public int getDistance( final int node ) {
+        return this.distances[node];
+    }
+
+    /**
+     * @return the edges from the source of the last search to the visited node
+     */
+    public int[] getEdgePath( final int node ) {
+        final int[] path = new int[this.distances[node]];
+        int current = node;
+        for ( int i = path.length - 1; i >= 0; i-- ) {
+            path[i] = this.parentEdges[current];
+            current = this.csr.getEdgeSource( path[i] );
+        }
+        return path;
+    }
+
+    private void visit( final int node, final int parentEdge, final int distance ) {
+        this.stamps[node] = this.stamp;
+        this.parentEdges[node] = parentEdge;
+        this.distances[node] = distance;
+    }
+
+    private void nextStamp() {
+        if ( this.stamp == Integer.MAX_VALUE ) {
+            Arrays.fill( this.stamps, 0 );
+            this.stamp = 0;
+        }
+        this.stamp++;
+    }
+
+}
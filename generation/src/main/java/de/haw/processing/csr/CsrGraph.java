@@ -0,0 +1,295 @@
+package de.haw.processing.csr;
+
+import de.haw.processing.TypedEdge;
+import de.haw.repository.model.CpgEdgeType;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact, immutable graph for the processing stages. Nodes and edges are only identified by their int indices, the
+ * adjacency is stored in compressed sparse rows per direction, edge types as byte ordinals of {@link CpgEdgeType} and
+ * labels as bitsets. Use {@link CsrGraphAdapter} to convert from and to GraphStream.
+ */
+public class CsrGraph {
+
+    /**
+     * Type ordinal of edges without or with an unknown type
+     */
+    public static final byte NO_TYPE = TypedEdge.NO_TYPE;
+
+    private static final CpgEdgeType[] EDGE_TYPES = CpgEdgeType.values();
+
+    static {
+        if ( EDGE_TYPES.length > Byte.MAX_VALUE ) {
+            throw new IllegalStateException( "Edge types don't fit into byte ordinals." );
+        }
+    }
+
+    @Getter
+    private final String dataset;
+
+    private final String[] labelNames;
+
+    private final Map<String, Integer> labelIndices;
+
+    private final int labelWords;
+
+    /**
+     * Label bits of node i are stored in the words [i * labelWords, (i + 1) * labelWords)
+     */
+    private final long[] labelBits;
+
+    private final int[] edgeSources;
+
+    private final int[] edgeTargets;
+
+    private final byte[] edgeTypes;
+
+    private final int[] outOffsets;
+
+    private final int[] outEdges;
+
+    private final int[] inOffsets;
+
+    private final int[] inEdges;
+
+    private CsrGraph( final Builder builder ) {
+        final int nodeCount = builder.nodeCount;
+        final int edgeCount = builder.edgeCount;
+        this.dataset = builder.dataset;
+        this.labelNames = builder.labelIndices.keySet().toArray( String[]::new );
+        this.labelIndices = builder.labelIndices;
+        this.labelWords = Math.max( 1, ( this.labelNames.length + 63 ) >>> 6 );
+        this.labelBits = new long[nodeCount * this.labelWords];
+        for ( int node = 0; node < nodeCount; node++ ) {
+            for ( int label : builder.nodeLabels.get( node ) ) {
+                this.labelBits[node * this.labelWords + ( label >>> 6 )] |= 1L << label;
+            }
+        }
+        this.edgeSources = Arrays.copyOf( builder.edgeSources, edgeCount );
+        this.edgeTargets = Arrays.copyOf( builder.edgeTargets, edgeCount );
+        this.edgeTypes = Arrays.copyOf( builder.edgeTypes, edgeCount );
+        this.outOffsets = new int[nodeCount + 1];
+        this.outEdges = toRows( this.edgeSources, nodeCount, this.outOffsets );
+        this.inOffsets = new int[nodeCount + 1];
+        this.inEdges = toRows( this.edgeTargets, nodeCount, this.inOffsets );
+    }
+
+    public static Builder builder( final String dataset ) {
+        return new Builder( dataset );
+    }
+
+    /**
+     * Counting sort of the edges by their node, edges of the same node keep their order.
+     *
+     * @return the edge indices by node, the edges of node i are in [offsets[i], offsets[i + 1])
+     */
+    private static int[] toRows( final int[] edgeNodes, final int nodeCount, final int[] offsets ) {
+        for ( int node : edgeNodes ) {
+            offsets[node + 1]++;
+        }
+        for ( int node = 0; node < nodeCount; node++ ) {
+            offsets[node + 1] += offsets[node];
+        }
+        final int[] next = Arrays.copyOf( offsets, nodeCount );
+        final int[] rows = new int[edgeNodes.length];
+        for ( int edge = 0; edge < edgeNodes.length; edge++ ) {
+            rows[next[edgeNodes[edge]]++] = edge;
+        }
+        return rows;
+    }
+
+    /* NODES */
+
+    public int getNodeCount() {
+        return this.outOffsets.length - 1;
+    }
+
+    /**
+     * @return the index of the label or -1, if no node has the label
+     */
+    public int getLabelIndex( final String label ) {
+        return this.labelIndices.getOrDefault( label, -1 );
+    }
+
+    public boolean hasLabel( final int node, final int label ) {
+        return label >= 0 && ( this.labelBits[node * this.labelWords + ( label >>> 6 )] & ( 1L << label ) ) != 0;
+    }
+
+    public boolean hasLabel( final int node, final String label ) {
+        return this.hasLabel( node, this.getLabelIndex( label ) );
+    }
+
+    public Set<String> getLabels( final int node ) {
+        final Set<String> labels = new LinkedHashSet<>();
+        for ( int label = 0; label < this.labelNames.length; label++ ) {
+            if ( this.hasLabel( node, label ) ) {
+                labels.add( this.labelNames[label] );
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * @return the indices of the nodes with the label in ascending order
+     */
+    public int[] getNodesWithLabel( final String label ) {
+        final int labelIndex = this.getLabelIndex( label );
+        if ( labelIndex < 0 ) {
+            return new int[0];
+        }
+        int count = 0;
+        final int[] nodes = new int[this.getNodeCount()];
+        for ( int node = 0; node < this.getNodeCount(); node++ ) {
+            if ( this.hasLabel( node, labelIndex ) ) {
+                nodes[count++] = node;
+            }
+        }
+        return Arrays.copyOf( nodes, count );
+    }
+
+    /* EDGES */
+
+    public int getEdgeCount() {
+        return this.edgeSources.length;
+    }
+
+    public int getEdgeSource( final int edge ) {
+        return this.edgeSources[edge];
+    }
+
+    public int getEdgeTarget( final int edge ) {
+        return this.edgeTargets[edge];
+    }
+
+    public int getOpposite( final int edge, final int node ) {
+        return this.edgeSources[edge] == node ? this.edgeTargets[edge] : this.edgeSources[edge];
+    }
+
+    /**
+     * @return the ordinal of the {@link CpgEdgeType} of the edge or {@link #NO_TYPE}
+     */
+    public byte getEdgeTypeOrdinal( final int edge ) {
+        return this.edgeTypes[edge];
+    }
+
+    /**
+     * @return the type of the edge or null, if it has no known type
+     */
+    public CpgEdgeType getEdgeType( final int edge ) {
+        final byte type = this.edgeTypes[edge];
+        return type == NO_TYPE ? null : EDGE_TYPES[type];
+    }
+
+    public boolean isEdgeType( final int edge, final CpgEdgeType type ) {
+        return this.edgeTypes[edge] == type.ordinal();
+    }
+
+    /* ADJACENCY */
+
+    public int getOutDegree( final int node ) {
+        return this.outOffsets[node + 1] - this.outOffsets[node];
+    }
+
+    /**
+     * @return the i-th leaving edge of the node
+     */
+    public int getOutEdge( final int node, final int i ) {
+        return this.outEdges[this.outOffsets[node] + i];
+    }
+
+    public int getInDegree( final int node ) {
+        return this.inOffsets[node + 1] - this.inOffsets[node];
+    }
+
+    /**
+     * @return the i-th entering edge of the node
+     */
+    public int getInEdge( final int node, final int i ) {
+        return this.inEdges[this.inOffsets[node] + i];
+    }
+
+    public void forEachOutEdge( final int node, final IntConsumer edgeConsumer ) {
+        for ( int i = this.outOffsets[node]; i < this.outOffsets[node + 1]; i++ ) {
+            edgeConsumer.accept( this.outEdges[i] );
+        }
+    }
+
+    public void forEachInEdge( final int node, final IntConsumer edgeConsumer ) {
+        for ( int i = this.inOffsets[node]; i < this.inOffsets[node + 1]; i++ ) {
+            edgeConsumer.accept( this.inEdges[i] );
+        }
+    }
+
+    /**
+     * Builds a {@link CsrGraph}, nodes and edges get their indices in the order they are added.
+     */
+    public static class Builder {
+
+        private final String dataset;
+
+        private final Map<String, Integer> labelIndices = new LinkedHashMap<>();
+
+        private final List<int[]> nodeLabels = new ArrayList<>();
+
+        private int nodeCount = 0;
+
+        private int[] edgeSources = new int[16];
+
+        private int[] edgeTargets = new int[16];
+
+        private byte[] edgeTypes = new byte[16];
+
+        private int edgeCount = 0;
+
+        private Builder( final String dataset ) {
+            this.dataset = dataset;
+        }
+
+        /**
+         * @return the index of the node
+         */
+        public int addNode( final Collection<String> labels ) {
+            this.nodeLabels.add( labels.stream()
+                    .mapToInt( label -> this.labelIndices.computeIfAbsent( label, l -> this.labelIndices.size() ) )
+                    .toArray() );
+            return this.nodeCount++;
+        }
+
+        /**
+         * @param type the type of the edge, may be null
+         * @return the index of the edge
+         */
+        public int addEdge( final int source, final int target, final CpgEdgeType type ) {
+            return this.addEdge( source, target, type == null ? NO_TYPE : ( byte ) type.ordinal() );
+        }
+
+        /**
+         * @param typeOrdinal the ordinal of the type of the edge or {@link #NO_TYPE}
+         * @return the index of the edge
+         */
+        public int addEdge( final int source, final int target, final byte typeOrdinal ) {
+            if ( source < 0 || source >= this.nodeCount || target < 0 || target >= this.nodeCount ) {
+                throw new IllegalArgumentException( "Edge " + this.edgeCount + " connects unknown nodes." );
+            }
+            if ( this.edgeCount == this.edgeSources.length ) {
+                final int capacity = this.edgeCount * 2;
+                this.edgeSources = Arrays.copyOf( this.edgeSources, capacity );
+                this.edgeTargets = Arrays.copyOf( this.edgeTargets, capacity );
+                this.edgeTypes = Arrays.copyOf( this.edgeTypes, capacity );
+            }
+            this.edgeSources[this.edgeCount] = source;
+            this.edgeTargets[this.edgeCount] = target;
+            this.edgeTypes[this.edgeCount] = typeOrdinal;
+            return this.edgeCount++;
+        }
+
+        public CsrGraph build() {
+            return new CsrGraph( this );
+        }
+
+    }
+
+}
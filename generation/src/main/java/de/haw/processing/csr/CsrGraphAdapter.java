@@ -0,0 +1,76 @@
+package de.haw.processing.csr;
+
+import de.haw.processing.GraphService;
+import de.haw.processing.TypedEdge;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+/**
+ * Converts between GraphStream graphs and {@link CsrGraph}, so that the processing modules can be migrated one by one.
+ * Only the structure, the labels and the edge types are converted, other attributes stay on the GraphStream graph and
+ * can be looked up by the node and edge indices.
+ */
+public class CsrGraphAdapter {
+
+    private static final GraphService GS = GraphService.instance();
+
+    /**
+     * The indices of the nodes and edges are the GraphStream indices, as long as the graph isn't changed.
+     */
+    public static CsrGraph of( final Graph graph ) {
+        final CsrGraph.Builder builder = CsrGraph.builder( GS.getAttr( graph, CpgConst.GRAPH_ATTR_DATASET ) );
+        for ( int i = 0; i < graph.getNodeCount(); i++ ) {
+            builder.addNode( GS.getLabels( graph.getNode( i ) ) );
+        }
+        for ( int i = 0; i < graph.getEdgeCount(); i++ ) {
+            final Edge edge = graph.getEdge( i );
+            builder.addEdge( edge.getSourceNode().getIndex(), edge.getTargetNode().getIndex(), getTypeOrdinal( edge ) );
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return a new graph with the nodes, labels, edges and edge types of the CSR graph, identified by their index
+     */
+    public static Graph toGraph( final CsrGraph csr ) {
+        final Graph graph = GS.getEmptyGraph( csr.getDataset() );
+        for ( int node = 0; node < csr.getNodeCount(); node++ ) {
+            final Node graphNode = GS.addNode( graph, String.valueOf( node ) );
+            graphNode.setAttribute( CpgConst.NODE_ATTR_LABELS, csr.getLabels( node ) );
+        }
+        for ( int edge = 0; edge < csr.getEdgeCount(); edge++ ) {
+            final Edge graphEdge = graph.addEdge( String.valueOf( edge ), csr.getEdgeSource( edge ),
+                    csr.getEdgeTarget( edge ), true );
+            final CpgEdgeType type = csr.getEdgeType( edge );
+            if ( type != null ) {
+                GS.setType( graphEdge, type );
+                graphEdge.setAttribute( CpgConst.EDGE_ATTR_LABEL, type.name() );
+            }
+        }
+        return graph;
+    }
+
+    public static Node getNode( final Graph graph, final int node ) {
+        return graph.getNode( node );
+    }
+
+    public static Edge getEdge( final Graph graph, final int edge ) {
+        return graph.getEdge( edge );
+    }
+
+    /**
+     * Unlike {@link GraphService#getType(Edge)}, unknown types are mapped to {@link CsrGraph#NO_TYPE} instead of
+     * failing.
+     */
+    private static byte getTypeOrdinal( final Edge edge ) {
+        if ( edge instanceof TypedEdge typedEdge ) {
+            return typedEdge.getTypeOrdinal();
+        }
+        final CpgEdgeType type = TypedEdge.resolveType( edge.getAttribute( CpgConst.EDGE_ATTR_TYPE ) );
+        return type == null ? CsrGraph.NO_TYPE : ( byte ) type.ordinal();
+    }
+
+}
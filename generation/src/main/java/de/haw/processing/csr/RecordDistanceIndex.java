@@ -0,0 +1,398 @@
+package de.haw.processing.csr;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Distances and one shortest path (unit edge weights, along leaving edges) between all pairs of nodes with a label
+ * (records), up to a max distance. Like {@link BoundedPathSearch}, paths don't pass other records.
+ * <p>
+ * The index is computed with a bit parallel breadth first search: records are processed in batches of 64, each record
+ * of a batch owns a bit lane, so one sweep over the graph advances the searches of all records of the batch.
+ */
+public class RecordDistanceIndex {
+
+    private static final int LANES = Long.SIZE;
+
+    private final CsrGraph csr;
+
+    private final int maxDistance;
+
+    /**
+     * Indices of the records in ascending order
+     */
+    private final int[] records;
+
+    /**
+     * Pairs of the record at position i are stored in [pairOffsets[i], pairOffsets[i + 1]), ordered by target
+     */
+    private final int[] pairOffsets;
+
+    private final int[] pairTargets;
+
+    /**
+     * Edges of the path of pair p are stored in [pathOffsets[p], pathOffsets[p + 1]), so the length is the distance
+     */
+    private final int[] pathOffsets;
+
+    private final int[] pathEdges;
+
+    private RecordDistanceIndex(
+            final CsrGraph csr, final int[] records, final int maxDistance, final List<Batch> batches ) {
+        this.csr = csr;
+        this.records = records;
+        this.maxDistance = maxDistance;
+        final int pairCount = batches.stream().mapToInt( batch -> batch.targets.size ).sum();
+        final int edgeCount = batches.stream().mapToInt( batch -> batch.edges.size ).sum();
+        this.pairOffsets = new int[records.length + 1];
+        this.pairTargets = new int[pairCount];
+        this.pathOffsets = new int[pairCount + 1];
+        this.pathEdges = new int[edgeCount];
+
+        int record = 0;
+        int pair = 0;
+        int edge = 0;
+        for ( Batch batch : batches ) {
+            for ( int lane = 0; lane < batch.lanes; lane++ ) {
+                this.pairOffsets[record + 1] = this.pairOffsets[record] + batch.pairCounts[lane];
+                record++;
+            }
+            for ( int i = 0; i < batch.targets.size; i++ ) {
+                this.pairTargets[pair] = batch.targets.values[i];
+                this.pathOffsets[pair + 1] = this.pathOffsets[pair] + batch.distances.values[i];
+                pair++;
+            }
+            System.arraycopy( batch.edges.values, 0, this.pathEdges, edge, batch.edges.size );
+            edge += batch.edges.size;
+        }
+    }
+
+    /**
+     * @param parallel whether the batches are computed with a parallel stream (e.g. inside a pool of workers)
+     */
+    public static RecordDistanceIndex of(
+            final CsrGraph csr, final String recordLabel, final int maxDistance, final boolean parallel ) {
+        final int[] records = csr.getNodesWithLabel( recordLabel );
+        final int label = csr.getLabelIndex( recordLabel );
+        final int batchCount = ( records.length + LANES - 1 ) / LANES;
+        IntStream batchIndices = IntStream.range( 0, batchCount );
+        if ( parallel ) {
+            batchIndices = batchIndices.parallel();
+        }
+        // a workspace is only used by one batch at a time, so there are at most as many as concurrent batches
+        final Queue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+        final List<Batch> batches = batchIndices.mapToObj( batch -> {
+            final Workspace workspace = Optional.ofNullable( workspaces.poll() )
+                    .orElseGet( () -> new Workspace( csr.getNodeCount() ) );
+            try {
+                return Batch.compute( csr, label, maxDistance, records, batch * LANES, workspace );
+            } finally {
+                workspaces.add( workspace );
+            }
+        } ).toList();
+        return new RecordDistanceIndex( csr, records, maxDistance, batches );
+    }
+
+    public CsrGraph getGraph() {
+        return this.csr;
+    }
+
+    public int getMaxDistance() {
+        return this.maxDistance;
+    }
+
+    public int getRecordCount() {
+        return this.records.length;
+    }
+
+    public int getPairCount() {
+        return this.pairTargets.length;
+    }
+
+    /**
+     * @return the records reachable from the source record within the max distance in ascending order
+     */
+    public int[] getTargets( final int source ) {
+        final int position = Arrays.binarySearch( this.records, source );
+        if ( position < 0 ) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange( this.pairTargets, this.pairOffsets[position], this.pairOffsets[position + 1] );
+    }
+
+    /**
+     * @return the distance between the records or -1, if the target isn't reachable within the max distance
+     */
+    public int getDistance( final int source, final int target ) {
+        final int pair = this.getPair( source, target );
+        return pair < 0 ? -1 : this.pathOffsets[pair + 1] - this.pathOffsets[pair];
+    }
+
+    /**
+     * @return the edges of a shortest path between the records or an empty array, if there is none
+     */
+    public int[] getEdgePath( final int source, final int target ) {
+        final int pair = this.getPair( source, target );
+        return pair < 0 ? new int[0] : Arrays.copyOfRange( this.pathEdges, this.pathOffsets[pair],
+                this.pathOffsets[pair + 1] );
+    }
+
+    /**
+     * @return the last edge of the shortest path to the target or -1, if there is none
+     */
+    public int getPredecessorEdge( final int source, final int target ) {
+        final int pair = this.getPair( source, target );
+        return pair < 0 ? -1 : this.pathEdges[this.pathOffsets[pair + 1] - 1];
+    }
+
+    private int getPair( final int source, final int target ) {
+        final int position = Arrays.binarySearch( this.records, source );
+        if ( position < 0 ) {
+            return -1;
+        }
+        final int pair = Arrays.binarySearch( this.pairTargets, this.pairOffsets[position],
+                this.pairOffsets[position + 1], target );
+        return pair < 0 ? -1 : pair;
+    }
+
+    /**
+     * Search of up to 64 records, its pairs are ordered by record and target
+     */
+    private static class Batch {
+
+        private final int lanes;
+
+        private final int[] pairCounts;
+
+        private final IntBuffer targets = new IntBuffer();
+
+        private final IntBuffer distances = new IntBuffer();
+
+        private final IntBuffer edges = new IntBuffer();
+
+        private Batch( final int lanes ) {
+            this.lanes = lanes;
+            this.pairCounts = new int[lanes];
+        }
+
+        static Batch compute(
+                final CsrGraph csr, final int label, final int maxDistance, final int[] records, final int offset,
+                final Workspace workspace ) {
+
+            final Batch batch = new Batch( Math.min( LANES, records.length - offset ) );
+            final long[] seen = workspace.seen;
+            long[] frontier = workspace.frontier;
+            long[] next = workspace.next;
+            int[] active = workspace.active;
+            int[] nextActive = workspace.nextActive;
+            int activeCount = 0;
+            final int[] firstArrival = workspace.firstArrival;
+            final IntBuffer arrivalNext = workspace.arrivalNext;
+            final IntBuffer arrivalEdge = workspace.arrivalEdge;
+            final LongBuffer arrivalLanes = workspace.arrivalLanes;
+            final IntBuffer touched = workspace.touched;
+
+            // reached records per lane as (target, distance)
+            final IntBuffer[] reached = new IntBuffer[batch.lanes];
+            for ( int lane = 0; lane < batch.lanes; lane++ ) {
+                reached[lane] = new IntBuffer();
+                final int source = records[offset + lane];
+                if ( seen[source] == 0 ) {
+                    touched.add( source );
+                }
+                seen[source] |= 1L << lane;
+                if ( frontier[source] == 0 ) {
+                    active[activeCount++] = source;
+                }
+                frontier[source] |= 1L << lane;
+            }
+
+            for ( int distance = 0; distance < maxDistance && activeCount > 0; distance++ ) {
+                int nextCount = 0;
+                for ( int i = 0; i < activeCount; i++ ) {
+                    final int node = active[i];
+                    final long lanes = frontier[node];
+                    frontier[node] = 0;
+                    for ( int j = 0; j < csr.getOutDegree( node ); j++ ) {
+                        final int edge = csr.getOutEdge( node, j );
+                        final int target = csr.getEdgeTarget( edge );
+                        final long arriving = lanes & ~seen[target];
+                        if ( arriving == 0 ) {
+                            continue;
+                        }
+                        if ( seen[target] == 0 ) {
+                            touched.add( target );
+                        }
+                        seen[target] |= arriving;
+                        arrivalNext.add( firstArrival[target] );
+                        arrivalEdge.add( edge );
+                        arrivalLanes.add( arriving );
+                        firstArrival[target] = arrivalEdge.size - 1;
+
+                        if ( csr.hasLabel( target, label ) ) {
+                            // the search stops at records
+                            for ( long bits = arriving; bits != 0; bits &= bits - 1 ) {
+                                final IntBuffer lane = reached[Long.numberOfTrailingZeros( bits )];
+                                lane.add( target );
+                                lane.add( distance + 1 );
+                            }
+                        } else {
+                            if ( next[target] == 0 ) {
+                                nextActive[nextCount++] = target;
+                            }
+                            next[target] |= arriving;
+                        }
+                    }
+                }
+                final long[] swapLanes = frontier;
+                frontier = next;
+                next = swapLanes;
+                final int[] swapActive = active;
+                active = nextActive;
+                nextActive = swapActive;
+                activeCount = nextCount;
+            }
+            // the search stopped at the max distance with a frontier left
+            for ( int i = 0; i < activeCount; i++ ) {
+                frontier[active[i]] = 0;
+            }
+
+            for ( int lane = 0; lane < batch.lanes; lane++ ) {
+                final int[] pairs = sortByTarget( reached[lane] );
+                batch.pairCounts[lane] = pairs.length / 2;
+                for ( int p = 0; p < pairs.length; p += 2 ) {
+                    final int target = pairs[p];
+                    final int distance = pairs[p + 1];
+                    batch.targets.add( target );
+                    batch.distances.add( distance );
+                    final int[] path = new int[distance];
+                    int node = target;
+                    for ( int k = distance - 1; k >= 0; k-- ) {
+                        int arrival = firstArrival[node];
+                        while ( ( arrivalLanes.values[arrival] & ( 1L << lane ) ) == 0 ) {
+                            arrival = arrivalNext.values[arrival];
+                        }
+                        path[k] = arrivalEdge.values[arrival];
+                        node = csr.getEdgeSource( path[k] );
+                    }
+                    for ( int edge : path ) {
+                        batch.edges.add( edge );
+                    }
+                }
+            }
+            workspace.clear();
+            return batch;
+        }
+
+        /**
+         * @return the (target, distance) entries ordered by target
+         */
+        private static int[] sortByTarget( final IntBuffer pairs ) {
+            final long[] packed = new long[pairs.size / 2];
+            for ( int i = 0; i < packed.length; i++ ) {
+                packed[i] = ( ( long ) pairs.values[2 * i] << 32 ) | pairs.values[2 * i + 1];
+            }
+            Arrays.sort( packed );
+            final int[] sorted = new int[pairs.size];
+            for ( int i = 0; i < packed.length; i++ ) {
+                sorted[2 * i] = ( int ) ( packed[i] >>> 32 );
+                sorted[2 * i + 1] = ( int ) packed[i];
+            }
+            return sorted;
+        }
+
+    }
+
+    /**
+     * Buffers of a search at node count size, they are reused by the batches and cleared after each batch by resetting
+     * the nodes the batch reached
+     */
+    private static class Workspace {
+
+        /**
+         * Lanes that reached a node, and the lanes each node expands in the current and the next round
+         */
+        private final long[] seen;
+
+        private final long[] frontier;
+
+        private final long[] next;
+
+        private final int[] active;
+
+        private final int[] nextActive;
+
+        /**
+         * Arrivals of lanes at nodes by the edge they came from, chained per node, to reconstruct the paths
+         */
+        private final int[] firstArrival;
+
+        private final IntBuffer arrivalNext = new IntBuffer();
+
+        private final IntBuffer arrivalEdge = new IntBuffer();
+
+        private final LongBuffer arrivalLanes = new LongBuffer();
+
+        /**
+         * Nodes reached by the current batch
+         */
+        private final IntBuffer touched = new IntBuffer();
+
+        private Workspace( final int nodeCount ) {
+            this.seen = new long[nodeCount];
+            this.frontier = new long[nodeCount];
+            this.next = new long[nodeCount];
+            this.active = new int[nodeCount];
+            this.nextActive = new int[nodeCount];
+            this.firstArrival = new int[nodeCount];
+            Arrays.fill( this.firstArrival, -1 );
+        }
+
+        void clear() {
+            for ( int i = 0; i < this.touched.size; i++ ) {
+                this.seen[this.touched.values[i]] = 0;
+                this.firstArrival[this.touched.values[i]] = -1;
+            }
+            this.touched.size = 0;
+            this.arrivalNext.size = 0;
+            this.arrivalEdge.size = 0;
+            this.arrivalLanes.size = 0;
+        }
+
+    }
+
+    private static class IntBuffer {
+
+        private int[] values = new int[16];
+
+        private int size = 0;
+
+        void add( final int value ) {
+            if ( this.size == this.values.length ) {
+                this.values = Arrays.copyOf( this.values, this.size * 2 );
+            }
+            this.values[this.size++] = value;
+        }
+
+    }
+
+    private static class LongBuffer {
+
+        private long[] values = new long[16];
+
+        private int size = 0;
+
+        void add( final long value ) {
+            if ( this.size == this.values.length ) {
+                this.values = Arrays.copyOf( this.values, this.size * 2 );
+            }
+            this.values[this.size++] = value;
+        }
+
+    }
+
+}
@@ -1,31 +1,128 @@
 package de.haw.processing.model;
 
+import org.graphstream.graph.Graph;
+
 import java.util.*;
 
+/**
+ * Paths by their source node in the order the nodes were added. Safe to be used from multiple threads.
+ * <p>
+ * The paths are stored in columns (source, target and distance) with the edge indices of all paths in one array, so
+ * they don't keep any path or graph copies alive. All paths have to be of the same graph, which mustn't lose elements
+ * while the paths are used. {@link CpgPath}s are created on access.
+ */
 public class CpgNodePaths {
 
-    private final Map<String, List<CpgPath>> paths = new HashMap<>();
+    private final Map<String, PathIds> pathsByNode = new LinkedHashMap<>();
+
+    private Graph graph;
+
+    private int size = 0;
+
+    private int[] sources = new int[16];
+
+    private int[] targets = new int[16];
+
+    private double[] distances = new double[16];
+
+    /**
+     * Edges of path i are stored in [edgeOffsets[i], edgeOffsets[i + 1])
+     */
+    private int[] edgeOffsets = new int[17];
+
+    private int[] edges = new int[64];
 
-    public void add( final String nodeId, final CpgPath path ) {
-        if ( !this.paths.containsKey( nodeId ) ) {
-            this.paths.put( nodeId, new ArrayList<>() );
+    public synchronized void add( final String nodeId, final CpgPath path ) {
+        this.pathsByNode.computeIfAbsent( nodeId, key -> new PathIds() ).add( this.store( path ) );
+    }
+
+    public synchronized void addAll( final String nodeId, final Collection<CpgPath> paths ) {
+        if ( paths.isEmpty() ) {
+            return;
         }
-        this.get( nodeId ).add( path );
+        final PathIds pathIds = this.pathsByNode.computeIfAbsent( nodeId, key -> new PathIds() );
+        paths.forEach( path -> pathIds.add( this.store( path ) ) );
     }
 
-    public List<CpgPath> get( final String nodeId ) {
-        if ( !this.paths.containsKey( nodeId ) ) {
+    public synchronized List<CpgPath> get( final String nodeId ) {
+        final PathIds pathIds = this.pathsByNode.get( nodeId );
+        if ( pathIds == null ) {
             return new ArrayList<>();
         }
-        return this.paths.get( nodeId );
+        final List<CpgPath> paths = new ArrayList<>( pathIds.size );
+        for ( int i = 0; i < pathIds.size; i++ ) {
+            paths.add( this.load( pathIds.ids[i] ) );
+        }
+        return paths;
+    }
+
+    public synchronized Set<String> getNodes() {
+        return new LinkedHashSet<>( this.pathsByNode.keySet() );
+    }
+
+    public synchronized List<CpgPath> getAll() {
+        return this.pathsByNode.keySet().stream().flatMap( nodeId -> this.get( nodeId ).stream() ).toList();
     }
 
-    public Set<String> getNodes() {
-        return this.paths.keySet();
+    public synchronized int size() {
+        return this.size;
     }
 
-    public List<CpgPath> getAll() {
-        return this.getNodes().stream().map( this::get ).flatMap( List::stream ).toList();
+    /**
+     * @return the number of bytes of the stored columns
+     */
+    public synchronized long getStoredBytes() {
+        return 4L * ( this.sources.length + this.targets.length + this.edgeOffsets.length + this.edges.length )
+                + 8L * this.distances.length;
+    }
+
+    private int store( final CpgPath path ) {
+        final Graph pathGraph = path.getGraph();
+        if ( this.graph == null ) {
+            this.graph = pathGraph;
+        } else if ( this.graph != pathGraph ) {
+            throw new IllegalArgumentException( "Paths of different graphs can't be stored together." );
+        }
+        final int[] pathEdges = path.getEdgeIndices();
+        if ( this.size == this.sources.length ) {
+            final int capacity = this.size * 2;
+            this.sources = Arrays.copyOf( this.sources, capacity );
+            this.targets = Arrays.copyOf( this.targets, capacity );
+            this.distances = Arrays.copyOf( this.distances, capacity );
+            this.edgeOffsets = Arrays.copyOf( this.edgeOffsets, capacity + 1 );
+        }
+        final int edgeOffset = this.edgeOffsets[this.size];
+        if ( edgeOffset + pathEdges.length > this.edges.length ) {
+            this.edges = Arrays.copyOf( this.edges, Math.max( this.edges.length * 2, edgeOffset + pathEdges.length ) );
+        }
+        System.arraycopy( pathEdges, 0, this.edges, edgeOffset, pathEdges.length );
+        this.sources[this.size] = path.getSource().getIndex();
+        this.targets[this.size] = path.getTarget().getIndex();
+        this.distances[this.size] = path.getDistance();
+        this.edgeOffsets[this.size + 1] = edgeOffset + pathEdges.length;
+        return this.size++;
+    }
+
+    private CpgPath load( final int pathId ) {
+        final int[] pathEdges = Arrays.copyOfRange( this.edges, this.edgeOffsets[pathId],
+                this.edgeOffsets[pathId + 1] );
+        return CpgPath.of( this.graph.getNode( this.sources[pathId] ), this.graph.getNode( this.targets[pathId] ),
+                pathEdges, this.distances[pathId] );
+    }
+
+    private static class PathIds {
+
+        private int[] ids = new int[4];
+
+        private int size = 0;
+
+        void add( final int id ) {
+            if ( this.size == this.ids.length ) {
+                this.ids = Arrays.copyOf( this.ids, this.size * 2 );
+            }
+            this.ids[this.size++] = id;
+        }
+
     }
 
 }
@@ -1,25 +1,119 @@
 package de.haw.processing.model;
 
 import de.haw.misc.utils.PathUtils;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.Path;
 
-@Data
-@RequiredArgsConstructor( staticName = "of" )
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Path between two nodes, either backed by a GraphStream {@link Path} or by the edge indices of the graph of its
+ * source. The latter is materialized to a {@link Path} only on {@link #getPath()}, the indices stay valid as long as
+ * no elements are removed from the graph.
+ */
+@RequiredArgsConstructor( access = AccessLevel.PRIVATE )
 public class CpgPath {
 
+    @Getter
     private final Node source;
 
+    @Getter
     private final Node target;
 
-    private final Path path;
+    /**
+     * Indices of the edges in the graph of the source, null if the path is backed by a {@link Path}
+     */
+    private final int[] edges;
+
+    private Path path;
 
+    @Getter
     private final double distance;
 
+    public static CpgPath of( final Node source, final Node target, final Path path, final double distance ) {
+        final CpgPath cpgPath = new CpgPath( source, target, null, distance );
+        cpgPath.path = path;
+        return cpgPath;
+    }
+
+    /**
+     * @param edges indices of the path edges in the graph of the source, the array isn't copied
+     */
+    public static CpgPath of( final Node source, final Node target, final int[] edges, final double distance ) {
+        return new CpgPath( source, target, edges, distance );
+    }
+
+    public Graph getGraph() {
+        if ( this.edges == null && this.path.getRoot() != null ) {
+            return this.path.getRoot().getGraph();
+        }
+        return this.source.getGraph();
+    }
+
+    public Path getPath() {
+        if ( this.path == null ) {
+            final Graph graph = this.source.getGraph();
+            final Path materialized = new Path();
+            materialized.setRoot( this.source );
+            for ( int edge : this.edges ) {
+                materialized.add( graph.getEdge( edge ) );
+            }
+            this.path = materialized;
+        }
+        return this.path;
+    }
+
+    /**
+     * @return whether the path has no edges
+     */
+    public boolean isEmpty() {
+        return this.edges != null ? this.edges.length == 0 : this.path.getEdgePath().isEmpty();
+    }
+
+    /**
+     * @return the indices of the path edges in {@link #getGraph()}, the array must not be changed
+     */
+    public int[] getEdgeIndices() {
+        if ( this.edges != null ) {
+            return this.edges;
+        }
+        return this.path.getEdgePath().stream().mapToInt( Edge::getIndex ).toArray();
+    }
+
+    public List<Edge> getEdgePath() {
+        if ( this.edges == null ) {
+            return this.path.getEdgePath();
+        }
+        final Graph graph = this.source.getGraph();
+        final List<Edge> edgePath = new ArrayList<>( this.edges.length );
+        for ( int edge : this.edges ) {
+            edgePath.add( graph.getEdge( edge ) );
+        }
+        return edgePath;
+    }
+
+    public List<Node> getNodePath() {
+        if ( this.edges == null ) {
+            return this.path.getNodePath();
+        }
+        final List<Node> nodePath = new ArrayList<>( this.edges.length + 1 );
+        Node node = this.source;
+        nodePath.add( node );
+        for ( Edge edge : this.getEdgePath() ) {
+            node = edge.getOpposite( node );
+            nodePath.add( node );
+        }
+        return nodePath;
+    }
+
     @Override
     public String toString() {
-        return "CpgPath{ path=" + PathUtils.pathToString( this.path, true ) + " distance=" + distance + " }";
+        return "CpgPath{ path=" + PathUtils.pathToString( this.getPath(), true ) + " distance=" + distance + " }";
     }
 }
@@ -0,0 +1,57 @@
+package de.haw.processing.model;
+
+import de.haw.processing.TypedEdge;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Edge;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Edge type predicate compiled to a mask by type ordinal. Edges without a type or with an unknown type don't match.
+ */
+public class EdgeTypeMask implements Predicate<Edge> {
+
+    private final long[] words = new long[( CpgEdgeType.values().length + 63 ) / 64];
+
+    private EdgeTypeMask( final Collection<CpgEdgeType> types ) {
+        types.forEach( type -> this.words[type.ordinal() >>> 6] |= 1L << type.ordinal() );
+    }
+
+    public static EdgeTypeMask of( final Collection<CpgEdgeType> types ) {
+        return new EdgeTypeMask( types );
+    }
+
+    public boolean contains( final CpgEdgeType type ) {
+        return type != null && ( this.words[type.ordinal() >>> 6] & 1L << type.ordinal() ) != 0;
+    }
+
+    /**
+     * Reads the cached type ordinal of a {@link TypedEdge}, the type attribute is only resolved for other edges.
+     */
+    @Override
+    public boolean test( final Edge edge ) {
+        if ( edge instanceof TypedEdge typed ) {
+            return this.contains( typed.getTypeOrdinal() );
+        }
+        return this.contains( TypedEdge.resolveType( edge.getAttribute( CpgConst.EDGE_ATTR_TYPE ) ) );
+    }
+
+    private boolean contains( final byte ordinal ) {
+        return ordinal != TypedEdge.NO_TYPE && ( this.words[ordinal >>> 6] & 1L << ordinal ) != 0;
+    }
+
+    public Set<CpgEdgeType> getTypes() {
+        return Arrays.stream( CpgEdgeType.values() )
+                .filter( this::contains )
+                .collect( Collectors.toCollection( () -> EnumSet.noneOf( CpgEdgeType.class ) ) );
+    }
+
+    @Override
+    public String toString() {
+        return this.getTypes().toString();
+    }
+
+}
@@ -0,0 +1,109 @@
+package de.haw.processing.model;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+/**
+ * View of the edges of a graph matching an {@link EdgeTypeMask} and the nodes connected by them, without copying any
+ * element. The view keeps the visible elements by their index, so the graph mustn't lose or gain elements while the
+ * view is used. Attribute changes are visible through the view.
+ */
+public class FilteredGraphView {
+
+    private final Graph graph;
+
+    private final BitSet nodes;
+
+    private final BitSet edges;
+
+    private FilteredGraphView( final Graph graph, final BitSet nodes, final BitSet edges ) {
+        this.graph = graph;
+        this.nodes = nodes;
+        this.edges = edges;
+    }
+
+    /**
+     * @param autoConnect whether to include the edges of other types between the nodes of the view
+     */
+    public static FilteredGraphView of( final Graph graph, final EdgeTypeMask mask, final boolean autoConnect ) {
+        final BitSet nodes = new BitSet( graph.getNodeCount() );
+        final BitSet edges = new BitSet( graph.getEdgeCount() );
+        final BitSet rejected = new BitSet( graph.getEdgeCount() );
+        for ( int i = 0; i < graph.getEdgeCount(); i++ ) {
+            final Edge edge = graph.getEdge( i );
+            if ( mask.test( edge ) ) {
+                edges.set( i );
+                nodes.set( edge.getSourceNode().getIndex() );
+                nodes.set( edge.getTargetNode().getIndex() );
+            } else {
+                rejected.set( i );
+            }
+        }
+        if ( autoConnect ) {
+            rejected.stream().forEach( i -> {
+                final Edge edge = graph.getEdge( i );
+                if ( nodes.get( edge.getSourceNode().getIndex() ) && nodes.get( edge.getTargetNode().getIndex() ) ) {
+                    edges.set( i );
+                }
+            } );
+        }
+        return new FilteredGraphView( graph, nodes, edges );
+    }
+
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    public Stream<Node> nodes() {
+        return this.nodes.stream().mapToObj( this.graph::getNode );
+    }
+
+    public Stream<Edge> edges() {
+        return this.edges.stream().mapToObj( this.graph::getEdge );
+    }
+
+    public int getNodeCount() {
+        return this.nodes.cardinality();
+    }
+
+    public int getEdgeCount() {
+        return this.edges.cardinality();
+    }
+
+    /**
+     * @return the node or null, if it isn't part of the view
+     */
+    public Node getNode( final String id ) {
+        final Node node = this.graph.getNode( id );
+        return node != null && this.contains( node ) ? node : null;
+    }
+
+    /**
+     * @return the edge or null, if it isn't part of the view
+     */
+    public Edge getEdge( final String id ) {
+        final Edge edge = this.graph.getEdge( id );
+        return edge != null && this.contains( edge ) ? edge : null;
+    }
+
+    public boolean contains( final Node node ) {
+        return node.getGraph() == this.graph && this.nodes.get( node.getIndex() );
+    }
+
+    public boolean contains( final Edge edge ) {
+        return edge.getSourceNode().getGraph() == this.graph && this.edges.get( edge.getIndex() );
+    }
+
+    public Stream<Edge> leavingEdges( final Node node ) {
+        return node.leavingEdges().filter( this::contains );
+    }
+
+    public Stream<Edge> enteringEdges( final Node node ) {
+        return node.enteringEdges().filter( this::contains );
+    }
+
+}
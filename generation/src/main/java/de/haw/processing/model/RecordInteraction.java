@@ -1,6 +1,5 @@
 package de.haw.processing.model;
 
-import de.haw.misc.utils.PathUtils;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
@@ -22,7 +21,7 @@ public class RecordInteraction {
      * @return <code>true</code> if the source and target of the interaction is reversed to the path it is based on.
      */
     public boolean isReversed() {
-        final Node pathTarget = PathUtils.getLastNode( this.path.getPath() );
+        final Node pathTarget = this.path.getTarget();
         if ( pathTarget == null || StringUtils.isBlank( pathTarget.getId() ) ) {
             return false;
         }
@@ -0,0 +1,125 @@
+package de.haw.processing.model;
+
+import de.haw.processing.csr.CsrGraph;
+import de.haw.repository.model.CpgEdgeType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Interaction descriptors compiled into a table by edge type ordinal, so a path is classified and its pivot edge is
+ * found in one scan over its edges. The descriptor of a path is the one with the lowest order with a pivot type on the
+ * path (on equal orders the first descriptor of the list), its pivot edge is the last edge with a pivot type of that
+ * descriptor. Paths without pivots get the fallback descriptor.
+ */
+public class RecordInteractionClassifier {
+
+    public static final RecordInteractionClassifier DEFAULT = compile( RecordInteractionDescriptor.ALL,
+            RecordInteractionDescriptor.KNOWS_INTERACTION );
+
+    private static final int NO_RANK = Integer.MAX_VALUE;
+
+    /**
+     * Descriptors with a lower order than the fallback, ordered by their rank
+     */
+    private final RecordInteractionDescriptor[] ranked;
+
+    private final RecordInteractionDescriptor fallback;
+
+    /**
+     * Rank of the best descriptor with the edge type as pivot by type ordinal, {@link #NO_RANK} if there is none
+     */
+    private final int[] rankByType;
+
+    private RecordInteractionClassifier(
+            final List<RecordInteractionDescriptor> descriptors, final RecordInteractionDescriptor fallback ) {
+        this.fallback = fallback;
+        // sorting is stable, so descriptors of the same order keep their position
+        this.ranked = descriptors.stream()
+                .filter( descriptor -> descriptor.getOrder() < fallback.getOrder() )
+                .sorted( Comparator.comparingInt( RecordInteractionDescriptor::getOrder ) )
+                .toArray( RecordInteractionDescriptor[]::new );
+        this.rankByType = new int[CpgEdgeType.values().length];
+        Arrays.fill( this.rankByType, NO_RANK );
+        for ( int rank = this.ranked.length - 1; rank >= 0; rank-- ) {
+            for ( CpgEdgeType type : this.ranked[rank].getEdgePivots() ) {
+                this.rankByType[type.ordinal()] = rank;
+            }
+        }
+    }
+
+    /**
+     * @param fallback descriptor of paths without pivots, descriptors with the same or a higher order are ignored
+     */
+    public static RecordInteractionClassifier compile(
+            final List<RecordInteractionDescriptor> descriptors, final RecordInteractionDescriptor fallback ) {
+        return new RecordInteractionClassifier( descriptors, fallback );
+    }
+
+    /**
+     * @param types type of an edge, may be null
+     */
+    public <E> RecordInteractionDescriptor classify( final List<E> edges, final Function<E, CpgEdgeType> types ) {
+        int best = NO_RANK;
+        for ( E edge : edges ) {
+            best = Math.min( best, this.getRank( types.apply( edge ) ) );
+        }
+        return this.getDescriptor( best );
+    }
+
+    public RecordInteractionDescriptor classify( final CsrGraph csr, final int[] edges ) {
+        int best = NO_RANK;
+        for ( int edge : edges ) {
+            best = Math.min( best, this.getRank( csr, edge ) );
+        }
+        return this.getDescriptor( best );
+    }
+
+    /**
+     * @return the pivot edge or null, if the path has no pivot
+     */
+    public <E> E getPivotEdge( final List<E> edges, final Function<E, CpgEdgeType> types ) {
+        int best = NO_RANK;
+        E pivot = null;
+        for ( E edge : edges ) {
+            final int rank = this.getRank( types.apply( edge ) );
+            if ( rank <= best && rank != NO_RANK ) {
+                best = rank;
+                pivot = edge;
+            }
+        }
+        return pivot;
+    }
+
+    /**
+     * @return the index of the pivot edge or -1, if the path has no pivot
+     */
+    public int getPivotEdge( final CsrGraph csr, final int[] edges ) {
+        int best = NO_RANK;
+        int pivot = -1;
+        for ( int edge : edges ) {
+            final int rank = this.getRank( csr, edge );
+            if ( rank <= best && rank != NO_RANK ) {
+                best = rank;
+                pivot = edge;
+            }
+        }
+        return pivot;
+    }
+
+    private int getRank( final CpgEdgeType type ) {
+        return type == null ? NO_RANK : this.rankByType[type.ordinal()];
+    }
+
+    private int getRank( final CsrGraph csr, final int edge ) {
+        final byte ordinal = csr.getEdgeTypeOrdinal( edge );
+        return ordinal == CsrGraph.NO_TYPE ? NO_RANK : this.rankByType[ordinal];
+    }
+
+    private RecordInteractionDescriptor getDescriptor( final int rank ) {
+        return rank == NO_RANK ? this.fallback : this.ranked[rank];
+    }
+
+}
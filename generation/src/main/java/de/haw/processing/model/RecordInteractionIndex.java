@@ -0,0 +1,111 @@
+package de.haw.processing.model;
+
+import de.haw.processing.GraphService;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.*;
+
+/**
+ * Index of the interaction edges of a graph by the id of their record. A record is connected to one interaction node
+ * per interaction type, which is connected to the target records. The index has to be updated with {@link #add(Edge)}
+ * for each added interaction edge.
+ */
+public class RecordInteractionIndex {
+
+    private final GraphService GS = GraphService.instance();
+
+    private final Map<String, Map<RecordInteractionType, Node>> interactionNodes = new HashMap<>();
+
+    private final Map<String, Map<RecordInteractionType, Set<String>>> interactionTargets = new HashMap<>();
+
+    private RecordInteractionIndex() {
+    }
+
+    /**
+     * @return an index of the interaction edges already in the graph
+     */
+    public static RecordInteractionIndex of( final Graph graph ) {
+        final RecordInteractionIndex index = new RecordInteractionIndex();
+        graph.edges().forEach( index::add );
+        return index;
+    }
+
+    public void add( final Edge edge ) {
+        if ( !this.GS.isType( edge, CpgEdgeType.INTERACTS ) ) {
+            return;
+        }
+        final RecordInteractionType type = this.getInteractionType( edge );
+        if ( type == null ) {
+            return;
+        }
+        final Node source = edge.getSourceNode();
+        if ( !this.GS.hasLabel( source, type.name() ) ) {
+            // record -> interaction node
+            this.getInteractionNodes( source.getId() ).putIfAbsent( type, edge.getTargetNode() );
+            return;
+        }
+        // interaction node -> target record, indexed by the record of the interaction node
+        this.getRecord( source ).ifPresent( record -> {
+            this.getInteractionNodes( record.getId() ).putIfAbsent( type, source );
+            this.interactionTargets.computeIfAbsent( record.getId(),
+                            key -> new EnumMap<>( RecordInteractionType.class ) )
+                    .computeIfAbsent( type, key -> new LinkedHashSet<>() )
+                    .add( edge.getTargetNode().getId() );
+        } );
+    }
+
+    /**
+     * @return the interaction node of the record for the type
+     */
+    public Optional<Node> getInteractionNode( final String recordId, final RecordInteractionType type ) {
+        final Map<RecordInteractionType, Node> nodes = this.interactionNodes.get( recordId );
+        return Optional.ofNullable( nodes != null ? nodes.get( type ) : null );
+    }
+
+    public Set<RecordInteractionType> getInteractionTypes( final String recordId ) {
+        return Collections.unmodifiableSet(
+                this.interactionNodes.getOrDefault( recordId, Collections.emptyMap() ).keySet() );
+    }
+
+    /**
+     * @return the ids of the records the record interacts with by the type
+     */
+    public Set<String> getInteractionTargets( final String recordId, final RecordInteractionType type ) {
+        final Map<RecordInteractionType, Set<String>> targets = this.interactionTargets.get( recordId );
+        return targets != null && targets.containsKey( type )
+                ? Collections.unmodifiableSet( targets.get( type ) )
+                : Collections.emptySet();
+    }
+
+    private Map<RecordInteractionType, Node> getInteractionNodes( final String recordId ) {
+        return this.interactionNodes.computeIfAbsent( recordId,
+                key -> new EnumMap<>( RecordInteractionType.class ) );
+    }
+
+    /**
+     * @return the record connected to the interaction node
+     */
+    private Optional<Node> getRecord( final Node interactionNode ) {
+        return interactionNode.enteringEdges()
+                .filter( edge -> this.GS.isType( edge, CpgEdgeType.INTERACTS ) )
+                .map( Edge::getSourceNode )
+                .findFirst();
+    }
+
+    private RecordInteractionType getInteractionType( final Edge edge ) {
+        final String type = this.GS.getAttr( edge, CpgConst.EDGE_ATTR_INTERACTION_TYPE );
+        if ( type == null ) {
+            return null;
+        }
+        try {
+            return RecordInteractionType.valueOf( type );
+        } catch ( IllegalArgumentException e ) {
+            return null;
+        }
+    }
+
+}
@@ -1,53 +1,281 @@
 package de.haw.processing.model;
 
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import de.haw.misc.utils.CsvUtils;
 import de.haw.processing.GraphService;
 import de.haw.repository.model.CpgEdgeType;
-import lombok.Getter;
+import lombok.Builder;
+import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.graphstream.graph.Edge;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Collectors;
 
-@Getter
+/**
+ * Counts the edge type prefixes of the interaction paths by interaction type. The prefixes are kept in a trie with one
+ * root per interaction type, each trie node counts the paths starting with its prefix. Counts of different instances
+ * can be merged, so paths can be counted by multiple workers. An instance must not be shared between threads.
+ */
 @NoArgsConstructor( staticName = "instance" )
 public class RecordInteractionPathCounts {
 
+    @Data
+    @Builder
+    public static class PrefixCount {
+
+        @CsvBindByPosition( position = 0 )
+        @CsvBindByName( column = "interaction_type" )
+        private final RecordInteractionType type;
+
+        @CsvBindByPosition( position = 1 )
+        @CsvBindByName( column = "length" )
+        private final int length;
+
+        @CsvBindByPosition( position = 2 )
+        @CsvBindByName( column = "count" )
+        private final int count;
+
+        @CsvBindByPosition( position = 3 )
+        @CsvBindByName( column = "prefix" )
+        private final String prefix;
+
+        /**
+         * Edge types of the prefix, null for edges without a type
+         */
+        private final List<CpgEdgeType> edgeTypes;
+
+    }
+
+    private static final CpgEdgeType[] EDGE_TYPES = CpgEdgeType.values();
+
+    /**
+     * Child slots per trie node, one per edge type and one for edges without a type
+     */
+    private static final int SYMBOLS = EDGE_TYPES.length + 1;
+
+    private static final int NO_NODE = -1;
+
     private final GraphService GS = GraphService.instance();
 
-    private final Map<RecordInteractionType, Map<List<CpgEdgeType>, Integer>> pathCounts = new HashMap<>();
+    /**
+     * Root node by interaction type ordinal, the roots represent the empty prefix and don't count
+     */
+    private final int[] roots = this.emptyRoots();
+
+    private int size = 0;
+
+    /**
+     * Child of node n for symbol s at [n * SYMBOLS + s]
+     */
+    private int[] children = new int[0];
+
+    private int[] counts = new int[0];
+
+    private int[] parents = new int[0];
+
+    private byte[] symbols = new byte[0];
+
+    private int[] depths = new int[0];
+
+    /**
+     * Interaction type ordinal of the root of the node
+     */
+    private byte[] types = new byte[0];
 
     public void add( final RecordInteraction interaction ) {
-        if ( !this.pathCounts.containsKey( interaction.getType() ) ) {
-            this.pathCounts.put( interaction.getType(), new HashMap<>() );
+        int node = this.getRoot( interaction.getType() );
+        for ( Edge edge : interaction.getPath().getEdgePath() ) {
+            node = this.getChildOrCreate( node, this.toSymbol( this.GS.getType( edge ) ) );
+            this.counts[node]++;
+        }
+    }
+
+    /**
+     * Counts all prefixes of the edge type path for the interaction type
+     */
+    public void add( final RecordInteractionType type, final List<CpgEdgeType> edgeTypes ) {
+        int node = this.getRoot( type );
+        for ( CpgEdgeType edgeType : edgeTypes ) {
+            node = this.getChildOrCreate( node, this.toSymbol( edgeType ) );
+            this.counts[node]++;
+        }
+    }
+
+    /**
+     * Adds the counts of the other instance to this one.
+     *
+     * @return this instance
+     */
+    public RecordInteractionPathCounts merge( final RecordInteractionPathCounts other ) {
+        for ( RecordInteractionType type : RecordInteractionType.values() ) {
+            final int otherRoot = other.roots[type.ordinal()];
+            if ( otherRoot != NO_NODE ) {
+                this.merge( other, otherRoot, this.getRoot( type ) );
+            }
         }
+        return this;
+    }
 
-        final Map<List<CpgEdgeType>, Integer> interactionPathCounts = this.pathCounts.get( interaction.getType() );
-        for ( final List<CpgEdgeType> edgePath : this.getAllEdgeSubPath( interaction.getPath() ) ) {
-            if ( !interactionPathCounts.containsKey( edgePath ) ) {
-                interactionPathCounts.put( edgePath, 0 );
+    /**
+     * @return the number of counted paths starting with the edge types
+     */
+    public int getCount( final RecordInteractionType type, final List<CpgEdgeType> edgeTypes ) {
+        int node = this.roots[type.ordinal()];
+        for ( CpgEdgeType edgeType : edgeTypes ) {
+            if ( node == NO_NODE ) {
+                return 0;
             }
-            interactionPathCounts.put( edgePath, interactionPathCounts.get( edgePath ) + 1 );
+            node = this.children[node * SYMBOLS + this.toSymbol( edgeType )];
+        }
+        return node == NO_NODE || edgeTypes.isEmpty() ? 0 : this.counts[node];
+    }
+
+    /**
+     * @return the number of distinct prefixes
+     */
+    public int getPrefixCount() {
+        int prefixes = 0;
+        for ( int node = 0; node < this.size; node++ ) {
+            prefixes += this.depths[node] > 0 ? 1 : 0;
         }
+        return prefixes;
     }
 
-    private List<List<CpgEdgeType>> getAllEdgeSubPath( final CpgPath path ) {
-        final List<List<CpgEdgeType>> subPaths = new ArrayList<>();
-        final List<CpgEdgeType> edgePath = this.toEdgePath( path.getPath().getEdgePath() );
-        for ( int i = 0; i <= edgePath.size(); i++ ) {
-            final List<CpgEdgeType> subEdgePath = edgePath.subList( 0, i );
-            if ( subEdgePath.isEmpty() ) {
+    /**
+     * @param type interaction type of the prefixes, null for all types
+     * @return the k most counted prefixes, on equal counts the shorter prefix first
+     */
+    public List<PrefixCount> getTopPrefixes( final RecordInteractionType type, final int k ) {
+        return this.getTopPrefixes( type, 0, k );
+    }
+
+    /**
+     * The count of a prefix is at least the count of each longer prefix starting with it, so the most counted prefixes
+     * of all lengths are the short ones. Restricting the length compares the prefixes of the same length only.
+     *
+     * @param type   interaction type of the prefixes, null for all types
+     * @param length length of the prefixes, prefixes of all lengths if not positive
+     * @return the k most counted prefixes of the length
+     */
+    public List<PrefixCount> getTopPrefixes( final RecordInteractionType type, final int length, final int k ) {
+        if ( k <= 0 ) {
+            return new ArrayList<>();
+        }
+        final Comparator<Integer> order = Comparator.<Integer>comparingInt( node -> this.counts[node] )
+                .thenComparing( Comparator.<Integer>comparingInt( node -> this.depths[node] ).reversed() )
+                .thenComparing( Comparator.<Integer>naturalOrder().reversed() );
+        // min heap of the best k nodes, the worst of them on top
+        final PriorityQueue<Integer> best = new PriorityQueue<>( k + 1, order );
+        for ( int node = 0; node < this.size; node++ ) {
+            if ( this.depths[node] == 0 || ( length > 0 && this.depths[node] != length ) || ( type != null
+                    && this.types[node] != type.ordinal() ) ) {
                 continue;
             }
-            subPaths.add( subEdgePath );
+            best.add( node );
+            if ( best.size() > k ) {
+                best.poll();
+            }
+        }
+        final List<PrefixCount> prefixes = new ArrayList<>( best.size() );
+        while ( !best.isEmpty() ) {
+            prefixes.add( this.toPrefixCount( best.poll() ) );
+        }
+        Collections.reverse( prefixes );
+        return prefixes;
+    }
+
+    /**
+     * @return all prefixes by interaction type
+     */
+    public Map<RecordInteractionType, Map<List<CpgEdgeType>, Integer>> getPathCounts() {
+        final Map<RecordInteractionType, Map<List<CpgEdgeType>, Integer>> pathCounts = new HashMap<>();
+        this.getTopPrefixes( null, this.size ).forEach( prefix -> pathCounts
+                .computeIfAbsent( prefix.getType(), key -> new HashMap<>() )
+                .put( prefix.getEdgeTypes(), prefix.getCount() ) );
+        return pathCounts;
+    }
+
+    /**
+     * @return the k most counted prefixes of all interaction types as csv (UTF-8)
+     */
+    public byte[] toCsv( final int k ) {
+        return CsvUtils.write( this.getTopPrefixes( null, k ), PrefixCount.class );
+    }
+
+    private void merge( final RecordInteractionPathCounts other, final int otherNode, final int node ) {
+        for ( int symbol = 0; symbol < SYMBOLS; symbol++ ) {
+            final int otherChild = other.children[otherNode * SYMBOLS + symbol];
+            if ( otherChild != NO_NODE ) {
+                final int child = this.getChildOrCreate( node, symbol );
+                this.counts[child] += other.counts[otherChild];
+                this.merge( other, otherChild, child );
+            }
+        }
+    }
+
+    private int getRoot( final RecordInteractionType type ) {
+        if ( this.roots[type.ordinal()] == NO_NODE ) {
+            this.roots[type.ordinal()] = this.createNode( NO_NODE, -1, type.ordinal() );
+        }
+        return this.roots[type.ordinal()];
+    }
+
+    private int getChildOrCreate( final int node, final int symbol ) {
+        final int slot = node * SYMBOLS + symbol;
+        if ( this.children[slot] == NO_NODE ) {
+            final int child = this.createNode( node, symbol, this.types[node] );
+            this.children[slot] = child;
+        }
+        return this.children[slot];
+    }
+
+    private int createNode( final int parent, final int symbol, final int type ) {
+        if ( this.size == this.counts.length ) {
+            final int capacity = Math.max( 16, this.size * 2 );
+            this.counts = Arrays.copyOf( this.counts, capacity );
+            this.parents = Arrays.copyOf( this.parents, capacity );
+            this.symbols = Arrays.copyOf( this.symbols, capacity );
+            this.depths = Arrays.copyOf( this.depths, capacity );
+            this.types = Arrays.copyOf( this.types, capacity );
+            this.children = Arrays.copyOf( this.children, capacity * SYMBOLS );
+            Arrays.fill( this.children, this.size * SYMBOLS, this.children.length, NO_NODE );
+        }
+        this.parents[this.size] = parent;
+        this.symbols[this.size] = (byte) symbol;
+        this.depths[this.size] = parent == NO_NODE ? 0 : this.depths[parent] + 1;
+        this.types[this.size] = (byte) type;
+        return this.size++;
+    }
+
+    private int toSymbol( final CpgEdgeType edgeType ) {
+        return edgeType == null ? EDGE_TYPES.length : edgeType.ordinal();
+    }
+
+    private CpgEdgeType toEdgeType( final int symbol ) {
+        return symbol == EDGE_TYPES.length ? null : EDGE_TYPES[symbol];
+    }
+
+    private PrefixCount toPrefixCount( final int node ) {
+        final List<CpgEdgeType> edgeTypes = new ArrayList<>();
+        for ( int current = node; this.parents[current] != NO_NODE; current = this.parents[current] ) {
+            edgeTypes.add( this.toEdgeType( this.symbols[current] & 0xFF ) );
         }
-        return subPaths;
+        Collections.reverse( edgeTypes );
+        return PrefixCount.builder()
+                .type( RecordInteractionType.values()[this.types[node]] )
+                .length( edgeTypes.size() )
+                .count( this.counts[node] )
+                .prefix( edgeTypes.stream().map( String::valueOf ).collect( Collectors.joining( ">" ) ) )
+                .edgeTypes( Collections.unmodifiableList( edgeTypes ) )
+                .build();
     }
 
-    private List<CpgEdgeType> toEdgePath( final List<Edge> path ) {
-        return path.stream().map( this.GS::getType ).toList();
+    private int[] emptyRoots() {
+        final int[] emptyRoots = new int[RecordInteractionType.values().length];
+        Arrays.fill( emptyRoots, NO_NODE );
+        return emptyRoots;
     }
 
 }
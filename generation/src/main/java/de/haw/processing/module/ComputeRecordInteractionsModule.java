@@ -4,6 +4,7 @@ import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
 import de.haw.misc.utils.CollectionUtils;
 import de.haw.misc.utils.PathUtils;
+import de.haw.misc.utils.PoolUtils;
 import de.haw.processing.GraphService;
 import de.haw.processing.model.*;
 import de.haw.repository.model.CpgEdgeType;
@@ -16,11 +17,19 @@ import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor( staticName = "instance" )
 public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, Graph, Target> {
 
+    /**
+     * Length of the path prefixes in the process details, the first edge types alone don't tell the paths apart
+     */
+    public static final int DETAIL_PREFIX_LENGTH = 3;
+
+    public static final int DETAIL_PREFIX_COUNT = 3;
+
     private final GraphService GS = GraphService.instance();
 
 
@@ -33,7 +42,7 @@ public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, G
         }
 
         final CpgNodePaths recordPaths = getPaths( ctx );
-        final RecordInteractionPathCounts pathCounts = RecordInteractionPathCounts.instance();
+        final RecordInteractionIndex interactionIndex = RecordInteractionIndex.of( graph );
         final Map<String, List<RecordInteraction>> recordInteractionsBySource = new HashMap<>();
         recordPaths.getAll().forEach( path -> {
             if ( !this.isValidPath( path ) ) {
@@ -47,29 +56,47 @@ public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, G
             recordInteractionsBySource.get( sourceId ).add( interaction );
         } );
 
-        recordInteractionsBySource.keySet().forEach( sourceId -> {
-            final List<RecordInteraction> interactions = recordInteractionsBySource.get( sourceId );
-            final List<RecordInteraction> recordInteractions = this.reduceSourceInteractions( interactions );
-            recordInteractions.forEach( interaction -> {
-                pathCounts.add( interaction );
-                // add interaction node and edges
-                final Node interactionNode = this.getInteractionOrCreate( graph, interaction );
-                this.addEdgeForInteraction( graph, interactionNode, interaction.getTarget(), interaction, true );
-                // mark existing path edges with path flag
-                interaction.getPath()
-                        .getPath()
-                        .getEdgePath()
-                        .forEach( pathEdge -> graph.getEdge( pathEdge.getId() )
-                                .setAttribute( CpgConst.EDGE_ATTR_IS_PATH, true ) );
-
-            } );
-
+        final List<RecordInteraction> reducedInteractions = recordInteractionsBySource.values()
+                .stream()
+                .flatMap( interactions -> this.reduceSourceInteractions( interactions ).stream() )
+                .toList();
+
+        // the graph isn't changed while counting, so the paths can be counted by multiple workers
+        final int workers = ctx.get( PipeContext.RECORD_PATHS_WORKERS, Integer.class ).orElse( 1 );
+        final RecordInteractionPathCounts pathCounts = PoolUtils.onPool( workers, "record path counts",
+                () -> ( workers > 1 ? reducedInteractions.parallelStream() : reducedInteractions.stream() ).collect(
+                        RecordInteractionPathCounts::instance, RecordInteractionPathCounts::add,
+                        RecordInteractionPathCounts::merge ) );
+
+        reducedInteractions.forEach( interaction -> {
+            // add interaction node and edges
+            final Node interactionNode = this.getInteractionOrCreate( graph, interactionIndex, interaction );
+            this.addEdgeForInteraction( graph, interactionIndex, interactionNode, interaction.getTarget(),
+                    interaction, true );
+            // mark existing path edges with path flag
+            interaction.getPath()
+                    .getEdgePath()
+                    .forEach( pathEdge -> graph.getEdge( pathEdge.getId() )
+                            .setAttribute( CpgConst.EDGE_ATTR_IS_PATH, true ) );
         } );
 
-        //GraphUi.display( pathCounts.toGraph(), false );
+        ctx.set( PipeContext.RECORD_PATH_COUNTS, pathCounts );
+        ctx.set( PipeContext.PROCESS_DETAILS, this.getPathCountDetails( pathCounts ) );
         return graph;
     }
 
+    /**
+     * @return the {@link #DETAIL_PREFIX_COUNT} most counted path prefixes of length {@link #DETAIL_PREFIX_LENGTH} of
+     * each interaction type
+     */
+    public String getPathCountDetails( final RecordInteractionPathCounts pathCounts ) {
+        return Arrays.stream( RecordInteractionType.values() )
+                .flatMap( type -> pathCounts.getTopPrefixes( type, DETAIL_PREFIX_LENGTH, DETAIL_PREFIX_COUNT )
+                        .stream() )
+                .map( prefix -> prefix.getType() + ": " + prefix.getPrefix() + " (" + prefix.getCount() + ")" )
+                .collect( Collectors.joining( ", " ) );
+    }
+
     public CpgNodePaths getPaths( final PipeContext ctx ) {
         return ctx.get( PipeContext.RECORD_PATHS, CpgNodePaths.class ).orElseThrow( IllegalStateException::new );
     }
@@ -77,13 +104,13 @@ public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, G
     public boolean isValidPath( final CpgPath recordPath ) {
 
         // validate path distance
-        if ( recordPath.getPath().empty() ) {
+        if ( recordPath.isEmpty() ) {
             return false;
         }
 
         int iter = 0;
         final Set<String> traversedRecordScopes = new HashSet<>();
-        final List<Node> nodePath = recordPath.getPath().getNodePath();
+        final List<Node> nodePath = recordPath.getNodePath();
         for ( final Node node : nodePath ) {
             iter++;
 
@@ -112,34 +139,32 @@ public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, G
     }
 
     public Node getInteractionOrCreate(
-            final Graph graph, final RecordInteraction interaction ) {
-
-        final Optional<Edge> interactionEdge = graph.getNode( interaction.getSource().getId() )
-                .leavingEdges()
-                .filter( edge -> CpgEdgeType.INTERACTS.equals( this.GS.getType( edge ) ) )
-                .filter( edge -> interaction.getType()
-                        .name()
-                        .equals( this.GS.getAttr( edge, CpgConst.EDGE_ATTR_INTERACTION_TYPE ) ) )
-                .findFirst();
-
-        Node interactionNode;
-        if ( interactionEdge.isPresent() ) {
-            return interactionEdge.get().getTargetNode();
+            final Graph graph, final RecordInteractionIndex interactionIndex, final RecordInteraction interaction ) {
+
+        final Optional<Node> existingNode = interactionIndex.getInteractionNode( interaction.getSource().getId(),
+                interaction.getType() );
+        if ( existingNode.isPresent() ) {
+            return existingNode.get();
         }
 
-        interactionNode = this.GS.addNode( graph, String.valueOf( this.GS.genId() ) );
+        final Node interactionNode = this.GS.addNode( graph, String.valueOf( this.GS.genId() ) );
         interactionNode.setAttribute(
                 CpgConst.NODE_ATTR_DATASET, this.GS.getAttr( graph, CpgConst.GRAPH_ATTR_DATASET ) );
         this.GS.addLabel( interactionNode, interaction.getType().name() );
-        this.addEdgeForInteraction( graph, interaction.getSource(), interactionNode, interaction, false );
+        this.addEdgeForInteraction( graph, interactionIndex, interaction.getSource(), interactionNode, interaction,
+                false );
         return interactionNode;
     }
 
     public void addEdgeForInteraction(
-            final Graph graph, final Node source, final Node target, final RecordInteraction interaction,
-            final boolean applyPathAttrs ) {
-
-        if ( source.leavingEdges().anyMatch( edge -> edge.getTargetNode().getId().equals( target.getId() ) ) ) {
+            final Graph graph, final RecordInteractionIndex interactionIndex, final Node source, final Node target,
+            final RecordInteraction interaction, final boolean applyPathAttrs ) {
+
+        final String recordId = interaction.getSource().getId();
+        final boolean exists = source == interaction.getSource()
+                ? interactionIndex.getInteractionNode( recordId, interaction.getType() ).isPresent()
+                : interactionIndex.getInteractionTargets( recordId, interaction.getType() ).contains( target.getId() );
+        if ( exists ) {
             return;
         }
 
@@ -148,6 +173,7 @@ public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, G
         this.GS.setType( edge, CpgEdgeType.INTERACTS );
         edge.setAttribute( CpgConst.EDGE_ATTR_INTERACTION_TYPE, interaction.getType().name() );
         edge.setAttribute( CpgConst.EDGE_ATTR_DATASET, this.GS.getAttr( graph, CpgConst.GRAPH_ATTR_DATASET ) );
+        interactionIndex.add( edge );
 
         if ( applyPathAttrs ) {
             final String pathStr = PathUtils.pathToString( interaction.getPath().getPath(), true );
@@ -161,16 +187,11 @@ public class ComputeRecordInteractionsModule<Target> extends PipeModule<Graph, G
 
     public RecordInteraction getPathInteraction( final CpgPath recordPath ) {
 
-        final List<CpgEdgeType> pathTypes = PathUtils.getTypes( recordPath.getPath() );
-        final Node pathSource = PathUtils.getFirstNode( recordPath.getPath() );
-        final Node pathTarget = PathUtils.getLastNode( recordPath.getPath() );
+        final Node pathSource = recordPath.getSource();
+        final Node pathTarget = recordPath.getTarget();
 
-        RecordInteractionDescriptor matchedDescriptor = RecordInteractionDescriptor.KNOWS_INTERACTION;
-        for ( final RecordInteractionDescriptor descriptor : RecordInteractionDescriptor.ALL ) {
-            if ( descriptor.hasEdgePivot( pathTypes ) && descriptor.getOrder() < matchedDescriptor.getOrder() ) {
-                matchedDescriptor = descriptor;
-            }
-        }
+        final RecordInteractionDescriptor matchedDescriptor = RecordInteractionClassifier.DEFAULT.classify(
+                recordPath.getEdgePath(), this.GS::getType );
         final Node source = matchedDescriptor.isReversedInteraction() ? pathTarget : pathSource;
         final Node target = matchedDescriptor.isReversedInteraction() ? pathSource : pathTarget;
         return RecordInteraction.of( matchedDescriptor.getType(), source, target, recordPath );
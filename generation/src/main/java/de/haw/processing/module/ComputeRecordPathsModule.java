@@ -2,31 +2,36 @@ package de.haw.processing.module;
 
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
+import de.haw.misc.utils.PoolUtils;
 import de.haw.processing.GraphService;
+import de.haw.processing.csr.BoundedPathSearch;
+import de.haw.processing.csr.CsrGraph;
+import de.haw.processing.csr.CsrGraphAdapter;
+import de.haw.processing.csr.RecordDistanceIndex;
 import de.haw.processing.model.CpgNodePaths;
 import de.haw.processing.model.CpgPath;
-import de.haw.processing.model.RecordInteractionDescriptor;
-import de.haw.processing.traversal.RecordNeighbourSubgraphCopyTraverser;
-import de.haw.repository.model.CpgEdgeType;
+import de.haw.processing.model.RecordInteractionClassifier;
 import de.haw.translation.CpgConst;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.graphstream.algorithm.Dijkstra;
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor( staticName = "instance" )
 public class ComputeRecordPathsModule<Target> extends PipeModule<Graph, Graph, Target> {
 
-    private static final int MAX_PATHS_VARIATIONS = 5;
+    public static final int MAX_PATHS_VARIATIONS = 5;
 
-    private static final int MAX_PATH_DISTANCE = 10;
+    public static final int MAX_PATH_DISTANCE = 10;
 
-    private static final String SSSP_ATTR_NAME = null;
+    public static final String WORKERS_ARG = "path-workers";
 
     private final GraphService GS = GraphService.instance();
 
@@ -36,90 +41,118 @@ public class ComputeRecordPathsModule<Target> extends PipeModule<Graph, Graph, T
         final CpgNodePaths recordPaths = new CpgNodePaths();
 
         final List<Node> recordNodes = this.getRecordNodes( graph );
+        final int workers = ctx.get( PipeContext.RECORD_PATHS_WORKERS, Integer.class ).orElse( 1 );
+        final RecordDistanceIndex recordDistances = this.getRecordDistances( graph, workers );
+        final List<List<CpgPath>> pathsByRecord = this.getRecordPaths( graph, recordDistances, recordNodes, workers );
+
+        // paths are added in the order of the records, so the result doesn't depend on the workers; the distance
+        // index isn't kept in the context, so its csr graph is released with this stage
+        for ( int i = 0; i < recordNodes.size(); i++ ) {
+            recordPaths.addAll( recordNodes.get( i ).getId(), pathsByRecord.get( i ) );
+        }
 
-        recordNodes.forEach( source -> {
+        ctx.set( PipeContext.RECORD_PATHS, recordPaths );
 
-            Graph recordNeighbourSubgraph = this.getRecordNeighbourSubgraph( source );
-            for ( int i = 0; i < MAX_PATHS_VARIATIONS; i++ ) {
-                final List<CpgPath> sssps = this.getShortestPaths( recordNeighbourSubgraph, source );
-                if ( sssps.isEmpty() ) {
-                    break;
-                }
+        return graph;
+    }
 
-                recordNeighbourSubgraph = this.GS.copyGraph( recordNeighbourSubgraph );
-                boolean removed = false;
-                for ( final CpgPath sssp : sssps ) {
-                    final List<Edge> edgePath = sssp.getPath().getEdgePath();
-
-                    Edge toRemove = this.getPivotEdge( edgePath );
-                    if ( toRemove == null ) {
-                        //toRemove = edgePath.get( i % 2 == 0 ? ( edgePath.size() - 1 ) : 0 );
-                    }
-                    if ( toRemove != null ) {
-                        recordNeighbourSubgraph.removeEdge( toRemove.getId() );
-                        removed = true;
-                    }
-                }
-                sssps.forEach( path -> recordPaths.add( source.getId(), path ) );
-                if ( !removed ) {
-                    break;
-                }
-            }
-        } );
+    /**
+     * @return the distances and shortest paths between all records up to {@link #MAX_PATH_DISTANCE}
+     */
+    public RecordDistanceIndex getRecordDistances( final Graph graph, final int workers ) {
+        final CsrGraph csr = CsrGraphAdapter.of( graph );
+        return PoolUtils.onPool( workers, "record paths", () -> RecordDistanceIndex.of( csr,
+                CpgConst.NODE_LABEL_DECLARATION_RECORD, MAX_PATH_DISTANCE, workers > 1 ) );
+    }
 
-        ctx.set( PipeContext.RECORD_PATHS, recordPaths );
+    public List<List<CpgPath>> getRecordPaths( final Graph graph, final List<Node> recordNodes, final int workers ) {
+        return this.getRecordPaths( graph, this.getRecordDistances( graph, workers ), recordNodes, workers );
+    }
 
-        return graph;
+    /**
+     * Computes the paths of the records, the first variation is taken from the distance index, the others are searched
+     * with a bounded path search on the graph. With more than one worker the records are handled on a pool of that
+     * size, each worker with its own search buffers and edge mask.
+     *
+     * @return the paths of each record in the order of the records
+     */
+    public List<List<CpgPath>> getRecordPaths(
+            final Graph graph, final RecordDistanceIndex recordDistances, final List<Node> recordNodes,
+            final int workers ) {
+        final CsrGraph csr = recordDistances.getGraph();
+        final ThreadLocal<BoundedPathSearch> searches = ThreadLocal.withInitial(
+                () -> BoundedPathSearch.of( csr, CpgConst.NODE_LABEL_DECLARATION_RECORD, MAX_PATH_DISTANCE ) );
+        final ThreadLocal<BitSet> masks = ThreadLocal.withInitial( () -> new BitSet( csr.getEdgeCount() ) );
+        return PoolUtils.onPool( workers, "record paths", () -> {
+            final Stream<Node> sources = workers > 1 ? recordNodes.parallelStream() : recordNodes.stream();
+            return sources.map(
+                    source -> this.getRecordPaths( graph, recordDistances, searches.get(), masks.get(), source ) )
+                    .toList();
+        } );
     }
 
-    public List<CpgPath> getShortestPaths( final Graph graph, final Node source ) {
+    /**
+     * Searches the shortest paths to the other records up to {@link #MAX_PATH_DISTANCE}. For each variation, the pivot
+     * edges of the found paths are masked out for the next search, the graph itself isn't changed.
+     *
+     * @param excludedEdges mask of the removed edges, it's cleared before the search and can be reused afterwards
+     */
+    public List<CpgPath> getRecordPaths(
+            final Graph graph, final RecordDistanceIndex recordDistances, final BoundedPathSearch search,
+            final BitSet excludedEdges, final Node source ) {
+
+        final List<CpgPath> recordPaths = new ArrayList<>();
+        excludedEdges.clear();
+
+        for ( int i = 0; i < MAX_PATHS_VARIATIONS; i++ ) {
+            // without excluded edges, the paths are looked up in the index
+            final boolean fromIndex = i == 0;
+            final int[] targets = fromIndex
+                    ? recordDistances.getTargets( source.getIndex() )
+                    : search.search( source.getIndex(), excludedEdges );
+            if ( targets.length == 0 ) {
+                break;
+            }
 
-        final List<Node> recordNodes = this.getRecordNodes( graph );
+            boolean removed = false;
+            for ( int target : targets ) {
+                final int[] edges = fromIndex
+                        ? recordDistances.getEdgePath( source.getIndex(), target )
+                        : search.getEdgePath( target );
+                final int toRemove = this.getPivotEdge( search.getGraph(), edges );
+                if ( toRemove >= 0 ) {
+                    excludedEdges.set( toRemove );
+                    removed = true;
+                }
+                recordPaths.add( this.toCpgPath( graph, source, target, edges ) );
+            }
+            if ( !removed ) {
+                break;
+            }
+        }
 
-        final Dijkstra dijkstra = new Dijkstra( null, SSSP_ATTR_NAME, null, null, null, null );
-        dijkstra.init( graph );
-        dijkstra.setSource( graph.getNode( source.getId() ) );
-        dijkstra.compute();
-
-        return recordNodes.stream()
-                .filter( target -> !target.getId().equals( source.getId() ) )
-                .map( target -> CpgPath.of( source, target, dijkstra.getPath( target ),
-                        dijkstra.getPathLength( target ) ) )
-                .filter( path -> !path.getPath().empty() && path.getDistance() <= MAX_PATH_DISTANCE )
-                .toList();
+        return recordPaths;
     }
 
-    public Graph getRecordNeighbourSubgraph( final Node source ) {
-        final Graph subgraph = this.GS.getEmptyGraph( source.getGraph() );
-        RecordNeighbourSubgraphCopyTraverser.of( subgraph, MAX_PATH_DISTANCE ).traverse( source );
-        return subgraph;
+    private CpgPath toCpgPath( final Graph graph, final Node source, final int target, final int[] edges ) {
+        return CpgPath.of( source, graph.getNode( target ), edges, edges.length );
     }
 
     public List<Node> getRecordNodes( final Graph graph ) {
-        return graph.nodes()
-                .filter( node -> this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) )
-                .toList();
+        return this.GS.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+    }
+
+    /**
+     * Same as {@link #getPivotEdge(List)} on the edge indices of a {@link CsrGraph}.
+     *
+     * @return the index of the pivot edge or -1
+     */
+    public int getPivotEdge( final CsrGraph csr, final int[] edges ) {
+        return RecordInteractionClassifier.DEFAULT.getPivotEdge( csr, edges );
     }
 
     public Edge getPivotEdge( final List<Edge> edges ) {
-        int order = RecordInteractionDescriptor.KNOWS_INTERACTION.getOrder();
-        Edge pivot = null;
-        for ( RecordInteractionDescriptor descriptor : RecordInteractionDescriptor.ALL ) {
-            if ( descriptor.getOrder() >= order ) {
-                continue;
-            }
-            for ( Edge edge : edges ) {
-                CpgEdgeType type = GS.getType( edge );
-                if ( type == null ) {
-                    continue;
-                }
-                if ( descriptor.hasEdgePivot( type ) ) {
-                    pivot = edge;
-                    order = descriptor.getOrder();
-                }
-            }
-        }
-        return pivot;
+        return RecordInteractionClassifier.DEFAULT.getPivotEdge( edges, this.GS::getType );
     }
 
 }
@@ -3,16 +3,25 @@ package de.haw.processing.module;
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
 import de.haw.processing.GraphService;
+import de.haw.processing.model.EdgeTypeMask;
+import de.haw.processing.model.FilteredGraphView;
 import de.haw.repository.model.CpgEdgeType;
 import de.haw.translation.CpgConst;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
 
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Filters the edges of the graph by their types, the nodes without any kept edge are removed too. The graph isn't
+ * copied, the elements outside the {@link FilteredGraphView} are removed from it in place.
+ */
 @Slf4j
 @RequiredArgsConstructor( staticName = "byTypes" )
 public class CpgFilterEdgesModule<Target> extends PipeModule<Graph, Graph, Target> {
@@ -29,51 +38,40 @@ public class CpgFilterEdgesModule<Target> extends PipeModule<Graph, Graph, Targe
         log.info( "Filter CPG with types {}: nodes {} / edges {}", this.edgeTypes, graph.getNodeCount(),
                 graph.getEdgeCount() );
 
-        final Set<String> typesIncludedExplicitly = new HashSet<>();
-        final Graph filtered = this.GS.getEmptyGraph( graph );
+        final EdgeTypeMask mask = EdgeTypeMask.of( this.edgeTypes );
+        final FilteredGraphView filtered = FilteredGraphView.of( graph, mask, this.autoConnect );
 
-        graph.edges().forEach( edge -> {
-
-            final String type = edge.getAttribute( CpgConst.EDGE_ATTR_TYPE, String.class );
-
-            final boolean shouldIncludeEdge = this.edgeTypes.stream()
-                    .anyMatch( edgeType -> type.equals( edgeType.name() ) );
-            if ( shouldIncludeEdge ) {
-
-                typesIncludedExplicitly.add( type );
-                this.GS.copyEdgeToGraph( filtered, edge );
+        if ( log.isInfoEnabled() ) {
+            final Map<Boolean, Set<String>> includedTypes = filtered.edges()
+                    .collect( Collectors.partitioningBy( mask, Collectors.mapping(
+                            edge -> this.GS.getAttr( edge, CpgConst.EDGE_ATTR_TYPE ), Collectors.toSet() ) ) );
+            log.info( "Filtered CPG includes the following edge types: {}", includedTypes.get( true ) );
+            if ( this.autoConnect ) {
+                log.info( "Filtered CPG includes the following implicit edge types: {}", includedTypes.get( false ) );
             }
-
-        } );
-
-        log.info( "Filtered CPG includes the following edge types: {}", typesIncludedExplicitly );
-
-        if ( autoConnect ) {
-
-            final Set<String> typesIncludedImplicitly = new HashSet<>();
-            graph.edges().forEach( edge -> {
-
-                boolean edgeExists = filtered.getEdge( edge.getId() ) != null;
-                if ( edgeExists ) {
-                    return;
-                }
-
-                boolean sourceNodeExists = filtered.getNode( edge.getSourceNode().getId() ) != null;
-                boolean targetNodeExists = filtered.getNode( edge.getTargetNode().getId() ) != null;
-
-                if ( sourceNodeExists && targetNodeExists ) {
-
-                    final String type = edge.getAttribute( CpgConst.EDGE_ATTR_TYPE, String.class );
-                    typesIncludedImplicitly.add( type );
-                    this.GS.copyEdgeToGraph( filtered, edge );
-                }
-            } );
-
-            log.info( "Filtered CPG includes the following implicit edge types: {}", typesIncludedImplicitly );
-
         }
 
+        this.retain( graph, filtered );
+        log.info( "Filtered CPG: nodes {} / edges {}", graph.getNodeCount(), graph.getEdgeCount() );
+        return graph;
+    }
 
-        return filtered;
+    /**
+     * Removing an element moves the last element to its index, so the elements are removed by descending index to
+     * keep the indices of the view valid for the elements not visited yet.
+     */
+    private void retain( final Graph graph, final FilteredGraphView filtered ) {
+        for ( int i = graph.getEdgeCount() - 1; i >= 0; i-- ) {
+            final Edge edge = graph.getEdge( i );
+            if ( !filtered.contains( edge ) ) {
+                graph.removeEdge( edge );
+            }
+        }
+        for ( int i = graph.getNodeCount() - 1; i >= 0; i-- ) {
+            final Node node = graph.getNode( i );
+            if ( !filtered.contains( node ) ) {
+                graph.removeNode( node );
+            }
+        }
     }
 }
@@ -1,50 +1,74 @@
 package de.haw.processing.module;
 
 import de.haw.misc.pipe.PipeContext;
-import de.haw.misc.pipe.PipeModule;
 import de.haw.processing.GraphService;
+import de.haw.processing.traversal.GraphSweep;
+import de.haw.processing.traversal.GraphVisitor;
 import de.haw.translation.CpgConst;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
+/**
+ * Removes the inferred nodes and all nodes named like them.
+ */
 @Slf4j
 @RequiredArgsConstructor( staticName = "instance" )
-public class FilterInternalScopeModule<Target> extends PipeModule<Graph, Graph, Target> {
+public class FilterInternalScopeModule<Target> extends GraphSweepModule<Target> {
 
     private final GraphService GS = GraphService.instance();
 
     @Override
-    protected Graph processImpl( final Graph graph, final PipeContext ctx ) {
+    protected GraphVisitor createVisitor( final PipeContext ctx ) {
+        return new GraphVisitor() {
 
-        final Set<String> nodesToRemove = new HashSet<>();
-        final Set<String> blackListedNames = new HashSet<>();
+            private final Set<String> blackListedNames = new HashSet<>();
 
-        graph.forEach( node -> {
-            final boolean isInferred = this.GS.getAttr( node, CpgConst.NODE_ATTR_INFERRED, Boolean.class )
-                    .orElse( false );
-            if ( isInferred ) {
-                nodesToRemove.add( node.getId() );
-                final String name = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME, String.class ).orElse( "" );
+            /**
+             * The blacklisted names are only known after all nodes are visited, so the named nodes are kept by name
+             */
+            private final Map<String, List<Node>> nodesByName = new HashMap<>();
+
+            @Override
+            public boolean visitNode( final Node node ) {
+                final String name = GS.getAttr( node, CpgConst.NODE_ATTR_NAME, String.class ).orElse( "" );
+                final boolean isInferred = GS.getAttr( node, CpgConst.NODE_ATTR_INFERRED, Boolean.class )
+                        .orElse( false );
+                if ( isInferred ) {
+                    if ( StringUtils.isNotBlank( name ) ) {
+                        this.blackListedNames.add( name );
+                    }
+                    return false;
+                }
                 if ( StringUtils.isNotBlank( name ) ) {
-                    blackListedNames.add( name );
+                    this.nodesByName.computeIfAbsent( name, key -> new ArrayList<>( 1 ) ).add( node );
                 }
+                return true;
             }
-        } );
 
-        graph.forEach( node -> {
-            final String name = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME, String.class ).orElse( "" );
-            if ( StringUtils.isNotBlank( name ) && blackListedNames.contains( name ) ) {
-                nodesToRemove.add( node.getId() );
+            @Override
+            public void finish( final GraphSweep sweep ) {
+                this.blackListedNames.forEach(
+                        name -> this.nodesByName.getOrDefault( name, List.of() ).forEach( sweep::removeNode ) );
             }
-        } );
 
-        nodesToRemove.forEach( graph::removeNode );
-        return graph;
+        };
+    }
+
+    /**
+     * One pass to find the inferred names and one to find the nodes named like them
+     */
+    @Override
+    protected int getPasses() {
+        return 2;
+    }
+
+    @Override
+    protected boolean removesOnFinish() {
+        return true;
     }
 
 }
@@ -0,0 +1,53 @@
+package de.haw.processing.module;
+
+import de.haw.misc.pipe.FusibleModule;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.processing.traversal.GraphSweep;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the visitors of multiple {@link GraphSweepModule}s in one sweep over the graph, in the order of the modules.
+ */
+@Slf4j
+@RequiredArgsConstructor( staticName = "of" )
+public class FusedGraphSweepModule<Target> extends PipeModule<Graph, Graph, Target> implements FusibleModule<Target> {
+
+    @Getter
+    private final List<GraphSweepModule<Target>> modules;
+
+    @Override
+    protected Graph processImpl( final Graph graph, final PipeContext ctx ) {
+
+        GraphSweep.of( this.modules.stream().map( module -> module.createVisitor( ctx ) ).toList() ).run( graph );
+
+        final int passes = this.modules.stream().mapToInt( GraphSweepModule::getPasses ).sum();
+        final String details = this.modules.stream()
+                .map( module -> module.getClass().getSimpleName() )
+                .collect( Collectors.joining( ", ", "fused [", "]" ) ) + ": 1 sweep instead of " + passes
+                + " passes, saved " + ( passes - 1 );
+        log.info( "Processed {}", details );
+        ctx.set( PipeContext.PROCESS_DETAILS, details );
+        return graph;
+    }
+
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public PipeModule<?, ?, Target> fuse( final PipeModule<?, ?, Target> next ) {
+        if ( !( next instanceof GraphSweepModule<?> ) || this.modules.get( this.modules.size() - 1 )
+                .removesOnFinish() ) {
+            return null;
+        }
+        final List<GraphSweepModule<Target>> fused = new ArrayList<>( this.modules );
+        fused.add( ( GraphSweepModule<Target> ) next );
+        return FusedGraphSweepModule.of( fused );
+    }
+
+}
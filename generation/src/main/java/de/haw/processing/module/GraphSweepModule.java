@@ -0,0 +1,49 @@
+package de.haw.processing.module;
+
+import de.haw.misc.pipe.FusibleModule;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.processing.traversal.GraphSweep;
+import de.haw.processing.traversal.GraphVisitor;
+import org.graphstream.graph.Graph;
+
+import java.util.List;
+
+/**
+ * Module processing the graph with a {@link GraphVisitor}. Adjacent sweep modules are fused by the
+ * {@link de.haw.misc.pipe.PipeBuilder} into a {@link FusedGraphSweepModule}, which visits the graph once for all of
+ * them.
+ */
+public abstract class GraphSweepModule<Target> extends PipeModule<Graph, Graph, Target>
+        implements FusibleModule<Target> {
+
+    @Override
+    protected Graph processImpl( final Graph graph, final PipeContext ctx ) {
+        GraphSweep.of( List.of( this.createVisitor( ctx ) ) ).run( graph );
+        return graph;
+    }
+
+    @Override
+    public PipeModule<?, ?, Target> fuse( final PipeModule<?, ?, Target> next ) {
+        return FusedGraphSweepModule.of( List.of( this ) ).fuse( next );
+    }
+
+    /**
+     * @return a visitor for one sweep over the graph
+     */
+    protected abstract GraphVisitor createVisitor( final PipeContext ctx );
+
+    /**
+     * @return the number of passes over the graph the module would need without a shared sweep
+     */
+    protected abstract int getPasses();
+
+    /**
+     * Whether the visitor removes nodes when it finishes. The modules after it would still visit these nodes in a
+     * shared sweep, so such a module can only be fused as the last module.
+     */
+    protected boolean removesOnFinish() {
+        return false;
+    }
+
+}
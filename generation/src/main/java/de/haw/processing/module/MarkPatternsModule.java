@@ -2,6 +2,7 @@ package de.haw.processing.module;
 
 import de.haw.dataset.model.DatasetDesignPatterns;
 import de.haw.dataset.model.DesignPattern;
+import de.haw.dataset.model.DesignPatternIndex;
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
 import de.haw.misc.utils.NameUtils;
@@ -35,16 +36,29 @@ public class MarkPatternsModule<Target> extends PipeModule<Graph, Graph, Target>
         }
 
         final DatasetDesignPatterns dps = ctx.get( PipeContext.CPG_DESIGN_PATTERNS, null, DatasetDesignPatterns.class );
-        final Map<String, Integer> stats = new HashMap<>();
+        final List<Node> records = this.GS.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+
+        final Map<String, Integer> stats = this.annotate( records,
+                DesignPatternIndex.of( dps, ONLY_MAJOR_PATTERN_ROLES ) );
+
+        final Map<String, Pair<Integer, Integer>> resultStats = this.getStatResults( dps, stats );
+        log.info( "Result stats of marking design patterns: {}", resultStats );
 
-        graph.nodes().forEach( node -> {
+        return graph;
+    }
 
-            if ( !this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ) {
-                return;
-            }
+    /**
+     * Marks the records with the design patterns of their class, can be used to apply updated ground truth to graphs
+     * which were already generated.
+     *
+     * @return the number of marked patterns by pattern type and in total
+     */
+    public Map<String, Integer> annotate( final List<Node> records, final DesignPatternIndex index ) {
+        final Map<String, Integer> stats = new HashMap<>();
+        records.forEach( node -> {
 
             final String className = this.getClassName( node );
-            final List<DesignPattern> patterns = this.getPatterns( className, dps );
+            final List<DesignPattern> patterns = this.getPatterns( className, index );
             patterns.forEach( dp -> {
                 this.GS.addLabel( node, dp.getType().name() );
                 node.setAttribute( CpgConst.NODE_ATTR_PATTERN_ID, dp.getId() );
@@ -53,11 +67,7 @@ public class MarkPatternsModule<Target> extends PipeModule<Graph, Graph, Target>
             } );
 
         } );
-
-        final Map<String, Pair<Integer, Integer>> resultStats = this.getStatResults( dps, stats );
-        log.info( "Result stats of marking design patterns: {}", resultStats );
-
-        return graph;
+        return stats;
     }
 
     private String getClassName( final Node node ) {
@@ -67,20 +77,11 @@ public class MarkPatternsModule<Target> extends PipeModule<Graph, Graph, Target>
         return null;
     }
 
-    private List<DesignPattern> getPatterns( final String scopedClassname, final DatasetDesignPatterns datasetDps ) {
-        final List<DesignPattern> patterns = new ArrayList<>();
+    private List<DesignPattern> getPatterns( final String scopedClassname, final DesignPatternIndex index ) {
         if ( StringUtils.isBlank( scopedClassname ) || !NameUtils.isScopedClassName( scopedClassname, "." ) ) {
-            return patterns;
-        }
-        datasetDps.getPatterns().values().forEach( dps -> dps.forEach( dp -> {
-            if ( NameUtils.extractClassName( scopedClassname ).equals( dp.getClassName() ) ) {
-                patterns.add( dp );
-            }
-        } ) );
-        if ( ONLY_MAJOR_PATTERN_ROLES ) {
-            return patterns.stream().filter( DesignPattern::isMajorRole ).toList();
+            return Collections.emptyList();
         }
-        return patterns;
+        return index.getPatterns( scopedClassname );
     }
 
     private Map<String, Pair<Integer, Integer>> getStatResults(
@@ -2,8 +2,9 @@ package de.haw.processing.module;
 
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
+import de.haw.misc.utils.PoolUtils;
 import de.haw.processing.GraphService;
-import de.haw.processing.traversal.GraphProcessTraverser;
+import de.haw.processing.traversal.IndexTraverser;
 import de.haw.repository.model.CpgEdgeType;
 import de.haw.translation.CpgConst;
 import lombok.RequiredArgsConstructor;
@@ -13,18 +14,121 @@ import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 @Slf4j
 @RequiredArgsConstructor( staticName = "instance" )
 public class PropagateRecordScopeModule<Target> extends PipeModule<Graph, Graph, Target> {
 
+    public static final String WORKERS_ARG = "scope-workers";
+
     private final GraphService GS = GraphService.instance();
 
     @Override
     protected Graph processImpl( final Graph graph, final PipeContext ctx ) {
 
-        graph.nodes().forEach( node -> {
+        final int workers = ctx.get( PipeContext.RECORD_SCOPE_WORKERS, Integer.class ).orElse( 1 );
+        if ( !this.propagate( graph, workers ) ) {
+            log.info( "Parent edges aren't a forest, propagating the record scopes by traversal ..." );
+            this.propagateByTraversal( graph );
+        }
+
+        return graph;
+    }
+
+    /**
+     * Propagates the record scopes in one pass over the forest of the parent edges. The scope of each node only depends
+     * on its nearest record scope ancestor, so a traversal from a nested record scope repeats the writes of the
+     * traversal from its outer record scope. Instead of repeating them, each write is ranked by the position of its
+     * record scope in the label order and by its position in the traversal, only the last write of a node is applied.
+     * The result equals {@link #propagateByTraversal(Graph)}. With more than one worker the trees are handled on a pool
+     * of that size.
+     *
+     * @return false, if the parent edges aren't a forest (nothing is written then)
+     */
+    boolean propagate( final Graph graph, final int workers ) {
+
+        final int nodeCount = graph.getNodeCount();
+        final int[] parents = new int[nodeCount];
+        Arrays.fill( parents, -1 );
+        for ( int i = 0; i < graph.getEdgeCount(); i++ ) {
+            final Edge edge = graph.getEdge( i );
+            if ( !this.GS.isType( edge, CpgEdgeType.PARENT ) ) {
+                continue;
+            }
+            final int child = edge.getSourceNode().getIndex();
+            if ( parents[child] != -1 || child == edge.getTargetNode().getIndex() ) {
+                return false;
+            }
+            parents[child] = edge.getTargetNode().getIndex();
+        }
+
+        // nodes in the label order, record scopes are started in this order by the traversal
+        final List<Node> scopeNodes = this.GS.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD,
+                CpgConst.NODE_LABEL_SCOPE_RECORD, CpgConst.NODE_LABEL_SCOPE );
+        final int[] startTimes = new int[nodeCount];
+        for ( int i = 0; i < scopeNodes.size(); i++ ) {
+            final Node node = scopeNodes.get( i );
+            if ( !this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) && this.GS.hasLabel( node,
+                    CpgConst.NODE_LABEL_SCOPE_RECORD ) && !this.isAlreadyPropagated( node ) ) {
+                startTimes[node.getIndex()] = i + 1;
+            }
+        }
+
+        final ScopeForest forest = new ScopeForest( graph, parents, startTimes );
+        final int visited = PoolUtils.onPool( workers, "record scopes", () -> {
+            final IntStream roots = IntStream.range( 0, nodeCount ).filter( node -> parents[node] == -1 );
+            return ( workers > 1 ? roots.parallel() : roots ).map( forest::visitTree ).sum();
+        } );
+        if ( visited < nodeCount ) {
+            // the nodes of a cycle aren't reachable from a root
+            return false;
+        }
+
+        final ScopeWrites writes = new ScopeWrites( nodeCount );
+        for ( int node = 0; node < nodeCount; node++ ) {
+            final int time = forest.times[node];
+            if ( time == 0 ) {
+                continue;
+            }
+            final Node graphNode = graph.getNode( node );
+            final String recordScope = forest.scopes[node];
+            writes.write( node, time, forest.positions[node], 0, recordScope );
+            for ( int i = 0; i < graphNode.getInDegree(); i++ ) {
+                final Edge entering = graphNode.getEnteringEdge( i );
+                if ( !this.GS.isType( entering, CpgEdgeType.PARENT ) ) {
+                    writes.write( entering.getSourceNode().getIndex(), time, forest.positions[node], i + 1,
+                            recordScope );
+                }
+            }
+        }
+        for ( int i = 0; i < scopeNodes.size(); i++ ) {
+            final Node node = scopeNodes.get( i );
+            if ( this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ) {
+                this.writeRecord( writes, node, i + 1 );
+            } else if ( !this.GS.hasLabel( node, CpgConst.NODE_LABEL_SCOPE_RECORD ) && this.GS.hasLabel( node,
+                    CpgConst.NODE_LABEL_SCOPE ) && !this.isAlreadyPropagated( node ) ) {
+                this.writeIsolatedScope( writes, node, i + 1 );
+            }
+        }
+
+        writes.apply( graph );
+        return true;
+    }
+
+    /**
+     * Propagates the record scopes with a traversal from each record scope, nested record scopes are traversed again by
+     * each record scope around them.
+     */
+    void propagateByTraversal( final Graph graph ) {
+
+        // the traverser reuses its buffers for all record scopes of the graph
+        final PropagateRecordScope propagateRecordScope = PropagateRecordScope.of();
+        this.GS.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD, CpgConst.NODE_LABEL_SCOPE_RECORD,
+                CpgConst.NODE_LABEL_SCOPE ).forEach( node -> {
 
             if ( this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ) {
                 this.handleRecord( node );
@@ -34,7 +138,7 @@ public class PropagateRecordScopeModule<Target> extends PipeModule<Graph, Graph,
             final boolean alreadyPropagated = this.isAlreadyPropagated( node );
             final boolean isRecordScope = this.GS.hasLabel( node, CpgConst.NODE_LABEL_SCOPE_RECORD );
             if ( isRecordScope && !alreadyPropagated ) {
-                this.handleRecordScope( node );
+                propagateRecordScope.traverse( node );
                 return;
             }
 
@@ -44,8 +148,32 @@ public class PropagateRecordScopeModule<Target> extends PipeModule<Graph, Graph,
             }
 
         } );
+    }
 
-        return graph;
+    private void writeRecord( final ScopeWrites writes, final Node node, final int time ) {
+        final String recordScope = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL );
+        writes.write( node.getIndex(), time, 0, 0, recordScope );
+        for ( int i = 0; i < node.getInDegree(); i++ ) {
+            final Edge entering = node.getEnteringEdge( i );
+            if ( this.GS.isType( entering, CpgEdgeType.RECORD_DECLARATION ) ) {
+                writes.write( entering.getSourceNode().getIndex(), time, 0, i + 1, recordScope );
+            }
+        }
+    }
+
+    private void writeIsolatedScope( final ScopeWrites writes, final Node node, final int time ) {
+        final String recordScope = this.getIsolatedRecordScope( node );
+        if ( recordScope == null ) {
+            return;
+        }
+        writes.write( node.getIndex(), time, 0, 0, recordScope );
+        for ( int i = 0; i < node.getInDegree(); i++ ) {
+            final Edge entering = node.getEnteringEdge( i );
+            if ( this.GS.isType( entering, CpgEdgeType.SCOPE ) && !this.isAlreadyPropagated(
+                    entering.getSourceNode() ) ) {
+                writes.write( entering.getSourceNode().getIndex(), time, 0, i + 1, recordScope );
+            }
+        }
     }
 
     private void handleRecord( final Node node ) {
@@ -58,14 +186,8 @@ public class PropagateRecordScopeModule<Target> extends PipeModule<Graph, Graph,
     }
 
     private void handleIsolatedScopes( final Node node ) {
-        final String recordScope = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_SCOPED );
-        if ( StringUtils.isBlank( recordScope ) ) {
-            return;
-        }
-        if ( recordScope.toLowerCase().equals( recordScope ) ) {
-            return;
-        }
-        if ( recordScope.equals( this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL ) ) ) {
+        final String recordScope = this.getIsolatedRecordScope( node );
+        if ( recordScope == null ) {
             return;
         }
         node.setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, recordScope );
@@ -77,47 +199,203 @@ public class PropagateRecordScopeModule<Target> extends PipeModule<Graph, Graph,
 
     }
 
+    /**
+     * @return the scoped name of the scope, if it names a record scope, otherwise null
+     */
+    private String getIsolatedRecordScope( final Node node ) {
+        final String recordScope = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_SCOPED );
+        if ( StringUtils.isBlank( recordScope ) ) {
+            return null;
+        }
+        if ( recordScope.toLowerCase().equals( recordScope ) ) {
+            return null;
+        }
+        if ( recordScope.equals( this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL ) ) ) {
+            return null;
+        }
+        return recordScope;
+    }
+
     private boolean isAlreadyPropagated( final Node node ) {
         return this.GS.hasLabel( node, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD );
     }
 
-    private void handleRecordScope( final Node node ) {
-        PropagateRecordScope.of().traverse( node );
+    /**
+     * Record scopes of the nodes of the parent forest. The trees don't share any nodes, so they can be visited in
+     * parallel.
+     */
+    private static class ScopeForest {
+
+        private final GraphService GS = GraphService.instance();
+
+        private final Graph graph;
+
+        private final int[] parents;
+
+        private final int[] startTimes;
+
+        /**
+         * Latest start time of the record scopes which reach the node by index, 0 if none reaches it
+         */
+        private final int[] times;
+
+        /**
+         * Position of the node in the traversal of its tree by index
+         */
+        private final int[] positions;
+
+        /**
+         * Full name of the nearest record scope of the node by index
+         */
+        private final String[] scopes;
+
+        ScopeForest( final Graph graph, final int[] parents, final int[] startTimes ) {
+            this.graph = graph;
+            this.parents = parents;
+            this.startTimes = startTimes;
+            this.times = new int[parents.length];
+            this.positions = new int[parents.length];
+            this.scopes = new String[parents.length];
+        }
+
+        /**
+         * Visits the children in the same order as the traversal, so the positions match its order of writes.
+         *
+         * @return the number of visited nodes
+         */
+        int visitTree( final int root ) {
+            int[] stack = new int[16];
+            int size = 0;
+            int position = 0;
+            stack[size++] = root;
+            while ( size > 0 ) {
+                final int node = stack[--size];
+                final int parent = this.parents[node];
+                final Node graphNode = this.graph.getNode( node );
+
+                String recordScope = parent < 0 ? null : this.scopes[parent];
+                int time = Math.max( parent < 0 ? 0 : this.times[parent], this.startTimes[node] );
+                if ( this.GS.hasLabel( graphNode, CpgConst.NODE_LABEL_SCOPE_RECORD ) ) {
+                    recordScope = this.GS.getAttr( graphNode, CpgConst.NODE_ATTR_NAME_FULL );
+                    if ( StringUtils.isBlank( recordScope ) ) {
+                        // a traversal doesn't continue over a record scope without name
+                        time = 0;
+                    }
+                }
+                this.scopes[node] = recordScope;
+                this.times[node] = time;
+                this.positions[node] = position++;
+
+                for ( int i = 0; i < graphNode.getInDegree(); i++ ) {
+                    final Edge entering = graphNode.getEnteringEdge( i );
+                    if ( this.GS.isType( entering, CpgEdgeType.PARENT ) ) {
+                        if ( size == stack.length ) {
+                            stack = Arrays.copyOf( stack, size * 2 );
+                        }
+                        stack[size++] = entering.getSourceNode().getIndex();
+                    }
+                }
+            }
+            return position;
+        }
+
     }
 
-    @Slf4j
-    @RequiredArgsConstructor( staticName = "of" )
-    private static class PropagateRecordScope extends GraphProcessTraverser<String> {
+    /**
+     * Keeps the last write of the record scope per node, writes are ordered by time, position and slot.
+     */
+    private static class ScopeWrites {
+
+        private final int[] times;
+
+        private final int[] positions;
+
+        private final int[] slots;
+
+        private final String[] scopes;
+
+        ScopeWrites( final int nodeCount ) {
+            this.times = new int[nodeCount];
+            this.positions = new int[nodeCount];
+            this.slots = new int[nodeCount];
+            this.scopes = new String[nodeCount];
+        }
+
+        void write( final int node, final int time, final int position, final int slot, final String recordScope ) {
+            if ( time < this.times[node] ) {
+                return;
+            }
+            if ( time == this.times[node] ) {
+                if ( position < this.positions[node] ) {
+                    return;
+                }
+                if ( position == this.positions[node] && slot < this.slots[node] ) {
+                    return;
+                }
+            }
+            this.times[node] = time;
+            this.positions[node] = position;
+            this.slots[node] = slot;
+            this.scopes[node] = recordScope;
+        }
+
+        void apply( final Graph graph ) {
+            for ( int node = 0; node < this.times.length; node++ ) {
+                if ( this.times[node] > 0 ) {
+                    graph.getNode( node ).setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, this.scopes[node] );
+                }
+            }
+        }
+
+    }
+
+    private static class PropagateRecordScope extends IndexTraverser<String> {
 
         private final GraphService GS = GraphService.instance();
 
+        private PropagateRecordScope() {
+            super( Order.DFS );
+        }
+
+        static PropagateRecordScope of() {
+            return new PropagateRecordScope();
+        }
+
         @Override
-        protected OutputData<String> process( final Node node, final String message, final TraversalContext ctx ) {
+        protected boolean process( final int node, final String message, final int edge, final int depth ) {
 
-            String tempRecordScope = message;
+            final Node graphNode = this.getGraph().getNode( node );
+            String recordScope = message;
 
-            if ( this.GS.hasLabel( node, CpgConst.NODE_LABEL_SCOPE_RECORD ) ) {
-                tempRecordScope = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL );
+            if ( this.GS.hasLabel( graphNode, CpgConst.NODE_LABEL_SCOPE_RECORD ) ) {
+                recordScope = this.GS.getAttr( graphNode, CpgConst.NODE_ATTR_NAME_FULL );
             }
 
-            if ( StringUtils.isBlank( tempRecordScope ) ) {
-                return OutputData.of( null, false );
+            if ( StringUtils.isBlank( recordScope ) ) {
+                return false;
             }
 
+            graphNode.setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, recordScope );
+            for ( int i = 0; i < graphNode.getInDegree(); i++ ) {
+                final Edge entering = graphNode.getEnteringEdge( i );
+                if ( !this.GS.isType( entering, CpgEdgeType.PARENT ) ) {
+                    entering.getSourceNode().setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, recordScope );
+                }
+            }
 
-            final String recordScope = tempRecordScope;
-            node.setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, recordScope );
-            node.enteringEdges()
-                    .filter( edge -> !this.GS.isType( edge, CpgEdgeType.PARENT ) )
-                    .forEach( edge -> edge.getSourceNode()
-                            .setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, recordScope ) );
-
-            return OutputData.of( tempRecordScope, true );
+            this.setMessage( recordScope );
+            return true;
         }
 
         @Override
-        protected List<Edge> next( final Node node ) {
-            return node.enteringEdges().filter( edge -> this.GS.isType( edge, CpgEdgeType.PARENT ) ).toList();
+        protected void next( final int node, final IntConsumer edges ) {
+            final Node graphNode = this.getGraph().getNode( node );
+            for ( int i = 0; i < graphNode.getInDegree(); i++ ) {
+                final Edge entering = graphNode.getEnteringEdge( i );
+                if ( this.GS.isType( entering, CpgEdgeType.PARENT ) ) {
+                    edges.accept( entering.getIndex() );
+                }
+            }
         }
     }
 
@@ -1,48 +1,54 @@
 package de.haw.processing.module;
 
 import de.haw.misc.pipe.PipeContext;
-import de.haw.misc.pipe.PipeModule;
 import de.haw.processing.GraphService;
+import de.haw.processing.traversal.GraphVisitor;
 import de.haw.repository.model.CpgEdgeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.graphstream.graph.Graph;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Node;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Slf4j
 @RequiredArgsConstructor( staticName = "instance" )
-public class RemoveBlacklistElementsModule<Target> extends PipeModule<Graph, Graph, Target> {
+public class RemoveBlacklistElementsModule<Target> extends GraphSweepModule<Target> {
 
     private final GraphService GS = GraphService.instance();
 
     public final static List<String> NODE_LABEL_BLACKLIST = Arrays.asList( "JavaLanguage" );
 
-    public final static List<CpgEdgeType> EDGE_TYPE_BLACKLIST = Arrays.asList( CpgEdgeType.AST_NODE, CpgEdgeType.EOG );
+    /**
+     * Contains the edge types of the passes skipped by a {@link de.haw.translation.CpgPassProfile}
+     */
+    public final static List<CpgEdgeType> EDGE_TYPE_BLACKLIST = Arrays.asList( CpgEdgeType.AST_NODE, CpgEdgeType.EOG,
+            CpgEdgeType.CDG, CpgEdgeType.PDG );
 
     @Override
-    protected Graph processImpl( final Graph graph, final PipeContext ctx ) {
+    protected GraphVisitor createVisitor( final PipeContext ctx ) {
+        return new GraphVisitor() {
 
-        final Set<String> nodeIdsToRemove = new HashSet<>();
-        graph.nodes().forEach( node -> {
-            if ( NODE_LABEL_BLACKLIST.stream().anyMatch( label -> this.GS.hasLabel( node, label ) ) ) {
-                nodeIdsToRemove.add( node.getId() );
+            @Override
+            public boolean visitNode( final Node node ) {
+                return NODE_LABEL_BLACKLIST.stream().noneMatch( label -> GS.hasLabel( node, label ) );
             }
-        } );
-        nodeIdsToRemove.forEach( graph::removeNode );
 
-        final Set<String> edgeIdsToRemove = new HashSet<>();
-        graph.edges().forEach( edge -> {
-            if ( this.GS.isAnyType( edge, EDGE_TYPE_BLACKLIST ) ) {
-                edgeIdsToRemove.add( edge.getId() );
+            @Override
+            public boolean visitEdge( final Edge edge ) {
+                return !GS.isAnyType( edge, EDGE_TYPE_BLACKLIST );
             }
-        } );
-        edgeIdsToRemove.forEach( graph::removeEdge );
 
+        };
+    }
 
-        return graph;
+    /**
+     * One pass over the nodes and one over the edges
+     */
+    @Override
+    protected int getPasses() {
+        return 2;
     }
+
 }
@@ -0,0 +1,90 @@
+package de.haw.processing.scripts;
+
+import com.sun.management.ThreadMXBean;
+import de.haw.Main;
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.model.Dataset;
+import de.haw.dataset.module.LoadDatasetFileModule;
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeBenchmark;
+import de.haw.misc.pipe.PipeBuilder;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.utils.CsvUtils;
+import de.haw.processing.module.FilterInternalScopeModule;
+import de.haw.processing.module.PropagateRecordScopeModule;
+import de.haw.processing.module.RemoveBlacklistElementsModule;
+import de.haw.translation.module.CachedTranslationModule;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Graph;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup of the benchmarks of the processing stages.
+ */
+@Slf4j
+public class ProcessingBenchmarks {
+
+    public static final String DATASETS_ARG = "datasets";
+
+    public static final String REPETITIONS_ARG = "repetitions";
+
+    /**
+     * @return the requests of <code>--datasets=patterns|p-mart</code>, the pattern datasets by default
+     */
+    public static List<TranslationRequest> getRequests( final Args args ) {
+        final String datasets = args.getOrElse( DATASETS_ARG, "patterns" );
+        return switch ( datasets ) {
+            case "patterns" -> Main.getPatternRequests();
+            case "p-mart" -> Main.getPmartRequests();
+            default -> throw new IllegalArgumentException( "Unknown datasets: " + datasets );
+        };
+    }
+
+    public static int getRepetitions( final Args args ) {
+        return Math.max( 1, Integer.parseInt( args.getOrElse( REPETITIONS_ARG, "3" ) ) );
+    }
+
+    /**
+     * @return the graph of the dataset as it's passed to the path computation
+     */
+    public static Graph prepareGraph( final TranslationRequest request, final Args args ) {
+        final PipeContext ctx = PipeContext.empty();
+        ctx.set( PipeContext.ARGS_KEY, args );
+        ctx.set( PipeContext.CPG_DEPTH_KEY, request.getDepth() );
+        ctx.set( PipeContext.CPG_MIN_DEPTH_KEY, 7 );
+        ctx.set( PipeContext.PROCESS_NAME, request.getDataset().getName() );
+        ctx.set( PipeContext.PIPE_BENCHMARKS, new ArrayList<PipeBenchmark>() );
+        return PipeBuilder.<Dataset, Graph>builder()
+                .add( LoadDatasetFileModule.instance() )
+                .add( CachedTranslationModule.instance() )
+                .add( RemoveBlacklistElementsModule.instance() )
+                .add( FilterInternalScopeModule.instance() )
+                .add( PropagateRecordScopeModule.instance() )
+                .buildExecutor()
+                .execute( request.getDataset(), ctx );
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, to measure the allocations of single threaded code
+     */
+    public static long getAllocatedBytes() {
+        final ThreadMXBean threads = ( ThreadMXBean ) ManagementFactory.getThreadMXBean();
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    public static <T> void saveToCsv( final List<T> rows, final Class<T> rowClass, final String csvPath ) {
+        final byte[] csv = CsvUtils.write( rows, rowClass );
+        try ( FileOutputStream fileOutputStream = new FileOutputStream( csvPath ) ) {
+            fileOutputStream.write( csv );
+            log.info( "Saved benchmark to {}", csvPath );
+        } catch ( IOException e ) {
+            log.info( "Failed to write csv: {}", e.getMessage() );
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package de.haw.processing.scripts;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.DesignPatternLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.Args;
+import de.haw.misc.Timer;
+import de.haw.misc.utils.FormatUtils;
+import de.haw.processing.GraphService;
+import de.haw.processing.model.CpgPath;
+import de.haw.processing.module.ComputeRecordPathsModule;
+import de.haw.processing.traversal.RecordNeighbourSubgraphCopyTraverser;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.algorithm.Dijkstra;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the record path search of {@link ComputeRecordPathsModule} with the previous Dijkstra search on copied
+ * neighbour subgraphs on the datasets (see <code>--datasets</code>, e.g. <code>--datasets=p-mart</code> for the large
+ * ones). Both run single threaded, the time is the best of <code>--repetitions</code>.
+ */
+@Slf4j
+public class RecordPathSearchBenchmark {
+
+    @Data
+    @Builder
+    public static class SearchCsv {
+
+        @CsvBindByPosition( position = 0 )
+        @CsvBindByName( column = "dataset" )
+        private final String dataset;
+
+        @CsvBindByPosition( position = 1 )
+        @CsvBindByName( column = "records" )
+        private final int records;
+
+        @CsvBindByPosition( position = 2 )
+        @CsvBindByName( column = "subgraph_paths" )
+        private final int subgraphPaths;
+
+        @CsvBindByPosition( position = 3 )
+        @CsvBindByName( column = "subgraph_time_sec" )
+        private final String subgraphTimeSec;
+
+        @CsvBindByPosition( position = 4 )
+        @CsvBindByName( column = "subgraph_alloc_mb" )
+        private final String subgraphAllocMb;
+
+        @CsvBindByPosition( position = 5 )
+        @CsvBindByName( column = "bfs_paths" )
+        private final int bfsPaths;
+
+        @CsvBindByPosition( position = 6 )
+        @CsvBindByName( column = "bfs_time_sec" )
+        private final String bfsTimeSec;
+
+        @CsvBindByPosition( position = 7 )
+        @CsvBindByName( column = "bfs_alloc_mb" )
+        private final String bfsAllocMb;
+
+        @CsvBindByPosition( position = 8 )
+        @CsvBindByName( column = "speedup" )
+        private final String speedup;
+
+    }
+
+    @Data
+    @RequiredArgsConstructor( staticName = "of" )
+    private static class Measurement {
+
+        private final int paths;
+
+        private final double timeSec;
+
+        private final double allocMb;
+
+    }
+
+    private static final String CSV_PATH = DesignPatternLoader.BASE_PATH_JAVA + "record_path_search.csv";
+
+    public static void main( String[] args ) {
+
+        final Args arguments = Args.of( args );
+        final int repetitions = ProcessingBenchmarks.getRepetitions( arguments );
+
+        final List<SearchCsv> rows = new ArrayList<>();
+        for ( TranslationRequest request : ProcessingBenchmarks.getRequests( arguments ) ) {
+            final Dataset dataset = request.getDataset();
+            final Graph graph;
+            try {
+                graph = ProcessingBenchmarks.prepareGraph( request, arguments );
+            } catch ( Exception e ) {
+                log.error( "Couldn't prepare dataset {}: {}", dataset.getName(), e.getMessage() );
+                continue;
+            }
+
+            final ComputeRecordPathsModule<Graph> module = ComputeRecordPathsModule.instance();
+            final List<Node> records = module.getRecordNodes( graph );
+            final Measurement subgraph = measure( repetitions,
+                    () -> records.stream().map( record -> getRecordPathsOnSubgraph( module, record ) ).toList() );
+            final Measurement bfs = measure( repetitions, () -> module.getRecordPaths( graph, records, 1 ) );
+
+            final double speedup = bfs.getTimeSec() > 0 ? subgraph.getTimeSec() / bfs.getTimeSec() : 1;
+            log.info( "{}: {} records, subgraph search {} paths in {} sec, bfs {} paths in {} sec", dataset.getName(),
+                    records.size(), subgraph.getPaths(), FormatUtils.format( subgraph.getTimeSec(), 3 ),
+                    bfs.getPaths(), FormatUtils.format( bfs.getTimeSec(), 3 ) );
+            rows.add( SearchCsv.builder()
+                    .dataset( dataset.getName() )
+                    .records( records.size() )
+                    .subgraphPaths( subgraph.getPaths() )
+                    .subgraphTimeSec( FormatUtils.format( subgraph.getTimeSec(), 3 ) )
+                    .subgraphAllocMb( FormatUtils.format( subgraph.getAllocMb(), 1 ) )
+                    .bfsPaths( bfs.getPaths() )
+                    .bfsTimeSec( FormatUtils.format( bfs.getTimeSec(), 3 ) )
+                    .bfsAllocMb( FormatUtils.format( bfs.getAllocMb(), 1 ) )
+                    .speedup( FormatUtils.format( speedup, 2 ) )
+                    .build() );
+        }
+
+        ProcessingBenchmarks.saveToCsv( rows, SearchCsv.class, CSV_PATH );
+    }
+
+    /**
+     * Previous path computation of {@link ComputeRecordPathsModule} on a copied neighbour subgraph of the record with
+     * Dijkstra, the baseline of the benchmark.
+     */
+    private static List<CpgPath> getRecordPathsOnSubgraph(
+            final ComputeRecordPathsModule<Graph> module, final Node source ) {
+
+        final List<CpgPath> recordPaths = new ArrayList<>();
+
+        Graph recordNeighbourSubgraph = getRecordNeighbourSubgraph( source );
+        for ( int i = 0; i < ComputeRecordPathsModule.MAX_PATHS_VARIATIONS; i++ ) {
+            final List<CpgPath> sssps = getShortestPaths( module, recordNeighbourSubgraph, source );
+            if ( sssps.isEmpty() ) {
+                break;
+            }
+
+            recordNeighbourSubgraph = GraphService.instance().copyGraph( recordNeighbourSubgraph );
+            boolean removed = false;
+            for ( final CpgPath sssp : sssps ) {
+                final Edge toRemove = module.getPivotEdge( sssp.getPath().getEdgePath() );
+                if ( toRemove != null ) {
+                    recordNeighbourSubgraph.removeEdge( toRemove.getId() );
+                    removed = true;
+                }
+            }
+            recordPaths.addAll( sssps );
+            if ( !removed ) {
+                break;
+            }
+        }
+
+        return recordPaths;
+    }
+
+    private static List<CpgPath> getShortestPaths(
+            final ComputeRecordPathsModule<Graph> module, final Graph graph, final Node source ) {
+
+        final List<Node> recordNodes = module.getRecordNodes( graph );
+
+        final Dijkstra dijkstra = new Dijkstra( null, null, null, null, null, null );
+        dijkstra.init( graph );
+        dijkstra.setSource( graph.getNode( source.getId() ) );
+        dijkstra.compute();
+
+        return recordNodes.stream()
+                .filter( target -> !target.getId().equals( source.getId() ) )
+                .map( target -> CpgPath.of( source, target, dijkstra.getPath( target ),
+                        dijkstra.getPathLength( target ) ) )
+                .filter( path -> !path.getPath().empty()
+                        && path.getDistance() <= ComputeRecordPathsModule.MAX_PATH_DISTANCE )
+                .toList();
+    }
+
+    private static Graph getRecordNeighbourSubgraph( final Node source ) {
+        final Graph subgraph = GraphService.instance().getEmptyGraph( source.getGraph() );
+        RecordNeighbourSubgraphCopyTraverser.of( subgraph, ComputeRecordPathsModule.MAX_PATH_DISTANCE )
+                .traverse( source );
+        return subgraph;
+    }
+
+    private static Measurement measure( final int repetitions, final Supplier<List<List<CpgPath>>> search ) {
+        double bestSec = Double.MAX_VALUE;
+        double allocMb = 0;
+        int paths = 0;
+        for ( int i = 0; i < repetitions; i++ ) {
+            final long allocated = ProcessingBenchmarks.getAllocatedBytes();
+            final Timer timer = new Timer();
+            final List<List<CpgPath>> pathsByRecord = search.get();
+            bestSec = Math.min( bestSec, timer.getTimeSinceSec() );
+            allocMb = ( ProcessingBenchmarks.getAllocatedBytes() - allocated ) / ( 1024.0 * 1024.0 );
+            paths = pathsByRecord.stream().mapToInt( List::size ).sum();
+        }
+        return Measurement.of( paths, bestSec, allocMb );
+    }
+
+}
@@ -0,0 +1,119 @@
+package de.haw.processing.scripts;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.DesignPatternLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.Args;
+import de.haw.misc.Timer;
+import de.haw.misc.utils.FormatUtils;
+import de.haw.processing.model.CpgPath;
+import de.haw.processing.module.ComputeRecordPathsModule;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures {@link ComputeRecordPathsModule} on the datasets (see <code>--datasets</code>) with 1 to N threads
+ * (doubling, see <code>--max-workers</code>) and checks that the paths don't depend on the number of threads.
+ */
+@Slf4j
+public class RecordPathsScalingBenchmark {
+
+    @Data
+    @Builder
+    public static class ScalingCsv {
+
+        @CsvBindByPosition( position = 0 )
+        @CsvBindByName( column = "dataset" )
+        private final String dataset;
+
+        @CsvBindByPosition( position = 1 )
+        @CsvBindByName( column = "workers" )
+        private final int workers;
+
+        @CsvBindByPosition( position = 2 )
+        @CsvBindByName( column = "records" )
+        private final int records;
+
+        @CsvBindByPosition( position = 3 )
+        @CsvBindByName( column = "paths" )
+        private final int paths;
+
+        @CsvBindByPosition( position = 4 )
+        @CsvBindByName( column = "time_sec" )
+        private final String timeSec;
+
+        @CsvBindByPosition( position = 5 )
+        @CsvBindByName( column = "speedup" )
+        private final String speedup;
+
+    }
+
+    private static final String CSV_PATH = DesignPatternLoader.BASE_PATH_JAVA + "record_paths_scaling.csv";
+
+    public static void main( String[] args ) {
+
+        final Args arguments = Args.of( args );
+        final int maxWorkers = Integer.parseInt( arguments.getOrElse( "max-workers",
+                String.valueOf( Runtime.getRuntime().availableProcessors() ) ) );
+        final int repetitions = ProcessingBenchmarks.getRepetitions( arguments );
+
+        final List<ScalingCsv> rows = new ArrayList<>();
+        for ( TranslationRequest request : ProcessingBenchmarks.getRequests( arguments ) ) {
+            final Dataset dataset = request.getDataset();
+            final Graph graph;
+            try {
+                graph = ProcessingBenchmarks.prepareGraph( request, arguments );
+            } catch ( Exception e ) {
+                log.error( "Couldn't prepare dataset {}: {}", dataset.getName(), e.getMessage() );
+                continue;
+            }
+
+            final ComputeRecordPathsModule<Graph> module = ComputeRecordPathsModule.instance();
+            final List<Node> records = module.getRecordNodes( graph );
+            List<String> baseline = null;
+            double baselineSec = 0;
+            for ( int workers = 1; workers <= maxWorkers; workers = nextWorkers( workers, maxWorkers ) ) {
+                double bestSec = Double.MAX_VALUE;
+                List<String> paths = null;
+                for ( int i = 0; i < repetitions; i++ ) {
+                    final Timer timer = new Timer();
+                    final List<List<CpgPath>> pathsByRecord = module.getRecordPaths( graph, records, workers );
+                    bestSec = Math.min( bestSec, timer.getTimeSinceSec() );
+                    paths = pathsByRecord.stream().flatMap( List::stream ).map( CpgPath::toString ).toList();
+                }
+                if ( baseline == null ) {
+                    baseline = paths;
+                    baselineSec = bestSec;
+                } else if ( !baseline.equals( paths ) ) {
+                    throw new IllegalStateException(
+                            "Paths of " + dataset.getName() + " differ with " + workers + " workers." );
+                }
+                log.info( "{}: {} records, {} paths with {} worker(s) in {} sec", dataset.getName(), records.size(),
+                        paths.size(), workers, FormatUtils.format( bestSec, 3 ) );
+                rows.add( ScalingCsv.builder()
+                        .dataset( dataset.getName() )
+                        .workers( workers )
+                        .records( records.size() )
+                        .paths( paths.size() )
+                        .timeSec( FormatUtils.format( bestSec, 3 ) )
+                        .speedup( FormatUtils.format( bestSec > 0 ? baselineSec / bestSec : 1, 2 ) )
+                        .build() );
+            }
+        }
+
+        ProcessingBenchmarks.saveToCsv( rows, ScalingCsv.class, CSV_PATH );
+    }
+
+    private static int nextWorkers( final int workers, final int maxWorkers ) {
+        return workers < maxWorkers && workers * 2 > maxWorkers ? maxWorkers : workers * 2;
+    }
+
+}
@@ -0,0 +1,206 @@
+package de.haw.processing.scripts;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvBindByPosition;
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.DesignPatternLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.Args;
+import de.haw.misc.Timer;
+import de.haw.misc.utils.FormatUtils;
+import de.haw.processing.GraphService;
+import de.haw.processing.module.ComputeRecordPathsModule;
+import de.haw.processing.traversal.GraphProcessTraverser;
+import de.haw.processing.traversal.IndexTraverser;
+import de.haw.translation.CpgConst;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares {@link GraphProcessTraverser} with {@link IndexTraverser} on the datasets (see <code>--datasets</code>):
+ * both walk the leaving edges from each record up to the next records, like the record neighbour subgraph traversal.
+ * The time is the best of <code>--repetitions</code>.
+ */
+@Slf4j
+public class TraversalBenchmark {
+
+    @Data
+    @Builder
+    public static class TraversalCsv {
+
+        @CsvBindByPosition( position = 0 )
+        @CsvBindByName( column = "dataset" )
+        private final String dataset;
+
+        @CsvBindByPosition( position = 1 )
+        @CsvBindByName( column = "records" )
+        private final int records;
+
+        @CsvBindByPosition( position = 2 )
+        @CsvBindByName( column = "steps" )
+        private final long steps;
+
+        @CsvBindByPosition( position = 3 )
+        @CsvBindByName( column = "process_time_sec" )
+        private final String processTimeSec;
+
+        @CsvBindByPosition( position = 4 )
+        @CsvBindByName( column = "process_alloc_mb" )
+        private final String processAllocMb;
+
+        @CsvBindByPosition( position = 5 )
+        @CsvBindByName( column = "index_time_sec" )
+        private final String indexTimeSec;
+
+        @CsvBindByPosition( position = 6 )
+        @CsvBindByName( column = "index_alloc_mb" )
+        private final String indexAllocMb;
+
+    }
+
+    private static final String CSV_PATH = DesignPatternLoader.BASE_PATH_JAVA + "traversal.csv";
+
+    private static final int MAX_DEPTH = 10;
+
+    public static void main( String[] args ) {
+
+        final Args arguments = Args.of( args );
+        final int repetitions = ProcessingBenchmarks.getRepetitions( arguments );
+
+        final List<TraversalCsv> rows = new ArrayList<>();
+        for ( TranslationRequest request : ProcessingBenchmarks.getRequests( arguments ) ) {
+            final Dataset dataset = request.getDataset();
+            final Graph graph;
+            try {
+                graph = ProcessingBenchmarks.prepareGraph( request, arguments );
+            } catch ( Exception e ) {
+                log.error( "Couldn't prepare dataset {}: {}", dataset.getName(), e.getMessage() );
+                continue;
+            }
+            final List<Node> records = ComputeRecordPathsModule.instance().getRecordNodes( graph );
+
+            double processSec = Double.MAX_VALUE;
+            double indexSec = Double.MAX_VALUE;
+            double processMb = 0;
+            double indexMb = 0;
+            long steps = 0;
+            for ( int i = 0; i < repetitions; i++ ) {
+                long allocated = ProcessingBenchmarks.getAllocatedBytes();
+                Timer timer = new Timer();
+                final ProcessCounter processCounter = new ProcessCounter();
+                records.forEach( record -> processCounter.reset().traverse( record ) );
+                processSec = Math.min( processSec, timer.getTimeSinceSec() );
+                processMb = toMb( ProcessingBenchmarks.getAllocatedBytes() - allocated );
+
+                allocated = ProcessingBenchmarks.getAllocatedBytes();
+                timer = new Timer();
+                final IndexCounter indexCounter = new IndexCounter();
+                records.forEach( indexCounter::traverse );
+                indexSec = Math.min( indexSec, timer.getTimeSinceSec() );
+                indexMb = toMb( ProcessingBenchmarks.getAllocatedBytes() - allocated );
+
+                if ( processCounter.total != indexCounter.steps ) {
+                    log.warn( "{}: traversers took {} and {} steps", dataset.getName(), processCounter.total,
+                            indexCounter.steps );
+                }
+                steps = indexCounter.steps;
+            }
+
+            log.info( "{}: {} steps from {} records, process traverser {} sec, index traverser {} sec",
+                    dataset.getName(), steps, records.size(), FormatUtils.format( processSec, 3 ),
+                    FormatUtils.format( indexSec, 3 ) );
+            rows.add( TraversalCsv.builder()
+                    .dataset( dataset.getName() )
+                    .records( records.size() )
+                    .steps( steps )
+                    .processTimeSec( FormatUtils.format( processSec, 3 ) )
+                    .processAllocMb( FormatUtils.format( processMb, 1 ) )
+                    .indexTimeSec( FormatUtils.format( indexSec, 3 ) )
+                    .indexAllocMb( FormatUtils.format( indexMb, 1 ) )
+                    .build() );
+        }
+
+        ProcessingBenchmarks.saveToCsv( rows, TraversalCsv.class, CSV_PATH );
+    }
+
+    private static double toMb( final long bytes ) {
+        return bytes / ( 1024.0 * 1024.0 );
+    }
+
+    /**
+     * The visited edges of {@link GraphProcessTraverser} aren't reset, so a new instance is used per record
+     */
+    private static class ProcessCounter {
+
+        private long total = 0;
+
+        ProcessTraverser reset() {
+            return new ProcessTraverser( this );
+        }
+
+    }
+
+    private static class ProcessTraverser extends GraphProcessTraverser<Void> {
+
+        private final GraphService GS = GraphService.instance();
+
+        private final ProcessCounter counter;
+
+        ProcessTraverser( final ProcessCounter counter ) {
+            this.counter = counter;
+        }
+
+        @Override
+        protected OutputData<Void> process( final Node node, final Void message, final TraversalContext ctx ) {
+            if ( ctx.getDepth() > MAX_DEPTH ) {
+                return OutputData.of( null, false );
+            }
+            this.counter.total++;
+            final boolean proceed = ctx.getParent() == null || !this.GS.hasLabel( node,
+                    CpgConst.NODE_LABEL_DECLARATION_RECORD );
+            return OutputData.of( null, proceed );
+        }
+
+        @Override
+        protected List<Edge> next( final Node node ) {
+            return node.leavingEdges().toList();
+        }
+
+    }
+
+    private static class IndexCounter extends IndexTraverser<Void> {
+
+        private final GraphService GS = GraphService.instance();
+
+        private long steps = 0;
+
+        IndexCounter() {
+            super( Order.DFS );
+        }
+
+        @Override
+        protected boolean process( final int node, final Void message, final int edge, final int depth ) {
+            if ( depth > MAX_DEPTH ) {
+                return false;
+            }
+            this.steps++;
+            return edge < 0 || !this.GS.hasLabel( this.getGraph().getNode( node ),
+                    CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        }
+
+        @Override
+        protected void next( final int node, final IntConsumer edges ) {
+            this.forEachLeavingEdge( node, edges );
+        }
+
+    }
+
+}
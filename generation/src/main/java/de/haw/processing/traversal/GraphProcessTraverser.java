@@ -7,6 +7,10 @@ import org.graphstream.graph.Node;
 
 import java.util.*;
 
+/**
+ * Depth first traversal on GraphStream elements. Use {@link IndexTraverser} for traversals of large graphs or many
+ * start nodes, it doesn't allocate per step.
+ */
 public abstract class GraphProcessTraverser<T> {
 
     @Data
@@ -0,0 +1,95 @@
+package de.haw.processing.traversal;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * One pass over the nodes of a graph and their leaving edges for multiple {@link GraphVisitor}s. The elements to remove
+ * are only marked while visiting, they are removed from the graph after all visitors are finished.
+ */
+public class GraphSweep {
+
+    private final List<GraphVisitor> visitors;
+
+    private Graph graph;
+
+    private BitSet removedNodes;
+
+    private BitSet removedEdges;
+
+    private GraphSweep( final List<GraphVisitor> visitors ) {
+        this.visitors = visitors;
+    }
+
+    public static GraphSweep of( final List<GraphVisitor> visitors ) {
+        return new GraphSweep( visitors );
+    }
+
+    public void run( final Graph graph ) {
+
+        this.graph = graph;
+        this.removedNodes = new BitSet( graph.getNodeCount() );
+        this.removedEdges = new BitSet( graph.getEdgeCount() );
+        this.visitors.forEach( visitor -> visitor.start( graph ) );
+
+        for ( int i = 0; i < graph.getNodeCount(); i++ ) {
+            final Node node = graph.getNode( i );
+            if ( !this.visitNode( node ) ) {
+                this.removedNodes.set( i );
+                continue;
+            }
+            for ( int j = 0; j < node.getOutDegree(); j++ ) {
+                final Edge edge = node.getLeavingEdge( j );
+                if ( !this.visitEdge( edge ) ) {
+                    this.removedEdges.set( edge.getIndex() );
+                }
+            }
+        }
+
+        this.visitors.forEach( visitor -> visitor.finish( this ) );
+
+        // the indices change while removing, so the elements are resolved first
+        final List<Edge> edges = this.removedEdges.stream().mapToObj( graph::getEdge ).toList();
+        final List<Node> nodes = this.removedNodes.stream().mapToObj( graph::getNode ).toList();
+        edges.forEach( graph::removeEdge );
+        nodes.forEach( graph::removeNode );
+    }
+
+    /**
+     * Marks the node to be removed after the sweep, only while the visitors finish.
+     */
+    public void removeNode( final Node node ) {
+        this.removedNodes.set( node.getIndex() );
+    }
+
+    public boolean isRemoved( final Node node ) {
+        return this.removedNodes.get( node.getIndex() );
+    }
+
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    private boolean visitNode( final Node node ) {
+        for ( GraphVisitor visitor : this.visitors ) {
+            if ( !visitor.visitNode( node ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean visitEdge( final Edge edge ) {
+        for ( GraphVisitor visitor : this.visitors ) {
+            if ( !visitor.visitEdge( edge ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,38 @@
+package de.haw.processing.traversal;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+/**
+ * Visitor of the nodes and edges of a graph in a {@link GraphSweep}. Visitors of a sweep see the elements in the same
+ * order, an element removed by a visitor isn't visited by the visitors after it.
+ */
+public interface GraphVisitor {
+
+    default void start( final Graph graph ) {
+    }
+
+    /**
+     * @return whether to keep the node
+     */
+    default boolean visitNode( final Node node ) {
+        return true;
+    }
+
+    /**
+     * Called for the leaving edges of each node kept by all visitors, the target node may still be removed.
+     *
+     * @return whether to keep the edge
+     */
+    default boolean visitEdge( final Edge edge ) {
+        return true;
+    }
+
+    /**
+     * Called after all elements are visited and before the removed elements are removed from the graph.
+     */
+    default void finish( final GraphSweep sweep ) {
+    }
+
+}
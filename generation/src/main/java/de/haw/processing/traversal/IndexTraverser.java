@@ -0,0 +1,177 @@
+package de.haw.processing.traversal;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Traversal over the node and edge indices of a graph, the counterpart of {@link GraphProcessTraverser} without
+ * allocations per step. Like there, an edge is marked visited when the node reached by it is processed, and only edges
+ * not visited by then are followed, so a node is processed for each edge it's reached by. With depth first order, the
+ * nodes are processed in the same order as by {@link GraphProcessTraverser}. The frontier and the visited edges are
+ * kept in arrays which are reused between traversals, so an instance must not be shared between threads and the graph
+ * must not be changed during a traversal.
+ */
+public abstract class IndexTraverser<T> {
+
+    public enum Order {
+        BFS,
+        DFS
+    }
+
+    private final Order order;
+
+    private final IntConsumer enqueue = this::enqueue;
+
+    private Graph graph;
+
+    /**
+     * An edge is visited by the current traversal, if its stamp equals the stamp of the traversal. Edges are stamped
+     * when the node reached by them is processed, not when they are added to the frontier.
+     */
+    private int[] edgeStamps = new int[0];
+
+    private int stamp = 0;
+
+    private int[] nodes = new int[16];
+
+    private int[] edges = new int[16];
+
+    private int[] depths = new int[16];
+
+    private Object[] messages = new Object[16];
+
+    private int head;
+
+    private int tail;
+
+    private int currentNode;
+
+    private int currentDepth;
+
+    private T currentMessage;
+
+    protected IndexTraverser( final Order order ) {
+        this.order = order;
+    }
+
+    public void traverse( final Node startNode ) {
+        this.traverse( startNode, -1 );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    public void traverse( final Node startNode, final int maxDepth ) {
+
+        this.graph = startNode.getGraph();
+        this.nextStamp();
+        this.head = 0;
+        this.tail = 0;
+        this.add( startNode.getIndex(), -1, 0, null );
+
+        while ( this.head < this.tail ) {
+
+            final int entry = this.order == Order.BFS ? this.head++ : --this.tail;
+            final int node = this.nodes[entry];
+            final int depth = this.depths[entry];
+            final T message = ( T ) this.messages[entry];
+            this.messages[entry] = null;
+
+            if ( maxDepth >= 0 && depth >= maxDepth ) {
+                continue;
+            }
+
+            this.currentMessage = message;
+            final int edge = this.edges[entry];
+            final boolean proceed = this.process( node, message, edge, depth );
+            if ( edge >= 0 ) {
+                this.edgeStamps[edge] = this.stamp;
+            }
+            if ( !proceed ) {
+                continue;
+            }
+
+            this.currentNode = node;
+            this.currentDepth = depth;
+            this.next( node, this.enqueue );
+        }
+
+        this.currentMessage = null;
+    }
+
+    /**
+     * @param edge  index of the edge the node was reached by, -1 for the start node
+     * @param depth number of edges from the start node
+     * @return whether to continue with the next edges of the node
+     */
+    protected abstract boolean process( final int node, final T message, final int edge, final int depth );
+
+    /**
+     * Passes the indices of the edges to continue with to the consumer.
+     */
+    protected abstract void next( final int node, final IntConsumer edges );
+
+    /**
+     * Sets the message passed to the nodes reached from the processed node, it's the received message by default.
+     */
+    protected void setMessage( final T message ) {
+        this.currentMessage = message;
+    }
+
+    protected Graph getGraph() {
+        return this.graph;
+    }
+
+    protected void forEachLeavingEdge( final int node, final IntConsumer edges ) {
+        final Node graphNode = this.graph.getNode( node );
+        for ( int i = 0; i < graphNode.getOutDegree(); i++ ) {
+            edges.accept( graphNode.getLeavingEdge( i ).getIndex() );
+        }
+    }
+
+    protected void forEachEnteringEdge( final int node, final IntConsumer edges ) {
+        final Node graphNode = this.graph.getNode( node );
+        for ( int i = 0; i < graphNode.getInDegree(); i++ ) {
+            edges.accept( graphNode.getEnteringEdge( i ).getIndex() );
+        }
+    }
+
+    private void enqueue( final int edge ) {
+        if ( this.edgeStamps[edge] == this.stamp ) {
+            return;
+        }
+        final Edge graphEdge = this.graph.getEdge( edge );
+        final int source = graphEdge.getSourceNode().getIndex();
+        final int opposite = source == this.currentNode ? graphEdge.getTargetNode().getIndex() : source;
+        this.add( opposite, edge, this.currentDepth + 1, this.currentMessage );
+    }
+
+    private void add( final int node, final int edge, final int depth, final T message ) {
+        if ( this.tail == this.nodes.length ) {
+            final int capacity = this.nodes.length * 2;
+            this.nodes = Arrays.copyOf( this.nodes, capacity );
+            this.edges = Arrays.copyOf( this.edges, capacity );
+            this.depths = Arrays.copyOf( this.depths, capacity );
+            this.messages = Arrays.copyOf( this.messages, capacity );
+        }
+        this.nodes[this.tail] = node;
+        this.edges[this.tail] = edge;
+        this.depths[this.tail] = depth;
+        this.messages[this.tail] = message;
+        this.tail++;
+    }
+
+    private void nextStamp() {
+        if ( this.edgeStamps.length < this.graph.getEdgeCount() ) {
+            this.edgeStamps = new int[this.graph.getEdgeCount()];
+        }
+        if ( this.stamp == Integer.MAX_VALUE ) {
+            Arrays.fill( this.edgeStamps, 0 );
+            this.stamp = 0;
+        }
+        this.stamp++;
+    }
+
+}
@@ -2,17 +2,14 @@ package de.haw.processing.traversal;
 
 import de.haw.processing.GraphService;
 import de.haw.translation.CpgConst;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 
-import java.util.List;
+import java.util.function.IntConsumer;
 
 @Slf4j
-@RequiredArgsConstructor( staticName = "of" )
-public class RecordNeighbourSubgraphCopyTraverser extends GraphProcessTraverser<Void> {
+public class RecordNeighbourSubgraphCopyTraverser extends IndexTraverser<Void> {
 
     private final Graph graph;
 
@@ -20,30 +17,37 @@ public class RecordNeighbourSubgraphCopyTraverser extends GraphProcessTraverser<
 
     private final GraphService GS = GraphService.instance();
 
+    private RecordNeighbourSubgraphCopyTraverser( final Graph graph, final int maxDepth ) {
+        super( Order.DFS );
+        this.graph = graph;
+        this.maxDepth = maxDepth;
+    }
+
+    public static RecordNeighbourSubgraphCopyTraverser of( final Graph graph, final int maxDepth ) {
+        return new RecordNeighbourSubgraphCopyTraverser( graph, maxDepth );
+    }
+
     @Override
-    protected OutputData<Void> process( final Node node, final Void data, final TraversalContext ctx ) {
+    protected boolean process( final int node, final Void message, final int edge, final int depth ) {
 
-        if ( ctx.getDepth() > this.maxDepth ) {
-            return OutputData.of( null, false );
+        if ( depth > this.maxDepth ) {
+            return false;
         }
 
-        if ( ctx.getParent() == null ) {
-            this.GS.copyNodeToGraph( this.graph, node );
-            return OutputData.of( null, true );
+        final Node graphNode = this.getGraph().getNode( node );
+        if ( edge < 0 ) {
+            this.GS.copyNodeToGraph( this.graph, graphNode );
+            return true;
         }
 
-        this.GS.copyEdgeToGraph( this.graph, ctx.getEdge() );
-
-        if ( this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ) {
-            return OutputData.of( null, false );
-        }
+        this.GS.copyEdgeToGraph( this.graph, this.getGraph().getEdge( edge ) );
 
-        return OutputData.of( null, true );
+        return !this.GS.hasLabel( graphNode, CpgConst.NODE_LABEL_DECLARATION_RECORD );
     }
 
     @Override
-    protected List<Edge> next( final Node node ) {
-        return node.leavingEdges().toList();
+    protected void next( final int node, final IntConsumer edges ) {
+        this.forEachLeavingEdge( node, edges );
     }
 
 }
@@ -50,6 +50,7 @@ public class GraphMapper {
         }
 
         cpgNode.setProperties( mapAttr( attr ) );
+        addDataset( cpgNode.getProperties(), node.getGraph(), CpgConst.NODE_ATTR_DATASET );
 
         return cpgNode;
     }
@@ -60,6 +61,7 @@ public class GraphMapper {
 
         final Map<String, Object> attr = GraphService.instance().getAttributes( edge );
         cpgEdge.setProperties( mapAttr( attr ) );
+        addDataset( cpgEdge.getProperties(), edge.getSourceNode().getGraph(), CpgConst.EDGE_ATTR_DATASET );
 
         final Optional<CpgEdgeType> edgeType = mapEdgeType( edge );
         if ( edgeType.isEmpty() ) {
@@ -170,6 +172,17 @@ public class GraphMapper {
         return Long.valueOf( element.getId() );
     }
 
+    /**
+     * The dataset may be left out on nodes and edges (see {@link de.haw.translation.AttributeProjection}), so it's
+     * taken from the graph.
+     */
+    private static void addDataset( final Map<String, String> properties, final Graph graph, final String key ) {
+        final String dataset = GraphService.instance().getAttr( graph, CpgConst.GRAPH_ATTR_DATASET );
+        if ( StringUtils.isNotBlank( dataset ) ) {
+            properties.putIfAbsent( key, dataset );
+        }
+    }
+
     public static Map<String, String> mapAttr( final Map<String, Object> originalMap ) {
         final Map<String, String> map = new HashMap<>();
         for ( Map.Entry<String, Object> entry : originalMap.entrySet() ) {
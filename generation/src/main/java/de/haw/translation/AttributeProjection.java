@@ -0,0 +1,206 @@
+package de.haw.translation;
+
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.utils.FileUtils;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Whitelist of the CPG properties which are copied onto the graph, per node label and edge type. Properties which
+ * aren't read by the processing modules (e.g. the source <code>code</code> of each node) dominate the heap of a
+ * translated graph, so they can be left out. The dataset of nodes and edges isn't projected, it's taken from the graph
+ * when persisting.
+ */
+public class AttributeProjection {
+
+    public final static String PROJECTION_ARG = "attribute-projection";
+
+    public final static String ALL = "all";
+
+    public final static String DOWNSTREAM = "downstream";
+
+    /**
+     * Key of the keys kept for all node labels or edge types
+     */
+    public final static String ANY = "*";
+
+    private final static String NODE_PREFIX = "node.";
+
+    private final static String EDGE_PREFIX = "edge.";
+
+    /**
+     * Node properties of the CPG which are read by the processing modules
+     */
+    private final static Set<String> DOWNSTREAM_NODE_KEYS = Set.of( CpgConst.NODE_ATTR_NAME,
+            CpgConst.NODE_ATTR_NAME_FULL, CpgConst.NODE_ATTR_NAME_LOCAL, CpgConst.NODE_ATTR_NAME_SCOPED,
+            CpgConst.NODE_ATTR_INFERRED );
+
+    @Getter
+    private final String name;
+
+    private final boolean keepAll;
+
+    private final Map<String, Set<String>> nodeKeys = new TreeMap<>();
+
+    private final Map<String, Set<String>> edgeKeys = new TreeMap<>();
+
+    private AttributeProjection( final String name, final boolean keepAll ) {
+        this.name = name;
+        this.keepAll = keepAll;
+    }
+
+    public static AttributeProjection all() {
+        return new AttributeProjection( ALL, true );
+    }
+
+    public static AttributeProjection downstream() {
+        return downstream( DOWNSTREAM );
+    }
+
+    private static AttributeProjection downstream( final String name ) {
+        final AttributeProjection projection = new AttributeProjection( name, false );
+        projection.nodeKeys.put( ANY, new TreeSet<>( DOWNSTREAM_NODE_KEYS ) );
+        projection.edgeKeys.put( ANY, new TreeSet<>() );
+        return projection;
+    }
+
+    /**
+     * @param file properties with the comma separated keys to keep in addition to the downstream keys, e.g.
+     *             <code>node.RecordDeclaration=kind</code>, <code>node.*=code</code> or <code>edge.DFG=granularity</code>
+     */
+    public static AttributeProjection of( final File file ) {
+        final Properties properties = new Properties();
+        try ( InputStream in = new FileInputStream( file ) ) {
+            properties.load( in );
+        } catch ( IOException e ) {
+            throw new IllegalArgumentException( "Couldn't read attribute projection " + file + ": " + e.getMessage(),
+                    e );
+        }
+        final AttributeProjection projection = downstream( file.getName() );
+        for ( String key : properties.stringPropertyNames() ) {
+            final Map<String, Set<String>> keys;
+            if ( key.startsWith( NODE_PREFIX ) ) {
+                keys = projection.nodeKeys;
+            } else if ( key.startsWith( EDGE_PREFIX ) ) {
+                keys = projection.edgeKeys;
+            } else {
+                throw new IllegalArgumentException( "Unknown attribute projection key: " + key );
+            }
+            final Set<String> projected = keys.computeIfAbsent( key.substring( key.indexOf( '.' ) + 1 ),
+                    k -> new TreeSet<>() );
+            Arrays.stream( properties.getProperty( key ).split( "," ) )
+                    .map( String::trim )
+                    .filter( attr -> !attr.isEmpty() )
+                    .forEach( projected::add );
+        }
+        return projection;
+    }
+
+    /**
+     * @return the projection of <code>--attribute-projection=all|downstream|&lt;file&gt;</code>, all by default
+     */
+    public static AttributeProjection of( final Args args ) {
+        final String name = args.getOrElse( PROJECTION_ARG, ALL );
+        if ( ALL.equalsIgnoreCase( name ) ) {
+            return all();
+        }
+        if ( DOWNSTREAM.equalsIgnoreCase( name ) ) {
+            return downstream();
+        }
+        return of( FileUtils.get( name ) );
+    }
+
+    /**
+     * @return the projection of the pipe, all attributes by default
+     */
+    public static AttributeProjection of( final PipeContext ctx ) {
+        return ctx.get( PipeContext.CPG_ATTRIBUTE_PROJECTION, AttributeProjection.class ).orElseGet(
+                AttributeProjection::all );
+    }
+
+    public boolean keepsAll() {
+        return this.keepAll;
+    }
+
+    public boolean keepsNodeAttr( final Collection<String> labels, final String key ) {
+        if ( this.keepAll || this.nodeKeys.getOrDefault( ANY, Collections.emptySet() ).contains( key ) ) {
+            return true;
+        }
+        for ( String label : labels ) {
+            if ( this.nodeKeys.getOrDefault( label, Collections.emptySet() ).contains( key ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean keepsEdgeAttr( final String type, final String key ) {
+        return this.keepAll || this.edgeKeys.getOrDefault( ANY, Collections.emptySet() )
+                .contains( key ) || ( type != null && this.edgeKeys.getOrDefault( type, Collections.emptySet() )
+                .contains( key ) );
+    }
+
+    /**
+     * @return a stable description of the kept keys, e.g. to distinguish cached graphs
+     */
+    public String getConfiguration() {
+        return this.keepAll ? ALL : "node" + this.nodeKeys + "edge" + this.edgeKeys;
+    }
+
+    /**
+     * Counts the kept and dropped properties of a conversion and the estimated heap of the dropped values.
+     */
+    @Getter
+    public static class Stats {
+
+        private final static int ENTRY_BYTES = 32;
+
+        private final static int STRING_BYTES = 40;
+
+        private final static int VALUE_BYTES = 16;
+
+        private long kept = 0;
+
+        private long dropped = 0;
+
+        private long droppedBytes = 0;
+
+        public void keep() {
+            this.kept++;
+        }
+
+        public void drop( final Object value ) {
+            this.dropped++;
+            this.droppedBytes += ENTRY_BYTES + estimateBytes( value );
+        }
+
+        public String toDetails() {
+            return "attributes_kept=" + this.kept + ";attributes_dropped=" + this.dropped + ";dropped_kb="
+                    + this.droppedBytes / 1024;
+        }
+
+        /**
+         * @return rough heap size of a property value, strings are assumed to be latin-1 (one byte per char)
+         */
+        static long estimateBytes( final Object value ) {
+            if ( value == null ) {
+                return 0;
+            }
+            if ( value instanceof CharSequence sequence ) {
+                return STRING_BYTES + sequence.length();
+            }
+            if ( value instanceof Collection<?> collection ) {
+                return VALUE_BYTES + collection.stream().mapToLong( Stats::estimateBytes ).sum();
+            }
+            return VALUE_BYTES;
+        }
+
+    }
+
+}
@@ -4,6 +4,11 @@ public class CpgConst {
 
     public static final String GRAPH_ATTR_DATASET = "dataset";
 
+    /**
+     * Depth the graph was converted with, it may be lower than the requested depth
+     */
+    public static final String GRAPH_ATTR_DEPTH = "depth";
+
     public static final String NODE_LABEL_COMPONENT = "Component";
 
     public static final String NODE_LABEL_TRANSLATION_UNIT = "TranslationUnitDeclaration";
@@ -18,6 +23,8 @@ public class CpgConst {
 
     public static final String NODE_LABEL_DECLARATION = "Declaration";
 
+    public static final String NODE_LABEL_DECLARATION_NAMESPACE = "NamespaceDeclaration";
+
     public static final String NODE_LABEL_DECLARATION_RECORD = "RecordDeclaration";
 
     public static final String NODE_ATTR_LABELS = "labels";
@@ -40,6 +47,21 @@ public class CpgConst {
 
     public static final String NODE_ATTR_IMPLICIT = "isImplicit";
 
+    /**
+     * Source file a node belongs to, only set on graphs translated with units (see {@link CpgWalker#withUnits()})
+     */
+    public static final String NODE_ATTR_UNIT = "unit";
+
+    /**
+     * Key of a node within its source file, it's the same in every translation of the file
+     */
+    public static final String NODE_ATTR_UNIT_KEY = "unitKey";
+
+    /**
+     * Marks a node of a graph slice, which belongs to another slice (see {@link GraphSlicer})
+     */
+    public static final String NODE_ATTR_STUB = "isStub";
+
     public static final String NODE_ATTR_PATTERN_ID = "patternId";
 
     public static final String NODE_ATTR_INTERACTION_COUNT = "interactions";
@@ -0,0 +1,81 @@
+package de.haw.translation;
+
+import de.fraunhofer.aisec.cpg.TranslationConfiguration;
+import de.fraunhofer.aisec.cpg.passes.ControlDependenceGraphPass;
+import de.fraunhofer.aisec.cpg.passes.ProgramDependenceGraphPass;
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.repository.model.CpgEdgeType;
+import kotlin.jvm.JvmClassMappingKt;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Named sets of passes to run on a translation. Passes the default passes depend on (e.g. the EOG pass) are always
+ * registered, even if their edges are removed later on. A profile only skips passes whose edges are removed before the
+ * interactions are computed, so all profiles yield the same interactions.
+ */
+public enum CpgPassProfile {
+
+    /**
+     * Default passes with control and program dependence graph
+     */
+    FULL,
+
+    /**
+     * Default passes only, the CDG and PDG edges are removed with the blacklisted edges anyway
+     */
+    RECORD_INTERACTIONS;
+
+    public final static String PASS_PROFILE_ARG = "pass-profile";
+
+    public final static String VALIDATE_PROFILE_ARG = "validate-profile";
+
+    public TranslationConfiguration.Builder registerPasses( final TranslationConfiguration.Builder builder ) {
+        builder.defaultPasses();
+        if ( this == FULL ) {
+            builder.registerPass( JvmClassMappingKt.getKotlinClass( ControlDependenceGraphPass.class ) )
+                    .registerPass( JvmClassMappingKt.getKotlinClass( ProgramDependenceGraphPass.class ) );
+            //.registerPass( JvmClassMappingKt.getKotlinClass( PrepareSerialization.class ) ) // AST but is expensive
+        }
+        return builder;
+    }
+
+    /**
+     * @return the types of the edges created by the passes the profile skips, they have to be blacklisted
+     */
+    public List<CpgEdgeType> getSkippedEdgeTypes() {
+        return this == FULL ? List.of() : List.of( CpgEdgeType.CDG, CpgEdgeType.PDG );
+    }
+
+    /**
+     * @return the name used in the arguments, e.g. "record-interactions"
+     */
+    public String getArgName() {
+        return this.name().toLowerCase().replace( '_', '-' );
+    }
+
+    public static CpgPassProfile of( final Args args ) {
+        final String name = args.getOrElse( PASS_PROFILE_ARG, FULL.getArgName() );
+        return Arrays.stream( values() )
+                .filter( profile -> profile.getArgName().equalsIgnoreCase( name ) )
+                .findFirst()
+                .orElseThrow( () -> new IllegalArgumentException( "Unknown pass profile: " + name ) );
+    }
+
+    /**
+     * @return the profile of the pipe, full by default
+     */
+    public static CpgPassProfile of( final PipeContext ctx ) {
+        return ctx.get( PipeContext.CPG_PASS_PROFILE, FULL, CpgPassProfile.class );
+    }
+
+    /**
+     * @return whether the interactions of the profile are validated against the full profile, off by default
+     */
+    public static boolean isValidationEnabled( final Args args ) {
+        return args.isTrue( VALIDATE_PROFILE_ARG );
+    }
+
+}
@@ -0,0 +1,336 @@
+package de.haw.translation;
+
+import de.fraunhofer.aisec.cpg.TranslationResult;
+import de.fraunhofer.aisec.cpg.graph.Component;
+import de.fraunhofer.aisec.cpg.graph.Node;
+import de.fraunhofer.aisec.cpg.graph.declarations.NamespaceDeclaration;
+import de.fraunhofer.aisec.cpg.graph.declarations.TranslationUnitDeclaration;
+import de.fraunhofer.aisec.cpg.graph.scopes.GlobalScope;
+import de.fraunhofer.aisec.cpg.graph.scopes.Scope;
+import de.fraunhofer.aisec.cpg.helpers.SubgraphWalker;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.metadata.MetaData;
+
+import java.lang.reflect.Array;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Walks the nodes and edges of a translation result once and passes them to a visitor, without building the OGM
+ * builders of cpg-neo4j. The labels, properties and relationship types are read from the same entity metadata the OGM
+ * mapping uses, so the walk yields the same nodes and edges as the mapping of cpg-neo4j with the same depth: the
+ * relationships of a node are followed, if it's less than depth relationships away from a component or an additional
+ * node of the result.
+ */
+public class CpgWalker {
+
+    /**
+     * Packages of the CPG entities, as registered by the neo4j application of cpg-neo4j
+     */
+    private static final String[] ENTITY_PACKAGES = { "de.fraunhofer.aisec.cpg.graph",
+            "de.fraunhofer.aisec.cpg.frontends" };
+
+    private static final String INCOMING = "INCOMING";
+
+    public interface Visitor {
+
+        void node( final long id, final Set<String> labels, final Map<String, Object> properties );
+
+        /**
+         * Called after both nodes of the edge were passed to {@link #node}
+         */
+        void edge( final long id, final long source, final long target, final String type,
+                final Map<String, Object> properties );
+
+        /**
+         * Called after {@link #node} for each node belonging to a source file, if the walk marks the units
+         */
+        default void unit( final long id, final String unit, final String key ) {
+        }
+
+    }
+
+    /**
+     * Scanning the entity classes is expensive, so the metadata is shared by all walks
+     */
+    private static class EntityMetaData {
+
+        private static final MetaData INSTANCE = new MetaData( ENTITY_PACKAGES );
+
+    }
+
+    private final MetaData metaData = EntityMetaData.INSTANCE;
+
+    private final int depth;
+
+    private final Map<Object, Long> nodeIds = new IdentityHashMap<>();
+
+    private final Set<Object> relationshipEntities = Collections.newSetFromMap( new IdentityHashMap<>() );
+
+    /**
+     * Targets of the mapped relationships by source and type
+     */
+    private final Map<Object, Map<String, Set<Object>>> relationships = new IdentityHashMap<>();
+
+    /**
+     * Source file and key of the nodes belonging to a file, if the walk marks the units
+     */
+    private final Map<Object, String[]> units = new IdentityHashMap<>();
+
+    private boolean withUnits = false;
+
+    private long nextEdgeId = 0;
+
+    private CpgWalker( final int depth ) {
+        this.depth = depth;
+    }
+
+    /**
+     * @param depth number of relationships to follow from the roots, all reachable nodes if negative
+     */
+    public static CpgWalker of( final int depth ) {
+        return new CpgWalker( depth );
+    }
+
+    /**
+     * Passes the source file of each node to the visitor (see {@link Visitor#unit}). A node belongs to the file of the
+     * translation unit whose AST it's part of and a scope to the file of its AST node. Types, global and name scopes
+     * belong to no file. The key of a node is its path in the AST of the unit, counting inferred children apart, so
+     * it's the same in each translation of the file, whichever files are translated along.
+     */
+    public CpgWalker withUnits() {
+        this.withUnits = true;
+        return this;
+    }
+
+    /**
+     * Walks breadth first, so each node is expanded at its shortest distance from the roots.
+     */
+    public void walk( final TranslationResult result, final Visitor visitor ) {
+        this.walk( result, visitor, null );
+    }
+
+    /**
+     * Walks like {@link #walk} without reading the properties of the nodes and edges, to count what a walk of each
+     * depth up to the depth of this walker would yield.
+     *
+     * @return the number of nodes [0] and edges [1] up to each depth
+     */
+    public long[][] count( final TranslationResult result ) {
+        if ( this.depth < 0 ) {
+            throw new IllegalArgumentException( "Can't count up to an unbounded depth" );
+        }
+        final long[][] counts = new long[2][this.depth + 1];
+        this.walk( result, null, counts );
+        return counts;
+    }
+
+    /**
+     * @param visitor null to only count
+     * @param counts  the nodes and edges up to each depth, filled in while walking if not null
+     */
+    private void walk( final TranslationResult result, final Visitor visitor, final long[][] counts ) {
+
+        if ( this.withUnits && visitor != null ) {
+            for ( Component component : result.getComponents() ) {
+                component.getTranslationUnits().forEach( this::collectUnits );
+            }
+        }
+
+        final Deque<Object> frontier = new ArrayDeque<>();
+        result.getComponents().forEach( component -> this.visitNode( component, frontier, visitor ) );
+        result.getAdditionalNodes().forEach( node -> this.visitNode( node, frontier, visitor ) );
+
+        int distance = 0;
+        this.count( counts, distance );
+        while ( !frontier.isEmpty() && ( this.depth < 0 || distance < this.depth ) ) {
+            final Deque<Object> next = new ArrayDeque<>();
+            for ( Object entity : frontier ) {
+                this.visitRelationships( entity, next, visitor );
+            }
+            frontier.clear();
+            frontier.addAll( next );
+            distance++;
+            this.count( counts, distance );
+        }
+        // no more nodes to expand, deeper walks yield the same
+        for ( int level = distance + 1; counts != null && level < counts[0].length; level++ ) {
+            this.count( counts, level );
+        }
+    }
+
+    private void count( final long[][] counts, final int distance ) {
+        if ( counts != null ) {
+            counts[0][distance] = this.nodeIds.size();
+            counts[1][distance] = this.nextEdgeId;
+        }
+    }
+
+    private void visitRelationships( final Object entity, final Deque<Object> next, final Visitor visitor ) {
+        final ClassInfo classInfo = this.metaData.classInfo( entity );
+        for ( FieldInfo field : classInfo.relationshipFields() ) {
+            final Object value = field.read( entity );
+            if ( value == null ) {
+                continue;
+            }
+            final boolean incoming = INCOMING.equals( String.valueOf( field.relationshipDirection() ) );
+            this.forEachElement( value, element -> {
+                final ClassInfo elementInfo = this.metaData.classInfo( element );
+                if ( elementInfo == null ) {
+                    return;
+                }
+                if ( elementInfo.isRelationshipEntity() ) {
+                    this.visitRelationshipEntity( element, elementInfo, field.relationship(), next, visitor );
+                } else {
+                    final Object source = incoming ? element : entity;
+                    final Object target = incoming ? entity : element;
+                    this.visitRelationship( source, target, field.relationship(), Collections.emptyMap(), next,
+                            visitor );
+                }
+            } );
+        }
+    }
+
+    private void visitRelationshipEntity(
+            final Object relationshipEntity, final ClassInfo classInfo, final String type, final Deque<Object> next,
+            final Visitor visitor ) {
+        // a relationship entity may be referenced by both of its nodes
+        if ( !this.relationshipEntities.add( relationshipEntity ) ) {
+            return;
+        }
+        final Object source = classInfo.getStartNodeReader().read( relationshipEntity );
+        final Object target = classInfo.getEndNodeReader().read( relationshipEntity );
+        if ( source == null || target == null ) {
+            return;
+        }
+        this.emitEdge( source, target, type,
+                visitor == null ? Collections.emptyMap() : this.readProperties( relationshipEntity, classInfo ), next,
+                visitor );
+    }
+
+    private void visitRelationship(
+            final Object source, final Object target, final String type, final Map<String, Object> properties,
+            final Deque<Object> next, final Visitor visitor ) {
+        // the same relationship may be mapped by fields of both of its nodes
+        final Set<Object> targets = this.relationships.computeIfAbsent( source, key -> new HashMap<>() )
+                .computeIfAbsent( type, key -> Collections.newSetFromMap( new IdentityHashMap<>() ) );
+        if ( !targets.add( target ) ) {
+            return;
+        }
+        this.emitEdge( source, target, type, properties, next, visitor );
+    }
+
+    private void emitEdge(
+            final Object source, final Object target, final String type, final Map<String, Object> properties,
+            final Deque<Object> next, final Visitor visitor ) {
+        final long sourceId = this.visitNode( source, next, visitor );
+        final long targetId = this.visitNode( target, next, visitor );
+        final long id = this.nextEdgeId++;
+        if ( visitor != null ) {
+            visitor.edge( id, sourceId, targetId, type, properties );
+        }
+    }
+
+    /**
+     * @return the id of the node, the node is passed to the visitor and added to the frontier on the first visit
+     */
+    private long visitNode( final Object entity, final Deque<Object> frontier, final Visitor visitor ) {
+        final Long known = this.nodeIds.get( entity );
+        if ( known != null ) {
+            return known;
+        }
+        final long id = this.nodeIds.size();
+        this.nodeIds.put( entity, id );
+        frontier.add( entity );
+        if ( visitor == null ) {
+            return id;
+        }
+        final ClassInfo classInfo = this.metaData.classInfo( entity );
+        visitor.node( id, new LinkedHashSet<>( classInfo.staticLabels() ), this.readProperties( entity, classInfo ) );
+        if ( this.withUnits ) {
+            final String[] unit = this.getUnit( entity );
+            if ( unit != null ) {
+                visitor.unit( id, unit[0], unit[1] );
+            }
+        }
+        return id;
+    }
+
+    private void collectUnits( final TranslationUnitDeclaration translationUnit ) {
+        final String unit = Paths.get( translationUnit.getName().toString() ).toAbsolutePath().normalize().toString();
+        final Deque<Map.Entry<Node, String>> stack = new ArrayDeque<>();
+        stack.push( Map.entry( translationUnit, "0" ) );
+        while ( !stack.isEmpty() ) {
+            final Map.Entry<Node, String> entry = stack.pop();
+            if ( this.units.containsKey( entry.getKey() ) ) {
+                continue;
+            }
+            this.units.put( entry.getKey(), new String[]{ unit, entry.getValue() } );
+            // inferred children depend on the other files of the translation, so they don't shift the declared ones
+            int declared = 0;
+            int inferred = 0;
+            for ( Node child : SubgraphWalker.INSTANCE.getAstChildren( entry.getKey() ) ) {
+                final String key = child.isInferred() ? "/i" + inferred++ : "/" + declared++;
+                stack.push( Map.entry( child, entry.getValue() + key ) );
+            }
+        }
+    }
+
+    /**
+     * @return the source file and key of the entity, null if it belongs to no file
+     */
+    private String[] getUnit( final Object entity ) {
+        final String[] unit = this.units.get( entity );
+        if ( unit != null || !( entity instanceof Scope scope ) || scope instanceof GlobalScope ) {
+            return unit;
+        }
+        // name scopes are shared by the namespace declarations of all files
+        final Node astNode = scope.getAstNode();
+        if ( astNode == null || astNode instanceof NamespaceDeclaration ) {
+            return null;
+        }
+        final String[] astUnit = this.units.get( astNode );
+        return astUnit == null ? null : new String[]{ astUnit[0], astUnit[1] + "#scope" };
+    }
+
+    private Map<String, Object> readProperties( final Object entity, final ClassInfo classInfo ) {
+        final Map<String, Object> properties = new LinkedHashMap<>();
+        for ( FieldInfo field : classInfo.propertyFields() ) {
+            if ( field.isComposite() ) {
+                field.readComposite( entity ).forEach( ( key, value ) -> {
+                    if ( value != null ) {
+                        properties.put( key, value );
+                    }
+                } );
+                continue;
+            }
+            final Object value = field.readProperty( entity );
+            if ( value != null ) {
+                properties.put( field.property(), value );
+            }
+        }
+        return properties;
+    }
+
+    private void forEachElement( final Object value, final Consumer<Object> elements ) {
+        if ( value instanceof Iterable<?> iterable ) {
+            iterable.forEach( element -> {
+                if ( element != null ) {
+                    elements.accept( element );
+                }
+            } );
+        } else if ( value.getClass().isArray() ) {
+            for ( int i = 0; i < Array.getLength( value ); i++ ) {
+                final Object element = Array.get( value, i );
+                if ( element != null ) {
+                    elements.accept( element );
+                }
+            }
+        } else {
+            elements.accept( value );
+        }
+    }
+
+}
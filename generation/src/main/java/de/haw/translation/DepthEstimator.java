@@ -0,0 +1,187 @@
+package de.haw.translation;
+
+import de.fraunhofer.aisec.cpg.TranslationResult;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.graphstream.graph.Graph;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Estimates the heap needed to convert a translation result with a given depth, to pick the deepest depth fitting into
+ * the free heap before converting. The nodes and edges a conversion of each depth yields are counted by a walk of the
+ * result without its properties (see {@link CpgWalker#count}), the bytes per node and edge are fitted from previous
+ * conversions (see {@link Calibration}).
+ */
+public class DepthEstimator {
+
+    /**
+     * Part of the free heap the conversion may use
+     */
+    private static final double HEADROOM_RATIO = 0.8;
+
+    private static final long MB = 1024 * 1024;
+
+    private static final String DETAIL_DEPTH = "depth";
+
+    private static final String DETAIL_NODES = "walk_nodes";
+
+    private static final String DETAIL_EDGES = "walk_edges";
+
+    private static final String DETAIL_SELECTED_DEPTH = "selected_depth";
+
+    private static final String DETAIL_GRAPH_NODES = "graph_nodes";
+
+    private static final String DETAIL_GRAPH_EDGES = "graph_edges";
+
+    private static final String DETAIL_GRAPH_MB = "graph_mb";
+
+    /**
+     * Converted graph size per walked node and edge, fitted from the details of previous conversions (benchmark csv). A
+     * conversion is only usable, if it ran with the estimated depth and the heap report, which measures the retained
+     * heap of the graph. Concurrent workers add to the retained heap, so the fit is an upper bound unless the
+     * conversions ran with one worker. The largest ratio is taken, to rather pick a lower depth.
+     */
+    @Data
+    @RequiredArgsConstructor( staticName = "of" )
+    public static class Calibration {
+
+        /**
+         * Rough guess used until there are conversions to fit from: a graphstream element with its attribute map and
+         * the projected attributes of a cpg node or edge
+         */
+        public static final Calibration DEFAULT = Calibration.of( 1024, 0 );
+
+        private final double bytesPerElement;
+
+        /**
+         * Number of conversions fitted from, 0 for the defaults
+         */
+        private final int samples;
+
+        public static Calibration fit( final Collection<String> details ) {
+            double bytesPerElement = 0d;
+            int samples = 0;
+            for ( final String detail : details ) {
+                final Map<String, String> values = parseDetails( detail );
+                final long nodes = parseLong( values.get( DETAIL_NODES ) );
+                final long edges = parseLong( values.get( DETAIL_EDGES ) );
+                final long graphMb = parseLong( values.get( DETAIL_GRAPH_MB ) );
+                if ( nodes <= 0 || edges < 0 || graphMb < 0 || !Objects.equals( values.get( DETAIL_DEPTH ),
+                        values.get( DETAIL_SELECTED_DEPTH ) ) ) {
+                    continue;
+                }
+                bytesPerElement = Math.max( bytesPerElement, graphMb * MB / ( double ) ( nodes + edges ) );
+                samples++;
+            }
+            return samples == 0 ? DEFAULT : Calibration.of( bytesPerElement, samples );
+        }
+
+    }
+
+    @Data
+    @RequiredArgsConstructor( staticName = "of" )
+    public static class DepthEstimate {
+
+        private final int depth;
+
+        private final long nodes;
+
+        private final long edges;
+
+        private final long estimatedMb;
+
+        private final long headroomMb;
+
+        private final boolean fits;
+
+        public String toDetails() {
+            return DETAIL_DEPTH + "=" + this.depth + ";" + DETAIL_NODES + "=" + this.nodes + ";" + DETAIL_EDGES + "="
+                    + this.edges + ";estimated_mb="
+                    + this.estimatedMb + ";headroom_mb=" + this.headroomMb + ";fits=" + this.fits;
+        }
+
+    }
+
+    private final long[] nodesUpToDepth;
+
+    private final long[] edgesUpToDepth;
+
+    private final Calibration calibration;
+
+    private DepthEstimator( final long[][] counts, final Calibration calibration ) {
+        this.nodesUpToDepth = counts[0];
+        this.edgesUpToDepth = counts[1];
+        this.calibration = calibration;
+    }
+
+    public static DepthEstimator of(
+            final TranslationResult result, final int maxDepth, final Calibration calibration ) {
+        return new DepthEstimator( CpgWalker.of( maxDepth ).count( result ), calibration );
+    }
+
+    /**
+     * @param counts the nodes [0] and edges [1] up to each depth
+     */
+    static DepthEstimator of( final long[][] counts, final Calibration calibration ) {
+        return new DepthEstimator( counts, calibration );
+    }
+
+    static DepthEstimator of( final long[][] counts ) {
+        return of( counts, Calibration.DEFAULT );
+    }
+
+    /**
+     * @param graphMb retained heap of the converted graph or -1, if it wasn't measured
+     * @return the details of the outcome of a conversion, which are fitted from along with the details of its estimate
+     */
+    public static String toConversionDetails( final int selectedDepth, final Graph graph, final long graphMb ) {
+        return DETAIL_SELECTED_DEPTH + "=" + selectedDepth + ";" + DETAIL_GRAPH_NODES + "=" + graph.getNodeCount()
+                + ";" + DETAIL_GRAPH_EDGES + "=" + graph.getEdgeCount() + ";" + DETAIL_GRAPH_MB + "=" + graphMb;
+    }
+
+    /**
+     * @param freeHeapMb heap that isn't used while converting
+     * @return the deepest depth between min and max depth, whose estimate fits into the headroom, or the min depth
+     */
+    public DepthEstimate estimate( final int minDepth, final int maxDepth, final long freeHeapMb ) {
+        final long headroomMb = ( long ) ( freeHeapMb * HEADROOM_RATIO );
+        DepthEstimate estimate = null;
+        for ( int depth = maxDepth; depth >= minDepth; depth-- ) {
+            final long nodes = this.nodesUpToDepth[Math.min( depth, this.nodesUpToDepth.length - 1 )];
+            final long edges = this.edgesUpToDepth[Math.min( depth, this.edgesUpToDepth.length - 1 )];
+            final long estimatedMb = ( long ) ( ( nodes + edges ) * this.calibration.getBytesPerElement() / MB );
+            estimate = DepthEstimate.of( depth, nodes, edges, estimatedMb, headroomMb, estimatedMb <= headroomMb );
+            if ( estimate.isFits() ) {
+                return estimate;
+            }
+        }
+        return estimate;
+    }
+
+    private static Map<String, String> parseDetails( final String details ) {
+        final Map<String, String> values = new HashMap<>();
+        if ( details == null ) {
+            return values;
+        }
+        for ( final String entry : details.split( ";" ) ) {
+            final int separator = entry.indexOf( '=' );
+            if ( separator > 0 ) {
+                values.put( entry.substring( 0, separator ), entry.substring( separator + 1 ) );
+            }
+        }
+        return values;
+    }
+
+    private static long parseLong( final String value ) {
+        try {
+            return value == null ? -1 : Long.parseLong( value );
+        } catch ( NumberFormatException e ) {
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package de.haw.translation;
+
+import de.haw.processing.GraphService;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Slices a graph translated with units (see {@link CpgWalker#withUnits()}) into parts of source files, which can be
+ * stitched again (see {@link GraphStitcher}). A part holds the nodes of its files, the edges of these nodes and the
+ * shared nodes at their ends, which belong to no file. Nodes of other files at the ends of the edges are kept as stubs,
+ * which only carry their unit and key. The shared nodes and the edges between them make up a part of their own, so the
+ * parts yield the sliced graph again when stitched.
+ */
+public class GraphSlicer {
+
+    public static final String SHARED_PART = "";
+
+    private final GraphService GS = GraphService.instance();
+
+    private final Graph graph;
+
+    private GraphSlicer( final Graph graph ) {
+        this.graph = graph;
+    }
+
+    public static GraphSlicer of( final Graph graph ) {
+        return new GraphSlicer( graph );
+    }
+
+    /**
+     * @return the source paths by the units of their translation, as passed to {@link #slice}
+     */
+    public static Map<String, String> getUnitPaths( final Map<String, File> sources ) {
+        final Map<String, String> unitPaths = new HashMap<>();
+        sources.forEach( ( path, file ) -> unitPaths.put(
+                file.toPath().toAbsolutePath().normalize().toString(), path ) );
+        return unitPaths;
+    }
+
+    /**
+     * @param paths the name of the part of each unit, e.g. the source path relative to the dataset root, which
+     *              replaces the unit in the parts
+     * @param parts the parts to slice, nodes of other units are only kept as stubs
+     * @return the graphs of the given parts and the shared part by their name
+     */
+    public Map<String, Graph> slice( final Map<String, String> paths, final Set<String> parts ) {
+        final Map<String, Graph> slices = new HashMap<>();
+        final Graph shared = this.getSlice( slices, SHARED_PART );
+        parts.forEach( part -> this.getSlice( slices, part ) );
+
+        this.graph.nodes().forEach( node -> {
+            final String part = this.getPart( node, paths, parts );
+            if ( part != null ) {
+                this.copyNode( slices.get( part ), part, node, paths, parts );
+            } else if ( this.isShared( node ) ) {
+                this.copyNode( shared, SHARED_PART, node, paths, parts );
+            }
+        } );
+
+        this.graph.edges().forEach( edge -> {
+            final Set<String> edgeParts = new TreeSet<>();
+            for ( Node node : new Node[]{ edge.getSourceNode(), edge.getTargetNode() } ) {
+                final String part = this.getPart( node, paths, parts );
+                if ( part != null ) {
+                    edgeParts.add( part );
+                }
+            }
+            if ( edgeParts.isEmpty() && this.isShared( edge.getSourceNode() ) && this.isShared(
+                    edge.getTargetNode() ) ) {
+                edgeParts.add( SHARED_PART );
+            }
+            edgeParts.forEach( part -> this.copyEdge( slices.get( part ), part, edge, paths, parts ) );
+        } );
+        return slices;
+    }
+
+    /**
+     * @return the full names of the declared or inferred records belonging to a file, without the stubs
+     */
+    public Set<String> getRecords( final boolean inferred ) {
+        return this.graph.nodes()
+                .filter( node -> !this.isShared( node ) && !this.GS.hasAttr( node, CpgConst.NODE_ATTR_STUB ) )
+                .filter( node -> this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) && this.GS.hasAttr(
+                        node, CpgConst.NODE_ATTR_NAME_FULL ) )
+                .filter( node -> this.GS.getAttr( node, CpgConst.NODE_ATTR_INFERRED, Boolean.class )
+                        .orElse( false ) == inferred )
+                .map( node -> this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL ) )
+                .collect( Collectors.toCollection( TreeSet::new ) );
+    }
+
+    /**
+     * Removes the units from the nodes, once the graph isn't sliced anymore.
+     */
+    public Graph removeUnits() {
+        this.graph.nodes().forEach( node -> {
+            node.removeAttribute( CpgConst.NODE_ATTR_UNIT );
+            node.removeAttribute( CpgConst.NODE_ATTR_UNIT_KEY );
+        } );
+        return this.graph;
+    }
+
+    private Graph getSlice( final Map<String, Graph> slices, final String part ) {
+        return slices.computeIfAbsent( part, key -> {
+            final Graph slice = this.GS.getEmptyGraph( this.graph );
+            slice.setAttributes( this.GS.getAttributes( this.graph ) );
+            return slice;
+        } );
+    }
+
+    private void copyEdge(
+            final Graph slice, final String part, final Edge edge, final Map<String, String> paths,
+            final Set<String> parts ) {
+        final Node source = this.copyNode( slice, part, edge.getSourceNode(), paths, parts );
+        final Node target = this.copyNode( slice, part, edge.getTargetNode(), paths, parts );
+        this.GS.addEdge( slice, edge.getId(), source, target ).setAttributes( this.GS.getAttributes( edge ) );
+    }
+
+    /**
+     * @return the node in the slice, nodes of other parts are added as stubs
+     */
+    private Node copyNode(
+            final Graph slice, final String part, final Node node, final Map<String, String> paths,
+            final Set<String> parts ) {
+        final Node known = slice.getNode( node.getId() );
+        if ( known != null ) {
+            return known;
+        }
+        final Node copy = this.GS.addNode( slice, node.getId() );
+        final String unit = this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT );
+        if ( unit == null ) {
+            copy.setAttributes( this.GS.getAttributes( node ) );
+            return copy;
+        }
+        if ( part.equals( this.getPart( node, paths, parts ) ) ) {
+            copy.setAttributes( this.GS.getAttributes( node ) );
+        } else {
+            copy.setAttribute( CpgConst.NODE_ATTR_UNIT_KEY, this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT_KEY ) );
+            copy.setAttribute( CpgConst.NODE_ATTR_STUB, true );
+        }
+        copy.setAttribute( CpgConst.NODE_ATTR_UNIT, paths.getOrDefault( unit, unit ) );
+        return copy;
+    }
+
+    private String getPart( final Node node, final Map<String, String> paths, final Set<String> parts ) {
+        final String unit = this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT );
+        final String path = unit == null ? null : paths.get( unit );
+        return path != null && parts.contains( path ) ? path : null;
+    }
+
+    private boolean isShared( final Node node ) {
+        return !this.GS.hasAttr( node, CpgConst.NODE_ATTR_UNIT );
+    }
+
+}
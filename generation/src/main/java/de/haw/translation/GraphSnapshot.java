@@ -0,0 +1,87 @@
+package de.haw.translation;
+
+import de.haw.processing.GraphService;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Serializable form of a graph. The graph is streamed element by element instead of being copied, so all attribute
+ * values have to be serializable.
+ */
+public class GraphSnapshot implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private transient Graph graph;
+
+    private GraphSnapshot( final Graph graph ) {
+        this.graph = graph;
+    }
+
+    public static GraphSnapshot of( final Graph graph ) {
+        return new GraphSnapshot( graph );
+    }
+
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    @Serial
+    private void writeObject( final ObjectOutputStream out ) throws IOException {
+        final GraphService GS = GraphService.instance();
+        out.writeObject( GS.getAttributes( this.graph ) );
+
+        out.writeInt( this.graph.getNodeCount() );
+        final Iterator<Node> nodes = this.graph.nodes().iterator();
+        while ( nodes.hasNext() ) {
+            final Node node = nodes.next();
+            out.writeUTF( node.getId() );
+            out.writeObject( GS.getAttributes( node ) );
+        }
+
+        out.writeInt( this.graph.getEdgeCount() );
+        final Iterator<Edge> edges = this.graph.edges().iterator();
+        while ( edges.hasNext() ) {
+            final Edge edge = edges.next();
+            out.writeUTF( edge.getId() );
+            out.writeUTF( edge.getSourceNode().getId() );
+            out.writeUTF( edge.getTargetNode().getId() );
+            out.writeObject( GS.getAttributes( edge ) );
+        }
+    }
+
+    @Serial
+    @SuppressWarnings( "unchecked" )
+    private void readObject( final ObjectInputStream in ) throws IOException, ClassNotFoundException {
+        final GraphService GS = GraphService.instance();
+        final Map<String, Object> graphAttributes = ( Map<String, Object> ) in.readObject();
+        this.graph = GS.getEmptyGraph( ( String ) graphAttributes.get( CpgConst.GRAPH_ATTR_DATASET ) );
+        this.graph.setAttributes( graphAttributes );
+
+        final int nodeCount = in.readInt();
+        for ( int i = 0; i < nodeCount; i++ ) {
+            final Node node = GS.addNode( this.graph, in.readUTF() );
+            node.setAttributes( ( Map<String, Object> ) in.readObject() );
+        }
+
+        final int edgeCount = in.readInt();
+        for ( int i = 0; i < edgeCount; i++ ) {
+            final String edgeId = in.readUTF();
+            final Node source = this.graph.getNode( in.readUTF() );
+            final Node target = this.graph.getNode( in.readUTF() );
+            final Edge edge = GS.addEdge( this.graph, edgeId, source, target );
+            edge.setAttributes( ( Map<String, Object> ) in.readObject() );
+        }
+    }
+
+}
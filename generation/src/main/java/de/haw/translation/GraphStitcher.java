@@ -0,0 +1,225 @@
+package de.haw.translation;
+
+import de.haw.processing.GraphService;
+import org.apache.commons.lang3.StringUtils;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.*;
+
+/**
+ * Stitches graph slices of separately translated sources into one dataset graph (see {@link GraphSlicer}). Elements
+ * get fresh numeric ids. Nodes of a source file are identified by their unit and key, so stubs are resolved to the
+ * node of the slice of their file and edges between files, which are part of both slices, are added once. Shared nodes
+ * (types, scopes, ...) are merged by their labels and full name. Inferred records are replaced by the declared record
+ * with the same full name, if a slice declares it, or merged with each other otherwise.
+ */
+public class GraphStitcher {
+
+    /**
+     * Labels of shared nodes merged by their name, if they don't have a full name
+     */
+    private static final List<String> SHARED_LABELS = Arrays.asList( CpgConst.NODE_LABEL_SCOPE_GLOBAL,
+            CpgConst.NODE_LABEL_SCOPE_NAME, CpgConst.NODE_LABEL_DECLARATION_NAMESPACE );
+
+    private record StubEdge( Edge edge, Object source, Object target ) {
+    }
+
+    private final GraphService GS = GraphService.instance();
+
+    private final Graph graph;
+
+    private final Map<String, Node> unitNodes = new HashMap<>();
+
+    private final Map<String, Node> sharedNodes = new HashMap<>();
+
+    private final Map<String, Node> declaredRecords = new HashMap<>();
+
+    private final Map<String, List<Node>> inferredRecords = new LinkedHashMap<>();
+
+    /**
+     * Edges to stubs, added once all slices are known
+     */
+    private final List<StubEdge> stubEdges = new ArrayList<>();
+
+    /**
+     * Edges added from more than one slice, by their nodes and attributes
+     */
+    private final Set<String> sharedEdges = new HashSet<>();
+
+    private long nextId = 0;
+
+    private GraphStitcher( final String dataset ) {
+        this.graph = this.GS.getEmptyGraph( dataset );
+    }
+
+    public static GraphStitcher of( final String dataset ) {
+        return new GraphStitcher( dataset );
+    }
+
+    /**
+     * Copies the given slice into the stitched graph. Edges to stubs are kept until {@link #stitch()}, otherwise the
+     * slice isn't referenced afterward.
+     */
+    public void add( final Graph slice ) {
+
+        // the stitched graph is only as deep as its shallowest part
+        this.GS.getAttr( slice, CpgConst.GRAPH_ATTR_DEPTH, Integer.class ).ifPresent( depth -> {
+            final int stitchedDepth = this.GS.getAttr( this.graph, CpgConst.GRAPH_ATTR_DEPTH, Integer.class )
+                    .orElse( depth );
+            this.graph.setAttribute( CpgConst.GRAPH_ATTR_DEPTH, Math.min( depth, stitchedDepth ) );
+        } );
+
+        final Map<String, Node> copies = new HashMap<>();
+        final Map<String, String> stubs = new HashMap<>();
+        slice.nodes().forEach( node -> {
+            if ( this.isStub( node ) ) {
+                stubs.put( node.getId(), this.getUnitKey( node ) );
+            } else {
+                copies.put( node.getId(), this.copyNode( node ) );
+            }
+        } );
+
+        slice.edges().forEach( edge -> {
+            final Node source = copies.get( edge.getSourceNode().getId() );
+            final Node target = copies.get( edge.getTargetNode().getId() );
+            if ( source == null || target == null ) {
+                this.stubEdges.add( new StubEdge( edge, source != null ? source : stubs.get(
+                        edge.getSourceNode().getId() ), target != null ? target : stubs.get(
+                        edge.getTargetNode().getId() ) ) );
+            } else if ( this.isUnitNode( edge.getSourceNode() ) && this.isUnitNode( edge.getTargetNode() ) ) {
+                this.copyEdge( edge, source, target );
+            } else {
+                // edges of shared nodes may be part of several slices
+                this.addSharedEdge( edge, source, target );
+            }
+        } );
+    }
+
+    /**
+     * @return the stitched graph with stubs and inferred records resolved, edges of stubs of files missing from the
+     * stitched slices are dropped
+     */
+    public Graph stitch() {
+        this.stubEdges.forEach( stubEdge -> {
+            final Node source = this.resolve( stubEdge.source() );
+            final Node target = this.resolve( stubEdge.target() );
+            if ( source != null && target != null ) {
+                this.addSharedEdge( stubEdge.edge(), source, target );
+            }
+        } );
+        this.stubEdges.clear();
+
+        this.inferredRecords.forEach( ( key, inferred ) -> {
+            final Node resolved = this.declaredRecords.getOrDefault( key, inferred.get( 0 ) );
+            inferred.stream().filter( node -> node != resolved ).forEach( node -> this.replace( node, resolved ) );
+        } );
+        this.inferredRecords.clear();
+        return GraphSlicer.of( this.graph ).removeUnits();
+    }
+
+    private Node copyNode( final Node node ) {
+        final String unitKey = this.getUnitKey( node );
+        if ( unitKey != null && this.unitNodes.containsKey( unitKey ) ) {
+            return this.unitNodes.get( unitKey );
+        }
+        final boolean record = this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        final String key = this.getStitchKey( node );
+        if ( unitKey == null && !record && key != null && this.sharedNodes.containsKey( key ) ) {
+            return this.sharedNodes.get( key );
+        }
+
+        final Node copy = this.graph.addNode( this.nextId() );
+        copy.setAttributes( this.GS.getAttributes( node ) );
+        if ( unitKey != null ) {
+            this.unitNodes.put( unitKey, copy );
+        }
+        if ( key == null ) {
+            return copy;
+        }
+        if ( !record ) {
+            if ( unitKey == null ) {
+                this.sharedNodes.put( key, copy );
+            }
+        } else if ( this.isInferred( node ) ) {
+            this.inferredRecords.computeIfAbsent( key, k -> new ArrayList<>() ).add( copy );
+        } else {
+            this.declaredRecords.putIfAbsent( key, copy );
+        }
+        return copy;
+    }
+
+    private Node resolve( final Object node ) {
+        return node instanceof Node resolved ? resolved : this.unitNodes.get( ( String ) node );
+    }
+
+    private void replace( final Node node, final Node replacement ) {
+        node.leavingEdges().toList().forEach( edge -> {
+            if ( edge.getTargetNode() != replacement && !this.hasEdge( replacement, edge.getTargetNode(), edge ) ) {
+                this.copyEdge( edge, replacement, edge.getTargetNode() );
+            }
+        } );
+        node.enteringEdges().toList().forEach( edge -> {
+            if ( edge.getSourceNode() != replacement && !this.hasEdge( edge.getSourceNode(), replacement, edge ) ) {
+                this.copyEdge( edge, edge.getSourceNode(), replacement );
+            }
+        } );
+        this.graph.removeNode( node );
+    }
+
+    private void addSharedEdge( final Edge edge, final Node sourceNode, final Node targetNode ) {
+        if ( this.sharedEdges.add( sourceNode.getId() + "|" + targetNode.getId() + "|" + new TreeMap<>(
+                this.GS.getAttributes( edge ) ) ) ) {
+            this.copyEdge( edge, sourceNode, targetNode );
+        }
+    }
+
+    private void copyEdge( final Edge edge, final Node sourceNode, final Node targetNode ) {
+        final Edge copy = this.graph.addEdge( this.nextId(), sourceNode, targetNode, true );
+        copy.setAttributes( this.GS.getAttributes( edge ) );
+    }
+
+    private boolean hasEdge( final Node sourceNode, final Node targetNode, final Edge like ) {
+        final String type = this.GS.getAttr( like, CpgConst.EDGE_ATTR_TYPE );
+        return sourceNode.leavingEdges()
+                .anyMatch( edge -> edge.getTargetNode() == targetNode && Objects.equals( type,
+                        this.GS.getAttr( edge, CpgConst.EDGE_ATTR_TYPE ) ) );
+    }
+
+    /**
+     * @return the unit and key of a node of a source file, null for shared nodes
+     */
+    private String getUnitKey( final Node node ) {
+        final String unit = this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT );
+        return unit == null ? null : unit + "#" + this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT_KEY );
+    }
+
+    private String getStitchKey( final Node node ) {
+        String name = this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL );
+        if ( StringUtils.isBlank( name ) ) {
+            if ( !this.GS.hasAnyLabel( node, SHARED_LABELS ) ) {
+                return null;
+            }
+            name = StringUtils.defaultString( this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME ) );
+        }
+        return String.join( ",", new TreeSet<>( this.GS.getLabels( node ) ) ) + "|" + name;
+    }
+
+    private boolean isUnitNode( final Node node ) {
+        return this.GS.hasAttr( node, CpgConst.NODE_ATTR_UNIT );
+    }
+
+    private boolean isStub( final Node node ) {
+        return this.GS.getAttr( node, CpgConst.NODE_ATTR_STUB, Boolean.class ).orElse( false );
+    }
+
+    private boolean isInferred( final Node node ) {
+        return this.GS.getAttr( node, CpgConst.NODE_ATTR_INFERRED, Boolean.class ).orElse( false );
+    }
+
+    private String nextId() {
+        return String.valueOf( this.nextId++ );
+    }
+
+}
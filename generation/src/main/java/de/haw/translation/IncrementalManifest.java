@@ -0,0 +1,61 @@
+package de.haw.translation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Translation state of an incrementally translated dataset, by source path relative to the dataset root.
+ */
+@Data
+public class IncrementalManifest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2L;
+
+    @Data
+    @AllArgsConstructor( staticName = "of" )
+    public static class Unit implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 2L;
+
+        /**
+         * Content hash of the source
+         */
+        private final String hash;
+
+        /**
+         * Cache key of the graph slice of the source (see {@link GraphSlicer})
+         */
+        private final String cacheKey;
+
+        /**
+         * Full names of the records declared by the source
+         */
+        private final Set<String> declared;
+
+        /**
+         * Full names of the records inferred by the source, as no translated source declared them
+         */
+        private final Set<String> inferred;
+
+        /**
+         * Paths of the sources with edges to the source
+         */
+        private final Set<String> links;
+
+    }
+
+    private final TreeMap<String, Unit> units = new TreeMap<>();
+
+    /**
+     * Cache key of the graph slice of the shared nodes
+     */
+    private String sharedCacheKey;
+
+}
@@ -0,0 +1,136 @@
+package de.haw.translation.module;
+
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeBenchmark;
+import de.haw.misc.pipe.PipeBuilder;
+import de.haw.misc.pipe.PipeCache;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.processing.GraphService;
+import de.haw.translation.AttributeProjection;
+import de.haw.translation.CpgConst;
+import de.haw.translation.CpgPassProfile;
+import de.haw.translation.GraphSnapshot;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Translates the source file to a graph (see {@link GenerateCpgModule} and {@link TranslationToGraphModule}). If the
+ * cache is enabled, the translated graph is looked up by a hash of the sources, the depth, the language and the passes
+ * before translating. With incremental translation, only changed sources are translated again (see
+ * {@link IncrementalTranslationModule}).
+ */
+@Slf4j
+@NoArgsConstructor( staticName = "instance" )
+public class CachedTranslationModule<Target> extends PipeModule<File, Graph, Target> {
+
+    /**
+     * Has to be increased if the graph conversion changes in a way not covered by the cache key.
+     */
+    private static final String CACHE_VERSION = "4";
+
+    private final GraphService GS = GraphService.instance();
+
+    @Override
+    protected Graph processImpl( final File sourceFile, final PipeContext ctx ) {
+        final Graph graph = this.translateCached( sourceFile, ctx );
+        // the translation may select a lower depth than requested, later stages name and record the graph by it
+        this.GS.getAttr( graph, CpgConst.GRAPH_ATTR_DEPTH, Integer.class )
+                .ifPresent( depth -> ctx.set( PipeContext.CPG_DEPTH_KEY, depth ) );
+        return graph;
+    }
+
+    private Graph translateCached( final File sourceFile, final PipeContext ctx ) {
+
+        final Args args = ctx.get( PipeContext.ARGS_KEY, Args.empty(), Args.class );
+        if ( !PipeCache.isEnabled( args ) ) {
+            return this.translate( sourceFile, ctx );
+        }
+
+        final PipeCache cache = PipeCache.of( args );
+        final String key = this.getCacheKey( sourceFile, ctx );
+        if ( key == null ) {
+            return this.translate( sourceFile, ctx );
+        }
+
+        final Optional<GraphSnapshot> snapshot = cache.get( key, GraphSnapshot.class );
+        if ( snapshot.isPresent() ) {
+            log.info( "Loaded translated graph from cache {}", key );
+            ctx.set( PipeContext.CACHE_HITS, ctx.get( PipeContext.CACHE_HITS, 0, Integer.class ) + 1 );
+            return snapshot.get().getGraph();
+        }
+
+        ctx.set( PipeContext.CACHE_MISSES, ctx.get( PipeContext.CACHE_MISSES, 0, Integer.class ) + 1 );
+        final Graph graph = this.translate( sourceFile, ctx );
+        cache.put( key, GraphSnapshot.of( graph ) );
+        return graph;
+    }
+
+    /**
+     * The translation pipe runs on a copy of the context, so its stages don't count towards the process count and
+     * total time of the outer pipe, which already accounts for this module, and the keys set by incremental and
+     * sharded translations don't leak into the outer pipe. The benchmarks of its stages are reported along with the
+     * outer ones.
+     */
+    @SuppressWarnings( "unchecked" )
+    private Graph translate( final File sourceFile, final PipeContext ctx ) {
+        final PipeContext translationCtx = ctx.copy();
+        final List<PipeBenchmark> translationBenchmarks = new ArrayList<>();
+        translationCtx.set( PipeContext.PIPE_BENCHMARKS, translationBenchmarks );
+
+        final Args args = ctx.get( PipeContext.ARGS_KEY, Args.empty(), Args.class );
+        final PipeBuilder<File, Graph> pipe = PipeBuilder.builder();
+        if ( IncrementalTranslationModule.isEnabled( args ) ) {
+            pipe.add( IncrementalTranslationModule.instance() );
+        } else if ( ShardedTranslationModule.isEnabled( args ) ) {
+            pipe.add( ShardedTranslationModule.instance() );
+        } else {
+            pipe.add( GenerateCpgModule.instance() ).add( TranslationToGraphModule.instance() );
+        }
+        final Graph graph = pipe.buildExecutor().execute( sourceFile, translationCtx );
+
+        final List<PipeBenchmark> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
+        benchmarks.addAll( translationBenchmarks );
+        ctx.set( PipeContext.PIPE_BENCHMARKS, benchmarks );
+        return graph;
+    }
+
+    /**
+     * Incremental and sharded translations resolve references across sources differently, so they are cached apart.
+     */
+    private String getTranslationMode( final Args args ) {
+        if ( IncrementalTranslationModule.isEnabled( args ) ) {
+            return IncrementalTranslationModule.INCREMENTAL_ARG;
+        }
+        if ( ShardedTranslationModule.isEnabled( args ) ) {
+            return ShardedTranslationModule.SHARDED_ARG + ShardedTranslationModule.getShardDepth( args );
+        }
+        return "full";
+    }
+
+    private String getCacheKey( final File sourceFile, final PipeContext ctx ) {
+        final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
+                .orElseThrow( IllegalStateException::new );
+        final int depth = ctx.get( PipeContext.CPG_DEPTH_KEY, 10, Integer.class );
+        final int minDepth = ctx.get( PipeContext.CPG_MIN_DEPTH_KEY, 8, Integer.class );
+        final String mode = this.getTranslationMode( ctx.get( PipeContext.ARGS_KEY, Args.empty(), Args.class ) );
+        try {
+            return PipeCache.hash( CACHE_VERSION, mode, dataset.getName(), dataset.getLanguage().name(),
+                    String.valueOf( depth ), String.valueOf( minDepth ),
+                    GenerateCpgModule.getPassConfiguration( dataset, CpgPassProfile.of( ctx ), sourceFile ),
+                    AttributeProjection.of( ctx ).getConfiguration(), PipeCache.hashFiles( sourceFile ) );
+        } catch ( IOException e ) {
+            log.warn( "Couldn't hash sources of {}, skipping cache: {}", dataset.getName(), e.getMessage() );
+            return null;
+        }
+    }
+
+}
@@ -5,12 +5,10 @@ import de.fraunhofer.aisec.cpg.frontends.Language;
 import de.fraunhofer.aisec.cpg.frontends.cxx.CPPLanguage;
 import de.fraunhofer.aisec.cpg.frontends.java.JavaLanguage;
 import de.fraunhofer.aisec.cpg.frontends.python.PythonLanguage;
-import de.fraunhofer.aisec.cpg.passes.ControlDependenceGraphPass;
-import de.fraunhofer.aisec.cpg.passes.ProgramDependenceGraphPass;
 import de.haw.dataset.model.Dataset;
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
-import kotlin.jvm.JvmClassMappingKt;
+import de.haw.translation.CpgPassProfile;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,23 +23,19 @@ public class GenerateCpgModule<Target> extends PipeModule<File, TranslationResul
 
         final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
                 .orElseThrow( IllegalArgumentException::new );
-        log.info( "Translating source file {} of dataset {} ...", sourceFile.getName(), dataset );
+        final CpgPassProfile profile = CpgPassProfile.of( ctx );
+        log.info( "Translating source file {} of dataset {} with pass profile {} ...", sourceFile.getName(), dataset,
+                profile.getArgName() );
+        return this.translate( dataset, profile, sourceFile );
+    }
+
+    public TranslationResult translate(
+            final Dataset dataset, final CpgPassProfile profile, final File... sourceFiles ) {
 
-        final InferenceConfiguration inferenceConfiguration = InferenceConfiguration.builder().enabled( true ).build();
         TranslationConfiguration translationConfiguration = null;
 
         try {
-            translationConfiguration = new TranslationConfiguration.Builder().inferenceConfiguration(
-                            inferenceConfiguration )
-                    .defaultPasses()
-                    .registerPass( JvmClassMappingKt.getKotlinClass( ControlDependenceGraphPass.class ) )
-                    .registerPass( JvmClassMappingKt.getKotlinClass( ProgramDependenceGraphPass.class ) )
-                    //.registerPass( JvmClassMappingKt.getKotlinClass( PrepareSerialization.class ) ) // AST but is expensive
-                    .registerLanguage( getLanguage( dataset ) )
-                    .addIncludesToGraph( false )
-                    .loadIncludes( false )
-                    .sourceLocations( sourceFile )
-                    .build();
+            translationConfiguration = getConfiguration( dataset, profile, sourceFiles );
         } catch ( ConfigurationException e ) {
             log.error( "Failed config: {}", e.getMessage() );
         }
@@ -65,6 +59,31 @@ public class GenerateCpgModule<Target> extends PipeModule<File, TranslationResul
         return result;
     }
 
+    public static TranslationConfiguration getConfiguration(
+            final Dataset dataset, final CpgPassProfile profile, final File... sourceFiles )
+            throws ConfigurationException {
+        final InferenceConfiguration inferenceConfiguration = InferenceConfiguration.builder().enabled( true ).build();
+        return profile.registerPasses(
+                        new TranslationConfiguration.Builder().inferenceConfiguration( inferenceConfiguration ) )
+                .registerLanguage( getLanguage( dataset ) )
+                .addIncludesToGraph( false )
+                .loadIncludes( false )
+                .sourceLocations( sourceFiles )
+                .build();
+    }
+
+    /**
+     * @return the ordered passes of the translation, used to invalidate cached translations if the passes change
+     */
+    public static String getPassConfiguration(
+            final Dataset dataset, final CpgPassProfile profile, final File sourceFile ) {
+        try {
+            return profile.getArgName() + getConfiguration( dataset, profile, sourceFile ).getRegisteredPasses();
+        } catch ( ConfigurationException e ) {
+            throw new IllegalStateException( "Failed config: " + e.getMessage(), e );
+        }
+    }
+
     private static Language<?> getLanguage( final Dataset dataset ) {
         return switch ( dataset.getLanguage() ) {
             case JAVA -> new JavaLanguage();
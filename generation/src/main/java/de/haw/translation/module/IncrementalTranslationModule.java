@@ -0,0 +1,318 @@
+package de.haw.translation.module;
+
+import de.fraunhofer.aisec.cpg.TranslationResult;
+import de.haw.dataset.DatasetLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeBenchmark;
+import de.haw.misc.pipe.PipeCache;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.processing.GraphService;
+import de.haw.translation.AttributeProjection;
+import de.haw.translation.CpgConst;
+import de.haw.translation.CpgPassProfile;
+import de.haw.translation.GraphSlicer;
+import de.haw.translation.GraphSnapshot;
+import de.haw.translation.GraphStitcher;
+import de.haw.translation.IncrementalManifest;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Translates the dataset as a whole and caches the graph slice of each source file by its content hash (see
+ * {@link GraphSlicer}). On a rerun, changed files and the files linked to them by edges are translated again, together
+ * with the files they link to, so references between files resolve like in a translation of the whole dataset. Files
+ * inferring records which are declared by a translated file are translated again as well. The slices of the translated
+ * files replace their cached slices and all slices are stitched into the dataset graph (see {@link GraphStitcher}).
+ */
+@Slf4j
+@NoArgsConstructor( staticName = "instance" )
+public class IncrementalTranslationModule<Target> extends PipeModule<File, Graph, Target> {
+
+    public final static String INCREMENTAL_ARG = "incremental";
+
+    /**
+     * Has to be increased if the graph conversion changes in a way not covered by the cache key.
+     */
+    private static final String CACHE_VERSION = "4";
+
+    private final GraphService GS = GraphService.instance();
+
+    public static boolean isEnabled( final Args args ) {
+        return args.isTrue( INCREMENTAL_ARG );
+    }
+
+    @Override
+    protected Graph processImpl( final File sourceRoot, final PipeContext ctx ) {
+
+        final Args args = ctx.get( PipeContext.ARGS_KEY, Args.empty(), Args.class );
+        final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
+                .orElseThrow( IllegalStateException::new );
+        final PipeCache cache = PipeCache.of( args );
+
+        final String configHash = this.getConfigHash( dataset, sourceRoot, ctx );
+        final String manifestKey = PipeCache.hash( CACHE_VERSION, "manifest", configHash );
+        final IncrementalManifest previous = cache.get( manifestKey, IncrementalManifest.class )
+                .orElseGet( IncrementalManifest::new );
+
+        final Map<String, File> sources = DatasetLoader.loadSources( sourceRoot, dataset.getLanguage() );
+        if ( sources.isEmpty() ) {
+            throw new IllegalStateException( "No sources found in " + sourceRoot );
+        }
+        final Map<String, String> hashes = new HashMap<>();
+        sources.forEach( ( path, file ) -> hashes.put( path, this.hash( file ) ) );
+
+        final Set<String> changed = new TreeSet<>();
+        sources.keySet().forEach( path -> {
+            final IncrementalManifest.Unit unit = previous.getUnits().get( path );
+            if ( unit == null || !hashes.get( path ).equals( unit.getHash() ) || !cache.contains(
+                    unit.getCacheKey() ) ) {
+                changed.add( path );
+            }
+        } );
+        final Set<String> removed = new TreeSet<>( previous.getUnits().keySet() );
+        removed.removeAll( sources.keySet() );
+
+        final Set<String> paths = this.getDependents( previous, changed, removed, sources );
+        paths.addAll( changed );
+        if ( previous.getSharedCacheKey() == null || !cache.contains( previous.getSharedCacheKey() ) ) {
+            paths.addAll( sources.keySet() );
+        }
+        log.info( "Translating {} changed and dependent of {} sources in {}", paths.size(), sources.size(),
+                dataset.getName() );
+
+        final IncrementalManifest manifest = new IncrementalManifest();
+        final Map<String, Graph> slices = new HashMap<>();
+        if ( !paths.isEmpty() ) {
+            final Graph graph = this.translate( paths, sources, previous, ctx );
+            slices.putAll( GraphSlicer.of( graph ).slice( GraphSlicer.getUnitPaths( sources ), paths ) );
+            paths.forEach( path -> manifest.getUnits()
+                    .put( path, this.cacheSlice( path, hashes.get( path ), slices.get( path ), configHash, cache ) ) );
+            if ( paths.size() == sources.size() ) {
+                // the whole dataset was translated, there's nothing to stitch
+                this.cacheShared( slices.get( GraphSlicer.SHARED_PART ), manifest, configHash, cache );
+                cache.put( manifestKey, manifest );
+                return GraphSlicer.of( graph ).removeUnits();
+            }
+        }
+        sources.keySet()
+                .stream()
+                .filter( path -> !paths.contains( path ) )
+                .forEach( path -> manifest.getUnits().put( path, previous.getUnits().get( path ) ) );
+
+        final Graph stitched = this.stitch( dataset, sources, slices, previous, manifest, configHash, cache );
+        if ( stitched == null ) {
+            log.warn( "Cached graph slices of {} are missing, translating all sources again ...", dataset.getName() );
+            cache.put( manifestKey, new IncrementalManifest() );
+            return this.processImpl( sourceRoot, ctx );
+        }
+        cache.put( manifestKey, manifest );
+        return stitched;
+    }
+
+    /**
+     * @return the sources linked to changed or removed sources by edges
+     */
+    private Set<String> getDependents(
+            final IncrementalManifest previous, final Set<String> changed, final Set<String> removed,
+            final Map<String, File> sources ) {
+        final Set<String> stale = new HashSet<>( changed );
+        stale.addAll( removed );
+        final Set<String> dependents = new TreeSet<>();
+        previous.getUnits().forEach( ( path, unit ) -> {
+            if ( stale.contains( path ) ) {
+                dependents.addAll( unit.getLinks() );
+            } else if ( !Collections.disjoint( unit.getLinks(), stale ) ) {
+                dependents.add( path );
+            }
+        } );
+        dependents.retainAll( sources.keySet() );
+        return dependents;
+    }
+
+    /**
+     * Translates the given sources along with the sources they link to. If the translated sources infer records
+     * declared by other sources, these are added to the translation. If they declare records inferred by other
+     * sources, these are translated again as well.
+     *
+     * @param paths the sources to translate, extended by the sources translated again
+     */
+    private Graph translate(
+            final Set<String> paths, final Map<String, File> sources, final IncrementalManifest previous,
+            final PipeContext ctx ) {
+
+        final Map<String, String> declaring = new HashMap<>();
+        previous.getUnits()
+                .forEach( ( path, unit ) -> unit.getDeclared().forEach( name -> declaring.put( name, path ) ) );
+        final Map<String, String> unitPaths = GraphSlicer.getUnitPaths( sources );
+
+        final Set<String> context = new TreeSet<>();
+        while ( true ) {
+            paths.forEach( path -> Optional.ofNullable( previous.getUnits().get( path ) )
+                    .ifPresent( unit -> context.addAll( unit.getLinks() ) ) );
+            context.retainAll( sources.keySet() );
+            context.removeAll( paths );
+
+            final Set<String> files = new TreeSet<>( paths );
+            files.addAll( context );
+            final Graph graph = this.translate( files, sources, ctx );
+
+            final Set<String> declared = this.getRecords( graph, unitPaths, paths, false );
+            final Set<String> dependents = previous.getUnits()
+                    .entrySet()
+                    .stream()
+                    .filter( unit -> sources.containsKey( unit.getKey() ) && !paths.contains( unit.getKey() ) )
+                    .filter( unit -> !Collections.disjoint( unit.getValue().getInferred(), declared ) )
+                    .map( Map.Entry::getKey )
+                    .collect( Collectors.toSet() );
+            final Set<String> declaringFiles = this.getRecords( graph, unitPaths, paths, true )
+                    .stream()
+                    .map( declaring::get )
+                    .filter( path -> path != null && sources.containsKey( path ) && !files.contains( path ) )
+                    .collect( Collectors.toSet() );
+            if ( dependents.isEmpty() && declaringFiles.isEmpty() ) {
+                return graph;
+            }
+
+            log.info( "Translating again with {} dependent and {} declaring sources ...", dependents.size(),
+                    declaringFiles.size() );
+            paths.addAll( dependents );
+            context.addAll( declaringFiles );
+        }
+    }
+
+    private Graph translate( final Set<String> files, final Map<String, File> sources, final PipeContext ctx ) {
+
+        final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
+                .orElseThrow( IllegalStateException::new );
+        final PipeContext translationCtx = ctx.copy();
+        final List<PipeBenchmark> translationBenchmarks = new ArrayList<>();
+        translationCtx.set( PipeContext.PIPE_BENCHMARKS, translationBenchmarks );
+        translationCtx.set( PipeContext.CPG_UNITS, true );
+
+        log.info( "Translating {} sources of {} ...", files.size(), dataset.getName() );
+        final TranslationResult result = GenerateCpgModule.<Graph>instance()
+                .translate( dataset, CpgPassProfile.of( ctx ), files.stream()
+                        .map( sources::get )
+                        .toArray( File[]::new ) );
+        if ( result == null ) {
+            throw new IllegalStateException( "Couldn't translate sources of " + dataset.getName() );
+        }
+        final Graph graph = TranslationToGraphModule.<Graph>instance().process( result, translationCtx );
+
+        @SuppressWarnings( "unchecked" )
+        final List<PipeBenchmark> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
+        benchmarks.addAll( translationBenchmarks );
+        ctx.set( PipeContext.PIPE_BENCHMARKS, benchmarks );
+        return graph;
+    }
+
+    /**
+     * @return the graph stitched from the translated and the cached slices, null if a cached slice is missing
+     */
+    private Graph stitch(
+            final Dataset dataset, final Map<String, File> sources, final Map<String, Graph> slices,
+            final IncrementalManifest previous, final IncrementalManifest manifest, final String configHash,
+            final PipeCache cache ) {
+
+        final Optional<GraphSnapshot> previousShared = cache.get( previous.getSharedCacheKey(), GraphSnapshot.class );
+        if ( previousShared.isEmpty() ) {
+            return null;
+        }
+        final GraphStitcher sharedStitcher = GraphStitcher.of( dataset.getName() );
+        sharedStitcher.add( previousShared.get().getGraph() );
+        Optional.ofNullable( slices.get( GraphSlicer.SHARED_PART ) ).ifPresent( sharedStitcher::add );
+        final Graph shared = sharedStitcher.stitch();
+        this.cacheShared( shared, manifest, configHash, cache );
+
+        final GraphStitcher stitcher = GraphStitcher.of( dataset.getName() );
+        stitcher.add( shared );
+        for ( String path : sources.keySet() ) {
+            Graph slice = slices.get( path );
+            if ( slice == null ) {
+                final Optional<GraphSnapshot> cached = cache.get( manifest.getUnits().get( path ).getCacheKey(),
+                        GraphSnapshot.class );
+                if ( cached.isEmpty() ) {
+                    return null;
+                }
+                slice = cached.get().getGraph();
+            }
+            stitcher.add( slice );
+        }
+        return stitcher.stitch();
+    }
+
+    private IncrementalManifest.Unit cacheSlice(
+            final String path, final String hash, final Graph slice, final String configHash,
+            final PipeCache cache ) {
+        final String cacheKey = PipeCache.hash( CACHE_VERSION, "unit", configHash, path, hash );
+        cache.put( cacheKey, GraphSnapshot.of( slice ) );
+
+        final Set<String> links = new TreeSet<>();
+        slice.nodes()
+                .filter( node -> this.GS.hasAttr( node, CpgConst.NODE_ATTR_STUB ) )
+                .forEach( node -> links.add( this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT ) ) );
+        links.remove( path );
+        final GraphSlicer slicer = GraphSlicer.of( slice );
+        return IncrementalManifest.Unit.of( hash, cacheKey, slicer.getRecords( false ), slicer.getRecords( true ),
+                links );
+    }
+
+    private void cacheShared(
+            final Graph shared, final IncrementalManifest manifest, final String configHash, final PipeCache cache ) {
+        final String cacheKey = PipeCache.hash( CACHE_VERSION, "shared", configHash );
+        cache.put( cacheKey, GraphSnapshot.of( shared ) );
+        manifest.setSharedCacheKey( cacheKey );
+    }
+
+    /**
+     * @return the full names of the declared or inferred records of the given sources
+     */
+    private Set<String> getRecords(
+            final Graph graph, final Map<String, String> unitPaths, final Set<String> paths, final boolean inferred ) {
+        return graph.nodes()
+                .filter( node -> paths.contains( this.getPath( node, unitPaths ) ) )
+                .filter( node -> this.isRecord( node ) && this.isInferred( node ) == inferred )
+                .map( node -> this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL ) )
+                .collect( Collectors.toSet() );
+    }
+
+    private String getPath( final Node node, final Map<String, String> unitPaths ) {
+        final String unit = this.GS.getAttr( node, CpgConst.NODE_ATTR_UNIT );
+        return unit == null ? "" : unitPaths.getOrDefault( unit, "" );
+    }
+
+    private boolean isRecord( final Node node ) {
+        return this.GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) && this.GS.hasAttr( node,
+                CpgConst.NODE_ATTR_NAME_FULL );
+    }
+
+    private boolean isInferred( final Node node ) {
+        return this.GS.getAttr( node, CpgConst.NODE_ATTR_INFERRED, Boolean.class ).orElse( false );
+    }
+
+    private String getConfigHash( final Dataset dataset, final File sourceRoot, final PipeContext ctx ) {
+        final int depth = ctx.get( PipeContext.CPG_DEPTH_KEY, 10, Integer.class );
+        final int minDepth = ctx.get( PipeContext.CPG_MIN_DEPTH_KEY, 8, Integer.class );
+        return PipeCache.hash( dataset.getName(), dataset.getLanguage().name(), String.valueOf( depth ),
+                String.valueOf( minDepth ), GenerateCpgModule.getPassConfiguration( dataset, CpgPassProfile.of( ctx ),
+                        sourceRoot ), AttributeProjection.of( ctx ).getConfiguration() );
+    }
+
+    private String hash( final File file ) {
+        try {
+            return PipeCache.hashFiles( file );
+        } catch ( IOException e ) {
+            throw new IllegalStateException( "Couldn't hash source " + file + ": " + e.getMessage(), e );
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+package de.haw.translation.module;
+
+import de.fraunhofer.aisec.cpg.TranslationResult;
+import de.haw.dataset.DatasetLoader;
+import de.haw.dataset.model.Dataset;
+import de.haw.misc.Args;
+import de.haw.misc.Timer;
+import de.haw.misc.pipe.PipeBenchmark;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.misc.utils.FormatUtils;
+import de.haw.misc.utils.MemoryUtils;
+import de.haw.translation.CpgPassProfile;
+import de.haw.translation.GraphSlicer;
+import de.haw.translation.GraphStitcher;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.graphstream.graph.Graph;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the sources of a dataset by directory into shards, which are translated concurrently with their own
+ * translation configuration and sliced by source file (see {@link GraphSlicer}). Shards inferring records declared by
+ * other shards are translated again, with the declaring files as context, so references across shards resolve like
+ * in a translation of the whole dataset. The slices of all shards are held until they are stitched into the dataset
+ * graph (see {@link GraphStitcher}). A shard failing twice fails the dataset.
+ */
+@Slf4j
+@NoArgsConstructor( staticName = "instance" )
+public class ShardedTranslationModule<Target> extends PipeModule<File, Graph, Target> {
+
+    public final static String SHARDED_ARG = "sharded";
+
+    /**
+     * Number of directory levels below the dataset root a shard is made of, all levels (packages) by default
+     */
+    public final static String SHARD_DEPTH_ARG = "shard-depth";
+
+    public final static String SHARD_WORKERS_ARG = "shard-workers";
+
+    private final static String DEFAULT_SHARD_DEPTH = "-1";
+
+    private final static String DEFAULT_SHARD_WORKERS = "2";
+
+    private final static String ROOT_SHARD = ".";
+
+    /**
+     * @param slices the slices of the files of the shard and the shared slice
+     */
+    private record ShardResult(
+            String shard, List<String> paths, Set<String> context, Map<String, Graph> slices, Set<String> inferred,
+            double timeSec ) {
+    }
+
+    public static boolean isEnabled( final Args args ) {
+        return args.isTrue( SHARDED_ARG );
+    }
+
+    public static String getShardDepth( final Args args ) {
+        return args.getOrElse( SHARD_DEPTH_ARG, DEFAULT_SHARD_DEPTH );
+    }
+
+    @Override
+    protected Graph processImpl( final File sourceRoot, final PipeContext ctx ) {
+
+        final Args args = ctx.get( PipeContext.ARGS_KEY, Args.empty(), Args.class );
+        final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
+                .orElseThrow( IllegalStateException::new );
+        final int shardDepth = Integer.parseInt( getShardDepth( args ) );
+        final int workers = Math.max( 1,
+                Integer.parseInt( args.getOrElse( SHARD_WORKERS_ARG, DEFAULT_SHARD_WORKERS ) ) );
+
+        final Map<String, File> sources = DatasetLoader.loadSources( sourceRoot, dataset.getLanguage() );
+        final Map<String, List<String>> shards = getShards( sources, shardDepth );
+        log.info( "Translating {} shards of {} with {} worker(s) ...", shards.size(), dataset.getName(), workers );
+
+        final Map<String, ShardResult> results = new TreeMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool( workers );
+        try {
+            final List<Future<ShardResult>> futures = new ArrayList<>();
+            shards.forEach( ( shard, paths ) -> futures.add( executor.submit(
+                    () -> this.translateShard( shard, paths, Map.of(), sources, dataset, ctx ) ) ) );
+            futures.forEach( future -> this.collect( future, results, ctx ) );
+
+            // records inferred by a shard but declared by another one are resolved by translating the shard again
+            final Map<String, String> declaringPaths = this.getDeclaringPaths( results.values() );
+            futures.clear();
+            results.values()
+                    .stream()
+                    .filter( result -> result.inferred()
+                            .stream()
+                            .map( declaringPaths::get )
+                            .anyMatch( path -> path != null && !result.paths().contains( path ) ) )
+                    .forEach( result -> futures.add( executor.submit(
+                            () -> this.translateShard( result.shard(), result.paths(), declaringPaths, sources,
+                                    dataset, ctx ) ) ) );
+            if ( !futures.isEmpty() ) {
+                log.info( "Translating {} shards again with the sources of other shards ...", futures.size() );
+            }
+            futures.forEach( future -> this.collect( future, results, ctx ) );
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final GraphStitcher stitcher = GraphStitcher.of( dataset.getName() );
+        results.values().forEach( result -> result.slices().values().forEach( stitcher::add ) );
+        results.clear();
+        return stitcher.stitch();
+    }
+
+    /**
+     * Translates the files of a shard, along with the files declaring the records it infers, until it infers no
+     * more records declared by other shards. A translation failing to translate or convert is retried once, before
+     * failing the dataset, so it isn't continued with a partial graph.
+     *
+     * @param declaringPaths the paths of the sources declaring records by their full name, empty to translate the
+     *                       shard on its own
+     */
+    private ShardResult translateShard(
+            final String shard, final List<String> paths, final Map<String, String> declaringPaths,
+            final Map<String, File> sources, final Dataset dataset, final PipeContext ctx ) {
+        final Timer timer = new Timer();
+        final Set<String> context = new TreeSet<>();
+        while ( true ) {
+            final Set<String> files = new TreeSet<>( paths );
+            files.addAll( context );
+            log.info( "Translating shard {} ({} files, {} context files) ...", shard, paths.size(), context.size() );
+            Map<String, Graph> slices = this.tryTranslateShard( shard, paths, files, sources, dataset, ctx );
+            if ( slices == null ) {
+                log.warn( "Retrying shard {} ...", shard );
+                slices = this.tryTranslateShard( shard, paths, files, sources, dataset, ctx );
+            }
+            if ( slices == null ) {
+                throw new IllegalStateException( "Couldn't translate shard " + shard + " of " + dataset.getName() );
+            }
+
+            final Set<String> inferred = new TreeSet<>();
+            for ( String path : paths ) {
+                inferred.addAll( GraphSlicer.of( slices.get( path ) ).getRecords( true ) );
+            }
+            final Set<String> declaringFiles = inferred.stream()
+                    .map( declaringPaths::get )
+                    .filter( path -> path != null && !files.contains( path ) )
+                    .collect( Collectors.toSet() );
+            if ( declaringFiles.isEmpty() ) {
+                return new ShardResult( shard, paths, context, slices, inferred, timer.getTimeSinceSec() );
+            }
+            context.addAll( declaringFiles );
+        }
+    }
+
+    /**
+     * @return the slices of the files of the shard, null if the translation failed
+     */
+    private Map<String, Graph> tryTranslateShard(
+            final String shard, final List<String> paths, final Set<String> files, final Map<String, File> sources,
+            final Dataset dataset, final PipeContext ctx ) {
+        final PipeContext shardCtx = ctx.copy();
+        shardCtx.set( PipeContext.PIPE_BENCHMARKS, new ArrayList<PipeBenchmark>() );
+        shardCtx.set( PipeContext.CPG_UNITS, true );
+
+        final TranslationResult result = GenerateCpgModule.<Graph>instance()
+                .translate( dataset, CpgPassProfile.of( shardCtx ), files.stream()
+                        .map( sources::get )
+                        .toArray( File[]::new ) );
+        if ( result == null ) {
+            log.error( "Couldn't translate shard {}", shard );
+            return null;
+        }
+        try {
+            final Graph graph = TranslationToGraphModule.<Graph>instance().process( result, shardCtx );
+            return GraphSlicer.of( graph ).slice( GraphSlicer.getUnitPaths( sources ), new TreeSet<>( paths ) );
+        } catch ( Exception e ) {
+            log.error( "Couldn't convert shard {}: {}", shard, e.getMessage() );
+            return null;
+        }
+    }
+
+    /**
+     * @return the paths of the sources declaring records by their full name
+     */
+    private Map<String, String> getDeclaringPaths( final Collection<ShardResult> results ) {
+        final Map<String, String> declaringPaths = new HashMap<>();
+        results.forEach( result -> result.paths()
+                .forEach( path -> GraphSlicer.of( result.slices().get( path ) )
+                        .getRecords( false )
+                        .forEach( name -> declaringPaths.putIfAbsent( name, path ) ) ) );
+        return declaringPaths;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void collect(
+            final Future<ShardResult> future, final Map<String, ShardResult> results, final PipeContext ctx ) {
+        final ShardResult result;
+        try {
+            result = future.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while translating shards", e );
+        } catch ( ExecutionException e ) {
+            throw new IllegalStateException( "Failed to translate shard: " + e.getCause().getMessage(), e.getCause() );
+        }
+
+        results.put( result.shard(), result );
+        final String files = result.paths().size() + ( result.context().isEmpty() ? "" : "+" + result.context()
+                .size() );
+        log.info( "Translated shard {} ({} files) in {}s", result.shard(), files,
+                FormatUtils.format( result.timeSec(), 4 ) );
+
+        final List<PipeBenchmark> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
+        benchmarks.add( PipeBenchmark.builder()
+                .name( ctx.get( PipeContext.PROCESS_NAME ) )
+                .processCount( ctx.get( PipeContext.PROCESS_COUNT, 0, Integer.class ) )
+                .processName( "TranslateShard[" + result.shard() + "," + files + "]" )
+                .processTimeSec( FormatUtils.format( result.timeSec(), 4 ) )
+                .totalTimeSec( FormatUtils.format( ctx.get( PipeContext.TOTAL_PROCESSING_TIME, 0d, Double.class ), 4 ) )
+                .heapUsedMb( MemoryUtils.getUsedHeapMb() )
+                .heapRetainedMb( -1 )
+                .build() );
+        ctx.set( PipeContext.PIPE_BENCHMARKS, benchmarks );
+    }
+
+    /**
+     * @return the paths of the sources grouped by their directory, cut to the given depth (negative for the full
+     * directory)
+     */
+    static Map<String, List<String>> getShards( final Map<String, File> sources, final int shardDepth ) {
+        final Map<String, List<String>> shards = new TreeMap<>();
+        sources.keySet().forEach( path -> {
+            final Path dir = Paths.get( path ).getParent();
+            String shard = ROOT_SHARD;
+            if ( dir != null && shardDepth != 0 ) {
+                final int depth = shardDepth < 0 ? dir.getNameCount() : Math.min( shardDepth, dir.getNameCount() );
+                shard = dir.subpath( 0, depth ).toString();
+            }
+            shards.computeIfAbsent( shard, key -> new ArrayList<>() ).add( path );
+        } );
+        return shards;
+    }
+
+}
@@ -8,20 +8,21 @@ import de.fraunhofer.aisec.cpg_vis_neo4j.JsonNode;
 import de.haw.dataset.model.Dataset;
 import de.haw.misc.pipe.PipeContext;
 import de.haw.misc.pipe.PipeModule;
-import de.haw.misc.utils.ReflectionUtils;
+import de.haw.misc.utils.MemoryUtils;
 import de.haw.processing.GraphService;
+import de.haw.translation.AttributeProjection;
 import de.haw.translation.CpgConst;
-import kotlin.Pair;
+import de.haw.translation.CpgWalker;
+import de.haw.translation.DepthEstimator;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
-import org.neo4j.ogm.cypher.compiler.builders.node.DefaultNodeBuilder;
-import org.neo4j.ogm.cypher.compiler.builders.node.DefaultRelationshipBuilder;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @NoArgsConstructor( staticName = "instance" )
@@ -38,85 +39,213 @@ public class TranslationToGraphModule<Target> extends PipeModule<TranslationResu
             throw new IllegalArgumentException( "Can't convert null result!" );
         }
 
-        final int minDepth = ctx.get( PipeContext.CPG_MIN_DEPTH_KEY, 8, Integer.class );
-        int depth = ctx.get( PipeContext.CPG_DEPTH_KEY, 10, Integer.class );
-
-        while ( depth >= minDepth ) {
-            try {
-                return this.translateGraph( result, ctx, depth );
-            } catch ( Exception e ) {
-                log.error( "Failed to parse CPG in depth {}: {}", depth, e.getMessage() );
-                depth--;
-            } catch ( OutOfMemoryError e ) {
-                // TODO this is very unsafe and will not guarantee correct process
-                log.error( "Failed to parse CPG in depth {}: {}", depth, e.getMessage() );
-                System.gc();
-                depth--;
-            }
+        final int depth = ctx.get( PipeContext.CPG_DEPTH_KEY, 10, Integer.class );
+        final int minDepth = Math.min( depth, ctx.get( PipeContext.CPG_MIN_DEPTH_KEY, 8, Integer.class ) );
+
+        final DepthEstimator estimator = DepthEstimator.of( result, depth,
+                ctx.get( PipeContext.CPG_DEPTH_CALIBRATION, DepthEstimator.Calibration.DEFAULT,
+                        DepthEstimator.Calibration.class ) );
+        DepthEstimator.DepthEstimate estimate = estimator.estimate( minDepth, depth,
+                MemoryUtils.getMaxHeapMb() - MemoryUtils.getUsedHeapMb() );
+        if ( estimate.getDepth() < depth || !estimate.isFits() ) {
+            // garbage counts as used heap, so the heap is only measured precisely before going below the max depth
+            estimate = estimator.estimate( minDepth, depth,
+                    MemoryUtils.getMaxHeapMb() - MemoryUtils.getRetainedHeapMb() );
+        }
+        // with the heap report, the retained heap of the graph is measured to fit later estimates from
+        final boolean heapReport = ctx.get( PipeContext.HEAP_RETENTION_REPORT, false, Boolean.class );
+        final long retainedMb = heapReport ? MemoryUtils.getRetainedHeapMb() : -1;
+        if ( estimate.isFits() ) {
+            log.info( "Selected depth {} of max {} (estimated {} MB of {} MB headroom)", estimate.getDepth(), depth,
+                    estimate.getEstimatedMb(), estimate.getHeadroomMb() );
+        } else {
+            log.warn( "Estimated {} MB for min depth {} exceed headroom of {} MB, converting anyway ...",
+                    estimate.getEstimatedMb(), estimate.getDepth(), estimate.getHeadroomMb() );
         }
 
-        throw new IllegalStateException( "Couldn't parse CPG results with min depth of " + minDepth );
+        final int selectedDepth = estimate.getDepth();
+        ctx.set( PipeContext.PROCESS_DETAILS, estimate.toDetails() );
+        final Graph graph = this.translateGraph( result, ctx, selectedDepth );
+        graph.setAttribute( CpgConst.GRAPH_ATTR_DEPTH, selectedDepth );
+        final long graphMb = heapReport ? Math.max( 0, MemoryUtils.getRetainedHeapMb() - retainedMb ) : -1;
+        ctx.set( PipeContext.PROCESS_DETAILS, ctx.get( PipeContext.PROCESS_DETAILS ) + ";"
+                + DepthEstimator.toConversionDetails( selectedDepth, graph, graphMb ) );
+        ctx.set( PipeContext.CPG_DEPTH_KEY, selectedDepth );
+        return graph;
     }
 
     public Graph translateGraph( final TranslationResult result, final PipeContext ctx, final int depth ) {
         log.info( "Converting CPG result to graph with depth {} ...", depth );
-        final Application neo4j = new Application();
-        ReflectionUtils.setInt( neo4j, "depth", depth );
-        final Pair<List<DefaultNodeBuilder>, List<DefaultRelationshipBuilder>> jsonData = neo4j.translateCPGToOGMBuilders(
-                result );
-
-        final Graph graph = this.toGraph( neo4j.buildJsonGraph( jsonData.getFirst(), jsonData.getSecond() ), ctx );
+        final Graph graph = this.toGraph( result, ctx, depth );
         if ( this.graphIsEmpty( graph ) ) {
             throw new IllegalStateException( "Translated graph is empty." );
         }
         return graph;
     }
 
+    /**
+     * Converts the result straight into the graph in one walk (see {@link CpgWalker}), without the OGM builders and
+     * the {@link JsonGraph} of cpg-neo4j. Yields the same graph as {@link #toGraph(JsonGraph, PipeContext)} of the
+     * json graph of {@link Application} with the same depth, except for the ids of the nodes and edges.
+     */
+    public Graph toGraph( final TranslationResult result, final PipeContext ctx, final int depth ) {
+
+        final String datasetName = this.getDataset( ctx ).getName();
+        final Graph graph = this.getEmptyGraph( datasetName );
+        final AttributeProjection projection = AttributeProjection.of( ctx );
+        final AttributeProjection.Stats stats = new AttributeProjection.Stats();
+
+        final CpgWalker walker = CpgWalker.of( depth );
+        if ( ctx.get( PipeContext.CPG_UNITS, false, Boolean.class ) ) {
+            walker.withUnits();
+        }
+        walker.walk( result, new CpgWalker.Visitor() {
+
+            @Override
+            public void node( final long id, final Set<String> labels, final Map<String, Object> properties ) {
+                final Node node = addNode( graph, id );
+                if ( node != null ) {
+                    properties.forEach( ( key, value ) -> setNodeAttr( node, labels, key, value, projection, stats ) );
+                    node.setAttribute( CpgConst.NODE_ATTR_LABELS, labels );
+                    setNodeAttr( node, labels, CpgConst.NODE_ATTR_DATASET, datasetName, projection, stats );
+                }
+            }
+
+            @Override
+            public void edge( final long id, final long source, final long target, final String type,
+                    final Map<String, Object> properties ) {
+                final Edge edge = addEdge( graph, id, source, target );
+                if ( edge != null ) {
+                    properties.forEach( ( key, value ) -> setEdgeAttr( edge, type, key, value, projection, stats ) );
+                    setEdgeType( edge, type, datasetName, projection, stats );
+                }
+            }
+
+            @Override
+            public void unit( final long id, final String unit, final String key ) {
+                // the units are needed to slice the graph, so they aren't projected
+                final Node node = graph.getNode( String.valueOf( id ) );
+                node.setAttribute( CpgConst.NODE_ATTR_UNIT, unit );
+                node.setAttribute( CpgConst.NODE_ATTR_UNIT_KEY, key );
+            }
+
+        } );
+
+        this.reportProjection( datasetName, projection, stats, ctx );
+        return graph;
+    }
+
     public Graph toGraph( final JsonGraph json, final PipeContext ctx ) {
 
-        final Dataset dataset = ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class )
-                .orElseThrow( IllegalStateException::new );
-        final Graph graph = this.GS.getEmptyGraph( dataset.getName() );
-        graph.setAttribute( CpgConst.GRAPH_ATTR_DATASET, dataset.getName() );
+        final String datasetName = this.getDataset( ctx ).getName();
+        final Graph graph = this.getEmptyGraph( datasetName );
+        final AttributeProjection projection = AttributeProjection.of( ctx );
+        final AttributeProjection.Stats stats = new AttributeProjection.Stats();
 
         for ( JsonNode jsonNode : json.getNodes() ) {
-            Node node = graph.addNode( String.valueOf( jsonNode.getId() ) );
-            if ( node == null ) {
-                node = graph.getNode( String.valueOf( jsonNode.getId() ) );
-            }
+            final Node node = this.addNode( graph, jsonNode.getId() );
             if ( node != null ) {
-                node.setAttributes( jsonNode.getProperties() );
-                node.setAttribute( CpgConst.NODE_ATTR_LABELS, jsonNode.getLabels() );
-                node.setAttribute( CpgConst.NODE_ATTR_DATASET, dataset.getName() );
+                final Set<String> labels = jsonNode.getLabels();
+                jsonNode.getProperties()
+                        .forEach( ( key, value ) -> this.setNodeAttr( node, labels, key, value, projection, stats ) );
+                node.setAttribute( CpgConst.NODE_ATTR_LABELS, labels );
+                this.setNodeAttr( node, labels, CpgConst.NODE_ATTR_DATASET, datasetName, projection, stats );
             }
         }
         for ( JsonEdge jsonEdge : json.getEdges() ) {
-
-            final String edgeId = String.valueOf( jsonEdge.getId() );
-            final String sourceNode = String.valueOf( jsonEdge.getStartNode() );
-
-            final String targetNode = String.valueOf( jsonEdge.getEndNode() );
-            if ( PREVENT_SELF_LOOPS && sourceNode.equals( targetNode ) ) {
-                continue;
-            }
-
-            Edge edge = graph.addEdge( edgeId, sourceNode, targetNode, true );
-            if ( edge == null ) {
-                edge = graph.getEdge( edgeId );
-            }
+            final Edge edge = this.addEdge( graph, jsonEdge.getId(), jsonEdge.getStartNode(), jsonEdge.getEndNode() );
             if ( edge != null ) {
-                edge.setAttributes( jsonEdge.getProperties() );
-                edge.setAttribute( CpgConst.EDGE_ATTR_TYPE, jsonEdge.getType() );
-                if ( StringUtils.isNotBlank( jsonEdge.getType() ) ) {
-                    edge.setAttribute( CpgConst.EDGE_ATTR_LABEL, jsonEdge.getType() );
-                }
-                edge.setAttribute( CpgConst.EDGE_ATTR_DATASET, dataset.getName() );
+                final String type = jsonEdge.getType();
+                jsonEdge.getProperties()
+                        .forEach( ( key, value ) -> this.setEdgeAttr( edge, type, key, value, projection, stats ) );
+                this.setEdgeType( edge, type, datasetName, projection, stats );
             }
         }
 
+        this.reportProjection( datasetName, projection, stats, ctx );
         return graph;
     }
 
+    private Dataset getDataset( final PipeContext ctx ) {
+        return ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class ).orElseThrow( IllegalStateException::new );
+    }
+
+    private Graph getEmptyGraph( final String datasetName ) {
+        final Graph graph = this.GS.getEmptyGraph( datasetName );
+        graph.setAttribute( CpgConst.GRAPH_ATTR_DATASET, datasetName );
+        return graph;
+    }
+
+    private Node addNode( final Graph graph, final Long id ) {
+        Node node = graph.addNode( String.valueOf( id ) );
+        if ( node == null ) {
+            node = graph.getNode( String.valueOf( id ) );
+        }
+        return node;
+    }
+
+    private Edge addEdge( final Graph graph, final Long id, final Long startNode, final Long endNode ) {
+
+        final String edgeId = String.valueOf( id );
+        final String sourceNode = String.valueOf( startNode );
+
+        final String targetNode = String.valueOf( endNode );
+        if ( PREVENT_SELF_LOOPS && sourceNode.equals( targetNode ) ) {
+            return null;
+        }
+
+        Edge edge = graph.addEdge( edgeId, sourceNode, targetNode, true );
+        if ( edge == null ) {
+            edge = graph.getEdge( edgeId );
+        }
+        return edge;
+    }
+
+    private void setEdgeType(
+            final Edge edge, final String type, final String datasetName, final AttributeProjection projection,
+            final AttributeProjection.Stats stats ) {
+        edge.setAttribute( CpgConst.EDGE_ATTR_TYPE, type );
+        if ( StringUtils.isNotBlank( type ) ) {
+            edge.setAttribute( CpgConst.EDGE_ATTR_LABEL, type );
+        }
+        this.setEdgeAttr( edge, type, CpgConst.EDGE_ATTR_DATASET, datasetName, projection, stats );
+    }
+
+    private void setNodeAttr(
+            final Node node, final Set<String> labels, final String key, final Object value,
+            final AttributeProjection projection, final AttributeProjection.Stats stats ) {
+        if ( projection.keepsNodeAttr( labels, key ) ) {
+            node.setAttribute( key, value );
+            stats.keep();
+        } else {
+            stats.drop( value );
+        }
+    }
+
+    private void setEdgeAttr(
+            final Edge edge, final String type, final String key, final Object value,
+            final AttributeProjection projection, final AttributeProjection.Stats stats ) {
+        if ( projection.keepsEdgeAttr( type, key ) ) {
+            edge.setAttribute( key, value );
+            stats.keep();
+        } else {
+            stats.drop( value );
+        }
+    }
+
+    private void reportProjection(
+            final String datasetName, final AttributeProjection projection, final AttributeProjection.Stats stats,
+            final PipeContext ctx ) {
+        if ( projection.keepsAll() ) {
+            return;
+        }
+        log.info( "Projected attributes of {} with {}: kept {}, dropped {} (~{} KB)", datasetName,
+                projection.getName(), stats.getKept(), stats.getDropped(), stats.getDroppedBytes() / 1024 );
+        final String details = ctx.get( PipeContext.PROCESS_DETAILS );
+        ctx.set( PipeContext.PROCESS_DETAILS,
+                StringUtils.isBlank( details ) ? stats.toDetails() : details + ";" + stats.toDetails() );
+    }
+
     public boolean graphIsEmpty( final Graph graph ) {
         return graph == null || graph.getNodeCount() == 0;
     }
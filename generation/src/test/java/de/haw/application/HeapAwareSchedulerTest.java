@@ -0,0 +1,61 @@
+package de.haw.application;
+
+import de.haw.application.model.TranslationRequest;
+import de.haw.dataset.model.Dataset;
+import de.haw.dataset.model.DatasetLanguage;
+import de.haw.dataset.model.DatasetType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeapAwareSchedulerTest {
+
+    private static TranslationRequest request( final String name ) {
+        return TranslationRequest.of( Dataset.of( DatasetLanguage.JAVA, DatasetType.OWN, name ), 10 );
+    }
+
+    @Test
+    void testAdmitsWhileBudgetFits() throws InterruptedException {
+        final TranslationRequest small = request( "small" );
+        final TranslationRequest medium = request( "medium" );
+        final TranslationRequest large = request( "large" );
+        final Map<String, Long> estimates = Map.of( "small", 100L, "medium", 300L, "large", 800L );
+
+        final HeapAwareScheduler scheduler = HeapAwareScheduler.of( Arrays.asList( small, medium, large ),
+                dataset -> estimates.get( dataset.getProjectName() ), 500 );
+
+        assertSame( small, scheduler.next().orElseThrow() );
+        assertSame( medium, scheduler.next().orElseThrow() );
+        assertEquals( 400, scheduler.getAdmittedMb() );
+
+        // the large request only runs alone and is capped to the budget
+        scheduler.release( small );
+        scheduler.release( medium );
+        assertSame( large, scheduler.next().orElseThrow() );
+        assertEquals( 500, scheduler.getAdmittedMb() );
+
+        scheduler.release( large );
+        assertEquals( 0, scheduler.getAdmittedMb() );
+        assertEquals( Optional.empty(), scheduler.next() );
+    }
+
+    @Test
+    void testSkipsRequestsThatDontFit() throws InterruptedException {
+        final TranslationRequest first = request( "first" );
+        final TranslationRequest large = request( "large" );
+        final TranslationRequest tiny = request( "tiny" );
+        final Map<String, Long> estimates = Map.of( "first", 300L, "large", 400L, "tiny", 50L );
+
+        final HeapAwareScheduler scheduler = HeapAwareScheduler.of( List.of( first, large, tiny ),
+                dataset -> estimates.get( dataset.getProjectName() ), 500 );
+
+        assertSame( first, scheduler.next().orElseThrow() );
+        assertSame( tiny, scheduler.next().orElseThrow() );
+    }
+
+}
@@ -0,0 +1,70 @@
+package de.haw.application;
+
+import de.haw.processing.GraphService;
+import de.haw.processing.model.RecordInteraction;
+import de.haw.processing.model.RecordInteractionIndex;
+import de.haw.processing.model.RecordInteractionType;
+import de.haw.processing.module.ComputeRecordInteractionsModule;
+import de.haw.translation.CpgConst;
+import de.haw.translation.CpgPassProfile;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidatePassProfileModuleTest {
+
+    private final GraphService GS = GraphService.instance();
+
+    private final ComputeRecordInteractionsModule<?> interactions = ComputeRecordInteractionsModule.instance();
+
+    private final ValidatePassProfileModule<?> module = ValidatePassProfileModule.instance();
+
+    @Test
+    void testSameInteractions() {
+        final Graph graph = this.getInteractions( "b", "d" );
+        final Graph reference = this.getInteractions( "b", "d" );
+
+        assertDoesNotThrow( () -> this.module.validate(
+                CpgPassProfile.RECORD_INTERACTIONS, "test", graph, reference ) );
+    }
+
+    @Test
+    void testSwappedTargetsFail() {
+        // the same records are sources and targets, only their pairing differs
+        final Graph graph = this.getInteractions( "d", "b" );
+        final Graph reference = this.getInteractions( "b", "d" );
+
+        assertThrows( IllegalStateException.class, () -> this.module.validate(
+                CpgPassProfile.RECORD_INTERACTIONS, "test", graph, reference ) );
+    }
+
+    /**
+     * @return a graph in which "a" calls the first and "c" the second target record
+     */
+    private Graph getInteractions( final String firstTarget, final String secondTarget ) {
+        final Graph graph = new SingleGraph( "interactions" );
+        graph.setAttribute( CpgConst.GRAPH_ATTR_DATASET, "test" );
+        for ( String id : new String[]{ "a", "b", "c", "d" } ) {
+            final Node record = this.GS.addNode( graph, id );
+            this.GS.addLabel( record, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+            record.setAttribute( CpgConst.NODE_ATTR_NAME_SCOPED_RECORD, "p." + id.toUpperCase() );
+        }
+        final RecordInteractionIndex index = RecordInteractionIndex.of( graph );
+        this.addCall( graph, index, "a", firstTarget );
+        this.addCall( graph, index, "c", secondTarget );
+        return graph;
+    }
+
+    private void addCall( final Graph graph, final RecordInteractionIndex index, final String source,
+            final String target ) {
+        final RecordInteraction interaction = RecordInteraction.of( RecordInteractionType.CALLS_RECORD,
+                graph.getNode( source ), graph.getNode( target ), null );
+        final Node interactionNode = this.interactions.getInteractionOrCreate( graph, index, interaction );
+        this.interactions.addEdgeForInteraction( graph, index, interactionNode, graph.getNode( target ), interaction,
+                false );
+    }
+
+}
@@ -0,0 +1,43 @@
+package de.haw.dataset.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DesignPatternIndexTest {
+
+    @Test
+    void testSimpleAndQualifiedNames() {
+        DatasetDesignPatterns dps = DatasetDesignPatterns.of( DatasetFactory.J_UNIT );
+        DesignPattern observer = DesignPattern.of( "0", DesignPatternType.OBSERVER, "Listener", "observer", true );
+        DesignPattern adapter = DesignPattern.of( "1", DesignPatternType.ADAPTER, "b.Listener", "adaptee", false );
+        DesignPattern singleton = DesignPattern.of( "2", DesignPatternType.SINGLETON, "Registry", "instance", true );
+        dps.add( observer );
+        dps.add( adapter );
+        dps.add( singleton );
+
+        DesignPatternIndex index = DesignPatternIndex.of( dps );
+        assertEquals( 3, index.size() );
+        assertEquals( List.of( observer ), index.getPatterns( "a.Listener" ) );
+        assertEquals( 2, index.getPatterns( "a.b.Listener" ).size() );
+        assertTrue( index.getPatterns( "a.b.Listener" ).contains( adapter ) );
+        assertEquals( List.of( singleton ), index.getPatterns( "Registry" ) );
+        assertTrue( index.getPatterns( "a.Unknown" ).isEmpty() );
+        assertTrue( index.getPatterns( null ).isEmpty() );
+    }
+
+    @Test
+    void testOnlyMajorRoles() {
+        DatasetDesignPatterns dps = DatasetDesignPatterns.of( DatasetFactory.J_UNIT );
+        DesignPattern subject = DesignPattern.of( "0", DesignPatternType.OBSERVER, "Subject", "subject", true );
+        dps.add( subject );
+        dps.add( DesignPattern.of( "0", DesignPatternType.ADAPTER, "Subject", "adaptee", false ) );
+
+        DesignPatternIndex index = DesignPatternIndex.of( dps, true );
+        assertEquals( 1, index.size() );
+        assertEquals( List.of( subject ), index.getPatterns( "a.Subject" ) );
+    }
+
+}
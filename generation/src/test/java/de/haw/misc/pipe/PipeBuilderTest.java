@@ -2,6 +2,9 @@ package de.haw.misc.pipe;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PipeBuilderTest {
@@ -22,6 +25,26 @@ public class PipeBuilderTest {
         }
     }
 
+    private static class AddModule<Target> extends PipeModule<Integer, Integer, Target>
+            implements FusibleModule<Target> {
+
+        private final int value;
+
+        AddModule( final int value ) {
+            this.value = value;
+        }
+
+        @Override
+        protected Integer processImpl( final Integer v, final PipeContext ctx ) {
+            return v + this.value;
+        }
+
+        @Override
+        public PipeModule<?, ?, Target> fuse( final PipeModule<?, ?, Target> next ) {
+            return next instanceof AddModule<?> add ? new AddModule<>( this.value + add.value ) : null;
+        }
+    }
+
     @Test
     void testBuildWithoutModulesThrowsException() {
         PipeBuilder<String, String> builder = PipeBuilder.builder();
@@ -52,4 +75,42 @@ public class PipeBuilderTest {
         assertSame( moduleB, moduleA.getNext() );
     }
 
+    @Test
+    void testBuildExecutorRunsAllStages() {
+        PipeExecutor<String, String> executor = PipeBuilder.<String, String>builder()
+                .add( new DummeyModuleA<>() )
+                .add( new DummeyModuleB<>() )
+                .buildExecutor();
+        PipeContext ctx = PipeContext.empty();
+        ctx.set( PipeContext.HEAP_RETENTION_REPORT, true );
+
+        assertEquals( "42", executor.execute( "42", ctx ) );
+        assertEquals( 2, ctx.get( PipeContext.PROCESS_COUNT, 0, Integer.class ) );
+        List<PipeBenchmark> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new ArrayList<>(), List.class );
+        assertEquals( 2, benchmarks.size() );
+        assertTrue( benchmarks.stream().allMatch( benchmark -> benchmark.getHeapRetainedMb() >= 0 ) );
+    }
+
+    @Test
+    void testBuildFusesModules() {
+        PipeContext ctx = PipeContext.empty();
+        PipeExecutor<Integer, String> executor = PipeBuilder.<Integer, String>builder()
+                .add( new AddModule<>( 1 ) )
+                .add( new AddModule<>( 2 ) )
+                .add( new DummeyModuleB<>() )
+                .buildExecutor();
+        assertEquals( "45", executor.execute( 42, ctx ) );
+        assertEquals( 2, ctx.get( PipeContext.PROCESS_COUNT, 0, Integer.class ) );
+
+        PipeContext unfusedCtx = PipeContext.empty();
+        PipeExecutor<Integer, String> unfused = PipeBuilder.<Integer, String>builder()
+                .fusion( false )
+                .add( new AddModule<>( 1 ) )
+                .add( new AddModule<>( 2 ) )
+                .add( new DummeyModuleB<>() )
+                .buildExecutor();
+        assertEquals( "45", unfused.execute( 42, unfusedCtx ) );
+        assertEquals( 3, unfusedCtx.get( PipeContext.PROCESS_COUNT, 0, Integer.class ) );
+    }
+
 }
@@ -0,0 +1,72 @@
+package de.haw.misc.pipe;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipeCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void testPutAndGet() {
+        PipeCache cache = PipeCache.of( this.cacheDir, 1024 * 1024, Duration.ofDays( 1 ) );
+        cache.put( "key", new ArrayList<>( List.of( "a", "b" ) ) );
+
+        assertEquals( List.of( "a", "b" ), cache.get( "key", ArrayList.class ).orElseThrow() );
+        assertEquals( Optional.empty(), cache.get( "other", ArrayList.class ) );
+        assertEquals( Optional.empty(), cache.get( "key", String.class ) );
+    }
+
+    @Test
+    void testEvictsExpiredAndOldestEntries() throws IOException {
+        PipeCache cache = PipeCache.of( this.cacheDir, 1024 * 1024, Duration.ofDays( 1 ) );
+        cache.put( "expired", "value" );
+        Files.setLastModifiedTime( this.cacheDir.resolve( "expired.bin" ),
+                FileTime.from( Instant.now().minus( Duration.ofDays( 2 ) ) ) );
+        cache.evict();
+        assertEquals( Optional.empty(), cache.get( "expired", String.class ) );
+
+        PipeCache smallCache = PipeCache.of( this.cacheDir, 1, Duration.ofDays( 1 ) );
+        smallCache.put( "large", "value" );
+        assertEquals( Optional.empty(), smallCache.get( "large", String.class ) );
+    }
+
+    @Test
+    void testEvictsFromInstancesOnSameDirectory() throws IOException {
+        PipeCache cache = PipeCache.of( this.cacheDir, 1024 * 1024, Duration.ofDays( 1 ) );
+        for ( int i = 0; i < 8; i++ ) {
+            cache.put( "entry" + i, "value" + i );
+        }
+        List.of( 0, 1, 2, 3 ).parallelStream()
+                .forEach( i -> PipeCache.of( this.cacheDir, 1, Duration.ofDays( 1 ) ).evict() );
+
+        try ( var files = Files.list( this.cacheDir ) ) {
+            assertTrue( files.noneMatch( file -> file.toString().endsWith( ".bin" ) ) );
+        }
+    }
+
+    @Test
+    void testHashFilesDependsOnContent( @TempDir Path sources ) throws IOException {
+        Files.writeString( sources.resolve( "A.java" ), "class A {}" );
+        String hash = PipeCache.hashFiles( sources.toFile() );
+        assertEquals( hash, PipeCache.hashFiles( sources.toFile() ) );
+
+        Files.writeString( sources.resolve( "A.java" ), "class A { int a; }" );
+        assertNotEquals( hash, PipeCache.hashFiles( sources.toFile() ) );
+        assertNotEquals( PipeCache.hash( "a", "bc" ), PipeCache.hash( "ab", "c" ) );
+    }
+
+}
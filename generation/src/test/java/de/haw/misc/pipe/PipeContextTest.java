@@ -68,4 +68,19 @@ class PipeContextTest {
         context.set( "key", "secondValue" );
         assertEquals( "secondValue", context.get( "key" ) );
     }
+
+    @Test
+    void testCopyIsIndependent() {
+        PipeContext context = PipeContext.empty();
+        context.set( "key", "value" );
+
+        PipeContext copy = context.copy();
+        assertEquals( "value", copy.get( "key" ) );
+
+        // Changes of the copy must not leak into the original context
+        copy.set( "key", "otherValue" );
+        copy.set( "newKey", "newValue" );
+        assertEquals( "value", context.get( "key" ) );
+        assertNull( context.get( "newKey" ) );
+    }
 }
@@ -23,6 +23,14 @@ public class PipeModuleTest {
         }
     }
 
+    private static class CacheHitModule extends PipeModule<String, String, String> {
+        @Override
+        protected String processImpl( final String v, final PipeContext ctx ) {
+            ctx.set( PipeContext.CACHE_HITS, ctx.get( PipeContext.CACHE_HITS, 0, Integer.class ) + 1 );
+            return v;
+        }
+    }
+
     private static class IdentityModule extends PipeModule<String, String, String> {
         @Override
         protected String processImpl( final String v, final PipeContext ctx ) {
@@ -65,4 +73,17 @@ public class PipeModuleTest {
         Double totalTime = ctx.get( PipeContext.TOTAL_PROCESSING_TIME, 0d, Double.class );
         assertTrue( totalTime >= 0 );
     }
+
+    @Test
+    void testCacheHitsPerStage() {
+        PipeContext ctx = PipeContext.empty();
+        ctx.set( PipeContext.PROCESS_NAME, "Cached" );
+        CacheHitModule module = new CacheHitModule();
+        module.setNext( new IdentityModule() );
+        module.process( "test", ctx );
+
+        List<?> benchmarks = ctx.get( PipeContext.PIPE_BENCHMARKS, new java.util.ArrayList<>(), List.class );
+        assertEquals( 1, ( ( PipeBenchmark ) benchmarks.get( 0 ) ).getCacheHits() );
+        assertEquals( 0, ( ( PipeBenchmark ) benchmarks.get( 1 ) ).getCacheHits() );
+    }
 }
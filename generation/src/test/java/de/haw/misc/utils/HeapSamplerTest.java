@@ -0,0 +1,20 @@
+package de.haw.misc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HeapSamplerTest {
+
+    @Test
+    void testKeepsPeakAfterClose() {
+        final HeapSampler sampler = HeapSampler.start( 10 );
+        System.gc();
+        sampler.close();
+        final long peakMb = sampler.getPeakMb();
+
+        assertTrue( peakMb > 0 );
+        assertTrue( peakMb <= MemoryUtils.getMaxHeapMb() );
+    }
+
+}
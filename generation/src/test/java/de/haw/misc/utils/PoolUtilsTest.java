@@ -0,0 +1,38 @@
+package de.haw.misc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolUtilsTest {
+
+    @Test
+    void testRunsOnPoolOfWorkers() {
+        final Thread caller = Thread.currentThread();
+        assertSame( caller, PoolUtils.onPool( 1, "thread", Thread::currentThread ) );
+
+        final int parallelism = PoolUtils.onPool( 3, "parallelism", () -> ForkJoinTask.getPool().getParallelism() );
+        assertEquals( 3, parallelism );
+        final long threads = PoolUtils.onPool( 3, "threads", () -> IntStream.range( 0, 1000 )
+                .parallel()
+                .mapToObj( i -> Thread.currentThread() )
+                .distinct()
+                .peek( thread -> assertNotSame( caller, thread ) )
+                .count() );
+        assertTrue( threads <= 3 );
+    }
+
+    @Test
+    void testWrapsErrors() {
+        final IllegalStateException e = assertThrows( IllegalStateException.class, () -> PoolUtils.onPool( 2, "values",
+                () -> {
+                    throw new IllegalArgumentException( "broken" );
+                } ) );
+        assertEquals( "Couldn't compute values: broken", e.getMessage() );
+        assertInstanceOf( IllegalArgumentException.class, e.getCause() );
+    }
+
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -185,4 +187,31 @@ public class GraphServiceTest {
         // isAnyType should check a list containing TEST returns true
         assertTrue( graphService.isAnyType( edge, Collections.singletonList( testType ) ) );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetNodesByLabelFollowsGraphChanges() {
+        Graph graph = new MultiGraph( "labels" );
+        Node record1 = graph.addNode( "r1" );
+        graphService.addLabel( record1, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        Node other = graph.addNode( "o" );
+        graphService.addLabel( other, CpgConst.NODE_LABEL_SCOPE );
+
+        assertEquals( List.of( record1 ),
+                graphService.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+
+        // nodes added and relabelled after the index was built
+        Node record2 = graph.addNode( "r2" );
+        graphService.addLabel( record2, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        graphService.addLabel( other, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        assertEquals( List.of( record1, other, record2 ),
+                graphService.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+
+        graph.removeNode( "r1" );
+        other.setAttribute( CpgConst.NODE_ATTR_LABELS, new HashSet<>( Set.of( CpgConst.NODE_LABEL_SCOPE ) ) );
+        assertEquals( List.of( record2 ),
+                graphService.getNodesByLabel( graph, CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+        assertEquals( Set.of( other, record2 ), new HashSet<>(
+                graphService.getNodesByLabel( graph, CpgConst.NODE_LABEL_SCOPE,
+                        CpgConst.NODE_LABEL_DECLARATION_RECORD ) ) );
+    }
+}
@@ -0,0 +1,71 @@
+package de.haw.processing.csr;
+
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPathSearchTest {
+
+    private static final String RECORD = CpgConst.NODE_LABEL_DECLARATION_RECORD;
+
+    /**
+     * r0 -> a -> r1 -> r2, r0 -> b -> c -> r2
+     */
+    private CsrGraph getGraph() {
+        final CsrGraph.Builder builder = CsrGraph.builder( "test" );
+        builder.addNode( Set.of( RECORD ) );
+        builder.addNode( Set.of() );
+        builder.addNode( Set.of( RECORD ) );
+        builder.addNode( Set.of( RECORD ) );
+        builder.addNode( Set.of() );
+        builder.addNode( Set.of() );
+        builder.addEdge( 0, 1, CpgEdgeType.AST );
+        builder.addEdge( 1, 2, CpgEdgeType.AST );
+        builder.addEdge( 2, 3, CpgEdgeType.AST );
+        builder.addEdge( 0, 4, CpgEdgeType.AST );
+        builder.addEdge( 4, 5, CpgEdgeType.AST );
+        builder.addEdge( 5, 3, CpgEdgeType.AST );
+        return builder.build();
+    }
+
+    @Test
+    void testStopsAtRecords() {
+        final CsrGraph csr = this.getGraph();
+        final BoundedPathSearch search = BoundedPathSearch.of( csr, RECORD, 10 );
+
+        assertArrayEquals( new int[]{ 2, 3 }, search.search( 0, null ) );
+        assertEquals( 2, search.getDistance( 2 ) );
+        // r2 isn't reached via r1, but via b and c
+        assertEquals( 3, search.getDistance( 3 ) );
+        assertArrayEquals( new int[]{ 3, 4, 5 }, search.getEdgePath( 3 ) );
+    }
+
+    @Test
+    void testMaxDistance() {
+        final BoundedPathSearch search = BoundedPathSearch.of( this.getGraph(), RECORD, 2 );
+
+        assertArrayEquals( new int[]{ 2 }, search.search( 0, null ) );
+        assertFalse( search.isVisited( 3 ) );
+    }
+
+    @Test
+    void testExcludedEdges() {
+        final BoundedPathSearch search = BoundedPathSearch.of( this.getGraph(), RECORD, 10 );
+        final BitSet excluded = new BitSet();
+        excluded.set( 1 );
+        excluded.set( 5 );
+
+        assertArrayEquals( new int[0], search.search( 0, excluded ) );
+        // buffers of the previous search don't leak into the next one
+        assertArrayEquals( new int[]{ 2, 3 }, search.search( 0, null ) );
+        assertArrayEquals( new int[]{ 3 }, search.search( 2, null ) );
+        assertArrayEquals( new int[]{ 2 }, search.getEdgePath( 3 ) );
+        assertFalse( search.isVisited( 0 ) );
+    }
+
+}
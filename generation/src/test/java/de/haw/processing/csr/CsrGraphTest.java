@@ -0,0 +1,95 @@
+package de.haw.processing.csr;
+
+import de.haw.processing.GraphService;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.testcase.GraphTestGenerator;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+
+    private final GraphService GS = GraphService.instance();
+
+    @Test
+    void testAdjacencyAndLabels() {
+        final CsrGraph.Builder builder = CsrGraph.builder( "test" );
+        final int a = builder.addNode( Set.of( CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+        final int b = builder.addNode( Set.of() );
+        final int c = builder.addNode( List.of( "Node", CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+        final int ab = builder.addEdge( a, b, CpgEdgeType.AST );
+        final int ac = builder.addEdge( a, c, CpgEdgeType.INVOKES );
+        final int bc = builder.addEdge( b, c, null );
+        final CsrGraph csr = builder.build();
+
+        assertEquals( 3, csr.getNodeCount() );
+        assertEquals( 3, csr.getEdgeCount() );
+        assertEquals( 2, csr.getOutDegree( a ) );
+        assertEquals( ab, csr.getOutEdge( a, 0 ) );
+        assertEquals( ac, csr.getOutEdge( a, 1 ) );
+        assertEquals( 0, csr.getOutDegree( c ) );
+        assertEquals( 2, csr.getInDegree( c ) );
+        assertEquals( ac, csr.getInEdge( c, 0 ) );
+        assertEquals( bc, csr.getInEdge( c, 1 ) );
+        assertEquals( b, csr.getOpposite( ab, a ) );
+
+        assertEquals( CpgEdgeType.INVOKES, csr.getEdgeType( ac ) );
+        assertNull( csr.getEdgeType( bc ) );
+        assertEquals( CsrGraph.NO_TYPE, csr.getEdgeTypeOrdinal( bc ) );
+
+        assertArrayEquals( new int[]{ a, c }, csr.getNodesWithLabel( CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+        assertTrue( csr.hasLabel( c, "Node" ) );
+        assertFalse( csr.hasLabel( b, CpgConst.NODE_LABEL_DECLARATION_RECORD ) );
+        assertFalse( csr.hasLabel( a, "Unknown" ) );
+
+        final List<Integer> leaving = new ArrayList<>();
+        csr.forEachOutEdge( a, leaving::add );
+        assertEquals( List.of( ab, ac ), leaving );
+    }
+
+    @Test
+    void testLabelsBeyondOneWord() {
+        final CsrGraph.Builder builder = CsrGraph.builder( "test" );
+        for ( int i = 0; i < 70; i++ ) {
+            builder.addNode( Set.of( "Label" + i ) );
+        }
+        final CsrGraph csr = builder.build();
+
+        assertTrue( csr.hasLabel( 69, "Label69" ) );
+        assertFalse( csr.hasLabel( 69, "Label5" ) );
+        assertFalse( csr.hasLabel( 5, "Label69" ) );
+        assertEquals( Set.of( "Label66" ), csr.getLabels( 66 ) );
+    }
+
+    @Test
+    void testGraphStreamRoundTrip() {
+        final Graph graph = GraphTestGenerator.getSimpleGraph();
+
+        final CsrGraph csr = CsrGraphAdapter.of( graph );
+        assertEquals( graph.getNodeCount(), csr.getNodeCount() );
+        assertEquals( graph.getEdgeCount(), csr.getEdgeCount() );
+        for ( int node = 0; node < csr.getNodeCount(); node++ ) {
+            assertEquals( graph.getNode( node ).getOutDegree(), csr.getOutDegree( node ) );
+            assertEquals( this.GS.getLabels( graph.getNode( node ) ), csr.getLabels( node ) );
+        }
+
+        final Graph copy = CsrGraphAdapter.toGraph( csr );
+        assertEquals( graph.getNodeCount(), copy.getNodeCount() );
+        assertEquals( graph.getEdgeCount(), copy.getEdgeCount() );
+        graph.edges().forEach( edge -> {
+            final Edge copied = copy.getEdge( edge.getIndex() );
+            assertNotNull( copied );
+            assertEquals( edge.getSourceNode().getIndex(), copied.getSourceNode().getIndex() );
+            assertEquals( edge.getTargetNode().getIndex(), copied.getTargetNode().getIndex() );
+            assertEquals( this.GS.getType( edge ), this.GS.getType( copied ) );
+        } );
+    }
+
+}
@@ -0,0 +1,85 @@
+package de.haw.processing.csr;
+
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordDistanceIndexTest {
+
+    private static final String RECORD = CpgConst.NODE_LABEL_DECLARATION_RECORD;
+
+    @Test
+    void testPairsAndPaths() {
+        // r0 -> a -> r1 -> r2, r0 -> b -> c -> r2
+        final CsrGraph.Builder builder = CsrGraph.builder( "test" );
+        builder.addNode( Set.of( RECORD ) );
+        builder.addNode( Set.of() );
+        builder.addNode( Set.of( RECORD ) );
+        builder.addNode( Set.of( RECORD ) );
+        builder.addNode( Set.of() );
+        builder.addNode( Set.of() );
+        builder.addEdge( 0, 1, CpgEdgeType.AST );
+        builder.addEdge( 1, 2, CpgEdgeType.AST );
+        builder.addEdge( 2, 3, CpgEdgeType.AST );
+        builder.addEdge( 0, 4, CpgEdgeType.AST );
+        builder.addEdge( 4, 5, CpgEdgeType.AST );
+        builder.addEdge( 5, 3, CpgEdgeType.AST );
+        final RecordDistanceIndex index = RecordDistanceIndex.of( builder.build(), RECORD, 10, false );
+
+        assertEquals( 3, index.getRecordCount() );
+        assertEquals( 3, index.getPairCount() );
+        assertArrayEquals( new int[]{ 2, 3 }, index.getTargets( 0 ) );
+        assertEquals( 2, index.getDistance( 0, 2 ) );
+        assertEquals( 3, index.getDistance( 0, 3 ) );
+        assertArrayEquals( new int[]{ 3, 4, 5 }, index.getEdgePath( 0, 3 ) );
+        assertEquals( 5, index.getPredecessorEdge( 0, 3 ) );
+        assertEquals( 1, index.getDistance( 2, 3 ) );
+        assertEquals( -1, index.getDistance( 3, 0 ) );
+        assertArrayEquals( new int[0], index.getTargets( 1 ) );
+
+        final RecordDistanceIndex bounded = RecordDistanceIndex.of( builder.build(), RECORD, 2, false );
+        assertArrayEquals( new int[]{ 2 }, bounded.getTargets( 0 ) );
+    }
+
+    @Test
+    void testMatchesBoundedPathSearch() {
+        // more records than bit lanes, so the records are searched in multiple batches
+        final Random random = new Random( 42 );
+        final CsrGraph.Builder builder = CsrGraph.builder( "test" );
+        for ( int i = 0; i < 400; i++ ) {
+            builder.addNode( i % 3 == 0 ? Set.of( RECORD ) : Set.of() );
+        }
+        for ( int i = 0; i < 1000; i++ ) {
+            builder.addEdge( random.nextInt( 400 ), random.nextInt( 400 ), CpgEdgeType.AST );
+        }
+        final CsrGraph csr = builder.build();
+        final RecordDistanceIndex index = RecordDistanceIndex.of( csr, RECORD, 6, true );
+        // sequentially, all batches reuse the same search buffers
+        final RecordDistanceIndex sequential = RecordDistanceIndex.of( csr, RECORD, 6, false );
+        final BoundedPathSearch search = BoundedPathSearch.of( csr, RECORD, 6 );
+
+        assertTrue( index.getRecordCount() > 64 );
+        for ( int source : csr.getNodesWithLabel( RECORD ) ) {
+            final int[] targets = search.search( source, null );
+            assertArrayEquals( targets, index.getTargets( source ) );
+            assertArrayEquals( targets, sequential.getTargets( source ) );
+            for ( int target : targets ) {
+                assertEquals( search.getDistance( target ), index.getDistance( source, target ) );
+                assertEquals( search.getDistance( target ), sequential.getDistance( source, target ) );
+                final int[] path = index.getEdgePath( source, target );
+                assertEquals( source, csr.getEdgeSource( path[0] ) );
+                assertEquals( target, csr.getEdgeTarget( path[path.length - 1] ) );
+                for ( int i = 1; i < path.length; i++ ) {
+                    assertEquals( csr.getEdgeTarget( path[i - 1] ), csr.getEdgeSource( path[i] ) );
+                    assertFalse( csr.hasLabel( csr.getEdgeSource( path[i] ), RECORD ) );
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package de.haw.processing.model;
+
+import de.haw.testcase.GraphTestGenerator;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Path;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CpgNodePathsTest {
+
+    @Test
+    void testStoresPathsByNode() {
+        final Graph graph = GraphTestGenerator.getSimpleGraph();
+        final CpgNodePaths nodePaths = new CpgNodePaths();
+        final CpgPath ab = this.getPath( graph, "1", "2", "12" );
+        final CpgPath abcd = this.getPath( graph, "1", "4", "12", "23", "34" );
+        final CpgPath cd = this.getPath( graph, "3", "4", "34" );
+
+        nodePaths.addAll( "3", List.of( cd ) );
+        nodePaths.addAll( "1", List.of( ab, abcd ) );
+        nodePaths.addAll( "2", List.of() );
+
+        assertEquals( 3, nodePaths.size() );
+        assertEquals( List.of( "3", "1" ), List.copyOf( nodePaths.getNodes() ) );
+        assertTrue( nodePaths.get( "2" ).isEmpty() );
+
+        final List<CpgPath> paths = nodePaths.get( "1" );
+        assertEquals( 2, paths.size() );
+        assertSame( graph.getNode( "1" ), paths.get( 1 ).getSource() );
+        assertSame( graph.getNode( "4" ), paths.get( 1 ).getTarget() );
+        assertEquals( 3, paths.get( 1 ).getDistance() );
+        assertEquals( List.of( graph.getEdge( "12" ), graph.getEdge( "23" ), graph.getEdge( "34" ) ),
+                paths.get( 1 ).getEdgePath() );
+        assertEquals( List.of( graph.getNode( "1" ), graph.getNode( "2" ), graph.getNode( "3" ), graph.getNode( "4" ) ),
+                paths.get( 1 ).getNodePath() );
+        assertEquals( paths.get( 1 ).getEdgePath(), paths.get( 1 ).getPath().getEdgePath() );
+        assertEquals( 3, nodePaths.getAll().size() );
+    }
+
+    @Test
+    void testStoresGraphPaths() {
+        final Graph graph = GraphTestGenerator.getSimpleGraph();
+        final Path path = new Path();
+        path.setRoot( graph.getNode( "1" ) );
+        path.add( graph.getEdge( "14" ) );
+        final CpgNodePaths nodePaths = new CpgNodePaths();
+        nodePaths.add( "1", CpgPath.of( graph.getNode( "1" ), graph.getNode( "4" ), path, 1 ) );
+
+        final CpgPath stored = nodePaths.get( "1" ).get( 0 );
+        assertFalse( stored.isEmpty() );
+        assertEquals( List.of( graph.getEdge( "14" ) ), stored.getEdgePath() );
+        assertEquals( Set.of( "1" ), nodePaths.getNodes() );
+    }
+
+    @Test
+    void testRejectsPathsOfOtherGraphs() {
+        final CpgNodePaths nodePaths = new CpgNodePaths();
+        nodePaths.add( "1", this.getPath( GraphTestGenerator.getSimpleGraph(), "1", "2", "12" ) );
+        final CpgPath other = this.getPath( GraphTestGenerator.getSimpleGraph(), "1", "2", "12" );
+        assertThrows( IllegalArgumentException.class, () -> nodePaths.add( "1", other ) );
+    }
+
+    private CpgPath getPath( final Graph graph, final String source, final String target, final String... edges ) {
+        final int[] edgeIndices = new int[edges.length];
+        for ( int i = 0; i < edges.length; i++ ) {
+            edgeIndices[i] = graph.getEdge( edges[i] ).getIndex();
+        }
+        return CpgPath.of( graph.getNode( source ), graph.getNode( target ), edgeIndices, edges.length );
+    }
+
+}
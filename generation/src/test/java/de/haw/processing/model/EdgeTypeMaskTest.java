@@ -0,0 +1,52 @@
+package de.haw.processing.model;
+
+import de.haw.processing.GraphService;
+import de.haw.processing.TypedEdge;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.testcase.GraphTestGenerator;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EdgeTypeMaskTest {
+
+    @Test
+    void testTypedEdgeFollowsTypeAttribute() {
+        final GraphService GS = GraphService.instance();
+        final Graph graph = GraphTestGenerator.getSimpleGraph();
+        final Edge edge = graph.getEdge( "12" );
+        final EdgeTypeMask mask = EdgeTypeMask.of( List.of( CpgEdgeType.TYPE, CpgEdgeType.STATIC_IMPORTS ) );
+
+        assertInstanceOf( TypedEdge.class, edge );
+        assertFalse( mask.test( edge ) );
+        GS.setType( edge, CpgEdgeType.TYPE );
+        assertEquals( CpgEdgeType.TYPE.ordinal(), ( ( TypedEdge ) edge ).getTypeOrdinal() );
+        assertTrue( mask.test( edge ) );
+        edge.setAttribute( CpgConst.EDGE_ATTR_TYPE, "UNKNOWN" );
+        assertEquals( TypedEdge.NO_TYPE, ( ( TypedEdge ) edge ).getTypeOrdinal() );
+        assertFalse( mask.test( edge ) );
+        GS.setType( edge, CpgEdgeType.STATIC_IMPORTS );
+        assertTrue( mask.test( edge ) );
+        edge.removeAttribute( CpgConst.EDGE_ATTR_TYPE );
+        assertFalse( mask.test( edge ) );
+    }
+
+    @Test
+    void testOtherEdges() {
+        final Graph graph = new SingleGraph( "plain" );
+        graph.addNode( "a" );
+        graph.addNode( "b" );
+        final Edge edge = graph.addEdge( "ab", "a", "b", true );
+        edge.setAttribute( CpgConst.EDGE_ATTR_TYPE, CpgEdgeType.AST.name() );
+
+        assertTrue( EdgeTypeMask.of( List.of( CpgEdgeType.AST ) ).test( edge ) );
+        assertFalse( EdgeTypeMask.of( List.of( CpgEdgeType.DFG ) ).test( edge ) );
+    }
+
+}
@@ -0,0 +1,89 @@
+package de.haw.processing.model;
+
+import de.haw.repository.model.CpgEdgeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordInteractionClassifierTest {
+
+    private static final List<CpgEdgeType> TYPES = Arrays.asList( CpgEdgeType.AST, CpgEdgeType.INVOKES,
+            CpgEdgeType.INSTANTIATES, CpgEdgeType.RETURN_TYPES, CpgEdgeType.SUPER_TYPE_DECLARATIONS, null );
+
+    /**
+     * Classification by checking each descriptor against the types of the path
+     */
+    private RecordInteractionDescriptor classifyByDescriptors( final List<CpgEdgeType> path ) {
+        RecordInteractionDescriptor matched = RecordInteractionDescriptor.KNOWS_INTERACTION;
+        for ( RecordInteractionDescriptor descriptor : RecordInteractionDescriptor.ALL ) {
+            if ( path.stream().anyMatch( type -> type != null && descriptor.hasEdgePivot( type ) )
+                    && descriptor.getOrder() < matched.getOrder() ) {
+                matched = descriptor;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Pivot by checking each descriptor against each edge of the path
+     */
+    private Integer getPivotByDescriptors( final List<CpgEdgeType> path ) {
+        int order = RecordInteractionDescriptor.KNOWS_INTERACTION.getOrder();
+        Integer pivot = null;
+        for ( RecordInteractionDescriptor descriptor : RecordInteractionDescriptor.ALL ) {
+            if ( descriptor.getOrder() >= order ) {
+                continue;
+            }
+            for ( int i = 0; i < path.size(); i++ ) {
+                if ( path.get( i ) != null && descriptor.hasEdgePivot( path.get( i ) ) ) {
+                    pivot = i;
+                    order = descriptor.getOrder();
+                }
+            }
+        }
+        return pivot;
+    }
+
+    @Test
+    void testMatchesDescriptors() {
+        final Random random = new Random( 7 );
+        final RecordInteractionClassifier classifier = RecordInteractionClassifier.DEFAULT;
+        for ( int n = 0; n < 2000; n++ ) {
+            final List<CpgEdgeType> path = new ArrayList<>();
+            final List<Integer> edges = new ArrayList<>();
+            final int length = random.nextInt( 6 );
+            for ( int i = 0; i < length; i++ ) {
+                path.add( TYPES.get( random.nextInt( TYPES.size() ) ) );
+                edges.add( edges.size() );
+            }
+
+            assertEquals( this.classifyByDescriptors( path ), classifier.classify( edges, path::get ),
+                    path.toString() );
+            assertEquals( this.getPivotByDescriptors( path ), classifier.getPivotEdge( edges, path::get ),
+                    path.toString() );
+        }
+    }
+
+    @Test
+    void testCompiledDescriptors() {
+        final RecordInteractionDescriptor usesInteraction = RecordInteractionDescriptor.of( 1,
+                RecordInteractionType.CALLS_RECORD, List.of(), List.of( CpgEdgeType.AST ), false );
+        final RecordInteractionClassifier classifier = RecordInteractionClassifier.compile(
+                List.of( RecordInteractionDescriptor.CALLS_INTERACTION, usesInteraction ),
+                RecordInteractionDescriptor.KNOWS_INTERACTION );
+        final List<CpgEdgeType> path = List.of( CpgEdgeType.INVOKES, CpgEdgeType.AST, CpgEdgeType.AST );
+        final List<Integer> edges = List.of( 0, 1, 2 );
+
+        assertSame( usesInteraction, classifier.classify( edges, path::get ) );
+        assertEquals( 2, classifier.getPivotEdge( edges, path::get ) );
+        assertSame( RecordInteractionDescriptor.KNOWS_INTERACTION,
+                classifier.classify( List.of( 0 ), index -> CpgEdgeType.CDG ) );
+        assertNull( classifier.getPivotEdge( List.<Integer>of(), index -> CpgEdgeType.AST ) );
+    }
+
+}
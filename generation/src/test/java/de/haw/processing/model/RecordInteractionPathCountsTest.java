@@ -0,0 +1,93 @@
+package de.haw.processing.model;
+
+import de.haw.repository.model.CpgEdgeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordInteractionPathCountsTest {
+
+    private static final List<CpgEdgeType> TYPES = Arrays.asList( CpgEdgeType.AST, CpgEdgeType.INVOKES,
+            CpgEdgeType.INSTANTIATES, null );
+
+    @Test
+    void testCountsPrefixes() {
+        final RecordInteractionPathCounts counts = RecordInteractionPathCounts.instance();
+        counts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.INVOKES ) );
+        counts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.AST ) );
+        counts.add( RecordInteractionType.CREATES_RECORD, List.of( CpgEdgeType.AST ) );
+
+        assertEquals( 2, counts.getCount( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST ) ) );
+        assertEquals( 1, counts.getCount( RecordInteractionType.CALLS_RECORD,
+                List.of( CpgEdgeType.AST, CpgEdgeType.INVOKES ) ) );
+        assertEquals( 1, counts.getCount( RecordInteractionType.CREATES_RECORD, List.of( CpgEdgeType.AST ) ) );
+        assertEquals( 0, counts.getCount( RecordInteractionType.RETURNS_RECORD, List.of( CpgEdgeType.AST ) ) );
+        assertEquals( 0, counts.getCount( RecordInteractionType.CALLS_RECORD, List.of() ) );
+        assertEquals( 4, counts.getPrefixCount() );
+
+        final List<RecordInteractionPathCounts.PrefixCount> top = counts.getTopPrefixes( null, 2 );
+        assertEquals( 2, top.size() );
+        assertEquals( RecordInteractionType.CALLS_RECORD, top.get( 0 ).getType() );
+        assertEquals( List.of( CpgEdgeType.AST ), top.get( 0 ).getEdgeTypes() );
+        assertEquals( 2, top.get( 0 ).getCount() );
+        assertEquals( RecordInteractionType.CREATES_RECORD, top.get( 1 ).getType() );
+        assertEquals( "AST", top.get( 1 ).getPrefix() );
+    }
+
+    @Test
+    void testTopPrefixesOfLength() {
+        final RecordInteractionPathCounts counts = RecordInteractionPathCounts.instance();
+        counts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.INVOKES ) );
+        counts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.INVOKES ) );
+        counts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.AST ) );
+        counts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.INVOKES ) );
+        counts.add( RecordInteractionType.CREATES_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.AST ) );
+
+        final List<RecordInteractionPathCounts.PrefixCount> top = counts.getTopPrefixes(
+                RecordInteractionType.CALLS_RECORD, 2, 3 );
+        assertEquals( List.of( "AST>INVOKES", "AST>AST" ),
+                top.stream().map( RecordInteractionPathCounts.PrefixCount::getPrefix ).toList() );
+        assertEquals( List.of( 2, 1 ), top.stream().map( RecordInteractionPathCounts.PrefixCount::getCount ).toList() );
+        assertTrue( counts.getTopPrefixes( RecordInteractionType.CALLS_RECORD, 3, 3 ).isEmpty() );
+        assertEquals( 3, counts.getTopPrefixes( null, 2, 5 ).size() );
+        assertEquals( counts.getTopPrefixes( null, 4 ), counts.getTopPrefixes( null, 0, 4 ) );
+    }
+
+    @Test
+    void testMergeMatchesSubPathCounts() {
+        final Random random = new Random( 42 );
+        final Map<RecordInteractionType, Map<List<CpgEdgeType>, Integer>> expected = new HashMap<>();
+        final List<RecordInteractionPathCounts> workers = List.of( RecordInteractionPathCounts.instance(),
+                RecordInteractionPathCounts.instance(), RecordInteractionPathCounts.instance() );
+        for ( int i = 0; i < 300; i++ ) {
+            final RecordInteractionType type = RecordInteractionType.values()[random.nextInt(
+                    RecordInteractionType.values().length )];
+            final List<CpgEdgeType> path = new ArrayList<>();
+            for ( int j = 1 + random.nextInt( 6 ); j > 0; j-- ) {
+                path.add( TYPES.get( random.nextInt( TYPES.size() ) ) );
+            }
+            workers.get( i % workers.size() ).add( type, path );
+            for ( int length = 1; length <= path.size(); length++ ) {
+                expected.computeIfAbsent( type, key -> new HashMap<>() )
+                        .merge( new ArrayList<>( path.subList( 0, length ) ), 1, Integer::sum );
+            }
+        }
+
+        final RecordInteractionPathCounts merged = RecordInteractionPathCounts.instance();
+        workers.forEach( merged::merge );
+
+        assertEquals( expected, merged.getPathCounts() );
+        final List<RecordInteractionPathCounts.PrefixCount> top = merged.getTopPrefixes(
+                RecordInteractionType.KNOWS_RECORD, 5 );
+        final List<Integer> expectedTop = expected.get( RecordInteractionType.KNOWS_RECORD )
+                .values()
+                .stream()
+                .sorted( Comparator.reverseOrder() )
+                .limit( 5 )
+                .toList();
+        assertEquals( expectedTop, top.stream().map( RecordInteractionPathCounts.PrefixCount::getCount ).toList() );
+    }
+
+}
@@ -3,13 +3,22 @@ package de.haw.processing.module;
 import de.haw.misc.pipe.PipeContext;
 import de.haw.processing.GraphService;
 import de.haw.processing.model.CpgNodePaths;
+import de.haw.processing.model.RecordInteraction;
+import de.haw.processing.model.RecordInteractionIndex;
+import de.haw.processing.model.RecordInteractionPathCounts;
+import de.haw.processing.model.RecordInteractionType;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
 import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.SingleGraph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertSame;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ComputeRecordInteractionsModuleTest {
 
@@ -55,4 +64,44 @@ public class ComputeRecordInteractionsModuleTest {
             module.getPaths( context );
         } );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testInteractionNodesAreLookedUpInTheIndex() {
+        graph.setAttribute( CpgConst.GRAPH_ATTR_DATASET, "test" );
+        Node a = graphService.addNode( graph, "a" );
+        Node b = graphService.addNode( graph, "b" );
+        Node c = graphService.addNode( graph, "c" );
+        RecordInteractionIndex index = RecordInteractionIndex.of( graph );
+
+        RecordInteraction callsB = RecordInteraction.of( RecordInteractionType.CALLS_RECORD, a, b, null );
+        Node interactionNode = module.getInteractionOrCreate( graph, index, callsB );
+        module.addEdgeForInteraction( graph, index, interactionNode, b, callsB, false );
+        RecordInteraction callsC = RecordInteraction.of( RecordInteractionType.CALLS_RECORD, a, c, null );
+        assertSame( interactionNode, module.getInteractionOrCreate( graph, index, callsC ) );
+        module.addEdgeForInteraction( graph, index, interactionNode, c, callsC, false );
+        module.addEdgeForInteraction( graph, index, interactionNode, c, callsC, false );
+
+        assertEquals( 3, graph.getEdgeCount() );
+        assertEquals( Set.of( "b", "c" ),
+                index.getInteractionTargets( "a", RecordInteractionType.CALLS_RECORD ) );
+        assertTrue( index.getInteractionNode( "a", RecordInteractionType.CREATES_RECORD ).isEmpty() );
+
+        // an index of the graph finds the same interactions
+        RecordInteractionIndex rebuilt = RecordInteractionIndex.of( graph );
+        assertEquals( Set.of( RecordInteractionType.CALLS_RECORD ), rebuilt.getInteractionTypes( "a" ) );
+        assertEquals( Set.of( "b", "c" ),
+                rebuilt.getInteractionTargets( "a", RecordInteractionType.CALLS_RECORD ) );
+    }
+
+    @Test
+    public void testPathCountDetailsUseLongerPrefixes() {
+        RecordInteractionPathCounts pathCounts = RecordInteractionPathCounts.instance();
+        pathCounts.add( RecordInteractionType.CALLS_RECORD,
+                List.of( CpgEdgeType.AST, CpgEdgeType.AST, CpgEdgeType.INVOKES, CpgEdgeType.AST ) );
+        pathCounts.add( RecordInteractionType.CALLS_RECORD,
+                List.of( CpgEdgeType.AST, CpgEdgeType.AST, CpgEdgeType.INVOKES ) );
+        pathCounts.add( RecordInteractionType.CALLS_RECORD, List.of( CpgEdgeType.AST, CpgEdgeType.AST ) );
+
+        assertEquals( "CALLS_RECORD: AST>AST>INVOKES (2)", module.getPathCountDetails( pathCounts ) );
+    }
+}
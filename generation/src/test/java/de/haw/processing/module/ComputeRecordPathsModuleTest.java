@@ -2,20 +2,21 @@ package de.haw.processing.module;
 
 import de.haw.misc.pipe.PipeContext;
 import de.haw.processing.GraphService;
+import de.haw.processing.csr.CsrGraphAdapter;
+import de.haw.processing.csr.RecordDistanceIndex;
 import de.haw.processing.model.CpgNodePaths;
 import de.haw.processing.model.CpgPath;
 import de.haw.repository.model.CpgEdgeType;
+import de.haw.testcase.GraphTestGenerator;
 import de.haw.translation.CpgConst;
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
-import org.graphstream.graph.Path;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,8 +27,6 @@ public class ComputeRecordPathsModuleTest {
     private GraphService graphService;
     private Graph mockGraph;
     private PipeContext mockContext;
-    private Node mockRecordNode;
-    private Graph mockSubgraph;
 
     @BeforeEach
     public void setUp() {
@@ -35,8 +34,6 @@ public class ComputeRecordPathsModuleTest {
         graphService = mock( GraphService.class );
         mockGraph = mock( Graph.class );
         mockContext = mock( PipeContext.class );
-        mockRecordNode = mock( Node.class );
-        mockSubgraph = mock( Graph.class );
 
         // Use reflection to set the mocked GraphService
         try {
@@ -55,10 +52,8 @@ public class ComputeRecordPathsModuleTest {
         Node recordNode2 = mock( Node.class );
         Node nonRecordNode = mock( Node.class );
 
-        when( mockGraph.nodes() ).thenReturn( Stream.of( recordNode1, recordNode2, nonRecordNode ) );
-        when( graphService.hasLabel( recordNode1, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ).thenReturn( true );
-        when( graphService.hasLabel( recordNode2, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ).thenReturn( true );
-        when( graphService.hasLabel( nonRecordNode, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ).thenReturn( false );
+        when( graphService.getNodesByLabel( mockGraph, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ).thenReturn(
+                List.of( recordNode1, recordNode2 ) );
 
         // Execute
         List<Node> result = module.getRecordNodes( mockGraph );
@@ -70,19 +65,6 @@ public class ComputeRecordPathsModuleTest {
         assertFalse( result.contains( nonRecordNode ) );
     }
 
-    @Test
-    public void testGetRecordNeighbourSubgraph() {
-        // Setup
-        when( mockRecordNode.getGraph() ).thenReturn( mockGraph );
-        when( graphService.getEmptyGraph( mockGraph ) ).thenReturn( mockSubgraph );
-
-        // Execute
-        Graph result = module.getRecordNeighbourSubgraph( mockRecordNode );
-
-        // Verify
-        assertEquals( mockSubgraph, result );
-    }
-
     @Test
     public void testGetPivotEdge() {
         // Setup
@@ -103,38 +85,6 @@ public class ComputeRecordPathsModuleTest {
         assertEquals( edge2, result );
     }
 
-    @Test
-    public void testGetShortestPaths() {
-        // Setup
-        Node source = mock( Node.class );
-        Node target1 = mock( Node.class );
-        Node target2 = mock( Node.class );
-
-        when( source.getId() ).thenReturn( "source" );
-        when( target1.getId() ).thenReturn( "target1" );
-        when( target2.getId() ).thenReturn( "target2" );
-
-        when( mockGraph.getNode( "source" ) ).thenReturn( source );
-
-        List<Node> recordNodes = List.of( source, target1, target2 );
-
-        ComputeRecordPathsModule<?> spyModule = spy( module );
-        doReturn( recordNodes ).when( spyModule ).getRecordNodes( mockGraph );
-
-        Path mockPath = mock( Path.class );
-        when( mockPath.empty() ).thenReturn( false );
-
-        // This test is complex due to Dijkstra dependency
-        doReturn( List.of( CpgPath.of( source, target1, mockPath, 5 ) ) ).when( spyModule )
-                .getShortestPaths( mockGraph, source );
-
-        // Execute
-        List<CpgPath> result = spyModule.getShortestPaths( mockGraph, source );
-
-        // Verify
-        assertEquals( 1, result.size() );
-    }
-
     @Test
     public void testProcessImpl() {
         // Setup
@@ -147,17 +97,111 @@ public class ComputeRecordPathsModuleTest {
 
         ComputeRecordPathsModule<?> spyModule = spy( module );
         doReturn( records ).when( spyModule ).getRecordNodes( mockGraph );
-        doReturn( mockSubgraph ).when( spyModule ).getRecordNeighbourSubgraph( any( Node.class ) );
-        doReturn( new ArrayList<CpgPath>() ).when( spyModule ).getShortestPaths( mockSubgraph, record1 );
-        doReturn( new ArrayList<CpgPath>() ).when( spyModule ).getShortestPaths( mockSubgraph, record2 );
-
-        when( graphService.copyGraph( mockSubgraph ) ).thenReturn( mockSubgraph );
+        RecordDistanceIndex recordDistances = mock( RecordDistanceIndex.class );
+        doReturn( recordDistances ).when( spyModule ).getRecordDistances( mockGraph, 1 );
+        doReturn( List.of( new ArrayList<CpgPath>(), new ArrayList<CpgPath>() ) ).when( spyModule )
+                .getRecordPaths( mockGraph, recordDistances, records, 1 );
 
         // Execute
         Graph result = spyModule.processImpl( mockGraph, mockContext );
 
         // Verify
         verify( mockContext ).set( eq( PipeContext.RECORD_PATHS ), any( CpgNodePaths.class ) );
+        verify( mockContext, times( 1 ) ).set( anyString(), any() );
         assertEquals( mockGraph, result );
     }
+
+    @Test
+    public void testProcessImplIsIndependentOfWorkers() {
+        Graph graph = GraphTestGenerator.getSimpleGraph();
+
+        PipeContext sequential = PipeContext.empty();
+        ComputeRecordPathsModule.instance().processImpl( graph, sequential );
+        PipeContext parallel = PipeContext.empty();
+        parallel.set( PipeContext.RECORD_PATHS_WORKERS, 4 );
+        ComputeRecordPathsModule.instance().processImpl( graph, parallel );
+
+        List<String> expected = sequential.get( PipeContext.RECORD_PATHS, CpgNodePaths.class )
+                .orElseThrow()
+                .getAll()
+                .stream()
+                .map( path -> path.getSource().getId() + "->" + path.getTarget().getId() )
+                .toList();
+        List<String> actual = parallel.get( PipeContext.RECORD_PATHS, CpgNodePaths.class )
+                .orElseThrow()
+                .getAll()
+                .stream()
+                .map( path -> path.getSource().getId() + "->" + path.getTarget().getId() )
+                .toList();
+        assertFalse( expected.isEmpty() );
+        assertEquals( expected, actual );
+    }
+
+    @Test
+    public void testRecordPathsReferenceTheGraph() {
+        Graph graph = GraphTestGenerator.getSimpleGraph();
+        Node source = graph.getNode( "1" );
+
+        List<List<CpgPath>> paths = ComputeRecordPathsModule.instance().getRecordPaths( graph, List.of( source ), 1 );
+
+        // 1 reaches 2 and 4 directly, 3 only via another record
+        List<String> targets = paths.get( 0 ).stream().map( path -> path.getTarget().getId() ).toList();
+        assertEquals( List.of( "2", "4" ), targets );
+        for ( CpgPath path : paths.get( 0 ) ) {
+            assertEquals( 1.0, path.getDistance() );
+            assertSame( graph, path.getPath().getRoot().getGraph() );
+            assertSame( graph.getEdge( "1" + path.getTarget().getId() ), path.getPath().getEdgePath().get( 0 ) );
+        }
+    }
+
+    @Test
+    public void testRecordPathVariationsMaskPivotEdges() {
+        GraphService GS = GraphService.instance();
+        Graph graph = GraphTestGenerator.getEmpty();
+        Node r1 = GS.addNode( graph, "r1" );
+        GS.addLabel( r1, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        Node r2 = GS.addNode( graph, "r2" );
+        GS.addLabel( r2, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        Node x = GS.addNode( graph, "x" );
+        Node y = GS.addNode( graph, "y" );
+        Node z = GS.addNode( graph, "z" );
+        GS.setType( GS.addEdge( graph, "r1x", r1, x ), CpgEdgeType.INVOKES );
+        GS.setType( GS.addEdge( graph, "xr2", x, r2 ), CpgEdgeType.AST );
+        GS.setType( GS.addEdge( graph, "r1y", r1, y ), CpgEdgeType.AST );
+        GS.setType( GS.addEdge( graph, "yz", y, z ), CpgEdgeType.AST );
+        GS.setType( GS.addEdge( graph, "zr2", z, r2 ), CpgEdgeType.AST );
+
+        List<CpgPath> paths = ComputeRecordPathsModule.instance().getRecordPaths( graph, List.of( r1 ), 1 ).get( 0 );
+
+        // the invoking path is found first, masking its pivot reveals the longer one
+        assertEquals( 2, paths.size() );
+        assertEquals( 2.0, paths.get( 0 ).getDistance() );
+        assertEquals( 3.0, paths.get( 1 ).getDistance() );
+        assertEquals( 5, graph.getEdgeCount() );
+    }
+
+    @Test
+    public void testCsrPivotEdgeMatchesGraphPivotEdge() {
+        GraphService GS = GraphService.instance();
+        Graph graph = GraphTestGenerator.getEmpty();
+        Node a = GS.addNode( graph, "a" );
+        Node b = GS.addNode( graph, "b" );
+        Node c = GS.addNode( graph, "c" );
+        Node d = GS.addNode( graph, "d" );
+        Edge ab = GS.addEdge( graph, "ab", a, b );
+        GS.setType( ab, CpgEdgeType.RETURN_TYPES );
+        Edge bc = GS.addEdge( graph, "bc", b, c );
+        GS.setType( bc, CpgEdgeType.INSTANTIATES );
+        Edge cd = GS.addEdge( graph, "cd", c, d );
+        GS.setType( cd, CpgEdgeType.INVOKES );
+
+        ComputeRecordPathsModule<?> realModule = ComputeRecordPathsModule.instance();
+        Edge expected = realModule.getPivotEdge( List.of( ab, bc, cd ) );
+        int actual = realModule.getPivotEdge( CsrGraphAdapter.of( graph ),
+                new int[]{ ab.getIndex(), bc.getIndex(), cd.getIndex() } );
+
+        assertEquals( bc, expected );
+        assertEquals( expected.getIndex(), actual );
+        assertEquals( -1, realModule.getPivotEdge( CsrGraphAdapter.of( graph ), new int[0] ) );
+    }
 }
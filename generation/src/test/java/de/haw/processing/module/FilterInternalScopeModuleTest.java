@@ -9,8 +9,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class FilterInternalScopeModuleTest {
 
@@ -35,4 +34,40 @@ public class FilterInternalScopeModuleTest {
         assertNull( graph.getEdge( "34" ) );
     }
 
+    @Test
+    public void testFilterAutoConnect() {
+
+        final GraphService graphService = GraphService.instance();
+        Graph graph = GraphTestGenerator.getSimpleGraph();
+        graphService.setType( graph.getEdge( "12" ), CpgEdgeType.TYPE );
+        graphService.setType( graph.getEdge( "34" ), CpgEdgeType.TYPE );
+
+        final CpgFilterEdgesModule<Graph> module = CpgFilterEdgesModule.byTypes(
+                Collections.singletonList( CpgEdgeType.TYPE ), true );
+        graph = module.process( graph, PipeContext.empty() );
+
+        assertEquals( 4, graph.getNodeCount() );
+        assertEquals( 4, graph.getEdgeCount() );
+        assertNotNull( graph.getEdge( "23" ) );
+    }
+
+    @Test
+    public void testFilterKeepsMovedElements() {
+
+        // the kept elements are moved to the indices of removed ones while filtering
+        final GraphService graphService = GraphService.instance();
+        Graph graph = GraphTestGenerator.getSimpleGraph();
+        graphService.setType( graph.getEdge( "34" ), CpgEdgeType.TYPE );
+
+        final CpgFilterEdgesModule<Graph> module = CpgFilterEdgesModule.byTypes(
+                Collections.singletonList( CpgEdgeType.TYPE ), false );
+        graph = module.process( graph, PipeContext.empty() );
+
+        assertEquals( 2, graph.getNodeCount() );
+        assertEquals( 1, graph.getEdgeCount() );
+        assertNotNull( graph.getNode( "3" ) );
+        assertNotNull( graph.getNode( "4" ) );
+        assertNotNull( graph.getEdge( "34" ) );
+    }
+
 }
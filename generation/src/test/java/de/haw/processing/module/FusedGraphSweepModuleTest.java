@@ -0,0 +1,68 @@
+package de.haw.processing.module;
+
+import de.haw.misc.pipe.PipeBuilder;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.pipe.PipeModule;
+import de.haw.processing.GraphService;
+import de.haw.testcase.GraphTestGenerator;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Element;
+import org.graphstream.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FusedGraphSweepModuleTest {
+
+    private Graph getGraph() {
+        final GraphService graphService = GraphService.instance();
+        final Graph graph = GraphTestGenerator.getSimpleGraph();
+        // the inferred node is blacklisted, so its name mustn't remove node 2
+        graphService.addLabel( graph.getNode( "4" ), RemoveBlacklistElementsModule.NODE_LABEL_BLACKLIST.get( 0 ) );
+        graph.getNode( "4" ).setAttribute( CpgConst.NODE_ATTR_INFERRED, true );
+        graph.getNode( "4" ).setAttribute( CpgConst.NODE_ATTR_NAME, "blacklisted" );
+        graph.getNode( "2" ).setAttribute( CpgConst.NODE_ATTR_NAME, "blacklisted" );
+        graph.getNode( "1" ).setAttribute( CpgConst.NODE_ATTR_INFERRED, true );
+        graph.getNode( "1" ).setAttribute( CpgConst.NODE_ATTR_NAME, "inferred" );
+        graph.getNode( "3" ).setAttribute( CpgConst.NODE_ATTR_NAME, "inferred" );
+        graphService.setType( graph.getEdge( "23" ), RemoveBlacklistElementsModule.EDGE_TYPE_BLACKLIST.get( 0 ) );
+        return graph;
+    }
+
+    private Graph process( final boolean fusion, final PipeContext ctx ) {
+        return PipeBuilder.<Graph, Graph>builder()
+                .fusion( fusion )
+                .add( RemoveBlacklistElementsModule.instance() )
+                .add( FilterInternalScopeModule.instance() )
+                .buildExecutor()
+                .execute( this.getGraph(), ctx );
+    }
+
+    @Test
+    void testFusedModulesMatchSequentialModules() {
+        final PipeContext ctx = PipeContext.empty();
+        final Graph fused = this.process( true, ctx );
+        final Graph sequential = this.process( false, PipeContext.empty() );
+
+        assertEquals( List.of( "2" ), fused.nodes().map( Element::getId ).toList() );
+        assertEquals( sequential.nodes().map( Element::getId ).toList(), fused.nodes().map( Element::getId ).toList() );
+        assertEquals( sequential.edges().map( Element::getId ).toList(), fused.edges().map( Element::getId ).toList() );
+        assertEquals( 1, ctx.get( PipeContext.PROCESS_COUNT, 0, Integer.class ) );
+    }
+
+    @Test
+    void testBuilderFusesSweepModules() {
+        final PipeModule<Graph, ?, Graph> pipe = PipeBuilder.<Graph, Graph>builder()
+                .add( RemoveBlacklistElementsModule.instance() )
+                .add( FilterInternalScopeModule.instance() )
+                .add( RemoveBlacklistElementsModule.instance() )
+                .build();
+
+        // the filter removes nodes when it finishes, so the modules after it aren't fused
+        final FusedGraphSweepModule<?> fused = assertInstanceOf( FusedGraphSweepModule.class, pipe );
+        assertEquals( 2, fused.getModules().size() );
+    }
+
+}
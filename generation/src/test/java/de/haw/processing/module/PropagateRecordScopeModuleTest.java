@@ -0,0 +1,144 @@
+package de.haw.processing.module;
+
+import de.haw.misc.pipe.PipeContext;
+import de.haw.processing.GraphService;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.testcase.GraphTestGenerator;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropagateRecordScopeModuleTest {
+
+    private static final CpgEdgeType[] EDGE_TYPES = {
+            CpgEdgeType.AST, CpgEdgeType.SCOPE, CpgEdgeType.RECORD_DECLARATION };
+
+    private static final String[] NAMES = { null, "", "value", "a.Outer", "a.Outer.Inner", "Other" };
+
+    private final GraphService GS = GraphService.instance();
+
+    @Test
+    public void testPropagateNestedRecordScopes() {
+
+        // inner -> outer, block -> inner, field -> block (scope)
+        final Graph graph = GraphTestGenerator.getEmpty();
+        final Node outer = this.addScope( graph, "outer", CpgConst.NODE_LABEL_SCOPE_RECORD, "a.Outer" );
+        final Node inner = this.addScope( graph, "inner", CpgConst.NODE_LABEL_SCOPE_RECORD, "a.Outer.Inner" );
+        final Node block = this.addScope( graph, "block", CpgConst.NODE_LABEL_SCOPE, null );
+        final Node field = this.GS.addNode( graph, "field" );
+        this.addEdge( graph, inner, outer, CpgEdgeType.PARENT );
+        this.addEdge( graph, block, inner, CpgEdgeType.PARENT );
+        this.addEdge( graph, field, block, CpgEdgeType.SCOPE );
+
+        PropagateRecordScopeModule.<Graph>instance().process( graph, PipeContext.empty() );
+
+        assertEquals( "a.Outer", this.GS.getAttr( outer, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ) );
+        assertEquals( "a.Outer.Inner", this.GS.getAttr( inner, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ) );
+        assertEquals( "a.Outer.Inner", this.GS.getAttr( block, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ) );
+        assertEquals( "a.Outer.Inner", this.GS.getAttr( field, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ) );
+    }
+
+    @Test
+    public void testMatchesTraversal() {
+        final PropagateRecordScopeModule<Graph> module = PropagateRecordScopeModule.instance();
+        for ( int seed = 0; seed < 20; seed++ ) {
+            final Graph expected = this.getRandomScopes( seed );
+            module.propagateByTraversal( expected );
+
+            final Graph sequential = this.getRandomScopes( seed );
+            assertTrue( module.propagate( sequential, 1 ) );
+            this.assertSameScopes( expected, sequential );
+
+            final Graph parallel = this.getRandomScopes( seed );
+            assertTrue( module.propagate( parallel, 4 ) );
+            this.assertSameScopes( expected, parallel );
+
+            final PipeContext ctx = PipeContext.empty();
+            ctx.set( PipeContext.RECORD_SCOPE_WORKERS, 4 );
+            final Graph processed = this.getRandomScopes( seed );
+            module.process( processed, ctx );
+            this.assertSameScopes( expected, processed );
+        }
+    }
+
+    @Test
+    public void testFallbackWithoutForest() {
+
+        final Graph graph = GraphTestGenerator.getEmpty();
+        final Node first = this.addScope( graph, "first", CpgConst.NODE_LABEL_SCOPE_RECORD, "a.First" );
+        final Node second = this.addScope( graph, "second", CpgConst.NODE_LABEL_SCOPE_RECORD, "a.Second" );
+        final Node block = this.addScope( graph, "block", CpgConst.NODE_LABEL_SCOPE, null );
+        this.addEdge( graph, block, first, CpgEdgeType.PARENT );
+        this.addEdge( graph, block, second, CpgEdgeType.PARENT );
+
+        final PropagateRecordScopeModule<Graph> module = PropagateRecordScopeModule.instance();
+        assertFalse( module.propagate( graph, 1 ) );
+        assertNull( this.GS.getAttr( block, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ) );
+
+        module.process( graph, PipeContext.empty() );
+        assertEquals( "a.Second", this.GS.getAttr( block, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ) );
+    }
+
+    private Graph getRandomScopes( final int seed ) {
+        final Random random = new Random( seed );
+        final Graph graph = GraphTestGenerator.getEmpty();
+        final int nodeCount = 200;
+        for ( int i = 0; i < nodeCount; i++ ) {
+            final Node node = this.GS.addNode( graph, "n" + i );
+            if ( random.nextInt( 8 ) == 0 ) {
+                this.GS.addLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+            }
+            if ( random.nextInt( 3 ) == 0 ) {
+                this.GS.addLabel( node, CpgConst.NODE_LABEL_SCOPE_RECORD );
+            }
+            if ( random.nextInt( 5 ) < 2 ) {
+                this.GS.addLabel( node, CpgConst.NODE_LABEL_SCOPE );
+            }
+            this.setName( node, CpgConst.NODE_ATTR_NAME_FULL, NAMES[random.nextInt( NAMES.length )] );
+            this.setName( node, CpgConst.NODE_ATTR_NAME_SCOPED, NAMES[random.nextInt( NAMES.length )] );
+        }
+        // each node gets at most one parent with a lower index, so the parent edges are a forest
+        for ( int i = 1; i < nodeCount; i++ ) {
+            if ( random.nextInt( 5 ) > 0 ) {
+                this.addEdge( graph, graph.getNode( i ), graph.getNode( random.nextInt( i ) ), CpgEdgeType.PARENT );
+            }
+        }
+        for ( int i = 0; i < nodeCount; i++ ) {
+            this.addEdge( graph, graph.getNode( random.nextInt( nodeCount ) ),
+                    graph.getNode( random.nextInt( nodeCount ) ), EDGE_TYPES[random.nextInt( EDGE_TYPES.length )] );
+        }
+        return graph;
+    }
+
+    private void assertSameScopes( final Graph expected, final Graph actual ) {
+        expected.nodes().forEach( node -> assertEquals(
+                this.GS.getAttr( node, CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ),
+                this.GS.getAttr( actual.getNode( node.getId() ), CpgConst.NODE_ATTR_NAME_SCOPED_RECORD ),
+                node.getId() ) );
+    }
+
+    private Node addScope( final Graph graph, final String id, final String label, final String fullName ) {
+        final Node node = this.GS.addNode( graph, id );
+        this.GS.addLabel( node, label );
+        this.setName( node, CpgConst.NODE_ATTR_NAME_FULL, fullName );
+        return node;
+    }
+
+    private void setName( final Node node, final String key, final String name ) {
+        if ( name != null ) {
+            node.setAttribute( key, name );
+        }
+    }
+
+    private void addEdge( final Graph graph, final Node source, final Node target, final CpgEdgeType type ) {
+        final Edge edge = this.GS.addEdge( graph, this.GS.genId( "e" ), source, target );
+        this.GS.setType( edge, type );
+    }
+
+}
@@ -0,0 +1,165 @@
+package de.haw.processing.traversal;
+
+import de.haw.processing.GraphService;
+import de.haw.testcase.GraphTestGenerator;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexTraverserTest {
+
+    private static class TestIndexTraverser extends IndexTraverser<String> {
+
+        // Record processed node ids with the received message for verification.
+        public final List<String> visited = new ArrayList<>();
+
+        public TestIndexTraverser( Order order ) {
+            super( order );
+        }
+
+        @Override
+        protected boolean process( int node, String message, int edge, int depth ) {
+            String id = this.getGraph().getNode( node ).getId();
+            visited.add( id + ( message == null ? "" : "<" + message ) );
+            this.setMessage( id );
+            return true;
+        }
+
+        @Override
+        protected void next( int node, IntConsumer edges ) {
+            this.forEachLeavingEdge( node, edges );
+        }
+    }
+
+    /**
+     * Follows the edges in both directions, so the traversal runs into cycles
+     */
+    private static class UndirectedIndexTraverser extends IndexTraverser<String> {
+
+        public final List<String> visited = new ArrayList<>();
+
+        public UndirectedIndexTraverser() {
+            super( Order.DFS );
+        }
+
+        @Override
+        protected boolean process( int node, String message, int edge, int depth ) {
+            visited.add( this.getGraph().getNode( node ).getId() + "@" + depth );
+            return true;
+        }
+
+        @Override
+        protected void next( int node, IntConsumer edges ) {
+            this.forEachLeavingEdge( node, edges );
+            this.forEachEnteringEdge( node, edges );
+        }
+    }
+
+    private static class UndirectedGraphProcessTraverser extends GraphProcessTraverser<String> {
+
+        public final List<String> visited = new ArrayList<>();
+
+        @Override
+        protected OutputData<String> process( Node node, String message, TraversalContext ctx ) {
+            visited.add( node.getId() + "@" + ctx.getDepth() );
+            return OutputData.of( null, true );
+        }
+
+        @Override
+        protected List<Edge> next( Node node ) {
+            List<Edge> edges = new ArrayList<>();
+            for ( int i = 0; i < node.getOutDegree(); i++ ) {
+                edges.add( node.getLeavingEdge( i ) );
+            }
+            for ( int i = 0; i < node.getInDegree(); i++ ) {
+                edges.add( node.getEnteringEdge( i ) );
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * a -> b -> d, a -> c -> d
+     */
+    private Graph getDiamond() {
+        GraphService GS = GraphService.instance();
+        Graph graph = GraphTestGenerator.getEmpty();
+        Node a = GS.addNode( graph, "a" );
+        Node b = GS.addNode( graph, "b" );
+        Node c = GS.addNode( graph, "c" );
+        Node d = GS.addNode( graph, "d" );
+        GS.addEdge( graph, "ab", a, b );
+        GS.addEdge( graph, "ac", a, c );
+        GS.addEdge( graph, "bd", b, d );
+        GS.addEdge( graph, "cd", c, d );
+        return graph;
+    }
+
+    @Test
+    public void testBreadthFirst() {
+        Graph graph = this.getDiamond();
+        TestIndexTraverser traverser = new TestIndexTraverser( IndexTraverser.Order.BFS );
+
+        traverser.traverse( graph.getNode( "a" ) );
+
+        // d is processed once per edge it's reached by
+        assertEquals( List.of( "a", "b<a", "c<a", "d<b", "d<c" ), traverser.visited );
+    }
+
+    @Test
+    public void testDepthFirst() {
+        Graph graph = this.getDiamond();
+        TestIndexTraverser traverser = new TestIndexTraverser( IndexTraverser.Order.DFS );
+
+        traverser.traverse( graph.getNode( "a" ) );
+
+        // like GraphProcessTraverser, the last pushed edge is followed first
+        assertEquals( List.of( "a", "c<a", "d<c", "b<a", "d<b" ), traverser.visited );
+    }
+
+    @Test
+    public void testDepthFirstMatchesGraphProcessTraverserOnCycles() {
+        GraphService GS = GraphService.instance();
+        Random random = new Random( 7 );
+        UndirectedIndexTraverser traverser = new UndirectedIndexTraverser();
+        for ( int run = 0; run < 50; run++ ) {
+            Graph graph = GraphTestGenerator.getEmpty();
+            for ( int i = 0; i < 6; i++ ) {
+                GS.addNode( graph, "n" + i );
+            }
+            for ( int i = 0; i < 9; i++ ) {
+                Node source = graph.getNode( random.nextInt( 6 ) );
+                GS.addEdge( graph, "e" + i, source, graph.getNode( random.nextInt( 6 ) ) );
+            }
+
+            UndirectedGraphProcessTraverser reference = new UndirectedGraphProcessTraverser();
+            reference.traverse( graph.getNode( 0 ), 5 );
+            traverser.visited.clear();
+            traverser.traverse( graph.getNode( 0 ), 5 );
+
+            assertEquals( reference.visited, traverser.visited );
+        }
+    }
+
+    @Test
+    public void testMaxDepthAndReuse() {
+        Graph graph = this.getDiamond();
+        TestIndexTraverser traverser = new TestIndexTraverser( IndexTraverser.Order.BFS );
+
+        traverser.traverse( graph.getNode( "a" ), 2 );
+        assertEquals( List.of( "a", "b<a", "c<a" ), traverser.visited );
+
+        // edges visited by the previous traversal are traversed again
+        traverser.visited.clear();
+        traverser.traverse( graph.getNode( "b" ) );
+        assertEquals( List.of( "b", "d<b" ), traverser.visited );
+    }
+}
@@ -1,126 +1,91 @@
 package de.haw.processing.traversal;
 
 import de.haw.processing.GraphService;
+import de.haw.testcase.GraphTestGenerator;
 import de.haw.translation.CpgConst;
-import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 class RecordNeighbourSubgraphCopyTraverserTest {
 
+    private final GraphService GS = GraphService.instance();
+
+    /**
+     * a -> b -> c -> d
+     */
+    private Graph getChain() {
+        final Graph graph = GraphTestGenerator.getEmpty();
+        final Node a = this.GS.addNode( graph, "a" );
+        final Node b = this.GS.addNode( graph, "b" );
+        final Node c = this.GS.addNode( graph, "c" );
+        final Node d = this.GS.addNode( graph, "d" );
+        this.GS.addEdge( graph, "ab", a, b );
+        this.GS.addEdge( graph, "bc", b, c );
+        this.GS.addEdge( graph, "cd", c, d );
+        return graph;
+    }
+
     @Test
-    void testProcessExceedsMaxDepth() {
+    void testTraverseExceedsMaxDepth() {
         // Arrange
-        Graph graph = mock( Graph.class );
-        int maxDepth = 2;
-        try ( MockedStatic<GraphService> gsStatic = Mockito.mockStatic( GraphService.class ) ) {
-            GraphService gsMock = mock( GraphService.class );
-            gsStatic.when( GraphService::instance ).thenReturn( gsMock );
-
-            RecordNeighbourSubgraphCopyTraverser traverser = RecordNeighbourSubgraphCopyTraverser.of( graph, maxDepth );
-            Node node = mock( Node.class );
-            GraphProcessTraverser.TraversalContext ctx = mock( GraphProcessTraverser.TraversalContext.class );
-            when( ctx.getDepth() ).thenReturn( 3 ); // depth > maxDepth
-
-            // Act
-            GraphProcessTraverser.OutputData<Void> result = traverser.process( node, null, ctx );
-
-            // Assert
-            assertFalse( result.isProceed() );
-            verifyNoInteractions( gsMock );
-        }
+        Graph graph = this.getChain();
+        Graph subgraph = GraphTestGenerator.getEmpty();
+
+        // Act
+        RecordNeighbourSubgraphCopyTraverser.of( subgraph, 1 ).traverse( graph.getNode( "a" ) );
+
+        // Assert
+        assertEquals( 1, subgraph.getEdgeCount() );
+        assertNotNull( subgraph.getEdge( "ab" ) );
     }
 
     @Test
-    void testProcessWithoutParent() {
+    void testTraverseWithoutEdges() {
         // Arrange
-        Graph graph = mock( Graph.class );
-        int maxDepth = 2;
-        try ( MockedStatic<GraphService> gsStatic = Mockito.mockStatic( GraphService.class ) ) {
-            GraphService gsMock = mock( GraphService.class );
-            gsStatic.when( GraphService::instance ).thenReturn( gsMock );
-
-            RecordNeighbourSubgraphCopyTraverser traverser = RecordNeighbourSubgraphCopyTraverser.of( graph, maxDepth );
-            Node node = mock( Node.class );
-            GraphProcessTraverser.TraversalContext ctx = mock( GraphProcessTraverser.TraversalContext.class );
-            when( ctx.getDepth() ).thenReturn( 1 );
-            when( ctx.getParent() ).thenReturn( null );
-
-            // Act
-            GraphProcessTraverser.OutputData<Void> result = traverser.process( node, null, ctx );
-
-            // Assert
-            assertTrue( result.isProceed() );
-            verify( gsMock, times( 1 ) ).copyNodeToGraph( graph, node );
-            verify( gsMock, never() ).copyEdgeToGraph( any(), any() );
-        }
+        Graph graph = GraphTestGenerator.getEmpty();
+        Node a = this.GS.addNode( graph, "a" );
+        Graph subgraph = GraphTestGenerator.getEmpty();
+
+        // Act
+        RecordNeighbourSubgraphCopyTraverser.of( subgraph, 2 ).traverse( a );
+
+        // Assert
+        assertEquals( 1, subgraph.getNodeCount() );
+        assertNotNull( subgraph.getNode( "a" ) );
+        assertEquals( 0, subgraph.getEdgeCount() );
     }
 
     @Test
-    void testProcessWithEdgeHasLabel() {
+    void testTraverseStopsAtRecord() {
         // Arrange
-        Graph graph = mock( Graph.class );
-        int maxDepth = 3;
-        try ( MockedStatic<GraphService> gsStatic = Mockito.mockStatic( GraphService.class ) ) {
-            GraphService gsMock = mock( GraphService.class );
-            gsStatic.when( GraphService::instance ).thenReturn( gsMock );
-
-            RecordNeighbourSubgraphCopyTraverser traverser = RecordNeighbourSubgraphCopyTraverser.of( graph, maxDepth );
-            Node node = mock( Node.class );
-            GraphProcessTraverser.TraversalContext ctx = mock( GraphProcessTraverser.TraversalContext.class );
-            Edge edge = mock( Edge.class );
-            // Simulate having a parent so that node is not copied as a root node.
-            when( ctx.getDepth() ).thenReturn( 2 );
-            when( ctx.getParent() ).thenReturn( mock( Node.class ) );
-            when( ctx.getEdge() ).thenReturn( edge );
-            // hasLabel returns true, so should not continue traversal.
-            when( gsMock.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ).thenReturn( true );
-
-            // Act
-            GraphProcessTraverser.OutputData<Void> result = traverser.process( node, null, ctx );
-
-            // Assert
-            assertFalse( result.isProceed() );
-            verify( gsMock, times( 1 ) ).copyEdgeToGraph( graph, edge );
-            verify( gsMock, times( 1 ) ).hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD );
-        }
+        Graph graph = this.getChain();
+        this.GS.addLabel( graph.getNode( "b" ), CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        Graph subgraph = GraphTestGenerator.getEmpty();
+
+        // Act
+        RecordNeighbourSubgraphCopyTraverser.of( subgraph, 3 ).traverse( graph.getNode( "a" ) );
+
+        // Assert
+        assertEquals( 1, subgraph.getEdgeCount() );
+        assertNotNull( subgraph.getEdge( "ab" ) );
+        assertNull( subgraph.getNode( "c" ) );
     }
 
     @Test
-    void testProcessWithEdgeWithoutLabel() {
+    void testTraverseContinuesWithoutRecord() {
         // Arrange
-        Graph graph = mock( Graph.class );
-        int maxDepth = 3;
-        try ( MockedStatic<GraphService> gsStatic = Mockito.mockStatic( GraphService.class ) ) {
-            GraphService gsMock = mock( GraphService.class );
-            gsStatic.when( GraphService::instance ).thenReturn( gsMock );
-
-            RecordNeighbourSubgraphCopyTraverser traverser = RecordNeighbourSubgraphCopyTraverser.of( graph, maxDepth );
-            Node node = mock( Node.class );
-            GraphProcessTraverser.TraversalContext ctx = mock( GraphProcessTraverser.TraversalContext.class );
-            Edge edge = mock( Edge.class );
-            // Simulate having a parent so that node is not copied as a root node.
-            when( ctx.getDepth() ).thenReturn( 2 );
-            when( ctx.getParent() ).thenReturn( mock( Node.class ) );
-            when( ctx.getEdge() ).thenReturn( edge );
-            // hasLabel returns false, so should continue traversal.
-            when( gsMock.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) ).thenReturn( false );
-
-            // Act
-            GraphProcessTraverser.OutputData<Void> result = traverser.process( node, null, ctx );
-
-            // Assert
-            assertTrue( result.isProceed() );
-            verify( gsMock, times( 1 ) ).copyEdgeToGraph( graph, edge );
-            verify( gsMock, times( 1 ) ).hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD );
-        }
+        Graph graph = this.getChain();
+        Graph subgraph = GraphTestGenerator.getEmpty();
+
+        // Act
+        RecordNeighbourSubgraphCopyTraverser.of( subgraph, 3 ).traverse( graph.getNode( "a" ) );
+
+        // Assert
+        assertEquals( 3, subgraph.getEdgeCount() );
+        assertEquals( 4, subgraph.getNodeCount() );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package de.haw.testcase;
+
+import de.haw.application.ConvertAndExportCpgModule;
+import de.haw.dataset.model.Dataset;
+import de.haw.dataset.model.DatasetLanguage;
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeBuilder;
+import de.haw.misc.pipe.PipeContext;
+import de.haw.processing.GraphService;
+import de.haw.processing.model.RecordInteractionType;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import de.haw.translation.module.CachedTranslationModule;
+import org.apache.commons.io.FileUtils;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TranslationTestGenerator {
+
+    private static final File ABSTRACT_FACTORY = new File( "../datasets/java/test/patterns/abstractfactory" );
+
+    /**
+     * Deep enough to reach all nodes, so translating fewer files doesn't cut the graph differently
+     */
+    private static final int DEPTH = 20;
+
+    /**
+     * @return a copy of the abstract factory sources, whose king of the elves and orcs is referenced across packages
+     */
+    public static File getAbstractFactory( final Path dir ) throws IOException {
+        final File sources = dir.resolve( ABSTRACT_FACTORY.getName() ).toFile();
+        FileUtils.copyDirectory( ABSTRACT_FACTORY, sources );
+        return sources;
+    }
+
+    /**
+     * @return the graph of the sources translated as selected by the args
+     */
+    public static Graph translate( final File sources, final Args args ) {
+        return PipeBuilder.<File, Graph>builder()
+                .add( CachedTranslationModule.instance() )
+                .buildExecutor()
+                .execute( sources, getContext( sources, args ) );
+    }
+
+    /**
+     * @return the graph of the sources translated as selected by the args, reduced by the interaction modules
+     */
+    public static Graph translateInteractions( final File sources, final Args args ) {
+        return ConvertAndExportCpgModule.addInteractionModules(
+                        PipeBuilder.<File, Graph>builder().add( CachedTranslationModule.instance() ) )
+                .buildExecutor()
+                .execute( sources, getContext( sources, args ) );
+    }
+
+    /**
+     * @return the edges of the given type by the full names of their nodes
+     */
+    public static Set<String> getEdges( final Graph graph, final CpgEdgeType type ) {
+        return graph.edges()
+                .filter( edge -> GraphService.instance().isType( edge, type ) )
+                .map( edge -> getName( edge.getSourceNode() ) + " -> " + getName( edge.getTargetNode() ) )
+                .collect( Collectors.toCollection( TreeSet::new ) );
+    }
+
+    /**
+     * @return the interactions by the full names of their records, their type and distance
+     */
+    public static Set<String> getInteractions( final Graph graph ) {
+        final GraphService GS = GraphService.instance();
+        final Set<String> interactions = new TreeSet<>();
+        graph.edges()
+                .filter( edge -> GS.isType( edge, CpgEdgeType.INTERACTS ) && isInteractionNode(
+                        edge.getTargetNode() ) )
+                .forEach( sourceEdge -> sourceEdge.getTargetNode()
+                        .leavingEdges()
+                        .filter( edge -> GS.isType( edge, CpgEdgeType.INTERACTS ) )
+                        .forEach( targetEdge -> interactions.add( getName( sourceEdge.getSourceNode() ) + " -"
+                                + GS.getAttr( targetEdge, CpgConst.EDGE_ATTR_INTERACTION_TYPE ) + "-> " + getName(
+                                targetEdge.getTargetNode() ) + " @" + targetEdge.getAttribute(
+                                CpgConst.EDGE_ATTR_DISTANCE ) ) ) );
+        return interactions;
+    }
+
+    private static PipeContext getContext( final File sources, final Args args ) {
+        final Dataset dataset = mock( Dataset.class );
+        when( dataset.getName() ).thenReturn( sources.getName() );
+        when( dataset.getLanguage() ).thenReturn( DatasetLanguage.JAVA );
+        final PipeContext ctx = PipeContext.empty();
+        ctx.set( PipeContext.ARGS_KEY, args );
+        ctx.set( PipeContext.CPG_DATASET_KEY, dataset );
+        ctx.set( PipeContext.CPG_DEPTH_KEY, DEPTH );
+        ctx.set( PipeContext.CPG_MIN_DEPTH_KEY, DEPTH );
+        return ctx;
+    }
+
+    private static boolean isInteractionNode( final Node node ) {
+        return Arrays.stream( RecordInteractionType.values() )
+                .anyMatch( type -> GraphService.instance().hasLabel( node, type.name() ) );
+    }
+
+    private static String getName( final Node node ) {
+        return GraphService.instance().getAttr( node, CpgConst.NODE_ATTR_NAME_FULL );
+    }
+
+}
@@ -0,0 +1,54 @@
+package de.haw.translation;
+
+import de.haw.misc.Args;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttributeProjectionTest {
+
+    @Test
+    void testProjectionFromArgs() {
+        assertTrue( AttributeProjection.of( Args.empty() ).keepsAll() );
+        final AttributeProjection downstream = AttributeProjection.of(
+                Args.of( new String[]{ "--attribute-projection=downstream" } ) );
+        assertFalse( downstream.keepsAll() );
+        assertTrue( downstream.keepsNodeAttr( Set.of( "RecordDeclaration" ), CpgConst.NODE_ATTR_NAME_FULL ) );
+        assertFalse( downstream.keepsNodeAttr( Set.of( "RecordDeclaration" ), CpgConst.NODE_ATTR_CODE ) );
+        assertFalse( downstream.keepsNodeAttr( Set.of( "RecordDeclaration" ), CpgConst.NODE_ATTR_DATASET ) );
+        assertFalse( downstream.keepsEdgeAttr( "AST", CpgConst.EDGE_ATTR_DATASET ) );
+    }
+
+    @Test
+    void testProjectionFromFile( @TempDir final Path dir ) throws IOException {
+        final Path file = dir.resolve( "projection.properties" );
+        Files.writeString( file, "node.RecordDeclaration=code, kind\nedge.DFG=granularity\n" );
+
+        final AttributeProjection projection = AttributeProjection.of( file.toFile() );
+        assertTrue( projection.keepsNodeAttr( List.of( "Node", "RecordDeclaration" ), "kind" ) );
+        assertTrue( projection.keepsNodeAttr( Set.of( "MethodDeclaration" ), CpgConst.NODE_ATTR_NAME ) );
+        assertFalse( projection.keepsNodeAttr( Set.of( "MethodDeclaration" ), CpgConst.NODE_ATTR_CODE ) );
+        assertTrue( projection.keepsEdgeAttr( "DFG", "granularity" ) );
+        assertFalse( projection.keepsEdgeAttr( "AST", "granularity" ) );
+    }
+
+    @Test
+    void testStatsCountDroppedBytes() {
+        final AttributeProjection.Stats stats = new AttributeProjection.Stats();
+        stats.keep();
+        stats.drop( "x".repeat( 1000 ) );
+        stats.drop( null );
+
+        assertEquals( 1, stats.getKept() );
+        assertEquals( 2, stats.getDropped() );
+        assertTrue( stats.getDroppedBytes() > 1000 );
+    }
+
+}
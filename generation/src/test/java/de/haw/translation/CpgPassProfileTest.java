@@ -0,0 +1,38 @@
+package de.haw.translation;
+
+import de.haw.misc.Args;
+import de.haw.processing.module.RemoveBlacklistElementsModule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CpgPassProfileTest {
+
+    @Test
+    void testProfileFromArgs() {
+        assertEquals( CpgPassProfile.FULL, CpgPassProfile.of( Args.empty() ) );
+        assertEquals( CpgPassProfile.RECORD_INTERACTIONS,
+                CpgPassProfile.of( Args.of( new String[]{ "--pass-profile=record-interactions" } ) ) );
+        assertThrows( IllegalArgumentException.class,
+                () -> CpgPassProfile.of( Args.of( new String[]{ "--pass-profile=none" } ) ) );
+    }
+
+    @Test
+    void testValidationIsOptIn() {
+        assertFalse( CpgPassProfile.isValidationEnabled( Args.empty() ) );
+        assertFalse( CpgPassProfile.isValidationEnabled(
+                Args.of( new String[]{ "--pass-profile=record-interactions" } ) ) );
+        assertTrue( CpgPassProfile.isValidationEnabled(
+                Args.of( new String[]{ "--pass-profile=record-interactions", "--validate-profile=true" } ) ) );
+    }
+
+    @Test
+    void testSkippedEdgesAreBlacklisted() {
+        assertTrue( CpgPassProfile.FULL.getSkippedEdgeTypes().isEmpty() );
+        for ( CpgPassProfile profile : CpgPassProfile.values() ) {
+            assertTrue( RemoveBlacklistElementsModule.EDGE_TYPE_BLACKLIST.containsAll( profile.getSkippedEdgeTypes() ),
+                    profile.getArgName() );
+        }
+    }
+
+}
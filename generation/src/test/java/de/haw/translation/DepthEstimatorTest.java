@@ -0,0 +1,63 @@
+package de.haw.translation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DepthEstimatorTest {
+
+    /**
+     * Nodes and edges of walks with depth 0 to 4
+     */
+    private static final long[][] COUNTS = { { 1, 10, 1_000, 100_000, 1_000_000 },
+            { 0, 20, 3_000, 400_000, 5_000_000 } };
+
+    @Test
+    void testSelectsDeepestFittingDepth() {
+        DepthEstimator estimator = DepthEstimator.of( COUNTS );
+
+        DepthEstimator.DepthEstimate estimate = estimator.estimate( 1, 4, 1000 );
+        assertEquals( 3, estimate.getDepth() );
+        assertEquals( 100_000, estimate.getNodes() );
+        assertEquals( 400_000, estimate.getEdges() );
+        assertEquals( 488, estimate.getEstimatedMb() );
+        assertEquals( 800, estimate.getHeadroomMb() );
+        assertTrue( estimate.isFits() );
+
+        assertEquals( 2, estimator.estimate( 1, 4, 10 ).getDepth() );
+    }
+
+    @Test
+    void testFallsBackToMinDepth() {
+        DepthEstimator.DepthEstimate estimate = DepthEstimator.of( COUNTS ).estimate( 3, 4, 10 );
+        assertEquals( 3, estimate.getDepth() );
+        assertFalse( estimate.isFits() );
+        assertTrue( estimate.toDetails().startsWith( "depth=3;walk_nodes=100000;walk_edges=400000;" ) );
+    }
+
+    @Test
+    void testFitsCalibrationFromConversions() {
+        DepthEstimator.Calibration calibration = DepthEstimator.Calibration.fit( List.of(
+                "depth=3;walk_nodes=1024;walk_edges=4096;estimated_mb=5;headroom_mb=800;fits=true;selected_depth=3;"
+                        + "graph_nodes=900;graph_edges=3500;graph_mb=10",
+                "depth=3;walk_nodes=1024;walk_edges=4096;estimated_mb=5;headroom_mb=800;fits=true;selected_depth=2;"
+                        + "graph_nodes=90;graph_edges=500;graph_mb=100",
+                "depth=3;walk_nodes=1024;walk_edges=4096;estimated_mb=5;headroom_mb=800;fits=true;selected_depth=3;"
+                        + "graph_nodes=900;graph_edges=3500;graph_mb=-1",
+                "depth=3;nodes=1000;edges=6000;estimated_mb=5;headroom_mb=800;fits=true;selected_depth=3;"
+                        + "graph_nodes=900;graph_edges=5000;graph_mb=10",
+                "depth=3;walk_nodes=1024;walk_edges=4096;estimated_mb=5;headroom_mb=800;fits=true" ) );
+        assertEquals( 1, calibration.getSamples() );
+        assertEquals( 2048d, calibration.getBytesPerElement(), 1e-6 );
+
+        DepthEstimator.DepthEstimate estimate = DepthEstimator.of( COUNTS, calibration ).estimate( 1, 4, 1000 );
+        assertEquals( 2, estimate.getDepth() );
+        assertEquals( 7, estimate.getEstimatedMb() );
+        assertTrue( estimate.isFits() );
+
+        assertSame( DepthEstimator.Calibration.DEFAULT, DepthEstimator.Calibration.fit( List.of() ) );
+    }
+
+}
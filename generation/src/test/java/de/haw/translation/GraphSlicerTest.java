@@ -0,0 +1,98 @@
+package de.haw.translation;
+
+import de.haw.processing.GraphService;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.testcase.GraphTestGenerator;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphSlicerTest {
+
+    private static final Map<String, String> PATHS = Map.of( "/src/A.java", "A.java", "/src/B.java", "B.java" );
+
+    private final GraphService GS = GraphService.instance();
+
+    @Test
+    void testSlicesStitchToGraph() {
+        final Graph graph = this.getTranslation( "a.A" );
+        final Map<String, Graph> slices = GraphSlicer.of( graph ).slice( PATHS, Set.of( "A.java", "B.java" ) );
+
+        assertEquals( Set.of( GraphSlicer.SHARED_PART, "A.java", "B.java" ), slices.keySet() );
+        // the call of B is part of both slices, B is a stub in the slice of A
+        assertEquals( 3, slices.get( "A.java" ).getEdgeCount() );
+        assertEquals( 1, slices.get( "A.java" ).nodes().filter( node -> node.hasAttribute( CpgConst.NODE_ATTR_STUB ) )
+                .count() );
+
+        final GraphStitcher stitcher = GraphStitcher.of( "test" );
+        slices.values().forEach( stitcher::add );
+        final Graph stitched = stitcher.stitch();
+
+        assertEquals( this.getEdges( graph ), this.getEdges( stitched ) );
+        assertEquals( graph.getNodeCount(), stitched.getNodeCount() );
+        stitched.nodes().forEach( node -> assertFalse( node.hasAttribute( CpgConst.NODE_ATTR_UNIT ) ) );
+    }
+
+    @Test
+    void testStubsResolveAcrossTranslations() {
+        // A was translated again after its record was renamed, B is taken from the first translation
+        final Map<String, Graph> first = GraphSlicer.of( this.getTranslation( "a.A" ) ).slice( PATHS,
+                Set.of( "A.java", "B.java" ) );
+        final Map<String, Graph> second = GraphSlicer.of( this.getTranslation( "a.C" ) ).slice( PATHS,
+                Set.of( "A.java" ) );
+
+        final GraphStitcher stitcher = GraphStitcher.of( "test" );
+        stitcher.add( second.get( GraphSlicer.SHARED_PART ) );
+        stitcher.add( second.get( "A.java" ) );
+        stitcher.add( first.get( "B.java" ) );
+        final Graph stitched = stitcher.stitch();
+
+        assertEquals( Set.of( "a.C -AST-> a.C.call", "a.C -TYPE-> java.lang.Object", "a.C.call -INVOKES-> b.B.run",
+                "b.B -AST-> b.B.run", "b.B -TYPE-> java.lang.Object" ), this.getEdges( stitched ) );
+    }
+
+    /**
+     * @return a translation of A.java, whose record calls the method of B.java, both records have the same type
+     */
+    private Graph getTranslation( final String record ) {
+        final Graph graph = GraphTestGenerator.getEmpty();
+        final Node a = this.addNode( graph, "1", record, "/src/A.java", "0/0" );
+        final Node call = this.addNode( graph, "2", record + ".call", "/src/A.java", "0/0/0" );
+        final Node b = this.addNode( graph, "3", "b.B", "/src/B.java", "0/0" );
+        final Node run = this.addNode( graph, "4", "b.B.run", "/src/B.java", "0/0/0" );
+        final Node type = this.addNode( graph, "5", "java.lang.Object", null, null );
+        GS.setType( GS.addEdge( graph, "6", a, call ), CpgEdgeType.AST );
+        GS.setType( GS.addEdge( graph, "7", b, run ), CpgEdgeType.AST );
+        GS.setType( GS.addEdge( graph, "8", call, run ), CpgEdgeType.INVOKES );
+        GS.setType( GS.addEdge( graph, "9", a, type ), CpgEdgeType.TYPE );
+        GS.setType( GS.addEdge( graph, "10", b, type ), CpgEdgeType.TYPE );
+        return graph;
+    }
+
+    private Node addNode(
+            final Graph graph, final String id, final String fullName, final String unit, final String key ) {
+        final Node node = GS.addNode( graph, id );
+        GS.addLabel( node, CpgConst.NODE_LABEL_DECLARATION );
+        node.setAttribute( CpgConst.NODE_ATTR_NAME_FULL, fullName );
+        if ( unit != null ) {
+            node.setAttribute( CpgConst.NODE_ATTR_UNIT, unit );
+            node.setAttribute( CpgConst.NODE_ATTR_UNIT_KEY, key );
+        }
+        return node;
+    }
+
+    private Set<String> getEdges( final Graph graph ) {
+        return graph.edges()
+                .map( edge -> GS.getAttr( edge.getSourceNode(), CpgConst.NODE_ATTR_NAME_FULL ) + " -" + GS.getType(
+                        edge ) + "-> " + GS.getAttr( edge.getTargetNode(), CpgConst.NODE_ATTR_NAME_FULL ) )
+                .collect( Collectors.toCollection( TreeSet::new ) );
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.haw.translation;
+
+import de.haw.processing.GraphService;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.testcase.GraphTestGenerator;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphStitcherTest {
+
+    private final GraphService GS = GraphService.instance();
+
+    private Node addRecord( final Graph graph, final String id, final String fullName, final boolean inferred ) {
+        final Node node = GS.addNode( graph, id );
+        GS.addLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD );
+        node.setAttribute( CpgConst.NODE_ATTR_NAME_FULL, fullName );
+        node.setAttribute( CpgConst.NODE_ATTR_INFERRED, inferred );
+        return node;
+    }
+
+    @Test
+    void testResolvesInferredRecords() {
+        // a.A uses b.B, which is inferred in the graph of A
+        final Graph unitA = GraphTestGenerator.getEmpty();
+        final Node a = addRecord( unitA, "1", "a.A", false );
+        final Node inferredB = addRecord( unitA, "2", "b.B", true );
+        GS.setType( GS.addEdge( unitA, "3", a, inferredB ), CpgEdgeType.AST );
+
+        final Graph unitB = GraphTestGenerator.getEmpty();
+        addRecord( unitB, "1", "b.B", false );
+
+        final GraphStitcher stitcher = GraphStitcher.of( "test" );
+        stitcher.add( unitA );
+        stitcher.add( unitB );
+        final Graph graph = stitcher.stitch();
+
+        assertEquals( 2, graph.getNodeCount() );
+        assertEquals( 1, graph.getEdgeCount() );
+        final Node target = graph.edges().findFirst().orElseThrow().getTargetNode();
+        assertEquals( "b.B", GS.getAttr( target, CpgConst.NODE_ATTR_NAME_FULL ) );
+        assertFalse( GS.getAttr( target, CpgConst.NODE_ATTR_INFERRED, Boolean.class ).orElseThrow() );
+        assertEquals( "test", GS.getAttr( graph, CpgConst.GRAPH_ATTR_DATASET ) );
+    }
+
+    @Test
+    void testSharesScopes() {
+        final GraphStitcher stitcher = GraphStitcher.of( "test" );
+        for ( final String record : List.of( "a.A", "a.B" ) ) {
+            final Graph unit = GraphTestGenerator.getEmpty();
+            final Node scope = GS.addNode( unit, "1" );
+            GS.addLabel( scope, CpgConst.NODE_LABEL_SCOPE_NAME );
+            scope.setAttribute( CpgConst.NODE_ATTR_NAME, "a" );
+            final Node global = GS.addNode( unit, "2" );
+            GS.addLabel( global, CpgConst.NODE_LABEL_SCOPE_GLOBAL );
+            GS.setType( GS.addEdge( unit, "3", scope, global ), CpgEdgeType.PARENT );
+            GS.setType( GS.addEdge( unit, "4", addRecord( unit, "5", record, false ), scope ), CpgEdgeType.PARENT );
+            stitcher.add( unit );
+        }
+        final Graph graph = stitcher.stitch();
+
+        assertEquals( 4, graph.getNodeCount() );
+        assertEquals( 3, graph.getEdgeCount() );
+        graph.nodes().forEach( node -> assertDoesNotThrow( () -> Long.valueOf( node.getId() ) ) );
+    }
+
+}
@@ -6,6 +6,7 @@ import de.fraunhofer.aisec.cpg.TranslationResult;
 import de.haw.dataset.model.Dataset;
 import de.haw.dataset.model.DatasetLanguage;
 import de.haw.misc.pipe.PipeContext;
+import de.haw.translation.CpgPassProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.MockedStatic;
@@ -29,6 +30,8 @@ public class GenerateCpgModuleTest {
         PipeContext ctx = mock( PipeContext.class );
         Dataset dataset = mock( Dataset.class );
         when( ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class ) ).thenReturn( Optional.of( dataset ) );
+        when( ctx.get( PipeContext.CPG_PASS_PROFILE, CpgPassProfile.FULL, CpgPassProfile.class ) ).thenReturn(
+                CpgPassProfile.FULL );
         when( dataset.getLanguage() ).thenReturn( DatasetLanguage.JAVA );
         File sourceFile = new File( "dummySource.java" );
         TranslationResult expectedResult = mock( TranslationResult.class );
@@ -63,6 +66,8 @@ public class GenerateCpgModuleTest {
         PipeContext ctx = mock( PipeContext.class );
         Dataset dataset = mock( Dataset.class );
         when( ctx.get( PipeContext.CPG_DATASET_KEY, Dataset.class ) ).thenReturn( Optional.of( dataset ) );
+        when( ctx.get( PipeContext.CPG_PASS_PROFILE, CpgPassProfile.FULL, CpgPassProfile.class ) ).thenReturn(
+                CpgPassProfile.FULL );
         when( dataset.getLanguage() ).thenReturn( DatasetLanguage.JAVA );
 
         File sourceFile = new File( "dummySource.java" );
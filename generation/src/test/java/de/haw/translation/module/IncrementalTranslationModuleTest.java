@@ -0,0 +1,42 @@
+package de.haw.translation.module;
+
+import de.haw.misc.Args;
+import de.haw.misc.pipe.PipeCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static de.haw.testcase.TranslationTestGenerator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalTranslationModuleTest {
+
+    @Test
+    void testRerunYieldsInteractionsOfFullTranslation( @TempDir final Path dir ) throws IOException {
+        final File sources = getAbstractFactory( dir );
+        final Args args = Args.of( new String[]{ "--" + IncrementalTranslationModule.INCREMENTAL_ARG + "=true",
+                "--" + PipeCache.CACHE_DIR_ARG + "=" + dir.resolve( "cache" ) } );
+
+        final Set<String> interactions = getInteractions( translateInteractions( sources, Args.empty() ) );
+        assertFalse( interactions.isEmpty() );
+        assertEquals( interactions, getInteractions( translateInteractions( sources, args ) ) );
+
+        // the new method shifts the AST of the king, which now creates a castle, the castle is translated along
+        final Path king = sources.toPath().resolve( "elf/ElfKing.java" );
+        Files.writeString( king, Files.readString( king )
+                .replace( "import de.haw.example.abstractfactory.King;",
+                        "import de.haw.example.abstractfactory.Castle;\nimport de.haw.example.abstractfactory.King;" )
+                .replace( "    @Override", "    public Castle getCastle() {\n        return new ElfCastle();\n"
+                        + "    }\n\n    @Override" ) );
+
+        final Set<String> changed = getInteractions( translateInteractions( sources, Args.empty() ) );
+        assertNotEquals( interactions, changed );
+        assertEquals( changed, getInteractions( translateInteractions( sources, args ) ) );
+    }
+
+}
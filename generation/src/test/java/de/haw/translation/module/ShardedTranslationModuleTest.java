@@ -0,0 +1,68 @@
+package de.haw.translation.module;
+
+import de.haw.misc.Args;
+import de.haw.processing.GraphService;
+import de.haw.repository.model.CpgEdgeType;
+import de.haw.translation.CpgConst;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static de.haw.testcase.TranslationTestGenerator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedTranslationModuleTest {
+
+    private static final Map<String, File> SOURCES = new TreeMap<>( Map.of(
+            "Main.java", new File( "Main.java" ),
+            "de/haw/a/A.java", new File( "de/haw/a/A.java" ),
+            "de/haw/a/B.java", new File( "de/haw/a/B.java" ),
+            "de/haw/b/C.java", new File( "de/haw/b/C.java" ) ) );
+
+    @Test
+    void testShardsByPackage() {
+        Map<String, List<String>> shards = ShardedTranslationModule.getShards( SOURCES, -1 );
+        assertEquals( List.of( ".", "de/haw/a", "de/haw/b" ), List.copyOf( shards.keySet() ) );
+        assertEquals( 2, shards.get( "de/haw/a" ).size() );
+    }
+
+    @Test
+    void testShardsByDepth() {
+        Map<String, List<String>> shards = ShardedTranslationModule.getShards( SOURCES, 2 );
+        assertEquals( List.of( ".", "de/haw" ), List.copyOf( shards.keySet() ) );
+        assertEquals( 3, shards.get( "de/haw" ).size() );
+
+        assertEquals( List.of( "." ), List.copyOf( ShardedTranslationModule.getShards( SOURCES, 0 ).keySet() ) );
+    }
+
+    @Test
+    void testRecordsResolveAcrossShards( @TempDir final Path dir ) throws IOException {
+        // the king is declared by the root shard and implemented by the elf and orc shards
+        final File sources = getAbstractFactory( dir );
+        final Args args = Args.of( new String[]{ "--" + ShardedTranslationModule.SHARDED_ARG + "=true" } );
+        final Graph full = translate( sources, Args.empty() );
+        final Graph sharded = translate( sources, args );
+
+        final GraphService GS = GraphService.instance();
+        final List<Node> kings = sharded.nodes()
+                .filter( node -> GS.hasLabel( node, CpgConst.NODE_LABEL_DECLARATION_RECORD ) )
+                .filter( node -> "de.haw.example.abstractfactory.King".equals(
+                        GS.getAttr( node, CpgConst.NODE_ATTR_NAME_FULL ) ) )
+                .toList();
+        assertEquals( 1, kings.size() );
+        assertFalse( GS.getAttr( kings.get( 0 ), CpgConst.NODE_ATTR_INFERRED, Boolean.class ).orElse( false ) );
+        assertFalse( getEdges( full, CpgEdgeType.INVOKES ).isEmpty() );
+        assertEquals( getEdges( full, CpgEdgeType.INVOKES ), getEdges( sharded, CpgEdgeType.INVOKES ) );
+        assertEquals( getInteractions( translateInteractions( sources, Args.empty() ) ),
+                getInteractions( translateInteractions( sources, args ) ) );
+    }
+
+}
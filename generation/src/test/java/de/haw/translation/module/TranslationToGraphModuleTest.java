@@ -1,13 +1,21 @@
 package de.haw.translation.module;
 
+import de.fraunhofer.aisec.cpg.TranslationResult;
+import de.fraunhofer.aisec.cpg_vis_neo4j.Application;
 import de.fraunhofer.aisec.cpg_vis_neo4j.JsonEdge;
 import de.fraunhofer.aisec.cpg_vis_neo4j.JsonGraph;
 import de.fraunhofer.aisec.cpg_vis_neo4j.JsonNode;
 import de.haw.dataset.model.Dataset;
+import de.haw.dataset.model.DatasetLanguage;
 import de.haw.misc.pipe.PipeContext;
+import de.haw.misc.utils.ReflectionUtils;
+import de.haw.processing.GraphService;
 import de.haw.translation.CpgConst;
+import de.haw.translation.CpgPassProfile;
+import kotlin.Pair;
 import org.apache.commons.lang3.StringUtils;
 import org.graphstream.graph.Edge;
+import org.graphstream.graph.Element;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.SingleGraph;
@@ -15,7 +23,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.neo4j.ogm.cypher.compiler.builders.node.DefaultNodeBuilder;
+import org.neo4j.ogm.cypher.compiler.builders.node.DefaultRelationshipBuilder;
 
+import java.io.File;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -25,6 +36,8 @@ import static org.mockito.Mockito.when;
 
 class TranslationToGraphModuleTest {
 
+    private static final String SOURCES = "../datasets/java/test/patterns/abstractfactory";
+
     @Test
     void testGraphIsEmptyWithNull() {
         TranslationToGraphModule<Object> module = TranslationToGraphModule.instance();
@@ -145,4 +158,58 @@ class TranslationToGraphModuleTest {
             assertEquals( "testDataset", edge.getAttribute( CpgConst.EDGE_ATTR_DATASET ) );
         }
     }
+
+    @Test
+    void testToGraphFromResultEqualsJsonGraph() {
+        Dataset dataset = mock( Dataset.class );
+        when( dataset.getName() ).thenReturn( "testDataset" );
+        when( dataset.getLanguage() ).thenReturn( DatasetLanguage.JAVA );
+        PipeContext ctx = PipeContext.empty();
+        ctx.set( PipeContext.CPG_DATASET_KEY, dataset );
+        TranslationResult result = GenerateCpgModule.instance()
+                .translate( dataset, CpgPassProfile.FULL, new File( SOURCES ) );
+        assertNotNull( result );
+
+        TranslationToGraphModule<Object> module = TranslationToGraphModule.instance();
+        for ( int depth : new int[]{ 2, 5 } ) {
+            // the reference conversion of cpg-neo4j has no setter for its depth
+            Application neo4j = new Application();
+            ReflectionUtils.setInt( neo4j, "depth", depth );
+            Pair<List<DefaultNodeBuilder>, List<DefaultRelationshipBuilder>> builders = neo4j
+                    .translateCPGToOGMBuilders( result );
+            Graph expected = module.toGraph( neo4j.buildJsonGraph( builders.getFirst(), builders.getSecond() ), ctx );
+            Graph actual = module.toGraph( result, ctx, depth );
+
+            assertEquals( expected.getNodeCount(), actual.getNodeCount() );
+            assertEquals( expected.getEdgeCount(), actual.getEdgeCount() );
+            assertEquals( this.getNodeSignatures( expected ), this.getNodeSignatures( actual ) );
+            assertEquals( this.getEdgeSignatures( expected ), this.getEdgeSignatures( actual ) );
+        }
+    }
+
+    /**
+     * The ids differ between the conversions, so nodes are compared by their attributes
+     */
+    private List<String> getNodeSignatures( final Graph graph ) {
+        return graph.nodes().map( this::getSignature ).sorted().toList();
+    }
+
+    private List<String> getEdgeSignatures( final Graph graph ) {
+        return graph.edges()
+                .map( edge -> this.getSignature( edge.getSourceNode() ) + " -" + this.getSignature( edge ) + "-> "
+                        + this.getSignature( edge.getTargetNode() ) )
+                .sorted()
+                .toList();
+    }
+
+    private String getSignature( final Element element ) {
+        final Map<String, Object> attributes = new TreeMap<>( GraphService.instance().getAttributes( element ) );
+        // the order of the labels isn't part of the conversion
+        attributes.replaceAll( ( key, value ) -> value instanceof Collection<?> values ? values.stream()
+                .map( String::valueOf )
+                .sorted()
+                .toList() : value );
+        return attributes.toString();
+    }
+
 }